@@ -0,0 +1,188 @@
+package no.os.DiningPhilsopher.model;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures how fast a table can answer requests for food.
+ * Every call asks for food for one seat and gives the food back right away if the seat was served,
+ * so the table stays in the same shape for the whole run.
+ * The amount of threads is set with "-t" or through {@link BenchmarkRunner}, and must not be larger than the amount of seats.
+ * Run with "-prof gc" to see the allocation rate.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArbitrationBenchmark {
+
+    @Param({"5", "100", "10000", "100000"})
+    public int seats;
+
+    @Param({"GLOBAL_LOCK", "PER_SEAT_CAS", "RESOURCE_HIERARCHY", "CHANDY_MISRA", "TICKET"})
+    public ArbitrationMode arbitrationMode;
+
+    private Table table;
+
+    private Philosopher[] philosophers;
+
+    /**
+     * Makes the table and turns off the logging so only the arbitration is measured.
+     */
+    @Setup(Level.Trial)
+    public void makeTable(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(java.util.logging.Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(java.util.logging.Level.OFF);
+        table = new Table(seats, 750, arbitrationMode);
+        table.attachToPhilosophers();
+        List<Philosopher> philosopherList = table.getPhilosophers();
+        philosophers = philosopherList.toArray(new Philosopher[0]);
+    }
+
+    /**
+     * Stops the table.
+     */
+    @TearDown(Level.Trial)
+    public void stopTable(){
+        table.stopSimulation();
+    }
+
+    /**
+     * Asks the table for food for one seat.
+     * @param seats the seats of this thread.
+     * @param meals the counter for meals and refusals.
+     * @return <code>true</code> if the seat was served.
+     */
+    @Benchmark
+    public boolean requestFood(ThreadSeats seats, MealCounter meals){
+        Philosopher philosopher = philosophers[seats.nextSeat()];
+        table.handlePhilosopherAskingForFood(philosopher);
+        return giveBackFood(philosopher, meals);
+    }
+
+    /**
+     * Measures the time from a request until the answer is ready.
+     * @param seats the seats of this thread.
+     * @param meals the counter for meals and refusals.
+     * @return <code>true</code> if the seat was served.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean requestToServeLatency(ThreadSeats seats, MealCounter meals){
+        return requestFood(seats, meals);
+    }
+
+    /**
+     * Serves food without checking the philosophers beside.
+     * @param seats the seats of this thread.
+     * @param meals the counter for meals and refusals.
+     * @return <code>true</code> if the seat was served.
+     */
+    @Benchmark
+    public boolean serveFood(ThreadSeats seats, MealCounter meals){
+        Philosopher philosopher = philosophers[seats.nextSeat()];
+        table.serveFood(philosopher);
+        return giveBackFood(philosopher, meals);
+    }
+
+    /**
+     * Ends the meal at once if the philosopher was served.
+     * @param philosopher the philosopher that asked.
+     * @param meals the counter for meals and refusals.
+     * @return <code>true</code> if the philosopher was served.
+     */
+    private boolean giveBackFood(Philosopher philosopher, MealCounter meals){
+        boolean served = philosopher.getState() == no.os.DiningPhilsopher.model.State.EATING;
+        if (served){
+            meals.meals += 1;
+            philosopher.finishEating();
+        }else {
+            meals.refusals += 1;
+        }
+        return served;
+    }
+
+    /**
+     * The seats that one thread asks for. Threads never share a seat.
+     */
+    @State(Scope.Thread)
+    public static class ThreadSeats {
+
+        private int seat;
+
+        private int step;
+
+        private int amountOfSeats;
+
+        /**
+         * Gives this thread every n-th seat, where n is the amount of threads.
+         * @param benchmark the benchmark with the table.
+         * @param threadParams the parameters of the thread.
+         */
+        @Setup(Level.Trial)
+        public void pickSeats(ArbitrationBenchmark benchmark, ThreadParams threadParams){
+            amountOfSeats = benchmark.seats;
+            step = threadParams.getThreadCount();
+            seat = threadParams.getThreadIndex();
+            if (step > amountOfSeats){
+                throw new IllegalArgumentException("The amount of threads cannot be larger than the amount of seats.");
+            }
+        }
+
+        /**
+         * Gets the next seat this thread should ask for.
+         * @return the index of the seat.
+         */
+        public int nextSeat(){
+            int current = seat;
+            seat += step;
+            if (seat >= amountOfSeats){
+                seat = seat % step;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Counts the meals and refusals of one thread. JMH reports them per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class MealCounter {
+
+        public long meals;
+
+        public long refusals;
+
+        /**
+         * Resets the counters before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset(){
+            meals = 0;
+            refusals = 0;
+        }
+    }
+}
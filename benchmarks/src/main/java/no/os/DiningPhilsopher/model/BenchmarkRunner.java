@@ -0,0 +1,43 @@
+package no.os.DiningPhilsopher.model;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Runs the arbitration benchmark for several amounts of threads, and the other benchmarks once, with the GC profiler on.
+ * The first argument can be a regex that picks which benchmarks to run.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks.
+     * @param args the optional regex of the benchmarks to run.
+     * @throws RunnerException gets thrown if JMH fails to run a benchmark.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "";
+        int cores = Runtime.getRuntime().availableProcessors();
+        TreeSet<Integer> threadCounts = new TreeSet<>(Arrays.asList(1, 2, 4, cores));
+        for (int threads : threadCounts){
+            Options options = new OptionsBuilder()
+                    .include(ArbitrationBenchmark.class.getSimpleName() + ".*" + include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            new Runner(options).run();
+        }
+        Options options = new OptionsBuilder()
+                .include("(" + SimulationBenchmark.class.getSimpleName() + "|" + VirtualTimeBenchmark.class.getSimpleName() + ").*" + include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,35 @@
+package no.os.DiningPhilsopher.model;
+
+import no.os.DiningPhilsopher.cli.ClusterLauncher;
+
+import java.io.IOException;
+
+/**
+ * Runs the same ring split across more and more worker processes, and prints the meals per second of each run.
+ * The workers are started from the same jar as this class, so build the benchmarks before running it.
+ * Usage: ClusterScaling [seats] [delay] [milliseconds] [workers separated by commas]
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ClusterScaling {
+
+    /**
+     * Runs the scaling test.
+     * @param args the seats, the delay, the run time in milliseconds and the amounts of workers to try.
+     * @throws IOException gets thrown if a worker could not be started or the cluster failed.
+     * @throws InterruptedException gets thrown if the main thread is interrupted while the workers exit.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String seats = args.length > 0 ? args[0] : "1000";
+        String delay = args.length > 1 ? args[1] : "10";
+        String millis = args.length > 2 ? args[2] : "10000";
+        String[] workerCounts = (args.length > 3 ? args[3] : "1,2,4").split(",");
+        for (String workers : workerCounts){
+            ClusterLauncher launcher = new ClusterLauncher(new String[]{"--workers", workers.trim(), "--seats", seats,
+                    "--delay", delay, "--duration", millis, "--random-hunger"});
+            MetricsSnapshot snapshot = launcher.run();
+            System.out.printf("%s workers: %.1f meals/s, %.1f transitions/s, %d deaths%n", workers.trim(),
+                    snapshot.getMealsPerSecond(), snapshot.getTransitionsPerSecond(), snapshot.getDeaths());
+        }
+    }
+}
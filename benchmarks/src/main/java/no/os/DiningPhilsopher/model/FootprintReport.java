@@ -0,0 +1,76 @@
+package no.os.DiningPhilsopher.model;
+
+import java.lang.ref.Reference;
+
+/**
+ * Prints how many bytes each seat uses with philosopher objects and with the compact seat state store.
+ * The numbers come from the used heap before and after the table is made, so run it with a heap large enough
+ * for the biggest table, for example "-Xmx4g".
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class FootprintReport {
+
+    /**
+     * Prints the report.
+     * @param args the amounts of seats to measure. Defaults to 10 000, 100 000 and 1 000 000.
+     */
+    public static void main(String[] args) {
+        int[] amounts = {10_000, 100_000, 1_000_000};
+        if (args.length > 0){
+            amounts = new int[args.length];
+            for (int i = 0; i < args.length; i++){
+                amounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.printf("%12s %22s %22s %10s%n", "seats", "objects (bytes/seat)", "compact (bytes/seat)", "ratio");
+        for (int amount : amounts){
+            double objectBytes = measure(() -> new VirtualTimeSimulation(new Table(amount, 750)), amount);
+            double compactBytes = measure(() -> new CompactTable(amount, 750), amount);
+            System.out.printf("%12d %22.1f %22.1f %9.1fx%n", amount, objectBytes, compactBytes, objectBytes / compactBytes);
+        }
+    }
+
+    /**
+     * Measures the heap used by what a maker makes, divided by the amount of seats.
+     * @param maker the maker of the table.
+     * @param amount the amount of seats.
+     * @return the bytes for each seat.
+     */
+    private static double measure(TableMaker maker, int amount){
+        long before = getUsedHeap();
+        Object table = maker.make();
+        long after = getUsedHeap();
+        Reference.reachabilityFence(table);
+        return (after - before) / (double) amount;
+    }
+
+    /**
+     * Gets the used heap after asking the JVM to collect garbage a few times.
+     * @return the used heap in bytes.
+     */
+    private static long getUsedHeap(){
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++){
+            System.gc();
+            try {
+                Thread.sleep(50);
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Makes a table to measure.
+     */
+    private interface TableMaker {
+
+        /**
+         * Makes the table.
+         * @return the table.
+         */
+        Object make();
+    }
+}
@@ -0,0 +1,150 @@
+package no.os.DiningPhilsopher.model;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Compares how many events a sharded table handles each second on the virtual clock against one single table
+ * with the same amount of seats. The sharded table runs its segments on a pool with one thread for each core.
+ * Both sides have the same total food, since the sharded table splits the food of one table between its segments.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedTableBenchmark {
+
+    /**
+     * Handles the events of one virtual millisecond on one single table.
+     * @param single the single table.
+     * @param events the counter for the events.
+     * @return the amount of events that was handled.
+     */
+    @Benchmark
+    public long singleTable(SingleTable single, HandledEvents events){
+        long handled = single.simulation.run(1);
+        events.transitions += handled;
+        return handled;
+    }
+
+    /**
+     * Handles the events of one virtual millisecond on a sharded table.
+     * @param sharded the sharded table.
+     * @param events the counter for the events.
+     * @return the amount of events that was handled.
+     */
+    @Benchmark
+    public long shardedTable(Sharded sharded, HandledEvents events){
+        long handled = sharded.table.run(1, sharded.pool);
+        events.transitions += handled;
+        return handled;
+    }
+
+    /**
+     * Turns off the loggers so they are not measured.
+     */
+    private static void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(java.util.logging.Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(java.util.logging.Level.OFF);
+    }
+
+    /**
+     * Holds one single table with every seat.
+     */
+    @State(Scope.Thread)
+    public static class SingleTable {
+
+        @Param({"10000", "100000"})
+        public int seats;
+
+        private VirtualTimeSimulation simulation;
+
+        /**
+         * Makes a new simulation for each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void makeSimulation(){
+            turnOffLogging();
+            simulation = new VirtualTimeSimulation(new Table(seats, 1, ArbitrationMode.PER_SEAT_CAS));
+        }
+    }
+
+    /**
+     * Holds a sharded table and the pool it runs on.
+     */
+    @State(Scope.Thread)
+    public static class Sharded {
+
+        @Param({"10000", "100000"})
+        public int seats;
+
+        @Param({"1", "2", "4", "8"})
+        public int shards;
+
+        private ShardedTable table;
+
+        private ForkJoinPool pool;
+
+        /**
+         * Makes the pool once for the whole trial.
+         */
+        @Setup(Level.Trial)
+        public void makePool(){
+            pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * Makes a new sharded table for each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void makeTable(){
+            turnOffLogging();
+            table = new ShardedTable(seats, 1, shards);
+        }
+
+        /**
+         * Shuts the pool down after the trial.
+         */
+        @TearDown(Level.Trial)
+        public void shutDownPool(){
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Counts the events that was handled. JMH reports them per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class HandledEvents {
+
+        public long transitions;
+
+        /**
+         * Resets the counter before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset(){
+            transitions = 0;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package no.os.DiningPhilsopher.model;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures a full run of a table with one thread for each philosopher.
+ * Each invocation starts a new table, lets it run for a set time and counts the meals.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SimulationBenchmark {
+
+    @Param({"5", "100", "1000"})
+    public int seats;
+
+    @Param({"1", "10", "50"})
+    public int delay;
+
+    @Param({"GLOBAL_LOCK", "PER_SEAT_CAS", "RESOURCE_HIERARCHY", "CHANDY_MISRA", "TICKET"})
+    public ArbitrationMode arbitrationMode;
+
+    @Param({"1000"})
+    public int runMillis;
+
+    private Table table;
+
+    /**
+     * Makes a new table for each run.
+     */
+    @Setup(Level.Invocation)
+    public void makeTable(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(java.util.logging.Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(java.util.logging.Level.OFF);
+        table = new Table(seats, delay, arbitrationMode);
+    }
+
+    /**
+     * Starts the table, lets it run and counts the meals.
+     * @param meals the counter for the meals.
+     * @return the amount of meals in this run.
+     * @throws InterruptedException gets thrown if the benchmark thread is interrupted.
+     */
+    @Benchmark
+    public long startSimulation(MealEvents meals) throws InterruptedException {
+        table.startSimulation();
+        Thread.sleep(runMillis);
+        table.stopSimulation();
+        long amountOfMeals = table.getPhilosophers().stream().mapToLong(Philosopher::getAmountOfTimesEating).sum();
+        meals.meals += amountOfMeals;
+        meals.mealsPerSecond = amountOfMeals * 1000.0 / runMillis;
+        return amountOfMeals;
+    }
+
+    /**
+     * Waits until every philosopher thread of the run has stopped, so no thread of this run is still going
+     * while the next run is measured.
+     * @throws InterruptedException gets thrown if the benchmark thread is interrupted.
+     */
+    @TearDown(Level.Invocation)
+    public void awaitTable() throws InterruptedException {
+        if (!table.awaitStop(10_000)){
+            throw new IllegalStateException("The philosophers of the last run did not stop within 10 seconds.");
+        }
+    }
+
+    /**
+     * Holds the meals of the runs.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MealEvents {
+
+        public long meals;
+
+        public double mealsPerSecond;
+    }
+}
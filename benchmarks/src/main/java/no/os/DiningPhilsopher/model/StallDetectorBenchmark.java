@@ -0,0 +1,62 @@
+package no.os.DiningPhilsopher.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures how long one sample of a {@link StallDetector} takes. The share of the time the detector uses is this
+ * divided by the interval between samples, which is {@value StallDetector#DEFAULT_INTERVAL_MILLIS} ms by default.
+ * Every other seat is made hungry first, so half the seats are stuck and the report has something to hold.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StallDetectorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int seats;
+
+    private StallDetector detector;
+
+    /**
+     * Makes a table where every other seat is hungry, and the detector.
+     */
+    @Setup(Level.Trial)
+    public void makeDetector(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(java.util.logging.Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(java.util.logging.Level.OFF);
+        Logger.getLogger(StallDetector.class.getName()).setLevel(java.util.logging.Level.OFF);
+        Table table = new Table(seats, 1, ArbitrationMode.PER_SEAT_CAS);
+        for (int seat = 0; seat < seats; seat += 2){
+            table.onStateChange(seat + 1, no.os.DiningPhilsopher.model.State.HUNGRY);
+        }
+        detector = new StallDetector(table, 1, 1);
+    }
+
+    /**
+     * Samples the table once.
+     * @return the report.
+     */
+    @Benchmark
+    public StallReport sample(){
+        return detector.sample();
+    }
+}
@@ -0,0 +1,45 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the same table with every fork allocation strategy and prints the throughput, waits and fairness of each.
+ * Each strategy runs once without and once with the starvation scheduler of the waiter.
+ * By default the tables run on the virtual clock. Add "threads" as the last argument to run them on real threads for the same time.
+ * Usage: StrategyComparison [seats] [delay] [milliseconds] [threads]
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class StrategyComparison {
+
+    /**
+     * Runs the comparison.
+     * @param args the seats, the delay, the run time in milliseconds and optionally "threads".
+     * @throws InterruptedException gets thrown if the main thread is interrupted while the tables run.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int seats = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int delay = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        long millis = args.length > 2 ? Long.parseLong(args[2]) : 60_000;
+        boolean useThreads = args.length > 3 && args[3].equals("threads");
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+        for (ArbitrationMode mode : ArbitrationMode.values()){
+            for (boolean scheduled : new boolean[]{false, true}){
+                Table table = new Table(seats, delay, mode);
+                if (scheduled){
+                    table.setStarvationScheduler(new StarvationScheduler(seats, StarvationScheduler.DEFAULT_AGING));
+                }
+                if (useThreads){
+                    table.startSimulation();
+                    Thread.sleep(millis);
+                    table.stopSimulation();
+                }else {
+                    new VirtualTimeSimulation(table).run(millis);
+                }
+                System.out.println((scheduled ? "Scheduled " : "") + table.getMetricsSnapshot());
+            }
+        }
+    }
+}
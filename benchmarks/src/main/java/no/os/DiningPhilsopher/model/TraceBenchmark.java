@@ -0,0 +1,89 @@
+package no.os.DiningPhilsopher.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many state changes the trace writer records each second when many threads write at the same time.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class TraceBenchmark {
+
+    private Path path;
+
+    private TraceWriter writer;
+
+    /**
+     * Makes a new trace file for each iteration, so the file does not grow for the whole run.
+     * @throws IOException if the file could not be made.
+     */
+    @Setup(Level.Iteration)
+    public void openTrace() throws IOException {
+        path = Files.createTempFile("trace-benchmark", ".dpt");
+        writer = new TraceWriter(path);
+    }
+
+    /**
+     * Closes and removes the trace file of the iteration.
+     * @throws IOException if the file could not be closed.
+     */
+    @TearDown(Level.Iteration)
+    public void closeTrace() throws IOException {
+        writer.close();
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Records one state change.
+     * @param seat the seat of the thread.
+     */
+    @Benchmark
+    public void record(Seat seat){
+        writer.record(seat.index, no.os.DiningPhilsopher.model.State.THINKING, no.os.DiningPhilsopher.model.State.HUNGRY);
+    }
+
+    /**
+     * Gives each thread its own seat.
+     */
+    @State(Scope.Thread)
+    public static class Seat {
+
+        private static int nextIndex = 0;
+
+        public int index;
+
+        /**
+         * Takes the next seat.
+         */
+        @Setup(Level.Trial)
+        public void takeSeat(){
+            synchronized (Seat.class){
+                index = nextIndex++;
+            }
+        }
+    }
+}
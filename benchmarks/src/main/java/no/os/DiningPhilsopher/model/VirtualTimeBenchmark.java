@@ -0,0 +1,83 @@
+package no.os.DiningPhilsopher.model;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures how many events the virtual time simulation handles each second.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VirtualTimeBenchmark {
+
+    @Param({"5", "100", "10000", "100000"})
+    public int seats;
+
+    @Param({"1", "750"})
+    public int delay;
+
+    @Param({"GLOBAL_LOCK", "PER_SEAT_CAS", "RESOURCE_HIERARCHY", "CHANDY_MISRA", "TICKET"})
+    public ArbitrationMode arbitrationMode;
+
+    private VirtualTimeSimulation simulation;
+
+    /**
+     * Makes a new simulation for each iteration.
+     */
+    @Setup(Level.Iteration)
+    public void makeSimulation(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(java.util.logging.Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(java.util.logging.Level.OFF);
+        simulation = new VirtualTimeSimulation(new Table(seats, delay, arbitrationMode));
+    }
+
+    /**
+     * Handles the events of one virtual millisecond.
+     * @param events the counter for the events.
+     * @return the amount of events that was handled.
+     */
+    @Benchmark
+    public long runOneMillisecond(HandledEvents events){
+        long handled = simulation.run(1);
+        events.transitions += handled;
+        return handled;
+    }
+
+    /**
+     * Counts the events that was handled. JMH reports them per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class HandledEvents {
+
+        public long transitions;
+
+        /**
+         * Resets the counter before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset(){
+            transitions = 0;
+        }
+    }
+}
@@ -4,6 +4,8 @@ module dining {
     requires javafx.fxml;
     requires javafx.graphics;
     requires java.logging;
+    requires java.management;
+    requires jdk.httpserver;
 
     opens no.os.DiningPhilsopher.gui.controller to javafx.graphics, javafx.fxml;
     opens no.os.DiningPhilsopher.gui.window to javafx.fxml, javafx.graphics;
@@ -14,5 +16,6 @@ module dining {
     exports no.os.DiningPhilsopher.gui.window;
     exports no.os.DiningPhilsopher.model;
     exports no.os.DiningPhilsopher.gui;
+    exports no.os.DiningPhilsopher.cli;
 
 }
\ No newline at end of file
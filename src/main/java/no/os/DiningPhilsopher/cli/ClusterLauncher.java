@@ -0,0 +1,275 @@
+package no.os.DiningPhilsopher.cli;
+
+import no.os.DiningPhilsopher.model.ClusterCoordinator;
+import no.os.DiningPhilsopher.model.ClusterWorker;
+import no.os.DiningPhilsopher.model.MetricsSnapshot;
+import no.os.DiningPhilsopher.model.Philosopher;
+import no.os.DiningPhilsopher.model.Table;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents a launcher that splits one ring of philosophers across several worker processes on this machine.
+ * The launcher runs the coordinator itself, starts one JVM for each worker and prints the metrics of the whole ring:
+ * <pre>
+ * java -cp target/classes no.os.DiningPhilsopher.cli.ClusterLauncher --workers 4 --seats 100000 --delay 50 --duration 10000
+ * </pre>
+ * The options are:
+ * <ul>
+ *     <li>--workers the amount of worker processes. Default 2.</li>
+ *     <li>--seats the amount of philosophers in the whole ring. Default 1000.</li>
+ *     <li>--delay the delay of each step in milliseconds. Default 50.</li>
+ *     <li>--duration how long to run in milliseconds. Default 10000.</li>
+ *     <li>--seed the seed of every random choice. Default 1.</li>
+ *     <li>--heap the largest heap of each worker, like 512m. Default the default of the JVM.</li>
+ *     <li>--random-hunger to give each philosopher a random starting hunger.</li>
+ * </ul>
+ * A worker process is started with <code>--join port --index n</code>, and then runs one segment for the coordinator on that port.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ClusterLauncher {
+
+    private static final long EXIT_TIMEOUT_MILLIS = 10_000;
+
+    private int workers;
+
+    private int seats;
+
+    private int delay;
+
+    private long durationInMillis;
+
+    private long seed;
+
+    private String heap;
+
+    private boolean isRandom;
+
+    private int joinPort;
+
+    private int index;
+
+    /**
+     * Makes an instance of the ClusterLauncher class from command line arguments.
+     * @param args the arguments, see the class description.
+     * @throws IllegalArgumentException gets thrown if an argument is unknown or has a bad value.
+     */
+    public ClusterLauncher(String[] args) {
+        checkIfObjectIsNull(args, "arguments");
+        this.workers = 2;
+        this.seats = 1000;
+        this.delay = 50;
+        this.durationInMillis = 10_000;
+        this.seed = 1;
+        this.isRandom = false;
+        this.joinPort = -1;
+        this.index = 0;
+        parseArguments(args);
+        if (workers > seats){
+            throw new IllegalArgumentException("There cannot be more workers than seats.");
+        }
+    }
+
+    /**
+     * Runs the cluster, or one worker of it, and prints the metrics of the whole ring.
+     * @param args the arguments, see the class description.
+     */
+    public static void main(String[] args) {
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+        try {
+            ClusterLauncher launcher = new ClusterLauncher(args);
+            if (launcher.isWorker()){
+                launcher.runWorker();
+            }else {
+                MetricsSnapshot snapshot = launcher.run();
+                System.out.println(snapshot);
+            }
+        }catch (IllegalArgumentException exception){
+            System.err.println(exception.getMessage());
+            System.exit(2);
+        }catch (IOException exception){
+            System.err.println(exception.getMessage());
+            System.exit(1);
+        }catch (InterruptedException exception){
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks if this launcher runs one worker instead of the whole cluster.
+     * @return <code>true</code> if it should join a coordinator.
+     *         <code>false</code> if it should start the cluster.
+     */
+    public boolean isWorker(){
+        return joinPort >= 0;
+    }
+
+    /**
+     * Starts the coordinator and the worker processes, runs the ring and waits for the workers to exit.
+     * @return the metrics of the whole ring.
+     * @throws IOException if a worker could not be started or the cluster failed.
+     * @throws InterruptedException if the thread is interrupted while the workers exit.
+     */
+    public MetricsSnapshot run() throws IOException, InterruptedException {
+        List<Process> processes = new ArrayList<>();
+        try (ClusterCoordinator coordinator = new ClusterCoordinator(workers, seats, delay, seed, isRandom)){
+            int port = coordinator.getAddress().getPort();
+            for (int worker = 0; worker < workers; worker++){
+                processes.add(startWorker(port, worker));
+            }
+            return coordinator.run(durationInMillis);
+        }finally {
+            for (Process process : processes){
+                if (!process.waitFor(EXIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)){
+                    process.destroyForcibly();
+                }
+            }
+        }
+    }
+
+    /**
+     * Joins the coordinator as one worker and runs until the coordinator says stop.
+     * @throws IOException if the worker failed.
+     */
+    public void runWorker() throws IOException {
+        new ClusterWorker(new InetSocketAddress(InetAddress.getLoopbackAddress(), joinPort), index).run();
+    }
+
+    /**
+     * Starts one worker JVM with the same class path or module path as this JVM.
+     * @param port the port of the coordinator.
+     * @param worker the index of the worker.
+     * @return the process of the worker.
+     * @throws IOException if the process could not be started.
+     */
+    private Process startWorker(int port, int worker) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (heap != null){
+            command.add("-Xmx" + heap);
+        }
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null && getClass().getModule().isNamed()){
+            command.add("--module-path");
+            command.add(modulePath);
+            command.add("--module");
+            command.add(getClass().getModule().getName() + "/" + getClass().getName());
+        }else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(getClass().getName());
+        }
+        command.add("--join");
+        command.add(Integer.toString(port));
+        command.add("--index");
+        command.add(Integer.toString(worker));
+        return new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Reads the options from the arguments.
+     * @param args the arguments.
+     */
+    private void parseArguments(String[] args){
+        int position = 0;
+        while (position < args.length){
+            String option = args[position];
+            checkString(option, "option");
+            if (option.equals("--random-hunger")){
+                isRandom = true;
+            }else {
+                position += 1;
+                if (position >= args.length){
+                    throw new IllegalArgumentException("The option " + option + " needs a value.");
+                }
+                parseOption(option, args[position]);
+            }
+            position += 1;
+        }
+    }
+
+    /**
+     * Reads one option that has a value.
+     * @param option the name of the option.
+     * @param value the value of the option.
+     */
+    private void parseOption(String option, String value){
+        checkString(value, "value of " + option);
+        switch (option){
+            case "--workers" -> workers = parsePositive(option, value);
+            case "--seats" -> seats = parsePositive(option, value);
+            case "--delay" -> delay = parsePositive(option, value);
+            case "--duration" -> durationInMillis = parsePositive(option, value);
+            case "--seed" -> seed = parseNumber(option, value);
+            case "--heap" -> heap = value;
+            case "--join" -> joinPort = parsePositive(option, value);
+            case "--index" -> index = (int) parseNumber(option, value);
+            default -> throw new IllegalArgumentException("The option " + option + " is not known.");
+        }
+    }
+
+    /**
+     * Reads a number.
+     * @param option the option the number belongs to.
+     * @param value the text of the number.
+     * @return the number.
+     */
+    private long parseNumber(String option, String value){
+        try {
+            return Long.parseLong(value);
+        }catch (NumberFormatException exception){
+            throw new IllegalArgumentException("The value of " + option + " must be a number.");
+        }
+    }
+
+    /**
+     * Reads a number that must be above zero.
+     * @param option the option the number belongs to.
+     * @param value the text of the number.
+     * @return the number.
+     */
+    private int parsePositive(String option, String value){
+        long number = parseNumber(option, value);
+        if (number <= 0 || number > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("The value of " + option + " must be above zero.");
+        }
+        return (int) number;
+    }
+
+    /**
+     * Checks if a string is of a valid format or not.
+     * @param stringToCheck the string you want to check.
+     * @param errorPrefix   the error the exception should have if the string is invalid.
+     */
+    private void checkString(String stringToCheck, String errorPrefix) {
+        checkIfObjectIsNull(stringToCheck, errorPrefix);
+        if (stringToCheck.isEmpty()) {
+            throw new IllegalArgumentException("The " + errorPrefix + " cannot be empty.");
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
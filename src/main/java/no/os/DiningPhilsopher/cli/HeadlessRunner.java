@@ -0,0 +1,528 @@
+package no.os.DiningPhilsopher.cli;
+
+import no.os.DiningPhilsopher.model.AcquisitionMode;
+import no.os.DiningPhilsopher.model.ArbitrationMode;
+import no.os.DiningPhilsopher.model.ExecutionMode;
+import no.os.DiningPhilsopher.model.Food;
+import no.os.DiningPhilsopher.model.JournalReplay;
+import no.os.DiningPhilsopher.model.JournalWriter;
+import no.os.DiningPhilsopher.model.Philosopher;
+import no.os.DiningPhilsopher.model.RunSummary;
+import no.os.DiningPhilsopher.model.StallDetector;
+import no.os.DiningPhilsopher.model.StarvationScheduler;
+import no.os.DiningPhilsopher.model.State;
+import no.os.DiningPhilsopher.model.Table;
+import no.os.DiningPhilsopher.model.TableCheckpoint;
+import no.os.DiningPhilsopher.model.TableStateServer;
+import no.os.DiningPhilsopher.model.TimeScale;
+import no.os.DiningPhilsopher.model.VirtualTimeSimulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents a runner that runs one table without a GUI and prints a summary as JSON or CSV.
+ * The runner only uses the model, so it runs without JavaFX when started from the class path:
+ * <pre>
+ * java -cp target/classes no.os.DiningPhilsopher.cli.HeadlessRunner --seats 100 --delay 20 --duration 5000 --format csv
+ * </pre>
+ * The options are:
+ * <ul>
+ *     <li>--seats the amount of philosophers. Default 5.</li>
+ *     <li>--delay the delay of each step in milliseconds. Default 50.</li>
+ *     <li>--foods the amount of food in each bowl separated by commas. Default 2000,1000.</li>
+ *     <li>--strategy the arbitration mode, like PER_SEAT_CAS. Default GLOBAL_LOCK.</li>
+ *     <li>--duration how long to run in milliseconds. Default 10000.</li>
+ *     <li>--seed the seed of every random choice. Default 1.</li>
+ *     <li>--threads platform or virtual. Default platform.</li>
+ *     <li>--clock real to run on threads, or virtual to run as fast as possible on a virtual clock. Default real.</li>
+ *     <li>--random-hunger to give each philosopher a random starting hunger.</li>
+ *     <li>--acquisition polling to sleep a full delay after a refusal, or blocking to wait until a neighbour is done
+ *     eating. Only used on the real clock. Default polling.</li>
+ *     <li>--aging lets the waiter serve the most urgent hungry philosophers first, and makes a waiting philosopher
+ *     this much more urgent each time it is turned away. Default off.</li>
+ *     <li>--format json or csv. Default json.</li>
+ *     <li>--log to show the log of the philosophers and the table.</li>
+ *     <li>--record a file to write a journal of the run to. Only works with the real clock. The philosophers then take
+ *     their steps one at a time, so a recorded run is much slower than a normal run on many cores.</li>
+ *     <li>--replay a journal file to replay at full speed instead of running a new table. The table options are then not used.</li>
+ *     <li>--restore a checkpoint file to continue from instead of making a new table. The table options are then not used.</li>
+ *     <li>--checkpoint a file to write a checkpoint of the table to when the run is over.</li>
+ *     <li>--serve a local port to stream the state of every seat on while the table runs, or 0 to pick a free port.
+ *     The address is printed to the error stream. Default off.</li>
+ *     <li>--tick-rate the amount of state deltas each second sent by --serve. Default 10.</li>
+ *     <li>--speed how many times faster than the delay the philosophers live, or max to skip sleeping.
+ *     Only used on the real clock. Default 1.</li>
+ *     <li>--stall-window watches the table for deadlock, livelock and slow eating, and logs it when seats have been
+ *     hungry this many milliseconds. Only used on the real clock. Default off.</li>
+ * </ul>
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class HeadlessRunner {
+
+    private static final long POLL_MILLIS = 10;
+
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private int seats;
+
+    private int delay;
+
+    private int[] foodAmounts;
+
+    private ArbitrationMode arbitrationMode;
+
+    private long durationInMillis;
+
+    private long seed;
+
+    private ExecutionMode executionMode;
+
+    private boolean virtualClock;
+
+    private boolean isRandom;
+
+    private int aging;
+
+    private boolean blocking;
+
+    private boolean csv;
+
+    private boolean showLog;
+
+    private Path recordPath;
+
+    private Path replayPath;
+
+    private Path restorePath;
+
+    private Path checkpointPath;
+
+    private int servePort;
+
+    private int tickRate;
+
+    private long stallWindow;
+
+    private double speed;
+
+    private boolean maxSpeed;
+
+    /**
+     * Makes an instance of the HeadlessRunner class from command line arguments.
+     * @param args the arguments, see the class description.
+     * @throws IllegalArgumentException gets thrown if an argument is unknown or has a bad value.
+     */
+    public HeadlessRunner(String[] args) {
+        checkIfObjectIsNull(args, "arguments");
+        this.seats = 5;
+        this.delay = 50;
+        this.foodAmounts = new int[]{2000, 1000};
+        this.arbitrationMode = ArbitrationMode.GLOBAL_LOCK;
+        this.durationInMillis = 10_000;
+        this.seed = 1;
+        this.executionMode = ExecutionMode.PLATFORM_THREADS;
+        this.virtualClock = false;
+        this.isRandom = false;
+        this.aging = -1;
+        this.blocking = false;
+        this.csv = false;
+        this.showLog = false;
+        this.servePort = -1;
+        this.tickRate = TableStateServer.DEFAULT_TICKS_PER_SECOND;
+        this.stallWindow = -1;
+        this.speed = TimeScale.NORMAL_SPEED;
+        this.maxSpeed = false;
+        parseArguments(args);
+        if (recordPath != null && virtualClock){
+            throw new IllegalArgumentException("A run on the virtual clock is already repeatable and cannot be recorded.");
+        }
+        if (recordPath != null && restorePath != null){
+            throw new IllegalArgumentException("A journal must start from a new table, so a restored table cannot be recorded.");
+        }
+    }
+
+    /**
+     * Runs the table and prints the summary.
+     * @param args the arguments, see the class description.
+     */
+    public static void main(String[] args) {
+        try {
+            HeadlessRunner runner = new HeadlessRunner(args);
+            RunSummary summary = runner.run();
+            if (runner.csv){
+                System.out.println(RunSummary.getCsvHeader());
+                System.out.println(summary.toCsvRow());
+            }else {
+                System.out.println(summary.toJson());
+            }
+        }catch (IllegalArgumentException | UnsupportedOperationException exception){
+            System.err.println(exception.getMessage());
+            System.exit(2);
+        }catch (IOException | IllegalStateException exception){
+            System.err.println(exception.getMessage());
+            System.exit(1);
+        }catch (InterruptedException exception){
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Makes the table, runs it for the wanted duration and sums up the results.
+     * @return the summary of the run.
+     * @throws InterruptedException if the thread is interrupted while the table runs.
+     * @throws IOException if the journal could not be written or read.
+     */
+    public RunSummary run() throws InterruptedException, IOException {
+        Level level = showLog ? Level.INFO : Level.OFF;
+        Logger.getLogger(Philosopher.class.getName()).setLevel(level);
+        Logger.getLogger(Table.class.getName()).setLevel(level);
+        RunSummary summary;
+        if (replayPath != null){
+            summary = replay();
+        }else {
+            Table table = restorePath != null ? restore() : makeTable();
+            long start = System.nanoTime();
+            if (servePort >= 0){
+                try (TableStateServer server = new TableStateServer(table,
+                        new InetSocketAddress(InetAddress.getLoopbackAddress(), servePort), tickRate)){
+                    server.start();
+                    System.err.println("Streaming the table on http://" + server.getAddress().getHostString() + ":"
+                            + server.getAddress().getPort() + "/stream");
+                    runTable(table);
+                }
+            }else {
+                runTable(table);
+            }
+            summary = new RunSummary(table, table.getSeed(), System.nanoTime() - start);
+            if (checkpointPath != null){
+                try (OutputStream outputStream = Files.newOutputStream(checkpointPath)){
+                    new TableCheckpoint(table).writeTo(outputStream);
+                }
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Runs the table on the clock that was chosen, and records it if a journal was asked for.
+     * @param table the table to run.
+     * @throws InterruptedException if the thread is interrupted while the table runs.
+     * @throws IOException if the journal could not be written.
+     */
+    private void runTable(Table table) throws InterruptedException, IOException {
+        if (virtualClock){
+            new VirtualTimeSimulation(table).run(durationInMillis);
+        }else if (recordPath != null){
+            JournalWriter journal = new JournalWriter(table, Files.newOutputStream(recordPath));
+            try {
+                runOnThreads(table);
+            }finally {
+                journal.close();
+            }
+        }else {
+            runOnThreads(table);
+        }
+    }
+
+    /**
+     * Makes a new table from the options.
+     * @return the table.
+     */
+    private Table makeTable(){
+        Table table = new Table(seats, delay, arbitrationMode, executionMode, makeFoods(), isRandom, seed);
+        if (blocking){
+            table.setAcquisitionMode(AcquisitionMode.BLOCKING);
+        }
+        if (aging > 0){
+            table.setStarvationScheduler(new StarvationScheduler(seats, aging));
+        }
+        return table;
+    }
+
+    /**
+     * Makes a table that continues from a checkpoint.
+     * @return the restored table.
+     * @throws IOException if the checkpoint could not be read.
+     */
+    private Table restore() throws IOException {
+        try (InputStream inputStream = Files.newInputStream(restorePath)){
+            return TableCheckpoint.readFrom(inputStream).restore();
+        }
+    }
+
+    /**
+     * Replays a journal at full speed.
+     * @return the summary of the replayed run.
+     * @throws IOException if the journal could not be read.
+     */
+    private RunSummary replay() throws IOException {
+        try (InputStream inputStream = Files.newInputStream(replayPath)){
+            long start = System.nanoTime();
+            JournalReplay replay = new JournalReplay(inputStream);
+            replay.replay();
+            return new RunSummary(replay.getTable(), replay.getTable().getSeed(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Checks if the summary should be printed as CSV.
+     * @return <code>true</code> if the format is CSV.
+     *         <code>false</code> if the format is JSON.
+     */
+    public boolean isCsv(){
+        return csv;
+    }
+
+    /**
+     * Runs the table on its threads until the time is up or every philosopher is dead.
+     * @param table the table to run.
+     * @throws InterruptedException if the thread is interrupted while the table runs.
+     */
+    private void runOnThreads(Table table) throws InterruptedException {
+        long deadline = System.nanoTime() + durationInMillis * 1_000_000;
+        StallDetector detector = null;
+        if (stallWindow > 0){
+            detector = new StallDetector(table, Math.min(StallDetector.DEFAULT_INTERVAL_MILLIS, stallWindow), stallWindow);
+        }
+        table.getTimeScale().setSpeed(speed);
+        table.getTimeScale().setMaxSpeed(maxSpeed);
+        table.startSimulation();
+        if (detector != null){
+            detector.start();
+        }
+        try {
+            while (System.nanoTime() < deadline && !checkIfEveryoneIsDead(table)){
+                Thread.sleep(Math.min(POLL_MILLIS, Math.max(1, (deadline - System.nanoTime()) / 1_000_000)));
+            }
+        }finally {
+            if (detector != null){
+                detector.stop();
+            }
+            table.stopSimulation();
+            table.awaitStop(STOP_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Checks if all the philosophers at a table are dead.
+     * @param table the table to check.
+     * @return <code>true</code> if every philosopher is dead.
+     *         <code>false</code> if someone is still alive.
+     */
+    private boolean checkIfEveryoneIsDead(Table table){
+        return table.getPhilosophers().stream().allMatch(philosopher -> philosopher.getState() == State.DEAD);
+    }
+
+    /**
+     * Makes new bowls with the wanted amounts of food.
+     * @return the bowls of food.
+     */
+    private List<Food> makeFoods(){
+        List<Food> foods = new ArrayList<>();
+        for (int bowl = 0; bowl < foodAmounts.length; bowl++){
+            foods.add(new Food(foodAmounts[bowl], "Food " + (bowl + 1)));
+        }
+        return foods;
+    }
+
+    /**
+     * Reads the options from the arguments.
+     * @param args the arguments.
+     */
+    private void parseArguments(String[] args){
+        int index = 0;
+        while (index < args.length){
+            String option = args[index];
+            checkString(option, "option");
+            switch (option){
+                case "--random-hunger" -> isRandom = true;
+                case "--log" -> showLog = true;
+                default -> {
+                    index += 1;
+                    if (index >= args.length){
+                        throw new IllegalArgumentException("The option " + option + " needs a value.");
+                    }
+                    parseOption(option, args[index]);
+                }
+            }
+            index += 1;
+        }
+    }
+
+    /**
+     * Reads one option that has a value.
+     * @param option the name of the option.
+     * @param value the value of the option.
+     */
+    private void parseOption(String option, String value){
+        checkString(value, "value of " + option);
+        switch (option){
+            case "--seats" -> seats = parsePositive(option, value);
+            case "--delay" -> delay = parsePositive(option, value);
+            case "--duration" -> durationInMillis = parsePositive(option, value);
+            case "--seed" -> seed = parseNumber(option, value);
+            case "--aging" -> aging = parsePositive(option, value);
+            case "--acquisition" -> blocking = parseChoice(option, value, "polling", "blocking");
+            case "--foods" -> foodAmounts = parseFoodAmounts(value);
+            case "--strategy" -> arbitrationMode = parseEnum(ArbitrationMode.class, option, value);
+            case "--threads" -> executionMode = "virtual".equalsIgnoreCase(value) ? ExecutionMode.VIRTUAL_THREADS
+                    : parseEnum(ExecutionMode.class, option, value.equalsIgnoreCase("platform") ? "PLATFORM_THREADS" : value);
+            case "--clock" -> virtualClock = parseChoice(option, value, "real", "virtual");
+            case "--format" -> csv = parseChoice(option, value, "json", "csv");
+            case "--record" -> recordPath = Path.of(value);
+            case "--replay" -> replayPath = Path.of(value);
+            case "--restore" -> restorePath = Path.of(value);
+            case "--checkpoint" -> checkpointPath = Path.of(value);
+            case "--serve" -> servePort = parsePort(option, value);
+            case "--tick-rate" -> tickRate = parsePositive(option, value);
+            case "--stall-window" -> stallWindow = parsePositive(option, value);
+            case "--speed" -> parseSpeed(option, value);
+            default -> throw new IllegalArgumentException("The option " + option + " is not known.");
+        }
+    }
+
+    /**
+     * Reads the amounts of food in each bowl.
+     * @param value the amounts separated by commas.
+     * @return the amounts.
+     */
+    private int[] parseFoodAmounts(String value){
+        String[] parts = value.split(",");
+        int[] amounts = new int[parts.length];
+        for (int bowl = 0; bowl < parts.length; bowl++){
+            amounts[bowl] = parsePositive("--foods", parts[bowl].trim());
+        }
+        return amounts;
+    }
+
+    /**
+     * Reads a number.
+     * @param option the option the number belongs to.
+     * @param value the text of the number.
+     * @return the number.
+     */
+    private long parseNumber(String option, String value){
+        try {
+            return Long.parseLong(value);
+        }catch (NumberFormatException exception){
+            throw new IllegalArgumentException("The value of " + option + " must be a number.");
+        }
+    }
+
+    /**
+     * Reads a number that must be above zero.
+     * @param option the option the number belongs to.
+     * @param value the text of the number.
+     * @return the number.
+     */
+    private int parsePositive(String option, String value){
+        long number = parseNumber(option, value);
+        if (number <= 0 || number > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("The value of " + option + " must be above zero.");
+        }
+        return (int) number;
+    }
+
+    /**
+     * Reads the speed, which is a number or max.
+     * @param option the option the speed belongs to.
+     * @param value the text of the speed.
+     */
+    private void parseSpeed(String option, String value){
+        if (value.equalsIgnoreCase("max")){
+            maxSpeed = true;
+        }else {
+            try {
+                speed = Double.parseDouble(value);
+            }catch (NumberFormatException exception){
+                throw new IllegalArgumentException("The value of " + option + " must be a number or max.");
+            }
+            if (Double.isNaN(speed) || speed < TimeScale.MIN_SPEED || speed > TimeScale.MAX_SPEED){
+                throw new IllegalArgumentException("The value of " + option + " must be between " + TimeScale.MIN_SPEED
+                        + " and " + TimeScale.MAX_SPEED + ", or max.");
+            }
+        }
+    }
+
+    /**
+     * Reads a port number, where 0 means any free port.
+     * @param option the option the port belongs to.
+     * @param value the text of the port.
+     * @return the port.
+     */
+    private int parsePort(String option, String value){
+        long number = parseNumber(option, value);
+        if (number < 0 || number > 65535){
+            throw new IllegalArgumentException("The value of " + option + " must be a port from 0 to 65535.");
+        }
+        return (int) number;
+    }
+
+    /**
+     * Reads one of two choices.
+     * @param option the option the choice belongs to.
+     * @param value the chosen value.
+     * @param first the first choice.
+     * @param second the second choice.
+     * @return <code>true</code> if the second choice was chosen.
+     *         <code>false</code> if the first choice was chosen.
+     */
+    private boolean parseChoice(String option, String value, String first, String second){
+        if (!value.equalsIgnoreCase(first) && !value.equalsIgnoreCase(second)){
+            throw new IllegalArgumentException("The value of " + option + " must be " + first + " or " + second + ".");
+        }
+        return value.equalsIgnoreCase(second);
+    }
+
+    /**
+     * Reads the name of an enum constant.
+     * @param type the enum class.
+     * @param option the option the value belongs to.
+     * @param value the name of the constant.
+     * @param <E> the type of enum.
+     * @return the enum constant.
+     */
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String option, String value){
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }catch (IllegalArgumentException exception){
+            throw new IllegalArgumentException("The value " + value + " of " + option + " is not known.");
+        }
+    }
+
+    /**
+     * Checks if a string is of a valid format or not.
+     * @param stringToCheck the string you want to check.
+     * @param errorPrefix   the error the exception should have if the string is invalid.
+     */
+    private void checkString(String stringToCheck, String errorPrefix) {
+        checkIfObjectIsNull(stringToCheck, errorPrefix);
+        if (stringToCheck.isEmpty()) {
+            throw new IllegalArgumentException("The " + errorPrefix + " cannot be empty.");
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package no.os.DiningPhilsopher.cli;
+
+import no.os.DiningPhilsopher.model.ArbitrationMode;
+import no.os.DiningPhilsopher.model.ParameterSweep;
+import no.os.DiningPhilsopher.model.Philosopher;
+import no.os.DiningPhilsopher.model.SweepReport;
+import no.os.DiningPhilsopher.model.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents a runner that sweeps a grid of table parameters in parallel and prints one report.
+ * Like the {@link HeadlessRunner} it only uses the model and runs without JavaFX from the class path:
+ * <pre>
+ * java -cp target/classes no.os.DiningPhilsopher.cli.SweepRunner --seats 5,50,500 --delays 10,50 --foods "2000,1000;500"
+ * </pre>
+ * Every option takes a list separated by commas:
+ * <ul>
+ *     <li>--seats the amounts of philosophers. Default 5.</li>
+ *     <li>--delays the delays in milliseconds. Default 50.</li>
+ *     <li>--foods the sets of bowls separated by semicolons, each a list of amounts. Default 2000,1000.</li>
+ *     <li>--random-hunger true, false or both. Default false.</li>
+ *     <li>--strategies the arbitration modes. Default GLOBAL_LOCK.</li>
+ * </ul>
+ * And these options take one value: --repeats (default 1), --seed (default 1), --duration in virtual milliseconds
+ * (default 60000), --parallelism (default all cores) and --format json or csv (default csv).
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SweepRunner {
+
+    private List<Integer> seats;
+
+    private List<Integer> delays;
+
+    private List<int[]> foodAmounts;
+
+    private List<Boolean> randomHunger;
+
+    private List<ArbitrationMode> arbitrationModes;
+
+    private int repetitions;
+
+    private long seed;
+
+    private long durationInMillis;
+
+    private int parallelism;
+
+    private boolean json;
+
+    /**
+     * Makes an instance of the SweepRunner class from command line arguments.
+     * @param args the arguments, see the class description.
+     * @throws IllegalArgumentException gets thrown if an argument is unknown or has a bad value.
+     */
+    public SweepRunner(String[] args) {
+        checkIfObjectIsNull(args, "arguments");
+        this.seats = List.of(5);
+        this.delays = List.of(50);
+        this.foodAmounts = List.<int[]>of(new int[]{2000, 1000});
+        this.randomHunger = List.of(false);
+        this.arbitrationModes = List.of(ArbitrationMode.GLOBAL_LOCK);
+        this.repetitions = 1;
+        this.seed = 1;
+        this.durationInMillis = 60_000;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.json = false;
+        if (args.length % 2 != 0){
+            throw new IllegalArgumentException("Every option needs a value.");
+        }
+        for (int index = 0; index < args.length; index += 2){
+            parseOption(args[index], args[index + 1]);
+        }
+    }
+
+    /**
+     * Runs the sweep and prints the report.
+     * @param args the arguments, see the class description.
+     */
+    public static void main(String[] args) {
+        try {
+            SweepRunner runner = new SweepRunner(args);
+            SweepReport report = runner.run();
+            System.out.print(runner.json ? report.toJson() : report.toCsv());
+        }catch (IllegalArgumentException exception){
+            System.err.println(exception.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Makes the sweep and runs it on its own fork join pool.
+     * @return the report of the sweep.
+     */
+    public SweepReport run(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+        ParameterSweep sweep = new ParameterSweep(seats, delays, foodAmounts, randomHunger, arbitrationModes, repetitions, seed, durationInMillis);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return sweep.run(pool);
+        }finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Reads one option.
+     * @param option the name of the option.
+     * @param value the value of the option.
+     */
+    private void parseOption(String option, String value){
+        checkString(option, "option");
+        checkString(value, "value of " + option);
+        switch (option){
+            case "--seats" -> seats = parsePositiveList(option, value);
+            case "--delays" -> delays = parsePositiveList(option, value);
+            case "--foods" -> foodAmounts = parseFoodAmounts(value);
+            case "--random-hunger" -> randomHunger = parseBooleanList(option, value);
+            case "--strategies" -> arbitrationModes = parseArbitrationModes(value);
+            case "--repeats" -> repetitions = parsePositive(option, value);
+            case "--seed" -> seed = parseNumber(option, value);
+            case "--duration" -> durationInMillis = parsePositive(option, value);
+            case "--parallelism" -> parallelism = parsePositive(option, value);
+            case "--format" -> json = parseFormat(value);
+            default -> throw new IllegalArgumentException("The option " + option + " is not known.");
+        }
+    }
+
+    /**
+     * Reads a list of numbers above zero.
+     * @param option the option the list belongs to.
+     * @param value the numbers separated by commas.
+     * @return the numbers.
+     */
+    private List<Integer> parsePositiveList(String option, String value){
+        List<Integer> numbers = new ArrayList<>();
+        for (String part : value.split(",")){
+            numbers.add(parsePositive(option, part.trim()));
+        }
+        return numbers;
+    }
+
+    /**
+     * Reads the sets of bowls.
+     * @param value the sets separated by semicolons where each set has amounts separated by commas.
+     * @return the sets of food amounts.
+     */
+    private List<int[]> parseFoodAmounts(String value){
+        List<int[]> sets = new ArrayList<>();
+        for (String set : value.split(";")){
+            List<Integer> amounts = parsePositiveList("--foods", set);
+            sets.add(amounts.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return sets;
+    }
+
+    /**
+     * Reads the choices of random hunger.
+     * @param option the option the list belongs to.
+     * @param value true, false or both separated by a comma.
+     * @return the choices.
+     */
+    private List<Boolean> parseBooleanList(String option, String value){
+        List<Boolean> choices = new ArrayList<>();
+        for (String part : value.split(",")){
+            String choice = part.trim();
+            if (!choice.equalsIgnoreCase("true") && !choice.equalsIgnoreCase("false")){
+                throw new IllegalArgumentException("The value of " + option + " must be true or false.");
+            }
+            choices.add(Boolean.parseBoolean(choice));
+        }
+        return choices;
+    }
+
+    /**
+     * Reads the arbitration modes.
+     * @param value the names of the modes separated by commas.
+     * @return the arbitration modes.
+     */
+    private List<ArbitrationMode> parseArbitrationModes(String value){
+        List<ArbitrationMode> modes = new ArrayList<>();
+        for (String part : value.split(",")){
+            try {
+                modes.add(ArbitrationMode.valueOf(part.trim().toUpperCase(Locale.ROOT).replace('-', '_')));
+            }catch (IllegalArgumentException exception){
+                throw new IllegalArgumentException("The strategy " + part + " is not known.");
+            }
+        }
+        return modes;
+    }
+
+    /**
+     * Reads the format of the report.
+     * @param value json or csv.
+     * @return <code>true</code> if the format is JSON.
+     *         <code>false</code> if the format is CSV.
+     */
+    private boolean parseFormat(String value){
+        if (!value.equalsIgnoreCase("json") && !value.equalsIgnoreCase("csv")){
+            throw new IllegalArgumentException("The value of --format must be json or csv.");
+        }
+        return value.equalsIgnoreCase("json");
+    }
+
+    /**
+     * Reads a number.
+     * @param option the option the number belongs to.
+     * @param value the text of the number.
+     * @return the number.
+     */
+    private long parseNumber(String option, String value){
+        try {
+            return Long.parseLong(value);
+        }catch (NumberFormatException exception){
+            throw new IllegalArgumentException("The value of " + option + " must be a number.");
+        }
+    }
+
+    /**
+     * Reads a number that must be above zero.
+     * @param option the option the number belongs to.
+     * @param value the text of the number.
+     * @return the number.
+     */
+    private int parsePositive(String option, String value){
+        long number = parseNumber(option, value);
+        if (number <= 0 || number > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("The value of " + option + " must be above zero.");
+        }
+        return (int) number;
+    }
+
+    /**
+     * Checks if a string is of a valid format or not.
+     * @param stringToCheck the string you want to check.
+     * @param errorPrefix   the error the exception should have if the string is invalid.
+     */
+    private void checkString(String stringToCheck, String errorPrefix) {
+        checkIfObjectIsNull(stringToCheck, errorPrefix);
+        if (stringToCheck.isEmpty()) {
+            throw new IllegalArgumentException("The " + errorPrefix + " cannot be empty.");
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package no.os.DiningPhilsopher.gui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.paint.Color;
+import no.os.DiningPhilsopher.model.SeatStateBuffer;
+import no.os.DiningPhilsopher.model.State;
+
+/**
+ * Represents a view that draws every seat of a table as a colored cell in a grid on one canvas.
+ * Instead of one node for each philosopher, the seats are cells filled with the color of their state.
+ * Each frame only the cells of the seats that changed are drawn again, and the whole grid is only drawn
+ * when it is zoomed or scrolled. Scrolling moves the grid up and down and scrolling while holding control zooms.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SeatCanvas extends Canvas {
+
+    private static final Color BACKGROUND = Color.WHITE;
+
+    private static final Color[] STATE_COLORS = makeStateColors();
+
+    private static final double MIN_CELL_SIZE = 1;
+
+    private static final double MAX_CELL_SIZE = 64;
+
+    private final SeatStateBuffer seatStates;
+
+    private final int[][] changedByState;
+
+    private final int[] amountChangedByState;
+
+    private double cellSize;
+
+    private int firstRow;
+
+    /**
+     * Makes an instance of the SeatCanvas class. The cells start as large as they can be while all the seats fit.
+     * @param seatStates the latest states of the seats.
+     * @param width the width of the canvas.
+     * @param height the height of the canvas.
+     */
+    public SeatCanvas(SeatStateBuffer seatStates, double width, double height) {
+        super(width, height);
+        checkIfObjectIsNull(seatStates, "seat states");
+        this.seatStates = seatStates;
+        int amountOfStates = State.values().length;
+        this.changedByState = new int[amountOfStates][seatStates.getAmountOfSeats()];
+        this.amountChangedByState = new int[amountOfStates];
+        this.cellSize = getCellSizeThatFits(seatStates.getAmountOfSeats(), width, height);
+        this.firstRow = 0;
+        setOnScroll(this::handleScroll);
+        redrawAll();
+    }
+
+    /**
+     * Gets the largest cell size where all the seats fit on the canvas.
+     * @param amountOfSeats the amount of seats.
+     * @param width the width of the canvas.
+     * @param height the height of the canvas.
+     * @return the cell size in pixels.
+     */
+    static double getCellSizeThatFits(int amountOfSeats, double width, double height){
+        double size = Math.floor(Math.sqrt(width * height / Math.max(1, amountOfSeats)));
+        while (size > MIN_CELL_SIZE && Math.floor(width / size) * Math.floor(height / size) < amountOfSeats){
+            size -= 1;
+        }
+        return Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, size));
+    }
+
+    /**
+     * Draws the cells of the seats that changed since the last frame.
+     * @return the amount of seats that changed.
+     */
+    public int redrawChanged(){
+        int amountChanged = seatStates.drainChangedSeats(seat -> {
+            int state = seatStates.getState(seat).ordinal();
+            changedByState[state][amountChangedByState[state]] = seat;
+            amountChangedByState[state] += 1;
+        });
+        GraphicsContext graphics = getGraphicsContext2D();
+        int columns = getAmountOfColumns();
+        int firstSeat = firstRow * columns;
+        int lastSeat = firstSeat + getAmountOfVisibleRows() * columns;
+        for (int state = 0; state < amountChangedByState.length; state++){
+            if (amountChangedByState[state] > 0){
+                graphics.setFill(STATE_COLORS[state]);
+                int[] seats = changedByState[state];
+                for (int i = 0; i < amountChangedByState[state]; i++){
+                    int seat = seats[i];
+                    if (seat >= firstSeat && seat < lastSeat){
+                        fillCell(graphics, seat - firstSeat, columns);
+                    }
+                }
+                amountChangedByState[state] = 0;
+            }
+        }
+        return amountChanged;
+    }
+
+    /**
+     * Draws every visible cell again.
+     */
+    public void redrawAll(){
+        GraphicsContext graphics = getGraphicsContext2D();
+        graphics.setFill(BACKGROUND);
+        graphics.fillRect(0, 0, getWidth(), getHeight());
+        seatStates.drainChangedSeats(seat -> {});
+        int columns = getAmountOfColumns();
+        int firstSeat = firstRow * columns;
+        int lastSeat = Math.min(seatStates.getAmountOfSeats(), firstSeat + getAmountOfVisibleRows() * columns);
+        for (int state = 0; state < STATE_COLORS.length; state++){
+            graphics.setFill(STATE_COLORS[state]);
+            for (int seat = firstSeat; seat < lastSeat; seat++){
+                if (seatStates.getState(seat).ordinal() == state){
+                    fillCell(graphics, seat - firstSeat, columns);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the size of each cell and draws the grid again.
+     * @param cellSize the size of a cell in pixels.
+     */
+    public void setCellSize(double cellSize){
+        this.cellSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, cellSize));
+        this.firstRow = Math.min(firstRow, getLastFirstRow());
+        redrawAll();
+    }
+
+    /**
+     * Gets the size of each cell.
+     * @return the size of a cell in pixels.
+     */
+    public double getCellSize(){
+        return cellSize;
+    }
+
+    /**
+     * Sets the row that is shown at the top and draws the grid again.
+     * @param row the index of the row.
+     */
+    public void setFirstRow(int row){
+        this.firstRow = Math.max(0, Math.min(row, getLastFirstRow()));
+        redrawAll();
+    }
+
+    /**
+     * Zooms when control is held and scrolls the rows otherwise.
+     * @param event the scroll event.
+     */
+    private void handleScroll(ScrollEvent event){
+        if (event.getDeltaY() != 0){
+            if (event.isControlDown()){
+                setCellSize(event.getDeltaY() > 0 ? cellSize * 2 : cellSize / 2);
+            }else {
+                setFirstRow(firstRow + (event.getDeltaY() > 0 ? -1 : 1) * Math.max(1, getAmountOfVisibleRows() / 4));
+            }
+            event.consume();
+        }
+    }
+
+    /**
+     * Fills the cell at a position in the visible grid.
+     * @param graphics the graphics context to draw with.
+     * @param position the position of the cell counted from the first visible cell.
+     * @param columns the amount of columns.
+     */
+    private void fillCell(GraphicsContext graphics, int position, int columns){
+        double x = (position % columns) * cellSize;
+        double y = (position / columns) * cellSize;
+        double gap = cellSize >= 4 ? 1 : 0;
+        graphics.fillRect(x, y, cellSize - gap, cellSize - gap);
+    }
+
+    /**
+     * Gets the amount of columns in the grid.
+     * @return the amount of columns.
+     */
+    private int getAmountOfColumns(){
+        return Math.max(1, (int) (getWidth() / cellSize));
+    }
+
+    /**
+     * Gets the amount of rows that fit on the canvas.
+     * @return the amount of visible rows.
+     */
+    private int getAmountOfVisibleRows(){
+        return Math.max(1, (int) (getHeight() / cellSize));
+    }
+
+    /**
+     * Gets the last row that can be at the top while the grid still fills the canvas.
+     * @return the index of the row.
+     */
+    private int getLastFirstRow(){
+        int columns = getAmountOfColumns();
+        int rows = (seatStates.getAmountOfSeats() + columns - 1) / columns;
+        return Math.max(0, rows - getAmountOfVisibleRows());
+    }
+
+    /**
+     * Makes the colors of the states, in the order of the states.
+     * @return the colors.
+     */
+    private static Color[] makeStateColors(){
+        Color[] colors = new Color[State.values().length];
+        colors[State.HUNGRY.ordinal()] = Color.ORANGE;
+        colors[State.THINKING.ordinal()] = Color.LIGHTSTEELBLUE;
+        colors[State.EATING.ordinal()] = Color.YELLOW;
+        colors[State.DEAD.ordinal()] = Color.DIMGRAY;
+        return colors;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
@@ -1,19 +1,27 @@
 package no.os.DiningPhilsopher.gui.controller;
 
-import javafx.application.Platform;
+import javafx.animation.AnimationTimer;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
+import no.os.DiningPhilsopher.gui.SeatCanvas;
+import no.os.DiningPhilsopher.model.ArbitrationMode;
+import no.os.DiningPhilsopher.model.ExecutionMode;
 import no.os.DiningPhilsopher.model.Philosopher;
-import no.os.DiningPhilsopher.model.PhilosopherObserver;
+import no.os.DiningPhilsopher.model.SeatStateBuffer;
 import no.os.DiningPhilsopher.model.State;
+import no.os.DiningPhilsopher.model.StateChangeDispatcher;
 import no.os.DiningPhilsopher.model.Table;
+import no.os.DiningPhilsopher.model.TimeScale;
+import no.os.DiningPhilsopher.model.VirtualTimeSimulation;
 
 
 import java.util.ArrayList;
@@ -24,7 +32,7 @@ import java.util.List;
  * @author Group 13
  * @version 0.1
  */
-public class PhilosopherController implements Controller, PhilosopherObserver {
+public class PhilosopherController implements Controller {
 
     @FXML
     private HBox battleArena;
@@ -41,15 +49,57 @@ public class PhilosopherController implements Controller, PhilosopherObserver {
     @FXML
     private VBox philosopherText;
 
+    @FXML
+    private Slider speedSlider;
+
+    @FXML
+    private Label speedLabel;
+
+    @FXML
+    private CheckBox maxSpeedBox;
+
     private Table table;
 
     private List<VBox> philList;
 
+    private SeatStateBuffer seatStates;
+
+    private Text[] stateTexts;
+
+    private SeatCanvas seatCanvas;
+
+    private StateChangeDispatcher stateChangeDispatcher;
+
+    private VirtualTimeSimulation simulation;
+
+    private long lastFrameTime;
+
+    private double virtualMillisOwed;
+
+    private final AnimationTimer frameTimer;
+
+    private static final String EATING_STYLE = "-fx-background-color: yellow;";
+
+    private static final String NOT_EATING_STYLE = "-fx-background-color: white;";
+
+    private static final int LARGEST_TABLE_WITH_NODES = 200;
+
+    private static final long LONGEST_FRAME_NANOS = 100_000_000;
+
+    private static final long FRAME_BUDGET_NANOS = 8_000_000;
+
     /**
      * Makes an instance of the PhilosopherController class.
      */
     public PhilosopherController() {
         philList = new ArrayList<>();
+        frameTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                advanceSimulation(now);
+                applyChangedSeats();
+            }
+        };
     }
 
     /**
@@ -60,10 +110,23 @@ public class PhilosopherController implements Controller, PhilosopherObserver {
             try{
                 System.out.flush();
                 int amount = getAmount();
-                table = new Table(amount, 750);
-                Philosopher.setConsole();
-                Table.setConsole();
-                displayTable();
+                simulation = null;
+                if (amount > LARGEST_TABLE_WITH_NODES){
+                    if (ExecutionMode.VIRTUAL_THREADS.isAvailable()){
+                        table = new Table(amount, 750, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.VIRTUAL_THREADS);
+                    }else {
+                        table = new Table(amount, 750, ArbitrationMode.PER_SEAT_CAS);
+                        simulation = new VirtualTimeSimulation(table);
+                    }
+                    applySpeed();
+                    displayLargeTable();
+                }else {
+                    table = new Table(amount, 750);
+                    applySpeed();
+                    Philosopher.setConsole();
+                    Table.setConsole();
+                    displayTable();
+                }
                 startButton.setDisable(true);
                 abortButton.setDisable(false);
             }catch (IllegalArgumentException numberFormatException){
@@ -77,50 +140,169 @@ public class PhilosopherController implements Controller, PhilosopherObserver {
 
         this.abortButton.setDisable(true);
 
+        this.speedSlider.valueProperty().addListener((observable, oldValue, newValue) -> applySpeed());
+        this.maxSpeedBox.setOnAction(event -> applySpeed());
+
         this.abortButton.setOnAction(event -> {
+            simulation = null;
             table.stopSimulation();
+            stopListening();
+            frameTimer.stop();
+            applyChangedSeats();
             abortButton.setDisable(true);
             startButton.setDisable(false);
         });
     }
 
+    /**
+     * Gives the table the speed of the slider, or max speed if that is checked, and shows it on the label.
+     * The slider goes in powers of two, so each step doubles or halves the speed.
+     */
+    private void applySpeed(){
+        double speed = Math.pow(2, speedSlider.getValue());
+        boolean maxSpeed = maxSpeedBox.isSelected();
+        speedSlider.setDisable(maxSpeed);
+        speedLabel.setText(maxSpeed ? "Speed max" : "Speed " + formatSpeed(speed) + "x");
+        if (table != null){
+            TimeScale timeScale = table.getTimeScale();
+            timeScale.setSpeed(speed);
+            timeScale.setMaxSpeed(maxSpeed);
+        }
+    }
+
+    /**
+     * Makes a short text of a speed, like 4 or 0.25.
+     * @param speed the speed.
+     * @return the text.
+     */
+    private String formatSpeed(double speed){
+        return speed >= 1 ? Long.toString(Math.round(speed)) : Double.toString(speed);
+    }
+
     /**
      * Makes the simulation table elements where philosophers are.
      */
     private void displayTable(){
+        frameTimer.stop();
         battleArena.getChildren().clear();
+        philList.clear();
+        seatCanvas = null;
         List<Philosopher> philosopherList = table.getPhilosophers();
+        seatStates = new SeatStateBuffer(philosopherList.size());
+        stateTexts = new Text[philosopherList.size()];
         for (Philosopher phil : philosopherList) {
-            phil.addObserver(this);
             VBox vBox = new VBox();
             vBox.setId(Long.toString(phil.getPhilID()));
             Label label = new Label(phil.getName());
             Text text = new Text(phil.getState().toString());
-            text.setStyle("-fx-background-color: yellow;");
+            text.setStyle(EATING_STYLE);
+            stateTexts[phil.getSeat()] = text;
             vBox.getChildren().add(label);
             vBox.getChildren().add(text);
             vBox.setPadding(new Insets(10, 10, 10, 10));
             philList.add(vBox);
             battleArena.getChildren().add(vBox);
         }
+        listenToTable();
+        frameTimer.start();
         table.startSimulation();
     }
 
-    private void updatePhil(long id, State state){
-        VBox vBox = (VBox) battleArena.lookup("#" + id);
-        Text textState = (Text) vBox.getChildren().get(1);
-        String status = "";
-        switch (state){
-            case DEAD -> status = "DEAD";
-            case EATING -> status = "EATING";
-            case THINKING -> status = "THINKING";
-            case HUNGRY -> status = "HUNGRY";
+    /**
+     * Makes the simulation table as one canvas where each philosopher is a colored cell.
+     * Used for tables that are too large to have nodes for each philosopher.
+     * Without virtual threads the table runs on the virtual clock and is moved forward each frame, since a platform
+     * thread for each philosopher does not scale to tables this large.
+     */
+    private void displayLargeTable(){
+        frameTimer.stop();
+        battleArena.getChildren().clear();
+        philList.clear();
+        List<Philosopher> philosopherList = table.getPhilosophers();
+        seatStates = new SeatStateBuffer(philosopherList.size());
+        stateTexts = null;
+        listenToTable();
+        seatCanvas = new SeatCanvas(seatStates, 600, 300);
+        battleArena.getChildren().add(seatCanvas);
+        lastFrameTime = 0;
+        virtualMillisOwed = 0;
+        frameTimer.start();
+        if (simulation == null){
+            table.startSimulation();
+        }
+    }
+
+    /**
+     * Moves a table that runs on the virtual clock forward by the time since the last frame, times the speed.
+     * A long pause between two frames counts as one short frame, so the table does not jump ahead.
+     * The table is moved one virtual millisecond at the time for at most {@value #FRAME_BUDGET_NANOS} ns, so the
+     * GUI thread is never held up by a fast speed. The time that is left is carried over to the next frames, but never
+     * more than one long frame, so a table that cannot keep up runs slower instead of falling further behind.
+     * @param now the time of this frame in nanoseconds.
+     */
+    private void advanceSimulation(long now){
+        if (simulation != null){
+            if (lastFrameTime != 0){
+                TimeScale timeScale = table.getTimeScale();
+                double speed = timeScale.isMaxSpeed() ? TimeScale.MAX_SPEED : timeScale.getSpeed();
+                long frameNanos = Math.min(LONGEST_FRAME_NANOS, now - lastFrameTime);
+                double mostOwed = LONGEST_FRAME_NANOS / 1_000_000.0 * speed;
+                virtualMillisOwed = Math.min(mostOwed, virtualMillisOwed + frameNanos / 1_000_000.0 * speed);
+                long start = System.nanoTime();
+                while (virtualMillisOwed >= 1 && simulation.hasEventsLeft() && System.nanoTime() - start < FRAME_BUDGET_NANOS){
+                    simulation.run(1);
+                    virtualMillisOwed -= 1;
+                }
+            }
+            lastFrameTime = now;
+        }
+    }
+
+    /**
+     * Starts a dispatcher that writes the state changes of the table into the seat states on its own thread,
+     * so the philosophers never wait for the GUI.
+     */
+    private void listenToTable(){
+        stopListening();
+        stateChangeDispatcher = new StateChangeDispatcher(seatStates, "gui-state-changes");
+        stateChangeDispatcher.subscribe(table);
+        stateChangeDispatcher.start();
+    }
+
+    /**
+     * Stops the dispatcher of the last table if there is one.
+     */
+    private void stopListening(){
+        if (stateChangeDispatcher != null){
+            stateChangeDispatcher.stop();
+            stateChangeDispatcher = null;
         }
-        textState.setText(status);
+    }
+
+    /**
+     * Shows the latest state of every seat that changed since the last frame.
+     * Runs once each frame on the JavaFX thread, so many changes to one seat within a frame become one update.
+     */
+    private void applyChangedSeats(){
+        if (seatCanvas != null){
+            seatCanvas.redrawChanged();
+        }else if (seatStates != null){
+            seatStates.drainChangedSeats(seat -> updatePhil(seat, seatStates.getState(seat)));
+        }
+    }
+
+    /**
+     * Shows the state of one seat.
+     * @param seat the index of the seat.
+     * @param state the state to show.
+     */
+    private void updatePhil(int seat, State state){
+        Text textState = stateTexts[seat];
+        textState.setText(state.name());
         if (State.EATING == state){
-            textState.setStyle("-fx-background-color: yellow;");
+            textState.setStyle(EATING_STYLE);
         }else {
-            textState.setStyle("-fx-background-color: white;");
+            textState.setStyle(NOT_EATING_STYLE);
         }
     }
 
@@ -171,14 +353,4 @@ public class PhilosopherController implements Controller, PhilosopherObserver {
     public void emptyContent() {
 
     }
-
-    @Override
-    public void notifyObserver(Philosopher philosopher) {
-
-    }
-
-    @Override
-    public void notifyObserverAboutStateChange(long id, State state) {
-        Platform.runLater(() -> updatePhil(id, state));
-    }
 }
@@ -0,0 +1,20 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents what a hungry philosopher does after the waiter has turned it away.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public enum AcquisitionMode {
+
+    /**
+     * The philosopher sleeps a full delay and asks again.
+     */
+    POLLING,
+
+    /**
+     * The philosopher parks until a neighbour is done eating and wakes it, and then asks again at once.
+     * If no one wakes it within the delay it loses hunger as usual.
+     */
+    BLOCKING
+}
@@ -0,0 +1,49 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents the different ways a table can decide who gets to eat.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public enum ArbitrationMode {
+
+    /**
+     * One central waiter that handles one request at the time for the whole table.
+     */
+    GLOBAL_LOCK,
+
+    /**
+     * Each fork is claimed with compare and set, so only philosophers beside each other compete.
+     */
+    PER_SEAT_CAS,
+
+    /**
+     * The forks are numbered and always taken lowest number first.
+     */
+    RESOURCE_HIERARCHY,
+
+    /**
+     * Forks are dirty after eating and clean after being handed over, so a seat that just ate gives way.
+     */
+    CHANDY_MISRA,
+
+    /**
+     * One waiter that serves hungry seats in the order they first asked, so a seat is never passed by a neighbour that came later.
+     */
+    TICKET;
+
+    /**
+     * Makes the fork allocation strategy for this mode.
+     * @param amountOfSeats the amount of seats around the table.
+     * @return a new strategy.
+     */
+    public ForkAllocationStrategy makeStrategy(int amountOfSeats){
+        return switch (this){
+            case GLOBAL_LOCK -> new CentralWaiterStrategy(amountOfSeats);
+            case PER_SEAT_CAS -> new ForkArbiter(amountOfSeats);
+            case RESOURCE_HIERARCHY -> new ResourceHierarchyStrategy(amountOfSeats);
+            case CHANDY_MISRA -> new ChandyMisraStrategy(amountOfSeats);
+            case TICKET -> new TicketStrategy(amountOfSeats);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents one waiter that handles one request at the time for the whole table.
+ * A seat may eat if none of the seats beside it are eating.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class CentralWaiterStrategy implements ForkAllocationStrategy {
+
+    private final boolean[] eating;
+
+    /**
+     * Makes an instance of the CentralWaiterStrategy class.
+     * @param amountOfSeats the amount of seats around the table.
+     */
+    public CentralWaiterStrategy(int amountOfSeats) {
+        if (amountOfSeats <= 0){
+            throw new IllegalArgumentException("The amount of seats must be larger than 0.");
+        }
+        this.eating = new boolean[amountOfSeats];
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(int seat) {
+        int last = eating.length - 1;
+        int left = seat == 0 ? last : seat - 1;
+        int right = seat == last ? 0 : seat + 1;
+        boolean granted = !eating[left] && !eating[right];
+        if (granted){
+            eating[seat] = true;
+        }
+        return granted;
+    }
+
+    @Override
+    public synchronized void release(int seat) {
+        eating[seat] = false;
+    }
+
+    @Override
+    public String getName() {
+        return "Central waiter";
+    }
+}
@@ -0,0 +1,102 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents the Chandy-Misra solution with dirty and clean forks.
+ * Every fork belongs to one of the two seats beside it. Forks start dirty at the seat with the lowest number.
+ * A seat that asks for a fork gets it if the owner is not eating and the fork is dirty, and the fork is cleaned on the way.
+ * A clean fork is kept until its owner has eaten, and eating makes the forks dirty again.
+ * That way a seat that just ate always gives way to a hungry seat beside.
+ * A seat that leaves the table hungry, by thinking again or dying, dirties the clean forks it got while it was refused,
+ * so a neighbour is never stuck waiting for a seat that will not eat.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ChandyMisraStrategy implements ForkAllocationStrategy {
+
+    private final int[] forkOwners;
+
+    private final boolean[] dirtyForks;
+
+    private final boolean[] eating;
+
+    private final Object[] forkLocks;
+
+    /**
+     * Makes an instance of the ChandyMisraStrategy class.
+     * @param amountOfSeats the amount of seats around the table.
+     */
+    public ChandyMisraStrategy(int amountOfSeats) {
+        if (amountOfSeats <= 0){
+            throw new IllegalArgumentException("The amount of seats must be larger than 0.");
+        }
+        this.forkOwners = new int[amountOfSeats];
+        this.dirtyForks = new boolean[amountOfSeats];
+        this.eating = new boolean[amountOfSeats];
+        this.forkLocks = new Object[amountOfSeats];
+        for (int fork = 0; fork < amountOfSeats; fork++){
+            forkOwners[fork] = fork == 0 ? 0 : fork - 1;
+            dirtyForks[fork] = true;
+            forkLocks[fork] = new Object();
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(int seat) {
+        int leftFork = seat;
+        int rightFork = (seat + 1) % forkOwners.length;
+        Object firstLock = forkLocks[Math.min(leftFork, rightFork)];
+        Object secondLock = forkLocks[Math.max(leftFork, rightFork)];
+        synchronized (firstLock){
+            synchronized (secondLock){
+                boolean hasLeft = askForFork(seat, leftFork);
+                boolean hasRight = askForFork(seat, rightFork);
+                boolean granted = hasLeft && hasRight;
+                if (granted){
+                    eating[seat] = true;
+                }
+                return granted;
+            }
+        }
+    }
+
+    @Override
+    public void release(int seat) {
+        int leftFork = seat;
+        int rightFork = (seat + 1) % forkOwners.length;
+        Object firstLock = forkLocks[Math.min(leftFork, rightFork)];
+        Object secondLock = forkLocks[Math.max(leftFork, rightFork)];
+        synchronized (firstLock){
+            synchronized (secondLock){
+                eating[seat] = false;
+                if (forkOwners[leftFork] == seat){
+                    dirtyForks[leftFork] = true;
+                }
+                if (forkOwners[rightFork] == seat){
+                    dirtyForks[rightFork] = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Chandy-Misra";
+    }
+
+    /**
+     * Asks the owner of a fork to hand it over. The lock of the fork must be held.
+     * @param seat the seat that asks.
+     * @param fork the fork to ask for.
+     * @return <code>true</code> if the seat owns the fork now.
+     *         <code>false</code> if the owner keeps the fork.
+     */
+    private boolean askForFork(int seat, int fork){
+        int owner = forkOwners[fork];
+        if (owner != seat && !eating[owner] && dirtyForks[fork]){
+            forkOwners[fork] = seat;
+            dirtyForks[fork] = false;
+            owner = seat;
+        }
+        return owner == seat;
+    }
+}
@@ -0,0 +1,290 @@
+package no.os.DiningPhilsopher.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Represents one non-blocking channel between two processes of a cluster table, and the binary protocol on it.
+ * Every frame is one byte with the type, followed by a payload with a fixed size for that type, in little endian.
+ * Any thread may send frames. They are queued and written by the thread that runs the selector.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+class ClusterConnection {
+
+    /**
+     * A worker tells the coordinator who it is. Payload: the index of the worker and the port it listens on.
+     */
+    static final byte HELLO = 1;
+
+    /**
+     * The coordinator gives a worker its segment. Payload: the seats of the ring, the first seat, the size of the
+     * segment, the delay, the starting hunger, the amount of workers, the port of the next worker, the seed and
+     * if the hunger is random.
+     */
+    static final byte ASSIGN = 2;
+
+    /**
+     * A worker tells the next worker that this channel comes from the worker before it. Payload: the index of the worker.
+     */
+    static final byte PEER = 3;
+
+    /**
+     * A worker tells the coordinator that it is connected to both its neighbours.
+     */
+    static final byte READY = 4;
+
+    /**
+     * The coordinator tells every worker to start the philosophers.
+     */
+    static final byte START = 5;
+
+    /**
+     * The coordinator tells every worker to stop, send its last metrics and close.
+     */
+    static final byte STOP = 6;
+
+    /**
+     * The last seat of a segment asks the next worker for the fork they share.
+     */
+    static final byte FORK_REQUEST = 7;
+
+    /**
+     * The owner of a shared fork gives it to the worker before it.
+     */
+    static final byte FORK_GRANT = 8;
+
+    /**
+     * The owner of a shared fork tells the worker before it that the fork is in use.
+     */
+    static final byte FORK_DENY = 9;
+
+    /**
+     * The worker before gives a shared fork back to its owner.
+     */
+    static final byte FORK_RELEASE = 10;
+
+    /**
+     * A seat at the end of a segment tells the worker beside it about its new state. Payload: the seat in the ring and the state.
+     */
+    static final byte STATE = 11;
+
+    /**
+     * A worker sends the metrics of its segment to the coordinator. Payload: the elapsed time, meals, refusals, deaths,
+     * transitions, total wait, longest wait and boundary conflicts, the sum and the sum of squares of the meals per
+     * seat, and the wait histogram.
+     */
+    static final byte METRICS = 12;
+
+    /**
+     * A worker tells the coordinator that the last metrics are sent and that it closes.
+     */
+    static final byte DONE = 13;
+
+    private static final int[] PAYLOAD_SIZES = {-1, 8, 37, 4, 0, 0, 0, 0, 0, 0, 0, 5,
+            8 * 8 + 2 * 8 + TableMetrics.BUCKETS * 8, 0};
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+
+    private final ByteBuffer readBuffer;
+
+    private final Queue<ByteBuffer> outgoing;
+
+    private ByteBuffer writing;
+
+    private SelectionKey key;
+
+    private volatile boolean closed;
+
+    /**
+     * Makes an instance of the ClusterConnection class.
+     * @param channel the channel. It is set to non-blocking.
+     * @throws IOException if the channel could not be set to non-blocking.
+     */
+    ClusterConnection(SocketChannel channel) throws IOException {
+        checkIfObjectIsNull(channel, "channel");
+        this.channel = channel;
+        channel.configureBlocking(false);
+        this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.outgoing = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Handles one frame that was read from a connection.
+     */
+    interface FrameHandler {
+
+        /**
+         * Handles one frame.
+         * @param connection the connection the frame came from.
+         * @param type the type of the frame.
+         * @param payload the payload, positioned at its start. Only valid during the call.
+         * @throws IOException if the frame could not be handled.
+         */
+        void onFrame(ClusterConnection connection, byte type, ByteBuffer payload) throws IOException;
+    }
+
+    /**
+     * Makes an empty frame with room for the payload of its type.
+     * @param type the type of the frame.
+     * @return the frame with the type written. Put the payload and send it.
+     */
+    static ByteBuffer makeFrame(byte type){
+        ByteBuffer frame = ByteBuffer.allocate(1 + PAYLOAD_SIZES[type]).order(ByteOrder.LITTLE_ENDIAN);
+        frame.put(type);
+        return frame;
+    }
+
+    /**
+     * Registers the connection with a selector. Must be called on the thread that runs the selector.
+     * @param selector the selector.
+     * @throws IOException if the channel could not be registered.
+     */
+    void register(Selector selector) throws IOException {
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+        if (!outgoing.isEmpty()){
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Sends a frame without a payload.
+     * @param type the type of the frame.
+     */
+    void send(byte type){
+        send(makeFrame(type));
+    }
+
+    /**
+     * Queues a frame and wakes the selector to write it. Can be called from any thread.
+     * @param frame the whole frame, made with {@link #makeFrame(byte)}.
+     */
+    void send(ByteBuffer frame){
+        if (closed){
+            return;
+        }
+        frame.flip();
+        outgoing.add(frame);
+        SelectionKey selectionKey = key;
+        if (selectionKey != null && selectionKey.isValid()){
+            try {
+                selectionKey.interestOpsOr(SelectionKey.OP_WRITE);
+                selectionKey.selector().wakeup();
+            }catch (CancelledKeyException exception){
+                closed = true;
+            }
+        }
+    }
+
+    /**
+     * Writes as many of the queued frames as the channel takes right now.
+     * @throws IOException if the channel could not be written.
+     */
+    void flush() throws IOException {
+        while (true){
+            if (writing == null){
+                writing = outgoing.poll();
+                if (writing == null){
+                    key.interestOps(SelectionKey.OP_READ);
+                    if (outgoing.isEmpty()){
+                        return;
+                    }
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    continue;
+                }
+            }
+            channel.write(writing);
+            if (writing.hasRemaining()){
+                return;
+            }
+            writing = null;
+        }
+    }
+
+    /**
+     * Checks if every queued frame has been written.
+     * @return <code>true</code> if nothing is waiting to be written.
+     *         <code>false</code> if there are frames left.
+     */
+    boolean isFlushed(){
+        return writing == null && outgoing.isEmpty();
+    }
+
+    /**
+     * Writes every queued frame, blocking the calling thread until it is done.
+     * @throws IOException if the channel could not be written.
+     */
+    void flushFully() throws IOException {
+        ByteBuffer frame = writing != null ? writing : outgoing.poll();
+        writing = null;
+        while (frame != null){
+            while (frame.hasRemaining()){
+                if (channel.write(frame) == 0){
+                    Thread.onSpinWait();
+                }
+            }
+            frame = outgoing.poll();
+        }
+    }
+
+    /**
+     * Reads what the channel has and hands every whole frame to the handler.
+     * @param handler the handler of the frames.
+     * @return <code>true</code> if the channel is still open.
+     *         <code>false</code> if the other side closed it.
+     * @throws IOException if the channel could not be read or a frame is not known.
+     */
+    boolean read(FrameHandler handler) throws IOException {
+        int read = channel.read(readBuffer);
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()){
+            byte type = readBuffer.get(readBuffer.position());
+            if (type <= 0 || type >= PAYLOAD_SIZES.length){
+                throw new IOException("The frame type " + type + " is not known.");
+            }
+            int payloadSize = PAYLOAD_SIZES[type];
+            if (readBuffer.remaining() < 1 + payloadSize){
+                break;
+            }
+            readBuffer.get();
+            int end = readBuffer.position() + payloadSize;
+            ByteBuffer payload = readBuffer.slice(readBuffer.position(), payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+            handler.onFrame(this, type, payload);
+            readBuffer.position(end);
+        }
+        readBuffer.compact();
+        return read >= 0;
+    }
+
+    /**
+     * Closes the channel.
+     */
+    void close(){
+        closed = true;
+        try {
+            channel.close();
+        }catch (IOException exception){
+            //The channel is closed either way.
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
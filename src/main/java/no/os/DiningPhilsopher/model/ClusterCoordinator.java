@@ -0,0 +1,348 @@
+package no.os.DiningPhilsopher.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Represents the coordinator of a table that is split across processes.
+ * The coordinator listens on a local port, waits for every {@link ClusterWorker} to join, gives each one a segment
+ * of the ring that is next to the segment of the worker before, and starts them all at once. While the table runs
+ * the workers send the metrics of their segments, which the coordinator adds together like one table.
+ * The coordinator never takes part in who gets a fork. The workers handle that among themselves.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ClusterCoordinator implements Closeable {
+
+    /**
+     * The longest time the coordinator waits for the workers to join and to stop, in milliseconds.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    private static final int COUNTERS = 8;
+
+    private static final int CONFLICTS = 7;
+
+    private final int amountOfWorkers;
+
+    private final int amountOfSeats;
+
+    private final int delay;
+
+    private final long seed;
+
+    private final boolean isRandom;
+
+    private final ServerSocketChannel server;
+
+    private final Selector selector;
+
+    private final ClusterConnection[] workers;
+
+    private final int[] workerPorts;
+
+    private final long[][] counters;
+
+    private final double[][] fairnessSums;
+
+    private final long[][] histograms;
+
+    private final boolean[] finished;
+
+    private int amountOfHellos;
+
+    private int amountOfReady;
+
+    private int amountOfDone;
+
+    private long timeoutInMillis;
+
+    /**
+     * Makes a coordinator and starts listening for workers on a free local port.
+     * @param amountOfWorkers the amount of workers to split the ring between.
+     * @param amountOfSeats the amount of seats in the whole ring.
+     * @param delay the amount of delay in milli-seconds.
+     * @param seed the seed of every random choice.
+     * @param isRandom <code>true</code> if the philosophers should start with a random hunger.
+     *                 <code>false</code> if every philosopher should start with the same hunger.
+     * @throws IOException if the port could not be opened.
+     */
+    public ClusterCoordinator(int amountOfWorkers, int amountOfSeats, int delay, long seed, boolean isRandom) throws IOException {
+        if (amountOfWorkers <= 0 || amountOfWorkers > amountOfSeats){
+            throw new IllegalArgumentException("The amount of workers must be between 1 and the amount of seats.");
+        }
+        if (delay <= 0){
+            throw new IllegalArgumentException("The delay must be larger than 0.");
+        }
+        this.amountOfWorkers = amountOfWorkers;
+        this.amountOfSeats = amountOfSeats;
+        this.delay = delay;
+        this.seed = seed;
+        this.isRandom = isRandom;
+        this.workers = new ClusterConnection[amountOfWorkers];
+        this.workerPorts = new int[amountOfWorkers];
+        this.counters = new long[amountOfWorkers][COUNTERS];
+        this.fairnessSums = new double[amountOfWorkers][2];
+        this.histograms = new long[amountOfWorkers][TableMetrics.BUCKETS];
+        this.finished = new boolean[amountOfWorkers];
+        this.timeoutInMillis = DEFAULT_TIMEOUT_MILLIS;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Gets the address the workers should join.
+     * @return the local address of the coordinator.
+     * @throws IOException if the address could not be read.
+     */
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    /**
+     * Sets the longest time to wait for the workers to join, and for them to stop after the run.
+     * @param timeoutInMillis the timeout in milliseconds.
+     */
+    public void setTimeout(long timeoutInMillis){
+        if (timeoutInMillis <= 0){
+            throw new IllegalArgumentException("The timeout must be larger than 0.");
+        }
+        this.timeoutInMillis = timeoutInMillis;
+    }
+
+    /**
+     * Waits for every worker, runs the ring for the wanted time and collects the last metrics of every segment.
+     * @param durationInMillis how long the philosophers should run in milliseconds.
+     * @return the metrics of the whole ring.
+     * @throws IOException if a worker did not join, went away or sent something that is not known.
+     */
+    public MetricsSnapshot run(long durationInMillis) throws IOException {
+        if (durationInMillis < 0){
+            throw new IllegalArgumentException("The duration in millis cannot be negative.");
+        }
+        long deadline = System.currentTimeMillis() + timeoutInMillis;
+        while (amountOfReady < amountOfWorkers){
+            waitForFrames(deadline, "Only " + amountOfReady + " of " + amountOfWorkers + " workers got ready in time.");
+        }
+        for (ClusterConnection worker : workers){
+            worker.send(ClusterConnection.START);
+        }
+        long stopTime = System.currentTimeMillis() + durationInMillis;
+        while (System.currentTimeMillis() < stopTime){
+            selectAndHandle(Math.max(1, stopTime - System.currentTimeMillis()));
+        }
+        for (ClusterConnection worker : workers){
+            worker.send(ClusterConnection.STOP);
+        }
+        deadline = System.currentTimeMillis() + timeoutInMillis;
+        while (amountOfDone < amountOfWorkers){
+            waitForFrames(deadline, "Only " + amountOfDone + " of " + amountOfWorkers + " workers stopped in time.");
+        }
+        return getMetricsSnapshot();
+    }
+
+    /**
+     * Adds together the last metrics every worker has sent.
+     * @return the metrics of the whole ring.
+     */
+    public MetricsSnapshot getMetricsSnapshot(){
+        long elapsed = 0;
+        long maxWait = 0;
+        long[] sums = new long[COUNTERS];
+        long[] histogram = new long[TableMetrics.BUCKETS];
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int worker = 0; worker < amountOfWorkers; worker++){
+            elapsed = Math.max(elapsed, counters[worker][0]);
+            maxWait = Math.max(maxWait, counters[worker][6]);
+            for (int counter = 1; counter < COUNTERS; counter++){
+                sums[counter] += counters[worker][counter];
+            }
+            for (int bucket = 0; bucket < histogram.length; bucket++){
+                histogram[bucket] += histograms[worker][bucket];
+            }
+            sum += fairnessSums[worker][0];
+            sumOfSquares += fairnessSums[worker][1];
+        }
+        double fairness = sumOfSquares == 0 ? 1 : (sum * sum) / (amountOfSeats * sumOfSquares);
+        return new MetricsSnapshot("Cluster per seat CAS x " + amountOfWorkers, elapsed, sums[1], sums[2], sums[3], sums[4],
+                sums[5], maxWait, fairness, histogram);
+    }
+
+    /**
+     * Gets the amount of times the workers saw two seats that share a fork eating together across a segment border.
+     * This should always be zero.
+     * @return the amount of boundary conflicts the workers have reported.
+     */
+    public long getAmountOfBoundaryConflicts(){
+        long conflicts = 0;
+        for (long[] workerCounters : counters){
+            conflicts += workerCounters[CONFLICTS];
+        }
+        return conflicts;
+    }
+
+    /**
+     * Gets the amount of workers.
+     * @return the amount of workers.
+     */
+    public int getAmountOfWorkers(){
+        return amountOfWorkers;
+    }
+
+    /**
+     * Gets the amount of seats in the whole ring.
+     * @return the amount of seats.
+     */
+    public int getAmountOfSeats(){
+        return amountOfSeats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ClusterConnection worker : workers){
+            if (worker != null){
+                worker.close();
+            }
+        }
+        selector.close();
+        server.close();
+    }
+
+    /**
+     * Handles frames until the deadline.
+     * @param deadline the time in milliseconds when waiting has to stop.
+     * @param error the message of the exception if the time runs out.
+     * @throws IOException if the time ran out or a channel failed.
+     */
+    private void waitForFrames(long deadline, String error) throws IOException {
+        long left = deadline - System.currentTimeMillis();
+        if (left <= 0){
+            throw new IOException(error);
+        }
+        selectAndHandle(left);
+    }
+
+    /**
+     * Waits for channels to be ready and handles them.
+     * @param timeoutInMillis the longest time to wait.
+     * @throws IOException if a channel failed.
+     */
+    private void selectAndHandle(long timeoutInMillis) throws IOException {
+        selector.select(timeoutInMillis);
+        for (SelectionKey key : selector.selectedKeys()){
+            if (!key.isValid()){
+                continue;
+            }
+            if (key.isAcceptable()){
+                SocketChannel accepted = server.accept();
+                if (accepted != null){
+                    new ClusterConnection(accepted).register(selector);
+                }
+                continue;
+            }
+            ClusterConnection connection = (ClusterConnection) key.attachment();
+            if (key.isReadable() && !connection.read(this::handleFrame)){
+                key.cancel();
+                connection.close();
+                if (!finished[indexOf(connection)]){
+                    throw new IOException("A worker went away before it was done.");
+                }
+                continue;
+            }
+            if (key.isValid() && key.isWritable()){
+                connection.flush();
+            }
+        }
+        selector.selectedKeys().clear();
+    }
+
+    /**
+     * Handles one frame from a worker.
+     * @param connection the connection to the worker.
+     * @param type the type of the frame.
+     * @param payload the payload.
+     * @throws IOException if the frame is not known or the worker is not known.
+     */
+    private void handleFrame(ClusterConnection connection, byte type, ByteBuffer payload) throws IOException {
+        switch (type){
+            case ClusterConnection.HELLO -> {
+                int index = payload.getInt();
+                if (index < 0 || index >= amountOfWorkers || workers[index] != null){
+                    throw new IOException("The worker index " + index + " is not valid or already taken.");
+                }
+                workers[index] = connection;
+                workerPorts[index] = payload.getInt();
+                amountOfHellos += 1;
+                if (amountOfHellos == amountOfWorkers){
+                    assignSegments();
+                }
+            }
+            case ClusterConnection.READY -> amountOfReady += 1;
+            case ClusterConnection.METRICS -> readMetrics(indexOf(connection), payload);
+            case ClusterConnection.DONE -> {
+                finished[indexOf(connection)] = true;
+                amountOfDone += 1;
+            }
+            default -> throw new IOException("The frame type " + type + " is not sent to the coordinator.");
+        }
+    }
+
+    /**
+     * Gives every worker its segment of the ring and the port of the worker after it.
+     */
+    private void assignSegments(){
+        int startingHunger = Table.getStartingHunger(amountOfSeats, delay);
+        int firstSeat = 0;
+        for (int worker = 0; worker < amountOfWorkers; worker++){
+            int size = amountOfSeats / amountOfWorkers + (worker < amountOfSeats % amountOfWorkers ? 1 : 0);
+            ByteBuffer frame = ClusterConnection.makeFrame(ClusterConnection.ASSIGN);
+            frame.putInt(amountOfSeats).putInt(firstSeat).putInt(size).putInt(delay).putInt(startingHunger)
+                    .putInt(amountOfWorkers).putInt(workerPorts[(worker + 1) % amountOfWorkers]).putLong(seed)
+                    .put((byte) (isRandom ? 1 : 0));
+            workers[worker].send(frame);
+            firstSeat += size;
+        }
+    }
+
+    /**
+     * Reads the metrics a worker sent.
+     * @param worker the index of the worker.
+     * @param payload the payload of the metrics frame.
+     */
+    private void readMetrics(int worker, ByteBuffer payload){
+        for (int counter = 0; counter < COUNTERS; counter++){
+            counters[worker][counter] = payload.getLong();
+        }
+        fairnessSums[worker][0] = payload.getDouble();
+        fairnessSums[worker][1] = payload.getDouble();
+        for (int bucket = 0; bucket < TableMetrics.BUCKETS; bucket++){
+            histograms[worker][bucket] = payload.getLong();
+        }
+    }
+
+    /**
+     * Finds the index of the worker on a connection.
+     * @param connection the connection.
+     * @return the index of the worker.
+     * @throws IOException if the connection has not said hello.
+     */
+    private int indexOf(ClusterConnection connection) throws IOException {
+        for (int worker = 0; worker < amountOfWorkers; worker++){
+            if (workers[worker] == connection){
+                return worker;
+            }
+        }
+        throw new IOException("A connection sent metrics before it said hello.");
+    }
+}
@@ -0,0 +1,177 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Represents the forks of one segment of a ring that is split across processes.
+ * The segment owns the fork on the left side of each of its seats. The fork on the right side of its last seat is
+ * owned by the next segment, so that seat asks for it over the network, and the seat before the first seat asks
+ * this segment for its first fork the same way.
+ * Asking for the remote fork never blocks. The first try sends a request and is refused, and the seat gets the
+ * fork on a later try if the owner granted it in the meantime. When the last seat thinks again or dies, a request
+ * that is still on its way is forgotten, and a grant that arrives when no request is waiting is sent straight back.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+class ClusterForks implements ForkAllocationStrategy {
+
+    private static final int FREE = 0;
+
+    private static final int REMOTE = -1;
+
+    private static final int NONE = 0;
+
+    private static final int REQUESTED = 1;
+
+    private static final int HELD = 2;
+
+    private final AtomicIntegerArray forks;
+
+    private final AtomicInteger remoteFork;
+
+    private volatile ClusterConnection next;
+
+    private volatile ClusterConnection previous;
+
+    /**
+     * Makes an instance of the ClusterForks class.
+     * @param amountOfSeats the amount of seats in the segment.
+     */
+    ClusterForks(int amountOfSeats) {
+        if (amountOfSeats <= 0){
+            throw new IllegalArgumentException("The amount of seats must be larger than 0.");
+        }
+        this.forks = new AtomicIntegerArray(amountOfSeats);
+        this.remoteFork = new AtomicInteger(NONE);
+    }
+
+    /**
+     * Sets the connections to the segments beside this one.
+     * @param next the connection to the segment that owns the right fork of the last seat.
+     * @param previous the connection to the segment whose last seat uses the first fork of this segment.
+     */
+    void setConnections(ClusterConnection next, ClusterConnection previous){
+        checkIfObjectIsNull(next, "next connection");
+        checkIfObjectIsNull(previous, "previous connection");
+        this.next = next;
+        this.previous = previous;
+    }
+
+    @Override
+    public boolean tryAcquire(int seat) {
+        checkSeat(seat);
+        int owner = seat + 1;
+        if (!forks.compareAndSet(seat, FREE, owner)){
+            if (seat + 1 == forks.length() && remoteFork.compareAndSet(HELD, NONE)){
+                next.send(ClusterConnection.FORK_RELEASE);
+            }
+            return false;
+        }
+        boolean acquired;
+        if (seat + 1 < forks.length()){
+            acquired = forks.compareAndSet(seat + 1, FREE, owner);
+        }else {
+            acquired = tryRemoteFork();
+        }
+        if (!acquired){
+            forks.compareAndSet(seat, owner, FREE);
+        }
+        return acquired;
+    }
+
+    @Override
+    public void release(int seat) {
+        checkSeat(seat);
+        int owner = seat + 1;
+        if (seat + 1 < forks.length()){
+            forks.compareAndSet(seat + 1, owner, FREE);
+        }else if (remoteFork.getAndSet(NONE) == HELD){
+            next.send(ClusterConnection.FORK_RELEASE);
+        }
+        forks.compareAndSet(seat, owner, FREE);
+    }
+
+    @Override
+    public String getName() {
+        return "Cluster per seat CAS";
+    }
+
+    /**
+     * Checks if the last seat holds the fork of the next segment.
+     * @return <code>true</code> if the fork was granted and not given back.
+     *         <code>false</code> if the fork is not held.
+     */
+    boolean isHoldingRemoteFork(){
+        return remoteFork.get() == HELD;
+    }
+
+    /**
+     * Handles the segment before asking for the first fork. Runs on the thread of the network.
+     */
+    void onForkRequest(){
+        boolean granted = forks.compareAndSet(0, FREE, REMOTE);
+        previous.send(granted ? ClusterConnection.FORK_GRANT : ClusterConnection.FORK_DENY);
+    }
+
+    /**
+     * Handles the segment before giving back the first fork. Runs on the thread of the network.
+     */
+    void onForkRelease(){
+        forks.compareAndSet(0, REMOTE, FREE);
+    }
+
+    /**
+     * Handles the next segment answering a request for its fork. Runs on the thread of the network.
+     * A grant that no seat waits for anymore is given back at once.
+     * @param granted <code>true</code> if the fork was granted.
+     *                <code>false</code> if it was denied.
+     */
+    void onForkAnswer(boolean granted){
+        if (granted){
+            if (!remoteFork.compareAndSet(REQUESTED, HELD)){
+                next.send(ClusterConnection.FORK_RELEASE);
+            }
+        }else {
+            remoteFork.compareAndSet(REQUESTED, NONE);
+        }
+    }
+
+    /**
+     * Takes the fork of the next segment if it was granted, or asks for it.
+     * A granted fork is given back by {@link #tryAcquire(int)} when the left fork is in use, so the next segment is
+     * not kept waiting for a fork nobody eats with.
+     * @return <code>true</code> if the last seat holds the remote fork.
+     *         <code>false</code> if it was asked for or is on its way.
+     */
+    private boolean tryRemoteFork(){
+        if (remoteFork.get() == HELD){
+            return true;
+        }
+        if (remoteFork.compareAndSet(NONE, REQUESTED)){
+            next.send(ClusterConnection.FORK_REQUEST);
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the seat is a valid seat in this segment.
+     * @param seat the seat to check.
+     */
+    private void checkSeat(int seat){
+        if (seat < 0 || seat >= forks.length()){
+            throw new IllegalArgumentException("The seat must be between 0 and " + (forks.length() - 1) + ".");
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
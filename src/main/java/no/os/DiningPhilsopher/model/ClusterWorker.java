@@ -0,0 +1,352 @@
+package no.os.DiningPhilsopher.model;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents one process of a table that is split across processes.
+ * The worker joins a {@link ClusterCoordinator}, gets a segment of the ring and runs the philosophers of that segment
+ * on a normal {@link Table}. It connects to the worker after it, and is connected to by the worker before it.
+ * Over these two channels the workers ask each other for the forks they share and tell each other when the seats
+ * at the ends of their segments change state. One thread runs the selector of every channel, so the philosophers
+ * never block on the network.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ClusterWorker {
+
+    private static final long METRICS_INTERVAL_MILLIS = 200;
+
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final InetSocketAddress coordinatorAddress;
+
+    private final int index;
+
+    private final LongAdder boundaryConflicts;
+
+    private final Logger logger;
+
+    private Selector selector;
+
+    private ClusterConnection coordinator;
+
+    private ClusterConnection next;
+
+    private ClusterConnection previous;
+
+    private volatile Table table;
+
+    private ClusterForks forks;
+
+    private int firstSeat;
+
+    private int amountOfWorkers;
+
+    private boolean readySent;
+
+    private boolean started;
+
+    private boolean done;
+
+    /**
+     * Makes an instance of the ClusterWorker class.
+     * @param coordinatorAddress the address the coordinator listens on.
+     * @param index the index of this worker, from 0 to the amount of workers - 1.
+     */
+    public ClusterWorker(InetSocketAddress coordinatorAddress, int index) {
+        checkIfObjectIsNull(coordinatorAddress, "coordinator address");
+        if (index < 0){
+            throw new IllegalArgumentException("The index cannot be negative.");
+        }
+        this.coordinatorAddress = coordinatorAddress;
+        this.index = index;
+        this.boundaryConflicts = new LongAdder();
+        this.logger = Logger.getLogger(getClass().getName());
+    }
+
+    /**
+     * Joins the coordinator and runs the segment until the coordinator says stop.
+     * @throws IOException if a channel fails or the coordinator goes away.
+     */
+    public void run() throws IOException {
+        try (Selector openSelector = Selector.open();
+             ServerSocketChannel server = ServerSocketChannel.open()){
+            selector = openSelector;
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            coordinator = new ClusterConnection(SocketChannel.open(coordinatorAddress));
+            coordinator.register(selector);
+            ByteBuffer hello = ClusterConnection.makeFrame(ClusterConnection.HELLO);
+            hello.putInt(index).putInt(((InetSocketAddress) server.getLocalAddress()).getPort());
+            coordinator.send(hello);
+            long nextMetrics = System.currentTimeMillis();
+            while (!done){
+                selector.select(METRICS_INTERVAL_MILLIS);
+                for (SelectionKey key : selector.selectedKeys()){
+                    handleKey(key, server);
+                }
+                selector.selectedKeys().clear();
+                if (started && !done && System.currentTimeMillis() >= nextMetrics){
+                    sendMetrics();
+                    nextMetrics = System.currentTimeMillis() + METRICS_INTERVAL_MILLIS;
+                }
+            }
+        }finally {
+            stopTable();
+            closeConnections();
+        }
+    }
+
+    /**
+     * Gets the table that runs the segment of this worker.
+     * @return the table, or null if the coordinator has not given this worker a segment yet.
+     */
+    public Table getTable(){
+        return table;
+    }
+
+    /**
+     * Gets the index in the ring of the first seat of this worker.
+     * @return the first seat.
+     */
+    public int getFirstSeat(){
+        return firstSeat;
+    }
+
+    /**
+     * Gets the amount of times a seat beside this segment said it started eating while the seat it shares a fork
+     * with in this segment was eating. This should always be zero.
+     * @return the amount of boundary conflicts.
+     */
+    public long getAmountOfBoundaryConflicts(){
+        return boundaryConflicts.sum();
+    }
+
+    /**
+     * Handles one channel that is ready.
+     * @param key the key of the channel.
+     * @param server the channel the neighbour connects to.
+     * @throws IOException if the channel fails.
+     */
+    private void handleKey(SelectionKey key, ServerSocketChannel server) throws IOException {
+        if (!key.isValid()){
+            return;
+        }
+        if (key.isAcceptable()){
+            SocketChannel accepted = server.accept();
+            if (accepted != null){
+                new ClusterConnection(accepted).register(selector);
+            }
+            return;
+        }
+        ClusterConnection connection = (ClusterConnection) key.attachment();
+        if (key.isReadable() && !connection.read(this::handleFrame)){
+            if (connection == coordinator && !done){
+                throw new IOException("The coordinator closed the connection to worker " + index + ".");
+            }
+            key.cancel();
+            connection.close();
+            return;
+        }
+        if (key.isValid() && key.isWritable()){
+            connection.flush();
+        }
+    }
+
+    /**
+     * Handles one frame from the coordinator or a neighbour.
+     * @param connection the connection the frame came from.
+     * @param type the type of the frame.
+     * @param payload the payload.
+     * @throws IOException if the frame could not be handled.
+     */
+    private void handleFrame(ClusterConnection connection, byte type, ByteBuffer payload) throws IOException {
+        switch (type){
+            case ClusterConnection.ASSIGN -> assign(payload);
+            case ClusterConnection.PEER -> {
+                previous = connection;
+                checkIfReady();
+            }
+            case ClusterConnection.START -> {
+                table.startSimulation();
+                started = true;
+            }
+            case ClusterConnection.STOP -> stop();
+            case ClusterConnection.FORK_REQUEST -> forks.onForkRequest();
+            case ClusterConnection.FORK_RELEASE -> forks.onForkRelease();
+            case ClusterConnection.FORK_GRANT -> forks.onForkAnswer(true);
+            case ClusterConnection.FORK_DENY -> forks.onForkAnswer(false);
+            case ClusterConnection.STATE -> handleNeighbourState(connection, payload.getInt(), State.values()[payload.get()]);
+            default -> throw new IOException("The frame type " + type + " is not sent to workers.");
+        }
+    }
+
+    /**
+     * Makes the table of the segment the coordinator gave this worker, and connects to the next worker.
+     * @param payload the payload of the assign frame.
+     * @throws IOException if the next worker could not be reached.
+     */
+    private void assign(ByteBuffer payload) throws IOException {
+        int amountOfSeats = payload.getInt();
+        firstSeat = payload.getInt();
+        int size = payload.getInt();
+        int delay = payload.getInt();
+        int startingHunger = payload.getInt();
+        amountOfWorkers = payload.getInt();
+        int nextPort = payload.getInt();
+        long seed = payload.getLong();
+        boolean isRandom = payload.get() != 0;
+        ExecutionMode executionMode = ExecutionMode.VIRTUAL_THREADS.isAvailable() ? ExecutionMode.VIRTUAL_THREADS
+                : ExecutionMode.PLATFORM_THREADS;
+        Table segment = new Table(size, delay, ArbitrationMode.PER_SEAT_CAS, executionMode, Table.makeFoods(), isRandom,
+                new Random(seed).nextLong() + index, startingHunger);
+        if (amountOfWorkers > 1){
+            forks = new ClusterForks(size);
+            segment.setForkAllocationStrategy(forks);
+            List<Philosopher> philosophers = segment.getPhilosophers();
+            int lastSeat = firstSeat + size - 1;
+            philosophers.get(0).getListeners().addStateChangeListener((id, state) -> sendState(previous, firstSeat, state));
+            philosophers.get(size - 1).getListeners().addStateChangeListener((id, state) -> sendState(next, lastSeat, state));
+            next = new ClusterConnection(SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), nextPort)));
+            next.register(selector);
+            ByteBuffer peer = ClusterConnection.makeFrame(ClusterConnection.PEER);
+            peer.putInt(index);
+            next.send(peer);
+        }
+        table = segment;
+        logger.log(Level.FINE, "Worker {0} runs seats {1} to {2} of {3}.", new Object[]{index, firstSeat, firstSeat + size - 1, amountOfSeats});
+        checkIfReady();
+    }
+
+    /**
+     * Tells the coordinator that this worker is ready once it has a segment and is connected to both its neighbours.
+     */
+    private void checkIfReady(){
+        boolean connected = amountOfWorkers == 1 || (next != null && previous != null);
+        if (!readySent && table != null && connected){
+            if (forks != null){
+                forks.setConnections(next, previous);
+            }
+            readySent = true;
+            coordinator.send(ClusterConnection.READY);
+        }
+    }
+
+    /**
+     * Tells a neighbour that a seat at the end of this segment changed state.
+     * @param connection the connection to the neighbour.
+     * @param seat the seat in the ring.
+     * @param state the new state.
+     */
+    private void sendState(ClusterConnection connection, int seat, State state){
+        if (connection != null){
+            ByteBuffer frame = ClusterConnection.makeFrame(ClusterConnection.STATE);
+            frame.putInt(seat).put((byte) state.ordinal());
+            connection.send(frame);
+        }
+    }
+
+    /**
+     * Checks that a seat beside this segment does not start eating while the seat it shares a fork with is eating.
+     * @param connection the connection the state came from.
+     * @param seat the seat in the ring.
+     * @param state the new state of the seat.
+     */
+    private void handleNeighbourState(ClusterConnection connection, int seat, State state){
+        if (state == State.EATING){
+            List<Philosopher> philosophers = table.getPhilosophers();
+            Philosopher beside = connection == previous ? philosophers.get(0) : philosophers.get(philosophers.size() - 1);
+            if (beside.getState() == State.EATING){
+                boundaryConflicts.increment();
+                logger.log(Level.WARNING, "Seat {0} started eating beside a seat of worker {1} that was eating.", new Object[]{seat, index});
+            }
+        }
+    }
+
+    /**
+     * Stops the philosophers, sends the last metrics and tells the coordinator this worker is done.
+     * @throws IOException if the last frames could not be written.
+     */
+    private void stop() throws IOException {
+        stopTable();
+        if (table != null){
+            sendMetrics();
+        }
+        coordinator.send(ClusterConnection.DONE);
+        coordinator.flushFully();
+        done = true;
+    }
+
+    /**
+     * Stops the philosophers if they were started.
+     */
+    private void stopTable(){
+        if (started){
+            started = false;
+            table.stopSimulation();
+            try {
+                table.awaitStop(STOP_TIMEOUT_MILLIS);
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Sends the metrics of the segment to the coordinator.
+     */
+    private void sendMetrics(){
+        MetricsSnapshot snapshot = table.getMetricsSnapshot();
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (Philosopher philosopher : table.getPhilosophers()){
+            double timesEating = philosopher.getAmountOfTimesEating();
+            sum += timesEating;
+            sumOfSquares += timesEating * timesEating;
+        }
+        ByteBuffer frame = ClusterConnection.makeFrame(ClusterConnection.METRICS);
+        frame.putLong(snapshot.getElapsedNanos()).putLong(snapshot.getMeals()).putLong(snapshot.getRefusals())
+                .putLong(snapshot.getDeaths()).putLong(snapshot.getTransitions())
+                .putLong(snapshot.getTotalWaitNanos()).putLong(snapshot.getMaxWaitNanos())
+                .putLong(boundaryConflicts.sum()).putDouble(sum).putDouble(sumOfSquares);
+        for (long bucket : snapshot.getWaitHistogram()){
+            frame.putLong(bucket);
+        }
+        coordinator.send(frame);
+    }
+
+    /**
+     * Closes every channel of this worker.
+     */
+    private void closeConnections(){
+        for (ClusterConnection connection : new ClusterConnection[]{coordinator, next, previous}){
+            if (connection != null){
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
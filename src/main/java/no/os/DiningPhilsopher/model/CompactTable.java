@@ -0,0 +1,224 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.List;
+
+/**
+ * Represents a table where the philosophers only exist as seats in a {@link SeatStateStore}.
+ * It follows the same rules as a {@link Table} run by a {@link VirtualTimeSimulation}, but uses a few bytes for each seat
+ * instead of one philosopher object, so tables with millions of seats fit in memory.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class CompactTable {
+
+    private final SeatStateStore store;
+
+    private final FoodPool foodPool;
+
+    private final EventQueue events;
+
+    private final int delay;
+
+    private long virtualTime;
+
+    private long amountOfHandledEvents;
+
+    /**
+     * Makes a compact table with the same amount of food and hunger as a normal table.
+     * @param amount the amount of philosophers.
+     * @param delay the amount of delay in milli-seconds.
+     */
+    public CompactTable(int amount, int delay) {
+        this(amount, delay, Table.makeFoods());
+    }
+
+    /**
+     * Makes a compact table with the wanted bowls of food.
+     * @param amount the amount of philosophers.
+     * @param delay the amount of delay in milli-seconds.
+     * @param foods the bowls of food on the table.
+     */
+    public CompactTable(int amount, int delay, List<Food> foods) {
+        checkIfObjectIsNull(foods, "foods");
+        if (delay < 0){
+            throw new IllegalArgumentException("The delay cannot be negative.");
+        }
+        this.store = new SeatStateStore(amount);
+        this.foodPool = new FoodPool(foods);
+        this.events = new EventQueue(amount);
+        this.delay = delay;
+        this.virtualTime = 0;
+        this.amountOfHandledEvents = 0;
+        int hunger = Table.getStartingHunger(amount, delay);
+        for (int seat = 0; seat < amount; seat++){
+            store.setHunger(seat, hunger, hunger);
+            events.add(0, seat, EventQueue.STEP);
+        }
+    }
+
+    /**
+     * Runs the table until the virtual clock passes the wanted time or no seat has anything left to do.
+     * @param durationInMillis the amount of virtual milliseconds to run from the current virtual time.
+     * @return the amount of events that was handled during this run.
+     */
+    public long run(long durationInMillis){
+        if (durationInMillis < 0){
+            throw new IllegalArgumentException("The duration in millis cannot be negative.");
+        }
+        long endTime = virtualTime + durationInMillis;
+        long handledBefore = amountOfHandledEvents;
+        while (!events.isEmpty() && events.getFirstTime() <= endTime){
+            virtualTime = events.getFirstTime();
+            int seat = events.getFirstSeat();
+            byte type = events.getFirstType();
+            events.removeFirst();
+            handleEvent(seat, type);
+            amountOfHandledEvents += 1;
+        }
+        if (!events.isEmpty()){
+            virtualTime = endTime;
+        }
+        return amountOfHandledEvents - handledBefore;
+    }
+
+    /**
+     * Gets the store with the state of every seat.
+     * @return the seat state store.
+     */
+    public SeatStateStore getStore(){
+        return store;
+    }
+
+    /**
+     * Gets a view of one seat that looks like a philosopher.
+     * @param seat the index of the seat.
+     * @return the view of the seat.
+     */
+    public SeatView getView(int seat){
+        return store.getView(seat);
+    }
+
+    /**
+     * Gets the virtual time in milliseconds since the table started.
+     * @return the virtual time.
+     */
+    public long getVirtualTime(){
+        return virtualTime;
+    }
+
+    /**
+     * Gets the amount of events that has been handled.
+     * @return the amount of handled events.
+     */
+    public long getAmountOfHandledEvents(){
+        return amountOfHandledEvents;
+    }
+
+    /**
+     * Checks if there are seats that still have something to do.
+     * @return <code>true</code> if there are events left.
+     *         <code>false</code> if all the seats are done.
+     */
+    public boolean hasEventsLeft(){
+        return !events.isEmpty();
+    }
+
+    /**
+     * Handles one event for a seat.
+     * @param seat the index of the seat.
+     * @param type the type of event.
+     */
+    private void handleEvent(int seat, byte type){
+        switch (type){
+            case EventQueue.HUNGER_TICK -> {
+                live(seat);
+                takeTurn(seat);
+            }
+            case EventQueue.EAT_END -> {
+                finishEating(seat);
+                events.add(virtualTime + delay, seat, EventQueue.HUNGER_TICK);
+            }
+            default -> takeTurn(seat);
+        }
+    }
+
+    /**
+     * Starts a new turn for a seat and schedules the event that ends it.
+     * @param seat the index of the seat.
+     */
+    private void takeTurn(int seat){
+        State state = store.getState(seat);
+        if (store.getHunger(seat) <= 0){
+            store.setState(seat, State.DEAD);
+        }else if (state == State.EATING){
+            startEating(seat);
+            events.add(virtualTime + delay, seat, EventQueue.EAT_END);
+        }else if (state != State.DEAD){
+            if (state == State.HUNGRY && askForFood(seat)){
+                events.add(virtualTime, seat, EventQueue.STEP);
+            }else {
+                events.add(virtualTime + delay, seat, EventQueue.HUNGER_TICK);
+            }
+        }
+    }
+
+    /**
+     * Looses one hunger and gets hungry if the hunger is low enough.
+     * @param seat the index of the seat.
+     */
+    private void live(int seat){
+        if (store.addHunger(seat, -1) <= store.getFinalHunger(seat) / 2){
+            store.setState(seat, State.HUNGRY);
+        }
+    }
+
+    /**
+     * Serves a seat if no one beside is eating and a bowl with food is free.
+     * @param seat the index of the seat.
+     * @return <code>true</code> if the seat got food.
+     *         <code>false</code> if the seat was refused.
+     */
+    private boolean askForFood(int seat){
+        boolean served = false;
+        if (foodPool.hasFood() && !store.isNeighbourEating(seat)){
+            int bowl = foodPool.takeBowl();
+            if (bowl != -1){
+                store.setBowl(seat, bowl);
+                store.setState(seat, State.EATING);
+                served = true;
+            }
+        }
+        return served;
+    }
+
+    /**
+     * Takes the food the seat needs out of its bowl.
+     * @param seat the index of the seat.
+     */
+    private void startEating(int seat){
+        Food food = foodPool.getFood(store.getBowl(seat));
+        store.addHunger(seat, food.takePortion(store.getFinalHunger(seat) - store.getHunger(seat)));
+    }
+
+    /**
+     * Ends the meal of a seat and gives the bowl back.
+     * @param seat the index of the seat.
+     */
+    private void finishEating(int seat){
+        store.setState(seat, State.THINKING);
+        store.addMeal(seat);
+        foodPool.getFood(store.getBowl(seat)).setTaken(false);
+        store.setBowl(seat, -1);
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents a log where the philosopher threads write small fixed size events and one background thread formats them.
+ * An event is a seat, a type, a time and an amount that goes into preallocated arrays, so writing an event never
+ * allocates or formats anything. The arrays are a ring that many threads write to and one thread reads from.
+ * When the ring is full the event is dropped and counted instead of making the philosopher wait.
+ * When the log is not started nothing is written at all.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class EventLog {
+
+    /**
+     * The amount of events the ring holds if nothing else is said.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final long IDLE_NANOS = 1_000_000;
+
+    private final int mask;
+
+    private final int[] seats;
+
+    private final byte[] types;
+
+    private final long[] times;
+
+    private final int[] amounts;
+
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed;
+
+    private volatile long consumed;
+
+    private final LongAdder dropped;
+
+    private final long epochNanosAtStart;
+
+    private final long nanoTimeAtStart;
+
+    private volatile boolean running;
+
+    private EventLogWriter writer;
+
+    private Thread thread;
+
+    /**
+     * Makes an instance of the EventLog class.
+     * @param capacity the amount of events the ring holds. Is rounded up to a power of two.
+     */
+    public EventLog(int capacity) {
+        if (capacity <= 0){
+            throw new IllegalArgumentException("The capacity must be above zero.");
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.seats = new int[size];
+        this.types = new byte[size];
+        this.times = new long[size];
+        this.amounts = new int[size];
+        this.published = new AtomicLongArray(size);
+        this.claimed = new AtomicLong();
+        this.consumed = 0;
+        this.dropped = new LongAdder();
+        this.epochNanosAtStart = System.currentTimeMillis() * 1_000_000;
+        this.nanoTimeAtStart = System.nanoTime();
+        this.running = false;
+    }
+
+    /**
+     * Writes an event to the ring if the log is started.
+     * @param seat the index of the seat the event is about.
+     * @param type the type of event.
+     * @param amount the amount of the event, see {@link EventType}.
+     * @return <code>true</code> if the event was put in the ring.
+     *         <code>false</code> if the log is not started or the ring is full.
+     */
+    public boolean record(int seat, EventType type, int amount){
+        if (!running){
+            return false;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed > mask){
+                dropped.increment();
+                return false;
+            }
+        }while (!claimed.compareAndSet(sequence, sequence + 1));
+        int index = (int) sequence & mask;
+        seats[index] = seat;
+        types[index] = (byte) type.ordinal();
+        times[index] = System.nanoTime();
+        amounts[index] = amount;
+        published.setRelease(index, sequence + 1);
+        return true;
+    }
+
+    /**
+     * Starts the background thread that gives the events to a writer.
+     * @param writer the writer the events should go to.
+     */
+    public synchronized void start(EventLogWriter writer){
+        checkIfObjectIsNull(writer, "writer");
+        if (running){
+            throw new IllegalStateException("The event log is already started.");
+        }
+        this.writer = writer;
+        this.running = true;
+        this.thread = new Thread(this::writeUntilStopped, "event-log");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the background thread after it has written the events that are in the ring.
+     */
+    public synchronized void stop(){
+        if (running){
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    /**
+     * Checks if the log is started.
+     * @return <code>true</code> if events are written.
+     *         <code>false</code> if events are ignored.
+     */
+    public boolean isRunning(){
+        return running;
+    }
+
+    /**
+     * Gets the amount of events that was dropped since the ring was full.
+     * @return the amount of dropped events.
+     */
+    public long getAmountOfDroppedEvents(){
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the amount of events the ring holds.
+     * @return the capacity.
+     */
+    public int getCapacity(){
+        return mask + 1;
+    }
+
+    /**
+     * Gives all the events that are ready to a writer. Only one thread may drain at the time.
+     * @param eventLogWriter the writer to give the events to.
+     * @return the amount of events that was written.
+     */
+    int drainTo(EventLogWriter eventLogWriter){
+        long next = consumed;
+        int index = (int) next & mask;
+        int amountWritten = 0;
+        while (published.getAcquire(index) == next + 1){
+            eventLogWriter.write(seats[index], EventType.fromOrdinal(types[index]),
+                    epochNanosAtStart + (times[index] - nanoTimeAtStart), amounts[index]);
+            next += 1;
+            amountWritten += 1;
+            consumed = next;
+            index = (int) next & mask;
+        }
+        return amountWritten;
+    }
+
+    /**
+     * Writes events until the log is stopped and the ring is empty.
+     */
+    private void writeUntilStopped(){
+        try {
+            boolean stopping = false;
+            while (!stopping){
+                stopping = !running;
+                if (drainTo(writer) > 0){
+                    writer.flush();
+                }else if (!stopping){
+                    LockSupport.parkNanos(IDLE_NANOS);
+                }
+            }
+        }finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents where the events of an {@link EventLog} end up. The writer is only called from the thread of the event log.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public interface EventLogWriter {
+
+    /**
+     * Writes one event.
+     * @param seat the index of the seat the event is about.
+     * @param type the type of event.
+     * @param epochNanos the time of the event in nanoseconds since the epoch.
+     * @param amount the amount of the event, see {@link EventType}.
+     */
+    void write(int seat, EventType type, long epochNanos, int amount);
+
+    /**
+     * Called when the event log has written all the events it has for now.
+     */
+    default void flush(){
+    }
+
+    /**
+     * Called when the event log stops.
+     */
+    default void close(){
+    }
+}
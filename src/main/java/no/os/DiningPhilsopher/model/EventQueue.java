@@ -0,0 +1,195 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents a queue of scheduled events ordered by time, made as a binary heap over plain arrays.
+ * An event is a time, a seat and a type, and no objects are made when events are added or removed.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+class EventQueue {
+
+    /**
+     * The philosopher starts a new turn where it thinks, asks for food or starts eating.
+     */
+    static final byte STEP = 0;
+
+    /**
+     * The philosopher has slept one delay and looses one hunger.
+     */
+    static final byte HUNGER_TICK = 1;
+
+    /**
+     * The philosopher is done with its meal.
+     */
+    static final byte EAT_END = 2;
+
+    private final long[] eventTimes;
+
+    private final long[] eventNumbers;
+
+    private final int[] eventSeats;
+
+    private final byte[] eventTypes;
+
+    private int amountOfEvents;
+
+    private long nextEventNumber;
+
+    /**
+     * Makes an instance of the EventQueue class.
+     * @param capacity the largest amount of events that can be in the queue at the same time.
+     */
+    public EventQueue(int capacity) {
+        if (capacity <= 0){
+            throw new IllegalArgumentException("The capacity must be larger than 0.");
+        }
+        this.eventTimes = new long[capacity];
+        this.eventNumbers = new long[capacity];
+        this.eventSeats = new int[capacity];
+        this.eventTypes = new byte[capacity];
+        this.amountOfEvents = 0;
+        this.nextEventNumber = 0;
+    }
+
+    /**
+     * Checks if the queue has no events.
+     * @return <code>true</code> if the queue is empty.
+     *         <code>false</code> if there are events in the queue.
+     */
+    public boolean isEmpty(){
+        return amountOfEvents == 0;
+    }
+
+    /**
+     * Gets the amount of events in the queue.
+     * @return the amount of events.
+     */
+    public int size(){
+        return amountOfEvents;
+    }
+
+    /**
+     * Gets the time of the first event.
+     * @return the time of the first event.
+     */
+    public long getFirstTime(){
+        return eventTimes[0];
+    }
+
+    /**
+     * Gets the seat of the first event.
+     * @return the seat of the first event.
+     */
+    public int getFirstSeat(){
+        return eventSeats[0];
+    }
+
+    /**
+     * Gets the type of the first event.
+     * @return the type of the first event.
+     */
+    public byte getFirstType(){
+        return eventTypes[0];
+    }
+
+    /**
+     * Adds an event to the queue. Events with the same time are handled in the order they were added.
+     * @param time the virtual time of the event.
+     * @param seat the seat the event is for.
+     * @param type the type of event.
+     */
+    public void add(long time, int seat, byte type){
+        int index = amountOfEvents;
+        amountOfEvents += 1;
+        long number = nextEventNumber;
+        nextEventNumber += 1;
+        while (index > 0){
+            int parent = (index - 1) >>> 1;
+            if (!isBefore(time, number, parent)){
+                break;
+            }
+            moveEvent(parent, index);
+            index = parent;
+        }
+        setEvent(index, time, number, seat, type);
+    }
+
+    /**
+     * Removes the first event in the queue.
+     */
+    public void removeFirst(){
+        amountOfEvents -= 1;
+        int last = amountOfEvents;
+        if (last > 0){
+            long time = eventTimes[last];
+            long number = eventNumbers[last];
+            int seat = eventSeats[last];
+            byte type = eventTypes[last];
+            int index = 0;
+            int half = last >>> 1;
+            while (index < half){
+                int child = 2 * index + 1;
+                int right = child + 1;
+                if (right < last && isBefore(eventTimes[right], eventNumbers[right], child)){
+                    child = right;
+                }
+                if (!isBefore(eventTimes[child], eventNumbers[child], time, number)){
+                    break;
+                }
+                moveEvent(child, index);
+                index = child;
+            }
+            setEvent(index, time, number, seat, type);
+        }
+    }
+
+    /**
+     * Checks if an event should be handled before the event at an index.
+     * @param time the time of the event.
+     * @param number the number of the event.
+     * @param index the index of the other event.
+     * @return <code>true</code> if the event comes first.
+     *         <code>false</code> if the event at the index comes first.
+     */
+    private boolean isBefore(long time, long number, int index){
+        return isBefore(time, number, eventTimes[index], eventNumbers[index]);
+    }
+
+    /**
+     * Checks if one event should be handled before another.
+     * @param time the time of the first event.
+     * @param number the number of the first event.
+     * @param otherTime the time of the other event.
+     * @param otherNumber the number of the other event.
+     * @return <code>true</code> if the first event comes first.
+     *         <code>false</code> if the other event comes first.
+     */
+    private boolean isBefore(long time, long number, long otherTime, long otherNumber){
+        return time < otherTime || (time == otherTime && number < otherNumber);
+    }
+
+    /**
+     * Moves an event from one index to another.
+     * @param from the index to move from.
+     * @param to the index to move to.
+     */
+    private void moveEvent(int from, int to){
+        setEvent(to, eventTimes[from], eventNumbers[from], eventSeats[from], eventTypes[from]);
+    }
+
+    /**
+     * Sets the event at an index.
+     * @param index the index in the queue.
+     * @param time the time of the event.
+     * @param number the number of the event.
+     * @param seat the seat the event is for.
+     * @param type the type of event.
+     */
+    private void setEvent(int index, long time, long number, int seat, byte type){
+        eventTimes[index] = time;
+        eventNumbers[index] = number;
+        eventSeats[index] = seat;
+        eventTypes[index] = type;
+    }
+
+}
@@ -0,0 +1,70 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.logging.Level;
+
+/**
+ * Represents the kinds of events that are written to an {@link EventLog}.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public enum EventType {
+
+    /**
+     * A philosopher is thinking. The amount is not used.
+     */
+    THINKING(Level.FINE),
+
+    /**
+     * A philosopher got a bowl. The amount is the index of the bowl.
+     */
+    RECEIVED_FOOD(Level.FINE),
+
+    /**
+     * A philosopher is eating. The amount is the amount of food taken from the bowl.
+     */
+    EATING(Level.FINE),
+
+    /**
+     * A philosopher was refused since the forks are taken. The amount is not used.
+     */
+    REFUSED(Level.WARNING),
+
+    /**
+     * A philosopher asked for food and got none. The amount is not used.
+     */
+    PANICKED(Level.INFO),
+
+    /**
+     * A philosopher died of starvation. The amount is the amount of times the philosopher ate.
+     */
+    DIED(Level.INFO);
+
+    private static final EventType[] TYPES = values();
+
+    private final Level level;
+
+    /**
+     * Makes an event type.
+     * @param level the level the event is logged at.
+     */
+    EventType(Level level) {
+        this.level = level;
+    }
+
+    /**
+     * Gets the level the event is logged at.
+     * @return the log level.
+     */
+    public Level getLevel(){
+        return level;
+    }
+
+    /**
+     * Gets the event type with a given ordinal without making a new array.
+     * @param ordinal the ordinal of the event type.
+     * @return the event type.
+     */
+    static EventType fromOrdinal(int ordinal){
+        return TYPES[ordinal];
+    }
+}
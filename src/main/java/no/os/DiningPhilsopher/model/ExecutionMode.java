@@ -0,0 +1,38 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Represents the kind of threads the philosophers of a table run on.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public enum ExecutionMode {
+
+    /**
+     * One platform thread for each philosopher.
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * One virtual thread for each philosopher. Sleeping philosophers park without holding a platform thread.
+     */
+    VIRTUAL_THREADS;
+
+    /**
+     * Checks if this mode can be used on the running Java version.
+     * @return <code>true</code> if the mode can be used.
+     *         <code>false</code> if the running Java version does not support the mode.
+     */
+    public boolean isAvailable(){
+        boolean available = true;
+        if (this == VIRTUAL_THREADS){
+            try {
+                Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            }catch (NoSuchMethodException exception){
+                available = false;
+            }
+        }
+        return available;
+    }
+}
@@ -0,0 +1,76 @@
+package no.os.DiningPhilsopher.model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Represents a writer that puts the events of a table in a file with one comma separated line for each event.
+ * The columns are the time in nanoseconds since the epoch, the seat, the event type and the amount.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class FileEventLogWriter implements EventLogWriter {
+
+    private final BufferedWriter writer;
+
+    /**
+     * Makes an instance of the FileEventLogWriter class. The file is made or emptied.
+     * @param path the path of the file.
+     * @throws IOException if the file could not be opened.
+     */
+    public FileEventLogWriter(Path path) throws IOException {
+        checkIfObjectIsNull(path, "path");
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        writer.write("epochNanos,seat,event,amount");
+        writer.newLine();
+    }
+
+    @Override
+    public void write(int seat, EventType type, long epochNanos, int amount) {
+        try {
+            writer.write(Long.toString(epochNanos));
+            writer.write(',');
+            writer.write(Integer.toString(seat));
+            writer.write(',');
+            writer.write(type.name());
+            writer.write(',');
+            writer.write(Integer.toString(amount));
+            writer.newLine();
+        }catch (IOException exception){
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        }catch (IOException exception){
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        }catch (IOException exception){
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
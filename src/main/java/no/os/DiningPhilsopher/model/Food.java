@@ -1,16 +1,23 @@
 package no.os.DiningPhilsopher.model;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author Group 15
  * @version 0.1
  */
 public class Food {
 
-    private int amountOfFood;
+    private final AtomicInteger amountOfFood;
 
     private String foodName;
 
-    private boolean taken;
+    private final AtomicBoolean taken;
+
+    private FoodPool pool;
+
+    private int bowl;
 
     /**
      * Makes an instance of the Food class.
@@ -19,8 +26,9 @@ public class Food {
         ifNumberIsAboveZero(amountOfFood, "amount of food");
         checkString(foodName, "food name");
         this.foodName = foodName;
-        this.amountOfFood = amountOfFood;
-        taken = false;
+        this.amountOfFood = new AtomicInteger(amountOfFood);
+        this.bowl = -1;
+        taken = new AtomicBoolean(false);
     }
 
     /**
@@ -29,7 +37,28 @@ public class Food {
      */
     public void removeAmountOfFood(int amountOfFood){
         ifNumberIsAboveZero(amountOfFood, "amount of food");
-        this.amountOfFood = this.amountOfFood - amountOfFood;
+        int amountAfter = this.amountOfFood.addAndGet(-amountOfFood);
+        checkIfEmptied(amountAfter + amountOfFood, amountAfter);
+    }
+
+    /**
+     * Takes up to a wanted amount of food from the bowl in one atomic step.
+     * @param wantedAmount the amount of food that is wanted.
+     * @return the amount that was taken, which is less than wanted if the bowl did not have enough.
+     */
+    public int takePortion(int wantedAmount){
+        int taken = 0;
+        if (wantedAmount > 0){
+            int amountBefore;
+            int amountAfter;
+            do {
+                amountBefore = amountOfFood.get();
+                taken = Math.max(0, Math.min(wantedAmount, amountBefore));
+                amountAfter = amountBefore - taken;
+            }while (taken > 0 && !amountOfFood.compareAndSet(amountBefore, amountAfter));
+            checkIfEmptied(amountBefore, amountAfter);
+        }
+        return taken;
     }
 
     /**
@@ -37,7 +66,7 @@ public class Food {
      * @return gets the amount of food.
      */
     public int getAmountOfFood(){
-        return amountOfFood;
+        return amountOfFood.get();
     }
 
     /**
@@ -46,16 +75,60 @@ public class Food {
      *         <code>false</code> if the food is not being used by someone else.
      */
     public boolean isTaken(){
-        return taken;
+        return taken.get();
     }
 
     /**
-     * Sets if the food is in use of another
+     * Takes the food if no one else is using it.
+     * @return <code>true</code> if the food was taken by this call.
+     *         <code>false</code> if the food is already in use by someone else.
+     */
+    public boolean takeIfAvailable(){
+        return taken.compareAndSet(false, true);
+    }
+
+    /**
+     * Sets if the food is in use of another. Giving the food back puts it in its pool again, but never twice.
      * @param taken <code>true</code> if the food is getting eaten by another.
      *              <code>false</code> if the food is not getting eaten by another.
      */
     public void setTaken(boolean taken){
-        this.taken = taken;
+        boolean wasTaken = this.taken.getAndSet(taken);
+        if (wasTaken && !taken && pool != null && getAmountOfFood() > 0){
+            pool.returnBowl(bowl);
+        }
+    }
+
+    /**
+     * Puts the food in a pool. When the food is given back with {@link #setTaken(boolean)} it goes back to the pool.
+     * @param pool the pool the food belongs to.
+     * @param bowl the index of the bowl in the pool.
+     */
+    void addToPool(FoodPool pool, int bowl){
+        if (this.pool != null){
+            throw new IllegalArgumentException("The food " + foodName + " is already in a pool.");
+        }
+        this.pool = pool;
+        this.bowl = bowl;
+    }
+
+    /**
+     * Gets the index of the bowl the food is in.
+     * @return the index of the bowl, or -1 if the food is not in a pool.
+     */
+    int getBowl(){
+        return bowl;
+    }
+
+    /**
+     * Tells the pool if this call emptied the bowl.
+     * @param amountBefore the amount before the change.
+     * @param amountAfter the amount after the change.
+     */
+    private void checkIfEmptied(int amountBefore, int amountAfter){
+        if (amountBefore > 0 && amountAfter <= 0 && pool != null){
+            pool.bowlEmptied();
+        }
     }
 
     /**
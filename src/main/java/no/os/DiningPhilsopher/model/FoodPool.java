@@ -0,0 +1,177 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the bowls of food on a table that many philosophers take from at the same time.
+ * Free bowls with food left are kept in a lock-free stack, so serving takes one bowl off the top instead of searching all the bowls.
+ * A counter of bowls that still have food answers "is there any food left" without looking at the bowls.
+ * Each bowl has a flag that is set while it is on the stack, so a bowl is never pushed twice however often it is given back.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class FoodPool {
+
+    private static final long EMPTY = 0;
+
+    private final List<Food> foods;
+
+    private final Food[] bowls;
+
+    private final AtomicIntegerArray nextFreeBowl;
+
+    private final AtomicIntegerArray bowlsOnStack;
+
+    private final AtomicLong freeBowlsHead;
+
+    private final AtomicInteger bowlsWithFood;
+
+    /**
+     * Makes an instance of the FoodPool class.
+     * @param foods the bowls of food. Each food can only be in one pool.
+     */
+    public FoodPool(List<Food> foods) {
+        checkIfObjectIsNull(foods, "foods");
+        this.bowls = foods.toArray(new Food[0]);
+        this.foods = Collections.unmodifiableList(foods);
+        this.nextFreeBowl = new AtomicIntegerArray(bowls.length);
+        this.bowlsOnStack = new AtomicIntegerArray(bowls.length);
+        this.freeBowlsHead = new AtomicLong(EMPTY);
+        this.bowlsWithFood = new AtomicInteger(0);
+        for (int bowl = bowls.length - 1; bowl >= 0; bowl--){
+            Food food = bowls[bowl];
+            checkIfObjectIsNull(food, "food");
+            food.addToPool(this, bowl);
+            if (food.getAmountOfFood() > 0){
+                bowlsWithFood.incrementAndGet();
+                if (!food.isTaken()){
+                    returnBowl(bowl);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a free bowl that has food in it.
+     * @return the index of the bowl, or -1 if no bowl with food is free.
+     */
+    public int takeBowl(){
+        int bowl = popFreeBowl();
+        while (bowl != -1 && (bowls[bowl].getAmountOfFood() <= 0 || !bowls[bowl].takeIfAvailable())){
+            bowl = popFreeBowl();
+        }
+        return bowl;
+    }
+
+    /**
+     * Takes a free food that has food in it.
+     * @return the food, or <code>null</code> if no bowl with food is free.
+     */
+    public Food takeFood(){
+        int bowl = takeBowl();
+        return bowl == -1 ? null : bowls[bowl];
+    }
+
+    /**
+     * Gets the food in a bowl.
+     * @param bowl the index of the bowl.
+     * @return the food.
+     */
+    public Food getFood(int bowl){
+        return bowls[bowl];
+    }
+
+    /**
+     * Checks if any bowl still has food in it.
+     * @return <code>true</code> if there is still food available.
+     *         <code>false</code> if there is no food available.
+     */
+    public boolean hasFood(){
+        return bowlsWithFood.get() > 0;
+    }
+
+    /**
+     * Gets the amount of bowls that still have food in them.
+     * @return the amount of bowls with food.
+     */
+    public int getAmountOfBowlsWithFood(){
+        return bowlsWithFood.get();
+    }
+
+    /**
+     * Gets the amount of bowls.
+     * @return the amount of bowls.
+     */
+    public int getAmountOfBowls(){
+        return bowls.length;
+    }
+
+    /**
+     * Gets all the bowls of food.
+     * @return a list that cannot be changed with the foods.
+     */
+    public List<Food> getFoods(){
+        return foods;
+    }
+
+    /**
+     * Puts a bowl back on the stack of free bowls, unless it is already on the stack.
+     * @param bowl the index of the bowl.
+     */
+    void returnBowl(int bowl){
+        if (!bowlsOnStack.compareAndSet(bowl, 0, 1)){
+            return;
+        }
+        long head;
+        long newHead;
+        do {
+            head = freeBowlsHead.get();
+            nextFreeBowl.set(bowl, (int) head);
+            newHead = (((head >>> 32) + 1) << 32) | (bowl + 1);
+        }while (!freeBowlsHead.compareAndSet(head, newHead));
+    }
+
+    /**
+     * Counts one bowl less with food in it.
+     */
+    void bowlEmptied(){
+        bowlsWithFood.decrementAndGet();
+    }
+
+    /**
+     * Takes the bowl on the top of the stack of free bowls.
+     * The upper half of the head counts the changes, so a bowl that is taken and put back between two reads is noticed.
+     * The flag of the bowl is cleared after it is taken off, so whoever holds the bowl can put it back.
+     * @return the index of the bowl, or -1 if the stack is empty.
+     */
+    private int popFreeBowl(){
+        long head;
+        int bowl;
+        long newHead;
+        do {
+            head = freeBowlsHead.get();
+            bowl = (int) head - 1;
+            if (bowl < 0){
+                return -1;
+            }
+            newHead = (((head >>> 32) + 1) << 32) | (nextFreeBowl.get(bowl) & 0xFFFFFFFFL);
+        }while (!freeBowlsHead.compareAndSet(head, newHead));
+        bowlsOnStack.set(bowl, 0);
+        return bowl;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents something that answers when a philosopher asks for food.
+ * The listener is called on the thread of the philosopher, and the philosopher waits for the answer.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public interface FoodRequestListener {
+
+    /**
+     * Handles a philosopher that asks for food.
+     * @param philosopher the philosopher that is hungry.
+     */
+    void onFoodRequest(Philosopher philosopher);
+}
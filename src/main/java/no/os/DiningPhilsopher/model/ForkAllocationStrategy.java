@@ -0,0 +1,31 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents a policy that decides which seats are allowed to eat.
+ * A table asks the strategy before it serves food, and tells it when a seat is done eating.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public interface ForkAllocationStrategy {
+
+    /**
+     * Tries to give a seat the right to eat. Must not block.
+     * @param seat the index of the seat.
+     * @return <code>true</code> if the seat may eat now.
+     *         <code>false</code> if the seat has to ask again later.
+     */
+    boolean tryAcquire(int seat);
+
+    /**
+     * Tells the strategy that a seat is done eating, or gave up the right to eat.
+     * It is safe to call this for a seat that holds nothing.
+     * @param seat the index of the seat.
+     */
+    void release(int seat);
+
+    /**
+     * Gets the name of the strategy.
+     * @return the name.
+     */
+    String getName();
+}
@@ -0,0 +1,105 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Represents the forks on a table where each fork is its own atomic slot.
+ * The fork with index i lies between seat i and seat i + 1, so a philosopher only competes with the two beside.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ForkArbiter implements ForkAllocationStrategy {
+
+    private static final int FREE = 0;
+
+    private final AtomicIntegerArray forks;
+
+    /**
+     * Makes an instance of the ForkArbiter class.
+     * @param amountOfSeats the amount of seats around the table.
+     */
+    public ForkArbiter(int amountOfSeats) {
+        if (amountOfSeats <= 0){
+            throw new IllegalArgumentException("The amount of seats must be larger than 0.");
+        }
+        this.forks = new AtomicIntegerArray(amountOfSeats);
+    }
+
+    /**
+     * Tries to take both the forks of a seat without blocking.
+     * @param seat the index of the seat.
+     * @return <code>true</code> if the seat now holds both forks.
+     *         <code>false</code> if one of the forks was held by a philosopher beside.
+     */
+    @Override
+    public boolean tryAcquire(int seat){
+        checkSeat(seat);
+        int owner = seat + 1;
+        int leftFork = seat;
+        int rightFork = getRightFork(seat);
+        if (!forks.compareAndSet(leftFork, FREE, owner)){
+            return false;
+        }
+        if (rightFork != leftFork && !forks.compareAndSet(rightFork, FREE, owner)){
+            forks.compareAndSet(leftFork, owner, FREE);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Puts down the forks a seat is holding. Forks held by others are left alone.
+     * @param seat the index of the seat.
+     */
+    @Override
+    public void release(int seat){
+        checkSeat(seat);
+        int owner = seat + 1;
+        forks.compareAndSet(getRightFork(seat), owner, FREE);
+        forks.compareAndSet(seat, owner, FREE);
+    }
+
+    /**
+     * Checks if a seat holds both its forks.
+     * @param seat the index of the seat.
+     * @return <code>true</code> if the seat holds both forks.
+     *         <code>false</code> if the seat is missing one or both forks.
+     */
+    public boolean isHoldingForks(int seat){
+        checkSeat(seat);
+        int owner = seat + 1;
+        return forks.get(seat) == owner && forks.get(getRightFork(seat)) == owner;
+    }
+
+    /**
+     * Gets the amount of seats this arbiter has forks for.
+     * @return the amount of seats.
+     */
+    public int getAmountOfSeats(){
+        return forks.length();
+    }
+
+    @Override
+    public String getName(){
+        return "Per seat CAS";
+    }
+
+    /**
+     * Gets the fork on the right side of a seat.
+     * @param seat the index of the seat.
+     * @return the index of the right fork.
+     */
+    private int getRightFork(int seat){
+        return (seat + 1) % forks.length();
+    }
+
+    /**
+     * Checks if the seat is a valid seat on this table.
+     * @param seat the seat to check.
+     */
+    private void checkSeat(int seat){
+        if (seat < 0 || seat >= forks.length()){
+            throw new IllegalArgumentException("The seat must be between 0 and " + (forks.length() - 1) + ".");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package no.os.DiningPhilsopher.model;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a replay of a journal made by {@link JournalWriter}.
+ * The replay makes the same table again and takes every recorded step in the recorded order on one thread,
+ * without sleeping. The table decides who gets food the same way as in the recording, and the replay checks that
+ * every bowl and portion matches the journal, so the end state is the exact end state of the recorded run.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class JournalReplay {
+
+    private final DataInputStream input;
+
+    private final Table table;
+
+    private long amountOfReplayedSteps;
+
+    /**
+     * Makes an instance of the JournalReplay class and makes the recorded table.
+     * @param inputStream the stream the journal is read from.
+     * @throws IOException if the start of the journal could not be read or is not a journal.
+     */
+    public JournalReplay(InputStream inputStream) throws IOException {
+        checkIfObjectIsNull(inputStream, "input stream");
+        this.input = new DataInputStream(new BufferedInputStream(inputStream));
+        this.amountOfReplayedSteps = 0;
+        this.table = readTable();
+        table.attachToPhilosophers();
+    }
+
+    /**
+     * Gets the table the journal is replayed on.
+     * @return the table.
+     */
+    public Table getTable(){
+        return table;
+    }
+
+    /**
+     * Gets the amount of steps that has been replayed.
+     * @return the amount of replayed steps.
+     */
+    public long getAmountOfReplayedSteps(){
+        return amountOfReplayedSteps;
+    }
+
+    /**
+     * Replays every step left in the journal.
+     * @return the amount of steps that was replayed.
+     * @throws IOException if the journal could not be read.
+     * @throws IllegalStateException if the table did something else than what the journal says.
+     */
+    public long replay() throws IOException {
+        long replayedBefore = amountOfReplayedSteps;
+        int kind = input.read();
+        while (kind != -1){
+            int seat = readNumber();
+            if (seat >= table.getPhilosophers().size()){
+                throw new IOException("The journal has a step for seat " + seat + " which is not at the table.");
+            }
+            replayStep((byte) kind, table.getSeating().getPhilosopher(seat));
+            amountOfReplayedSteps += 1;
+            kind = input.read();
+        }
+        return amountOfReplayedSteps - replayedBefore;
+    }
+
+    /**
+     * Takes one recorded step.
+     * @param kind the kind of step.
+     * @param philosopher the philosopher taking the step.
+     * @throws IOException if the rest of the step could not be read.
+     */
+    private void replayStep(byte kind, Philosopher philosopher) throws IOException {
+        switch (kind){
+            case JournalWriter.TICK -> philosopher.live();
+            case JournalWriter.ASK -> {
+                int recordedBowl = readNumber() - 1;
+                checkState(philosopher, State.HUNGRY);
+                philosopher.takeTurn();
+                checkValue(philosopher, "bowl", recordedBowl, philosopher.getBowl());
+            }
+            case JournalWriter.EAT -> {
+                int recordedAmount = readNumber();
+                checkState(philosopher, State.EATING);
+                checkValue(philosopher, "portion", recordedAmount, philosopher.startEating());
+            }
+            case JournalWriter.DONE -> {
+                checkState(philosopher, State.EATING);
+                philosopher.finishEating();
+            }
+            case JournalWriter.DIE -> philosopher.dieOfHunger();
+            default -> throw new IOException("The kind of step " + kind + " is not known.");
+        }
+    }
+
+    /**
+     * Checks that a philosopher is in the state the journal expects.
+     * @param philosopher the philosopher.
+     * @param state the expected state.
+     */
+    private void checkState(Philosopher philosopher, State state){
+        if (philosopher.getState() != state){
+            throw new IllegalStateException("The replay diverged at step " + amountOfReplayedSteps + ": " + philosopher.getName()
+                    + " is " + philosopher.getState() + " but the journal expects " + state + ".");
+        }
+    }
+
+    /**
+     * Checks that a value matches the journal.
+     * @param philosopher the philosopher the value belongs to.
+     * @param name the name of the value.
+     * @param recorded the value in the journal.
+     * @param replayed the value in the replay.
+     */
+    private void checkValue(Philosopher philosopher, String name, int recorded, int replayed){
+        if (recorded != replayed){
+            throw new IllegalStateException("The replay diverged at step " + amountOfReplayedSteps + ": " + philosopher.getName()
+                    + " got " + name + " " + replayed + " but the journal has " + recorded + ".");
+        }
+    }
+
+    /**
+     * Reads the start of the journal and makes the table it describes.
+     * @return the table.
+     * @throws IOException if the start could not be read or is not a journal.
+     */
+    private Table readTable() throws IOException {
+        if (input.readInt() != JournalWriter.MAGIC){
+            throw new IOException("The stream is not a journal.");
+        }
+        short version = input.readShort();
+        if (version < 1 || version > JournalWriter.VERSION){
+            throw new IOException("The journal version " + version + " is not supported.");
+        }
+        int seats = input.readInt();
+        int delay = input.readInt();
+        long seed = input.readLong();
+        boolean isRandom = input.readBoolean();
+        ArbitrationMode arbitrationMode;
+        try {
+            arbitrationMode = ArbitrationMode.valueOf(input.readUTF());
+        }catch (IllegalArgumentException exception){
+            throw new IOException("The arbitration mode of the journal is not known.", exception);
+        }
+        int amountOfBowls = input.readInt();
+        List<Food> foods = new ArrayList<>();
+        for (int bowl = 0; bowl < amountOfBowls; bowl++){
+            int amount = input.readInt();
+            foods.add(new Food(amount, input.readUTF()));
+        }
+        Table replayed = new Table(seats, delay, arbitrationMode, ExecutionMode.PLATFORM_THREADS, foods, isRandom, seed);
+        int aging = version >= 2 ? input.readInt() : -1;
+        if (aging >= 0){
+            replayed.setStarvationScheduler(new StarvationScheduler(seats, aging));
+        }
+        return replayed;
+    }
+
+    /**
+     * Reads a number that was written with seven bits in each byte.
+     * @return the number.
+     * @throws IOException if the number could not be read.
+     */
+    private int readNumber() throws IOException {
+        int number = 0;
+        int shift = 0;
+        int part;
+        do {
+            part = input.read();
+            if (part == -1){
+                throw new EOFException("The journal ends in the middle of a step.");
+            }
+            number |= (part & 0x7F) << shift;
+            shift += 7;
+        }while ((part & 0x80) != 0);
+        return number;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
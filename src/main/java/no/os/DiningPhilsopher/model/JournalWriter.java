@@ -0,0 +1,170 @@
+package no.os.DiningPhilsopher.model;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Represents a recording of a table run as a compact binary journal that {@link JournalReplay} can run again.
+ * The journal starts with everything needed to make the same table, like the seed and the food.
+ * After that comes one record for each step a philosopher takes: a tick of hunger, asking for food and the bowl it got,
+ * starting a meal and the amount it took, ending a meal and dying. A record is a kind byte, the seat and for some kinds
+ * one more number, where the numbers are written with seven bits in each byte, so most records are two or three bytes.
+ * <p>
+ * <b>A recorded run is serial.</b> Every step of every philosopher is taken inside one lock on the journal, so only one
+ * philosopher moves at a time however many cores there are. This keeps the order in the journal the order the steps
+ * really changed the table, which replay needs, since asking for forks and taking food race with other seats.
+ * Record a run to repeat what happened in it, not to measure how fast the table is.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class JournalWriter implements Closeable {
+
+    static final int MAGIC = 0x44504A31;
+
+    static final short VERSION = 2;
+
+    static final byte TICK = 0;
+
+    static final byte ASK = 1;
+
+    static final byte EAT = 2;
+
+    static final byte DONE = 3;
+
+    static final byte DIE = 4;
+
+    private final DataOutputStream output;
+
+    private IOException error;
+
+    private boolean closed;
+
+    private long amountOfSteps;
+
+    /**
+     * Makes an instance of the JournalWriter class and starts recording a table.
+     * The table must not have started yet, and it must use the strategy of its arbitration mode.
+     * @param table the table to record.
+     * @param outputStream the stream the journal is written to. It is closed when the journal is closed.
+     * @throws IOException if the start of the journal could not be written.
+     */
+    public JournalWriter(Table table, OutputStream outputStream) throws IOException {
+        checkIfObjectIsNull(table, "table");
+        checkIfObjectIsNull(outputStream, "output stream");
+        if (table.isAttached()){
+            throw new IllegalStateException("The table must be recorded from before it starts.");
+        }
+        this.output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        this.closed = false;
+        this.amountOfSteps = 0;
+        writeHeader(table);
+        table.getPhilosophers().forEach(philosopher -> philosopher.setJournal(this));
+    }
+
+    /**
+     * Takes one step for a philosopher and writes it to the journal.
+     * @param philosopher the philosopher taking the step.
+     * @param kind the kind of step.
+     */
+    synchronized void step(Philosopher philosopher, byte kind){
+        int value = 0;
+        switch (kind){
+            case TICK -> philosopher.live();
+            case ASK -> {
+                philosopher.takeTurn();
+                value = philosopher.getBowl() + 1;
+            }
+            case EAT -> value = philosopher.startEating();
+            case DONE -> philosopher.finishEating();
+            case DIE -> philosopher.dieOfHunger();
+            default -> throw new IllegalArgumentException("The kind of step " + kind + " is not known.");
+        }
+        if (!closed && error == null){
+            try {
+                output.writeByte(kind);
+                writeNumber(philosopher.getSeat());
+                if (kind == ASK || kind == EAT){
+                    writeNumber(value);
+                }
+            }catch (IOException exception){
+                error = exception;
+            }
+        }
+        amountOfSteps += 1;
+    }
+
+    /**
+     * Gets the amount of steps that has been recorded.
+     * @return the amount of steps.
+     */
+    public synchronized long getAmountOfSteps(){
+        return amountOfSteps;
+    }
+
+    /**
+     * Stops recording and closes the stream. Steps taken after this are not written.
+     * @throws IOException if a step or the end of the journal could not be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed){
+            closed = true;
+            output.close();
+            if (error != null){
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Writes what is needed to make the same table again.
+     * @param table the table.
+     * @throws IOException if the header could not be written.
+     */
+    private void writeHeader(Table table) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeInt(table.getPhilosophers().size());
+        output.writeInt(table.getDelay());
+        output.writeLong(table.getSeed());
+        output.writeBoolean(table.isRandomHunger());
+        output.writeUTF(table.getArbitrationMode().name());
+        FoodPool foodPool = table.getFoodPool();
+        output.writeInt(foodPool.getAmountOfBowls());
+        for (int bowl = 0; bowl < foodPool.getAmountOfBowls(); bowl++){
+            Food food = foodPool.getFood(bowl);
+            output.writeInt(food.getAmountOfFood());
+            output.writeUTF(food.getFoodName());
+        }
+        StarvationScheduler scheduler = table.getStarvationScheduler();
+        output.writeInt(scheduler == null ? -1 : scheduler.getAging());
+    }
+
+    /**
+     * Writes a number that is zero or above with seven bits in each byte.
+     * @param number the number to write.
+     * @throws IOException if the number could not be written.
+     */
+    private void writeNumber(int number) throws IOException {
+        int rest = number;
+        while ((rest & ~0x7F) != 0){
+            output.writeByte((rest & 0x7F) | 0x80);
+            rest >>>= 7;
+        }
+        output.writeByte(rest);
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
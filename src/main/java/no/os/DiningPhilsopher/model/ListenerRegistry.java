@@ -0,0 +1,119 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Represents the listeners of one philosopher, with one channel for food requests and one for state changes.
+ * Food requests and the direct state change listeners are called on the thread of the philosopher. They are meant for
+ * the waiter, that has to give back the forks before the philosopher goes on.
+ * Every state change is also put on a {@link StateChangeRing} that other observers read on their own threads through a
+ * {@link StateChangeDispatcher}, so a slow observer never makes the philosopher wait.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ListenerRegistry {
+
+    private final List<FoodRequestListener> foodRequestListeners;
+
+    private final List<StateChangeListener> stateChangeListeners;
+
+    private final StateChangeRing stateChanges;
+
+    /**
+     * Makes an instance of the ListenerRegistry class.
+     * @param id the id of the philosopher the listeners listen to.
+     */
+    public ListenerRegistry(long id) {
+        this.foodRequestListeners = new CopyOnWriteArrayList<>();
+        this.stateChangeListeners = new CopyOnWriteArrayList<>();
+        this.stateChanges = new StateChangeRing(id, StateChangeRing.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Adds a listener that answers food requests.
+     * @param listener the listener to add.
+     */
+    public void addFoodRequestListener(FoodRequestListener listener){
+        checkIfObjectIsNull(listener, "food request listener");
+        foodRequestListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener that answers food requests.
+     * @param listener the listener to remove.
+     */
+    public void removeFoodRequestListener(FoodRequestListener listener){
+        checkIfObjectIsNull(listener, "food request listener");
+        foodRequestListeners.remove(listener);
+    }
+
+    /**
+     * Adds a listener that is told about state changes on the thread of the philosopher.
+     * Observers that do not have to see the change before the philosopher goes on should use a
+     * {@link StateChangeDispatcher} instead.
+     * @param listener the listener to add.
+     */
+    public void addStateChangeListener(StateChangeListener listener){
+        checkIfObjectIsNull(listener, "state change listener");
+        stateChangeListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener that is told about state changes on the thread of the philosopher.
+     * @param listener the listener to remove.
+     */
+    public void removeStateChangeListener(StateChangeListener listener){
+        checkIfObjectIsNull(listener, "state change listener");
+        stateChangeListeners.remove(listener);
+    }
+
+    /**
+     * Gets the ring the state changes are put on.
+     * @return the ring with the state changes.
+     */
+    public StateChangeRing getStateChanges(){
+        return stateChanges;
+    }
+
+    /**
+     * Tells the food request listeners that the philosopher is hungry.
+     * @param philosopher the philosopher that asks.
+     */
+    void fireFoodRequest(Philosopher philosopher){
+        for (FoodRequestListener listener : foodRequestListeners){
+            listener.onFoodRequest(philosopher);
+        }
+    }
+
+    /**
+     * Tells the direct listeners about a state change and puts it on the ring.
+     * @param id the id of the philosopher.
+     * @param state the new state.
+     */
+    void fireStateChange(long id, State state){
+        for (StateChangeListener listener : stateChangeListeners){
+            listener.onStateChange(id, state);
+        }
+        stateChanges.publish(state);
+    }
+
+    /**
+     * Removes all the listeners that are called on the thread of the philosopher.
+     */
+    void clear(){
+        foodRequestListeners.clear();
+        stateChangeListeners.clear();
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
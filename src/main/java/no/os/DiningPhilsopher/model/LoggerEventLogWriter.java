@@ -0,0 +1,125 @@
+package no.os.DiningPhilsopher.model;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents a writer that formats the events of a table into the loggers of the philosophers and the table.
+ * Events about refusals go to the table logger and the rest go to the philosopher logger, at the level of the event type.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class LoggerEventLogWriter implements EventLogWriter {
+
+    private final Seating seating;
+
+    private final FoodPool foodPool;
+
+    private final Logger philosopherLogger;
+
+    private final Logger tableLogger;
+
+    private final ZoneId zone;
+
+    /**
+     * Makes an instance of the LoggerEventLogWriter class.
+     * @param seating the seating used to find the names of the philosophers.
+     * @param foodPool the food pool used to find the names of the bowls.
+     */
+    public LoggerEventLogWriter(Seating seating, FoodPool foodPool) {
+        this(seating, foodPool, Logger.getLogger(Philosopher.class.getName()), Logger.getLogger(Table.class.getName()));
+    }
+
+    /**
+     * Makes an instance of the LoggerEventLogWriter class that writes to the wanted loggers.
+     * @param seating the seating used to find the names of the philosophers.
+     * @param foodPool the food pool used to find the names of the bowls.
+     * @param philosopherLogger the logger the events of the philosophers go to.
+     * @param tableLogger the logger the refusals go to.
+     */
+    public LoggerEventLogWriter(Seating seating, FoodPool foodPool, Logger philosopherLogger, Logger tableLogger) {
+        checkIfObjectIsNull(seating, "seating");
+        checkIfObjectIsNull(foodPool, "food pool");
+        checkIfObjectIsNull(philosopherLogger, "philosopher logger");
+        checkIfObjectIsNull(tableLogger, "table logger");
+        this.seating = seating;
+        this.foodPool = foodPool;
+        this.philosopherLogger = philosopherLogger;
+        this.tableLogger = tableLogger;
+        this.zone = ZoneId.systemDefault();
+    }
+
+    @Override
+    public void write(int seat, EventType type, long epochNanos, int amount) {
+        Logger logger = type == EventType.REFUSED ? tableLogger : philosopherLogger;
+        if (logger.isLoggable(type.getLevel())){
+            String name = seating.getPhilosopher(seat).getName();
+            String time = LocalTime.ofInstant(Instant.ofEpochSecond(0, epochNanos), zone).toString();
+            switch (type){
+                case THINKING -> logger.log(type.getLevel(), "{0} is thinking about life and space. {1}", new String[]{name, time});
+                case RECEIVED_FOOD -> logger.log(type.getLevel(), "{0} got {1} {2}", new String[]{name, getFoodName(amount), time});
+                case EATING -> logger.log(type.getLevel(), "{0} is eating amount {1} {2}", new String[]{name, Integer.toString(amount), time});
+                case REFUSED -> logger.log(type.getLevel(), makeNeighbourEatingWarning(seat));
+                case PANICKED -> logger.log(type.getLevel(), "{0} panicks since there is no food available. {1}", new String[]{name, time});
+                case DIED -> logger.log(type.getLevel(), "{0} has died of starvation. But ate {1} times. {2}", new String[]{name, Integer.toString(amount), time});
+            }
+        }
+    }
+
+    /**
+     * Gets the name of the food in a bowl.
+     * @param bowl the index of the bowl.
+     * @return the name of the food.
+     */
+    private String getFoodName(int bowl){
+        String foodName = "food";
+        if (bowl >= 0 && bowl < foodPool.getAmountOfBowls()){
+            foodName = foodPool.getFood(bowl).getFoodName();
+        }
+        return foodName;
+    }
+
+    /**
+     * Makes the warning that says who beside a seat is eating.
+     * @param seat the seat that asked for food.
+     * @return the warning.
+     */
+    private String makeNeighbourEatingWarning(int seat){
+        StringBuilder stringBuilder = new StringBuilder();
+        Philosopher left = seating.getLeftNeighbour(seat);
+        Philosopher right = seating.getRightNeighbour(seat);
+        if (left.getState() == State.EATING){
+            stringBuilder.append(left.getName());
+        }
+        if (right.getState() == State.EATING && right != left){
+            if (!stringBuilder.isEmpty()){
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(right.getName());
+        }
+        if (stringBuilder.isEmpty()){
+            stringBuilder.append("The forks of ");
+            stringBuilder.append(seating.getPhilosopher(seat).getName());
+            stringBuilder.append(" are taken.");
+        }else {
+            stringBuilder.append(" beside ");
+            stringBuilder.append(seating.getPhilosopher(seat).getName());
+            stringBuilder.append(" is eating.");
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents the metrics of a table at one point in time.
+ * The wait histogram of each seat is only in the snapshot when it was asked for, since it holds a bucket array per seat.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class MetricsSnapshot {
+
+    private final String strategyName;
+
+    private final long elapsedNanos;
+
+    private final long meals;
+
+    private final long refusals;
+
+    private final long deaths;
+
+    private final long transitions;
+
+    private final long totalWaitNanos;
+
+    private final long waitCount;
+
+    private final long maxWaitNanos;
+
+    private final double fairness;
+
+    private final long[] waitHistogram;
+
+    private final long[] seatWaitHistograms;
+
+    /**
+     * Makes an instance of the MetricsSnapshot class without the wait histograms of each seat.
+     * Every measured wait is in one bucket, so the amount of waits is the sum of the histogram.
+     * @param strategyName the name of the fork allocation strategy.
+     * @param elapsedNanos the time the metrics cover in nanoseconds.
+     * @param meals the amount of meals served.
+     * @param refusals the amount of requests that was refused.
+     * @param deaths the amount of philosophers that died of starvation.
+     * @param transitions the amount of times a philosopher went to a new state.
+     * @param totalWaitNanos the sum of all the waits from hungry to eating.
+     * @param maxWaitNanos the longest wait from hungry to eating.
+     * @param fairness Jain's fairness index of the meals per seat.
+     * @param waitHistogram the amount of waits in each bucket, see {@link TableMetrics#getBucket(long)}.
+     */
+    public MetricsSnapshot(String strategyName, long elapsedNanos, long meals, long refusals, long deaths, long transitions, long totalWaitNanos,
+                           long maxWaitNanos, double fairness, long[] waitHistogram) {
+        this(strategyName, elapsedNanos, meals, refusals, deaths, transitions, totalWaitNanos, Arrays.stream(waitHistogram).sum(),
+                maxWaitNanos, fairness, waitHistogram);
+    }
+
+    /**
+     * Makes an instance of the MetricsSnapshot class without the wait histograms of each seat.
+     * @param strategyName the name of the fork allocation strategy.
+     * @param elapsedNanos the time the metrics cover in nanoseconds.
+     * @param meals the amount of meals served.
+     * @param refusals the amount of requests that was refused.
+     * @param deaths the amount of philosophers that died of starvation.
+     * @param transitions the amount of times a philosopher went to a new state.
+     * @param totalWaitNanos the sum of all the waits from hungry to eating.
+     * @param waitCount the amount of waits from hungry to eating that were measured.
+     * @param maxWaitNanos the longest wait from hungry to eating.
+     * @param fairness Jain's fairness index of the meals per seat.
+     * @param waitHistogram the amount of waits in each bucket, see {@link TableMetrics#getBucket(long)}.
+     */
+    public MetricsSnapshot(String strategyName, long elapsedNanos, long meals, long refusals, long deaths, long transitions, long totalWaitNanos,
+                           long waitCount, long maxWaitNanos, double fairness, long[] waitHistogram) {
+        this(strategyName, elapsedNanos, meals, refusals, deaths, transitions, totalWaitNanos, waitCount, maxWaitNanos, fairness,
+                waitHistogram, new long[0][]);
+    }
+
+    /**
+     * Makes an instance of the MetricsSnapshot class.
+     * @param strategyName the name of the fork allocation strategy.
+     * @param elapsedNanos the time the metrics cover in nanoseconds.
+     * @param meals the amount of meals served.
+     * @param refusals the amount of requests that was refused.
+     * @param deaths the amount of philosophers that died of starvation.
+     * @param transitions the amount of times a philosopher went to a new state.
+     * @param totalWaitNanos the sum of all the waits from hungry to eating.
+     * @param waitCount the amount of waits from hungry to eating that were measured.
+     * @param maxWaitNanos the longest wait from hungry to eating.
+     * @param fairness Jain's fairness index of the meals per seat.
+     * @param waitHistogram the amount of waits in each bucket, see {@link TableMetrics#getBucket(long)}.
+     * @param seatWaitHistograms the wait histogram of each seat, or no histograms if they were not asked for.
+     */
+    public MetricsSnapshot(String strategyName, long elapsedNanos, long meals, long refusals, long deaths, long transitions, long totalWaitNanos,
+                           long waitCount, long maxWaitNanos, double fairness, long[] waitHistogram, long[][] seatWaitHistograms) {
+        this.strategyName = strategyName;
+        this.elapsedNanos = elapsedNanos;
+        this.meals = meals;
+        this.refusals = refusals;
+        this.deaths = deaths;
+        this.transitions = transitions;
+        this.totalWaitNanos = totalWaitNanos;
+        this.waitCount = waitCount;
+        this.maxWaitNanos = maxWaitNanos;
+        this.fairness = fairness;
+        this.waitHistogram = waitHistogram.clone();
+        this.seatWaitHistograms = new long[seatWaitHistograms.length * TableMetrics.BUCKETS];
+        for (int seat = 0; seat < seatWaitHistograms.length; seat++){
+            System.arraycopy(seatWaitHistograms[seat], 0, this.seatWaitHistograms, seat * TableMetrics.BUCKETS, TableMetrics.BUCKETS);
+        }
+    }
+
+    /**
+     * Gets the name of the fork allocation strategy.
+     * @return the strategy name.
+     */
+    public String getStrategyName(){
+        return strategyName;
+    }
+
+    /**
+     * Gets the time the metrics cover.
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos(){
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the amount of meals served.
+     * @return the amount of meals.
+     */
+    public long getMeals(){
+        return meals;
+    }
+
+    /**
+     * Gets the amount of requests that was refused.
+     * @return the amount of refusals.
+     */
+    public long getRefusals(){
+        return refusals;
+    }
+
+    /**
+     * Gets the amount of philosophers that died of starvation.
+     * @return the amount of deaths.
+     */
+    public long getDeaths(){
+        return deaths;
+    }
+
+    /**
+     * Gets the amount of times a philosopher went to a new state.
+     * @return the amount of transitions.
+     */
+    public long getTransitions(){
+        return transitions;
+    }
+
+    /**
+     * Gets the amount of state transitions each second.
+     * @return the transitions per second.
+     */
+    public double getTransitionsPerSecond(){
+        return elapsedNanos == 0 ? 0 : transitions * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Gets the amount of meals served each second.
+     * @return the meals per second.
+     */
+    public double getMealsPerSecond(){
+        return elapsedNanos == 0 ? 0 : meals * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Gets the sum of all the waits from hungry to eating.
+     * @return the total wait in nanoseconds.
+     */
+    public long getTotalWaitNanos(){
+        return totalWaitNanos;
+    }
+
+    /**
+     * Gets the amount of waits from hungry to eating that were measured.
+     * This can be less than the meals, since a seat that was already hungry when a checkpoint was restored is not measured.
+     * @return the amount of waits.
+     */
+    public long getWaitCount(){
+        return waitCount;
+    }
+
+    /**
+     * Gets the mean wait from hungry to eating.
+     * @return the mean wait in nanoseconds.
+     */
+    public double getMeanWaitNanos(){
+        return waitCount == 0 ? 0 : totalWaitNanos / (double) waitCount;
+    }
+
+    /**
+     * Gets the longest wait from hungry to eating.
+     * @return the longest wait in nanoseconds.
+     */
+    public long getMaxWaitNanos(){
+        return maxWaitNanos;
+    }
+
+    /**
+     * Gets an estimate of a percentile of the waits from hungry to eating.
+     * The estimate is the upper bound of the bucket the percentile falls in, so it is at most twice the real value.
+     * @param percentile the percentile between 0 and 100.
+     * @return the wait in nanoseconds, or 0 if nothing has been measured.
+     */
+    public long getWaitPercentileNanos(double percentile){
+        return TableMetrics.findPercentileNanos(waitHistogram, 0, percentile, maxWaitNanos);
+    }
+
+    /**
+     * Gets the amount of waits in each bucket.
+     * @return a copy of the wait histogram.
+     */
+    public long[] getWaitHistogram(){
+        return waitHistogram.clone();
+    }
+
+    /**
+     * Checks if the snapshot has the wait histogram of each seat.
+     * @return <code>true</code> if the histograms of the seats were asked for.
+     *         <code>false</code> if only the table wide histogram is in the snapshot.
+     */
+    public boolean hasSeatWaitHistograms(){
+        return seatWaitHistograms.length > 0;
+    }
+
+    /**
+     * Gets the amount of waits in each bucket for one seat.
+     * @param seat the index of the seat.
+     * @return a copy of the wait histogram of the seat.
+     */
+    public long[] getSeatWaitHistogram(int seat){
+        int start = checkSeat(seat);
+        long[] histogram = new long[TableMetrics.BUCKETS];
+        System.arraycopy(seatWaitHistograms, start, histogram, 0, TableMetrics.BUCKETS);
+        return histogram;
+    }
+
+    /**
+     * Gets an estimate of a percentile of the waits of one seat, in the same way as {@link #getWaitPercentileNanos(double)}.
+     * @param seat the index of the seat.
+     * @param percentile the percentile between 0 and 100.
+     * @return the wait in nanoseconds, or 0 if nothing has been measured for the seat.
+     */
+    public long getSeatWaitPercentileNanos(int seat, double percentile){
+        return TableMetrics.findPercentileNanos(seatWaitHistograms, checkSeat(seat), percentile, maxWaitNanos);
+    }
+
+    /**
+     * Gets Jain's fairness index of the meals per seat. 1 means every seat ate the same amount of times.
+     * @return the fairness between 0 and 1.
+     */
+    public double getFairness(){
+        return fairness;
+    }
+
+    /**
+     * Checks that the snapshot has the histogram of a seat.
+     * @param seat the index of the seat.
+     * @return the index of the first bucket of the seat.
+     */
+    private int checkSeat(int seat){
+        if (!hasSeatWaitHistograms()){
+            throw new IllegalStateException("The snapshot was made without the wait histograms of the seats.");
+        }
+        if (seat < 0 || seat >= seatWaitHistograms.length / TableMetrics.BUCKETS){
+            throw new IllegalArgumentException("The seat " + seat + " is not at the table.");
+        }
+        return seat * TableMetrics.BUCKETS;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d meals (%.1f/s), %d refusals, %d deaths, mean wait %.3f ms, p99 wait %.3f ms, max wait %.3f ms, fairness %.3f",
+                strategyName, meals, getMealsPerSecond(), refusals, deaths, getMeanWaitNanos() / 1_000_000.0,
+                getWaitPercentileNanos(99) / 1_000_000.0, maxWaitNanos / 1_000_000.0, fairness);
+    }
+}
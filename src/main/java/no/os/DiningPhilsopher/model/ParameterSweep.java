@@ -0,0 +1,161 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Represents a sweep over a grid of table parameters where every combination is run as its own simulation.
+ * The runs are split in halves and handed to a fork join pool, so they spread over all the cores.
+ * Each run has its own table, food, metrics and loggers and runs on the virtual clock,
+ * so a run never sleeps on a pool thread and never sees another run.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ParameterSweep {
+
+    private final List<SweepPoint> points;
+
+    private final long durationInMillis;
+
+    /**
+     * Makes an instance of the ParameterSweep class with every combination of the given values.
+     * @param seats the amounts of philosophers to try.
+     * @param delays the delays to try in milliseconds.
+     * @param foodAmounts the bowls of food to try, where each entry is the amount of food in each bowl.
+     * @param randomHunger the choices of random starting hunger to try.
+     * @param arbitrationModes the arbitration modes to try.
+     * @param repetitions the amount of times to run each combination with a new seed.
+     * @param seed the seed of the first run. Run number n gets the seed plus n.
+     * @param durationInMillis the virtual time each run lasts in milliseconds.
+     */
+    public ParameterSweep(List<Integer> seats, List<Integer> delays, List<int[]> foodAmounts, List<Boolean> randomHunger,
+                          List<ArbitrationMode> arbitrationModes, int repetitions, long seed, long durationInMillis) {
+        checkListIsNotEmpty(seats, "seats");
+        checkListIsNotEmpty(delays, "delays");
+        checkListIsNotEmpty(foodAmounts, "food amounts");
+        checkListIsNotEmpty(randomHunger, "random hunger");
+        checkListIsNotEmpty(arbitrationModes, "arbitration modes");
+        if (repetitions <= 0 || durationInMillis <= 0){
+            throw new IllegalArgumentException("The repetitions and duration must be above zero.");
+        }
+        this.durationInMillis = durationInMillis;
+        this.points = new ArrayList<>();
+        long nextSeed = seed;
+        for (int amountOfSeats : seats){
+            for (int delay : delays){
+                for (int[] foods : foodAmounts){
+                    for (boolean isRandom : randomHunger){
+                        for (ArbitrationMode arbitrationMode : arbitrationModes){
+                            for (int repetition = 0; repetition < repetitions; repetition++){
+                                points.add(new SweepPoint(amountOfSeats, delay, foods, isRandom, arbitrationMode, nextSeed));
+                                nextSeed += 1;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets every combination that is run, in the order of the report.
+     * @return the sweep points.
+     */
+    public List<SweepPoint> getPoints(){
+        return List.copyOf(points);
+    }
+
+    /**
+     * Runs every combination on the common fork join pool.
+     * @return the report with one summary for each combination.
+     */
+    public SweepReport run(){
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs every combination on a fork join pool.
+     * @param pool the pool to run on.
+     * @return the report with one summary for each combination.
+     */
+    public SweepReport run(ForkJoinPool pool){
+        checkIfObjectIsNull(pool, "pool");
+        RunSummary[] summaries = new RunSummary[points.size()];
+        long start = System.nanoTime();
+        pool.invoke(new SweepTask(summaries, 0, summaries.length));
+        return new SweepReport(points, List.of(summaries), System.nanoTime() - start);
+    }
+
+    /**
+     * Runs one combination to the end of its duration.
+     * @param point the combination to run.
+     * @return the summary of the run.
+     */
+    RunSummary runPoint(SweepPoint point){
+        Table table = point.makeTable();
+        long start = System.nanoTime();
+        new VirtualTimeSimulation(table).run(durationInMillis);
+        return new RunSummary(table, point.getSeed(), System.nanoTime() - start);
+    }
+
+    /**
+     * Checks if a list has at least one element.
+     * @param list the list to check.
+     * @param error the name of the list.
+     */
+    private void checkListIsNotEmpty(List<?> list, String error){
+        checkIfObjectIsNull(list, error);
+        if (list.isEmpty()){
+            throw new IllegalArgumentException("The " + error + " cannot be empty.");
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+
+    /**
+     * Represents a part of the sweep that either runs one combination or splits itself in two.
+     */
+    private class SweepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RunSummary[] summaries;
+
+        private final int from;
+
+        private final int to;
+
+        /**
+         * Makes an instance of the SweepTask class.
+         * @param summaries the array the summaries are put in.
+         * @param from the index of the first combination.
+         * @param to the index after the last combination.
+         */
+        SweepTask(RunSummary[] summaries, int from, int to) {
+            this.summaries = summaries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1){
+                summaries[from] = runPoint(points.get(from));
+            }else if (to - from > 1){
+                int middle = (from + to) >>> 1;
+                invokeAll(new SweepTask(summaries, from, middle), new SweepTask(summaries, middle, to));
+            }
+        }
+    }
+}
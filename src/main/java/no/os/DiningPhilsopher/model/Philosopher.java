@@ -1,9 +1,5 @@
 package no.os.DiningPhilsopher.model;
 
-import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Random;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
@@ -14,10 +10,12 @@ import java.util.logging.Logger;
  * @author Group 15
  * @version 0.1
  */
-public class Philosopher implements Runnable, ObservablePhilosopher{
+public class Philosopher implements Runnable {
 
     private long philID;
 
+    private int seat;
+
     private String name;
 
     private final int finalHunger;
@@ -30,7 +28,7 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
 
     private int amountOfTimesEating;
 
-    private List<PhilosopherObserver> observers;
+    private final ListenerRegistry listeners;
 
     private final Random random;
 
@@ -38,6 +36,16 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
 
     private Logger logger;
 
+    private EventLog eventLog;
+
+    private JournalWriter journal;
+
+    private TraceWriter trace;
+
+    private SeatParking parking;
+
+    private TimeScale timeScale;
+
     /**
      * Makes an instance of the Philosopher class.
      * @param name the name of the philosopher.
@@ -47,11 +55,27 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
      * @param delay the amount of time in milliseconds that the delay should be. 1000 is one second.
      */
     public Philosopher(long philID,String name, int amountOfFood, boolean isRandom, int delay) {
+        this(philID, name, amountOfFood, isRandom, delay, new Random());
+    }
+
+    /**
+     * Makes an instance of the Philosopher class that draws its random starting hunger from a given random.
+     * @param philID the id of the philosopher.
+     * @param name the name of the philosopher.
+     * @param amountOfFood the state of the hunger right now.
+     * @param isRandom <code>true</code> if the starting state should be random.
+     *                 <code>false</code> if the starting state should be set.
+     * @param delay the amount of time in milliseconds that the delay should be. 1000 is one second.
+     * @param random the random to draw from. Give a seeded random to get the same philosopher every time.
+     */
+    public Philosopher(long philID, String name, int amountOfFood, boolean isRandom, int delay, Random random) {
         checkString(name, "name");
-        this.observers = new LinkedList<>();
+        checkIfObjectIsNull(random, "random");
+        this.listeners = new ListenerRegistry(philID);
         this.philID = philID;
+        this.seat = -1;
         this.name = name;
-        this.random = new Random();
+        this.random = random;
         if (isRandom){
             this.hunger = random.nextInt(amountOfFood/2, amountOfFood);
         }else {
@@ -61,6 +85,7 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
         setState(State.THINKING);
         this.amountOfTimesEating = 0;
         this.delay = delay;
+        this.timeScale = new TimeScale();
         this.logger = Logger.getLogger(getClass().getName());
     }
 
@@ -84,7 +109,7 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
         checkIfObjectIsNull(food, "food");
         setState(State.EATING);
         this.food = food;
-        logger.log(Level.FINE, "{0} got {1} {2}", new String[]{name, food.getFoodName(), LocalTime.now().toString()});
+        record(EventType.RECEIVED_FOOD, food.getBowl());
     }
 
     /**
@@ -93,8 +118,12 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
      */
     private void setState(State state){
         if (state != this.state && this.state != State.DEAD){
+            State oldState = this.state;
             this.state = state;
-            alertObserverAboutStateChange();
+            if (trace != null){
+                trace.record(seat, oldState, state);
+            }
+            listeners.fireStateChange(philID, state);
         }
 
     }
@@ -107,24 +136,131 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
         return philID;
     }
 
+    /**
+     * Gets the index of the seat the philosopher sits at.
+     * @return the seat index, or -1 if the philosopher is not seated.
+     */
+    public int getSeat(){
+        return seat;
+    }
+
+    /**
+     * Sets the index of the seat the philosopher sits at.
+     * @param seat the seat index.
+     */
+    void setSeat(int seat){
+        this.seat = seat;
+    }
+
+    /**
+     * Sets the event log the philosopher writes what it does to.
+     * @param eventLog the event log.
+     */
+    void setEventLog(EventLog eventLog){
+        this.eventLog = eventLog;
+    }
+
+    /**
+     * Sets the trace the philosopher writes its state changes to.
+     * @param trace the trace, or null to stop tracing.
+     */
+    void setTraceWriter(TraceWriter trace){
+        this.trace = trace;
+    }
+
+    /**
+     * Sets the logger the philosopher writes to.
+     * @param logger the logger.
+     */
+    void setLogger(Logger logger){
+        checkIfObjectIsNull(logger, "logger");
+        this.logger = logger;
+    }
+
+    /**
+     * Sets the journal the philosopher writes its steps to.
+     * @param journal the journal.
+     */
+    void setJournal(JournalWriter journal){
+        this.journal = journal;
+    }
+
+    /**
+     * Sets where the philosopher waits for a fork after it was turned away.
+     * @param parking the parking, or null to sleep a full delay and ask again.
+     */
+    void setParking(SeatParking parking){
+        this.parking = parking;
+    }
+
+    /**
+     * Sets the time scale the philosopher sleeps through. A table gives all its philosophers the same one.
+     * @param timeScale the time scale.
+     */
+    void setTimeScale(TimeScale timeScale){
+        checkIfObjectIsNull(timeScale, "time scale");
+        this.timeScale = timeScale;
+    }
+
     /**
      * Represents a method that starts the philosopher. Switches between eating, thinking and hungry.
      */
     public void startPhilosopher(){
         try {
-            while(!Thread.interrupted() && hunger > 0){
-                switch (state){
-                    case HUNGRY -> hungry();
-                    case THINKING -> think();
-                    case EATING -> eat();
+            if (journal != null){
+                startRecordedPhilosopher();
+            }else {
+                while(!Thread.interrupted() && hunger > 0){
+                    switch (state){
+                        case HUNGRY -> {
+                            if (parking != null){
+                                waitForFood();
+                            }else {
+                                hungry();
+                            }
+                        }
+                        case THINKING -> think();
+                        case EATING -> eat();
+                    }
+                    if (parking != null && state == State.HUNGRY){
+                        live();
+                    }else {
+                        sleepAndLive();
+                    }
                 }
-                sleepAndLive();
             }
         }catch (InterruptedException exception){
             logger.log(Level.INFO, "{0} aborted execution.", name);
         }
         if (hunger <= 0){
-            dieOfHunger();
+            if (journal != null){
+                journal.step(this, JournalWriter.DIE);
+            }else {
+                dieOfHunger();
+            }
+        }
+    }
+
+    /**
+     * Runs the same loop as {@link #startPhilosopher()}, but every step that changes the philosopher or the table
+     * is done by the journal, which writes the steps of all the philosophers in the order they happened.
+     * @throws InterruptedException if the thread was interrupted.
+     */
+    private void startRecordedPhilosopher() throws InterruptedException {
+        while(!Thread.interrupted() && hunger > 0){
+            switch (state){
+                case HUNGRY -> journal.step(this, JournalWriter.ASK);
+                case THINKING -> think();
+                case EATING -> {
+                    journal.step(this, JournalWriter.EAT);
+                    sleep();
+                    journal.step(this, JournalWriter.DONE);
+                }
+            }
+            if (state != State.EATING && !Thread.interrupted()){
+                sleep();
+                journal.step(this, JournalWriter.TICK);
+            }
         }
     }
 
@@ -135,21 +271,37 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
     public void sleepAndLive() throws InterruptedException {
         if (state != State.EATING && !Thread.interrupted()){
             sleep();
-            hunger -= 1;
-            if (hunger <= finalHunger/2){
-                setState(State.HUNGRY);
-            }
+            live();
+        }
+    }
 
+    /**
+     * Looses one hunger and gets hungry if the hunger is low enough.
+     */
+    void live(){
+        hunger -= 1;
+        if (hunger <= finalHunger/2){
+            setState(State.HUNGRY);
         }
     }
 
     /**
-     * Just makes the thread sleep.
+     * Does what the philosopher does in its current state when it is not eating.
+     * Thinking philosophers think and hungry philosophers ask for food.
+     */
+    void takeTurn(){
+        switch (state){
+            case HUNGRY -> hungry();
+            case THINKING -> think();
+        }
+    }
+
+    /**
+     * Just makes the thread sleep for one delay at the speed of the time scale.
      * @throws InterruptedException if the thread was interrupted.
      */
     private void sleep() throws InterruptedException{
-        Thread.sleep(delay);
-
+        timeScale.sleep(delay);
     }
 
     /**
@@ -168,20 +320,90 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
         return state;
     }
 
+    /**
+     * Gets the hunger of the philosopher. When this reaches zero the philosopher dies.
+     * @return the hunger.
+     */
+    public int getHunger(){
+        return hunger;
+    }
+
+    /**
+     * Gets the hunger the philosopher has when it is full.
+     * @return the full hunger.
+     */
+    int getFullHunger(){
+        return finalHunger;
+    }
+
+    /**
+     * Puts the philosopher back the way it was when a checkpoint was made. Must be done before the table starts.
+     * No listeners are told, since the philosopher did not change state but continues where it was.
+     * @param hunger the hunger.
+     * @param state the state.
+     * @param amountOfTimesEating the amount of times it has eaten.
+     * @param food the food it was eating, or null if it was not eating.
+     */
+    void restore(int hunger, State state, int amountOfTimesEating, Food food){
+        checkIfObjectIsNull(state, "state");
+        if (state == State.EATING && food == null){
+            throw new IllegalArgumentException("An eating philosopher must have food.");
+        }
+        this.hunger = hunger;
+        this.state = state;
+        this.amountOfTimesEating = amountOfTimesEating;
+        this.food = food;
+    }
+
+    /**
+     * Gets the amount of times the philosopher has eaten.
+     * @return the amount of times eating.
+     */
+    public int getAmountOfTimesEating(){
+        return amountOfTimesEating;
+    }
+
+    /**
+     * Gets the delay between each action.
+     * @return the delay in milliseconds.
+     */
+    public int getDelay(){
+        return delay;
+    }
+
     /**
      * The physical act of eating.
      * @throws  InterruptedException gets thrown if the thread is interrupted.
      */
     public void eat() throws InterruptedException {
-        int amountOfFoodToEat = finalHunger - hunger;
-        int remainingFood = food.getAmountOfFood();
-        if (amountOfFoodToEat > remainingFood){
-            amountOfFoodToEat = remainingFood;
-        }
-        food.removeAmountOfFood(amountOfFoodToEat);
-        this.hunger += amountOfFoodToEat;
-        logger.log(Level.FINE, "{0} is eating {1} amount {2} {3}", new String[]{name, food.getFoodName(), Integer.toString(amountOfFoodToEat),getTimeAsString() });
+        startEating();
         sleep();
+        finishEating();
+    }
+
+    /**
+     * Takes the food out of the bowl. The meal lasts until {@link #finishEating()} is called.
+     * @return the amount of food that was taken.
+     */
+    int startEating(){
+        int amountOfFoodToEat = food.takePortion(finalHunger - hunger);
+        this.hunger += amountOfFoodToEat;
+        record(EventType.EATING, amountOfFoodToEat);
+        return amountOfFoodToEat;
+    }
+
+    /**
+     * Gets the bowl the philosopher has been given.
+     * @return the index of the bowl, or -1 if the philosopher has no food.
+     */
+    int getBowl(){
+        return food == null ? -1 : food.getBowl();
+    }
+
+    /**
+     * Ends the meal and gives the food back to the table.
+     */
+    void finishEating(){
         setState(State.THINKING);
         this.amountOfTimesEating += 1;
         food.setTaken(false);
@@ -192,36 +414,57 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
      * The physical act of thinking.
      */
     private void think(){
-        logger.log(Level.FINE, "{0} is thinking about life and space. {1}", new String[]{name, getTimeAsString()});
+        record(EventType.THINKING, 0);
     }
 
     /**
      * The physical act of asking for food.
      */
     private void hungry(){
-        int priority = Thread.MIN_PRIORITY;
-        if (hunger < finalHunger/2){
-            priority = Thread.MAX_PRIORITY;
+        askForFood();
+    }
+
+    /**
+     * Asks for food, and each time a neighbour gives back a fork asks again, until the philosopher is fed or one
+     * delay has passed.
+     * @throws InterruptedException if the thread was interrupted.
+     */
+    private void waitForFood() throws InterruptedException {
+        long deadline = System.nanoTime() + timeScale.toNanos(delay);
+        SeatParking seatParking = parking;
+        seatParking.clear(seat);
+        hungry();
+        long remaining = deadline - System.nanoTime();
+        while (state == State.HUNGRY && remaining > 0){
+            if (seatParking.await(seat, remaining)){
+                seatParking.clear(seat);
+                hungry();
+            }
+            if (Thread.interrupted()){
+                throw new InterruptedException();
+            }
+            remaining = deadline - System.nanoTime();
         }
-        Thread.currentThread().setPriority(priority);
-        alertObservers();
     }
 
     /**
      * The physical act of dying of hunger.
      */
     public void dieOfHunger(){
-        logger.log(Level.INFO, "{0} has died of starvation. But ate {1} times. {2}", new String[]{name, Integer.toString(amountOfTimesEating), getTimeAsString()});
+        record(EventType.DIED, amountOfTimesEating);
         setState(State.DEAD);
-        observers.clear();
+        listeners.clear();
     }
 
     /**
-     * Gets the current time as a string.
-     * @return the time right now.
+     * Writes an event to the event log if the philosopher has one.
+     * @param type the type of event.
+     * @param amount the amount of the event.
      */
-    private String getTimeAsString(){
-        return LocalTime.now().toString();
+    private void record(EventType type, int amount){
+        if (eventLog != null){
+            eventLog.record(seat, type, amount);
+        }
     }
 
     /**
@@ -252,39 +495,21 @@ public class Philosopher implements Runnable, ObservablePhilosopher{
         startPhilosopher();
     }
 
-    @Override
-    public void addObserver(PhilosopherObserver philosopherObserver) {
-        checkIfObjectIsNull(philosopherObserver, "philosopher observer");
-        this.observers.add(philosopherObserver);
-    }
-
-    @Override
-    public void removeObserver(PhilosopherObserver philosopherObserver) {
-        checkIfObjectIsNull(philosopherObserver, "philosopher observer");
-        this.observers.remove(philosopherObserver);
+    /**
+     * Gets the listeners of this philosopher.
+     * @return the listener registry.
+     */
+    public ListenerRegistry getListeners(){
+        return listeners;
     }
 
-    @Override
-    public void alertObservers() {
-        synchronized (Philosopher.class){
-            observers.forEach(obs -> {
-                if (obs instanceof Table){
-                    obs.notifyObserver(this);
-                }
-            });
-            if (food == null){
-                logger.log(Level.INFO, "{0} panicks since there is no food available. {1}", new String[]{name, getTimeAsString()});
-            }
+    /**
+     * Asks the waiter for food.
+     */
+    private void askForFood() {
+        listeners.fireFoodRequest(this);
+        if (food == null){
+            record(EventType.PANICKED, 0);
         }
-        Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
-    }
-
-    @Override
-    public void alertObserverAboutStateChange() {
-        this.observers.forEach(observer -> {
-            if (!(observer instanceof Table)){
-                observer.notifyObserverAboutStateChange(philID, state);
-            }
-        });
     }
 }
@@ -0,0 +1,50 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Represents the resource hierarchy solution where the forks are numbered and always taken lowest number first.
+ * A seat keeps the lower fork while it waits for the higher one, and since everyone takes them in the same order
+ * there can never be a circle of seats waiting on each other.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ResourceHierarchyStrategy implements ForkAllocationStrategy {
+
+    private static final int FREE = 0;
+
+    private final AtomicIntegerArray forks;
+
+    /**
+     * Makes an instance of the ResourceHierarchyStrategy class.
+     * @param amountOfSeats the amount of seats around the table.
+     */
+    public ResourceHierarchyStrategy(int amountOfSeats) {
+        if (amountOfSeats <= 0){
+            throw new IllegalArgumentException("The amount of seats must be larger than 0.");
+        }
+        this.forks = new AtomicIntegerArray(amountOfSeats);
+    }
+
+    @Override
+    public boolean tryAcquire(int seat) {
+        int owner = seat + 1;
+        int rightFork = (seat + 1) % forks.length();
+        int lowFork = Math.min(seat, rightFork);
+        int highFork = Math.max(seat, rightFork);
+        boolean hasLowFork = forks.get(lowFork) == owner || forks.compareAndSet(lowFork, FREE, owner);
+        return hasLowFork && (forks.get(highFork) == owner || forks.compareAndSet(highFork, FREE, owner));
+    }
+
+    @Override
+    public void release(int seat) {
+        int owner = seat + 1;
+        forks.compareAndSet((seat + 1) % forks.length(), owner, FREE);
+        forks.compareAndSet(seat, owner, FREE);
+    }
+
+    @Override
+    public String getName() {
+        return "Resource hierarchy";
+    }
+}
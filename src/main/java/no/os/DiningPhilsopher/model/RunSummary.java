@@ -0,0 +1,197 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents the results of one finished run of a table in a form that can be written as JSON or CSV.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class RunSummary {
+
+    private final int seats;
+
+    private final int delay;
+
+    private final String strategyName;
+
+    private final long seed;
+
+    private final long wallTimeNanos;
+
+    private final MetricsSnapshot snapshot;
+
+    private final int[] mealsPerPhilosopher;
+
+    /**
+     * Makes an instance of the RunSummary class from a table that has finished running.
+     * @param table the table that ran.
+     * @param seed the seed the table was made with.
+     * @param wallTimeNanos the real time the run took in nanoseconds.
+     */
+    public RunSummary(Table table, long seed, long wallTimeNanos) {
+        checkIfObjectIsNull(table, "table");
+        List<Philosopher> philosophers = table.getPhilosophers();
+        this.seats = philosophers.size();
+        this.delay = philosophers.isEmpty() ? 0 : philosophers.get(0).getDelay();
+        this.snapshot = table.getMetricsSnapshot();
+        this.strategyName = snapshot.getStrategyName();
+        this.seed = seed;
+        this.wallTimeNanos = wallTimeNanos;
+        this.mealsPerPhilosopher = new int[seats];
+        for (int seat = 0; seat < seats; seat++){
+            mealsPerPhilosopher[seat] = philosophers.get(seat).getAmountOfTimesEating();
+        }
+    }
+
+    /**
+     * Gets the amount of seats.
+     * @return the amount of seats.
+     */
+    public int getSeats(){
+        return seats;
+    }
+
+    /**
+     * Gets the delay of the philosophers.
+     * @return the delay in milliseconds.
+     */
+    public int getDelay(){
+        return delay;
+    }
+
+    /**
+     * Gets the seed the table was made with.
+     * @return the seed.
+     */
+    public long getSeed(){
+        return seed;
+    }
+
+    /**
+     * Gets the real time the run took.
+     * @return the wall time in nanoseconds.
+     */
+    public long getWallTimeNanos(){
+        return wallTimeNanos;
+    }
+
+    /**
+     * Gets the metrics of the table when the run finished.
+     * @return the metrics snapshot.
+     */
+    public MetricsSnapshot getSnapshot(){
+        return snapshot;
+    }
+
+    /**
+     * Gets the amount of meals each philosopher ate, in seat order.
+     * @return a copy of the meals per philosopher.
+     */
+    public int[] getMealsPerPhilosopher(){
+        return mealsPerPhilosopher.clone();
+    }
+
+    /**
+     * Gets the amount of state transitions for each second of real time.
+     * @return the transitions per second.
+     */
+    public double getTransitionsPerSecond(){
+        return wallTimeNanos == 0 ? 0 : snapshot.getTransitions() * 1_000_000_000.0 / wallTimeNanos;
+    }
+
+    /**
+     * Gets the summary as one JSON object.
+     * @return the JSON text.
+     */
+    public String toJson(){
+        StringBuilder builder = new StringBuilder();
+        builder.append('{');
+        builder.append("\"seats\":").append(seats);
+        builder.append(",\"delayMillis\":").append(delay);
+        builder.append(",\"strategy\":\"").append(strategyName).append('"');
+        builder.append(",\"seed\":").append(seed);
+        builder.append(",\"wallTimeMillis\":").append(formatDecimal(wallTimeNanos / 1_000_000.0));
+        builder.append(",\"meals\":").append(snapshot.getMeals());
+        builder.append(",\"refusals\":").append(snapshot.getRefusals());
+        builder.append(",\"deaths\":").append(snapshot.getDeaths());
+        builder.append(",\"transitions\":").append(snapshot.getTransitions());
+        builder.append(",\"transitionsPerSecond\":").append(formatDecimal(getTransitionsPerSecond()));
+        builder.append(",\"waitMillis\":{");
+        builder.append("\"p50\":").append(formatDecimal(snapshot.getWaitPercentileNanos(50) / 1_000_000.0));
+        builder.append(",\"p90\":").append(formatDecimal(snapshot.getWaitPercentileNanos(90) / 1_000_000.0));
+        builder.append(",\"p99\":").append(formatDecimal(snapshot.getWaitPercentileNanos(99) / 1_000_000.0));
+        builder.append(",\"max\":").append(formatDecimal(snapshot.getMaxWaitNanos() / 1_000_000.0));
+        builder.append('}');
+        builder.append(",\"fairness\":").append(formatDecimal(snapshot.getFairness()));
+        builder.append(",\"mealsPerPhilosopher\":[");
+        for (int seat = 0; seat < seats; seat++){
+            if (seat > 0){
+                builder.append(',');
+            }
+            builder.append(mealsPerPhilosopher[seat]);
+        }
+        builder.append("]}");
+        return builder.toString();
+    }
+
+    /**
+     * Gets the header line that matches {@link #toCsvRow()}.
+     * @return the CSV header.
+     */
+    public static String getCsvHeader(){
+        return "seats,delayMillis,strategy,seed,wallTimeMillis,meals,refusals,deaths,transitions,transitionsPerSecond,"
+                + "p50WaitMillis,p90WaitMillis,p99WaitMillis,maxWaitMillis,fairness,mealsPerPhilosopher";
+    }
+
+    /**
+     * Gets the summary as one CSV line. The meals per philosopher are in the last column separated by semicolons.
+     * @return the CSV line.
+     */
+    public String toCsvRow(){
+        StringBuilder builder = new StringBuilder();
+        builder.append(seats).append(',');
+        builder.append(delay).append(',');
+        builder.append(strategyName).append(',');
+        builder.append(seed).append(',');
+        builder.append(formatDecimal(wallTimeNanos / 1_000_000.0)).append(',');
+        builder.append(snapshot.getMeals()).append(',');
+        builder.append(snapshot.getRefusals()).append(',');
+        builder.append(snapshot.getDeaths()).append(',');
+        builder.append(snapshot.getTransitions()).append(',');
+        builder.append(formatDecimal(getTransitionsPerSecond())).append(',');
+        builder.append(formatDecimal(snapshot.getWaitPercentileNanos(50) / 1_000_000.0)).append(',');
+        builder.append(formatDecimal(snapshot.getWaitPercentileNanos(90) / 1_000_000.0)).append(',');
+        builder.append(formatDecimal(snapshot.getWaitPercentileNanos(99) / 1_000_000.0)).append(',');
+        builder.append(formatDecimal(snapshot.getMaxWaitNanos() / 1_000_000.0)).append(',');
+        builder.append(formatDecimal(snapshot.getFairness())).append(',');
+        for (int seat = 0; seat < seats; seat++){
+            if (seat > 0){
+                builder.append(';');
+            }
+            builder.append(mealsPerPhilosopher[seat]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Formats a decimal number the same way on every locale.
+     * @param number the number to format.
+     * @return the number with three decimals.
+     */
+    private static String formatDecimal(double number){
+        return String.format(Locale.ROOT, "%.3f", number);
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
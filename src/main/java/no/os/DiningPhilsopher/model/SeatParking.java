@@ -0,0 +1,129 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents the place where hungry philosophers wait for a fork when the table uses {@link AcquisitionMode#BLOCKING}.
+ * A seat that was turned away parks, and when a seat gives back its forks both neighbours get a permit and are
+ * unparked. A permit that is given before the neighbour has parked is kept, so a wakeup is never lost between the
+ * refusal and the park. A seat that gets a permit while its other neighbour still eats stays parked, since asking
+ * again would only be turned away.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SeatParking {
+
+    private final AtomicReferenceArray<Thread> threads;
+
+    private final AtomicIntegerArray permits;
+
+    private final AtomicIntegerArray eating;
+
+    private final LongAdder wakeups;
+
+    private final int last;
+
+    /**
+     * Makes an instance of the SeatParking class.
+     * @param amountOfSeats the amount of seats around the table.
+     */
+    public SeatParking(int amountOfSeats) {
+        if (amountOfSeats <= 0){
+            throw new IllegalArgumentException("The amount of seats must be larger than 0.");
+        }
+        this.threads = new AtomicReferenceArray<>(amountOfSeats);
+        this.permits = new AtomicIntegerArray(amountOfSeats);
+        this.eating = new AtomicIntegerArray(amountOfSeats);
+        this.wakeups = new LongAdder();
+        this.last = amountOfSeats - 1;
+    }
+
+    /**
+     * Gets the amount of times a waiting seat was woken by a neighbour.
+     * @return the amount of wakeups.
+     */
+    public long getAmountOfWakeups(){
+        return wakeups.sum();
+    }
+
+    /**
+     * Throws away an old permit of a seat. Called before the seat asks, so only releases after the ask wake it.
+     * @param seat the index of the seat.
+     */
+    void clear(int seat){
+        permits.set(seat, 0);
+    }
+
+    /**
+     * Parks the thread of a seat until a neighbour gives back a fork or the time runs out.
+     * @param seat the index of the seat.
+     * @param nanos the longest time to wait in nanoseconds.
+     * @return <code>true</code> if a neighbour woke the seat.
+     *         <code>false</code> if the time ran out or the thread was interrupted.
+     */
+    boolean await(int seat, long nanos){
+        long deadline = System.nanoTime() + nanos;
+        threads.set(seat, Thread.currentThread());
+        try {
+            boolean woken = takePermit(seat);
+            long remaining = nanos;
+            while (!woken && remaining > 0 && !Thread.currentThread().isInterrupted()){
+                LockSupport.parkNanos(this, remaining);
+                woken = takePermit(seat);
+                remaining = deadline - System.nanoTime();
+            }
+            if (woken){
+                wakeups.increment();
+            }
+            return woken;
+        }finally {
+            threads.set(seat, null);
+        }
+    }
+
+    /**
+     * Tells the parking that a seat has started to eat.
+     * @param seat the index of the seat.
+     */
+    void startedEating(int seat){
+        eating.set(seat, 1);
+    }
+
+    /**
+     * Gives both neighbours of a seat a permit and wakes them if they are parked.
+     * @param seat the index of the seat that gave back its forks.
+     */
+    void releaseNeighbours(int seat){
+        eating.set(seat, 0);
+        wake(seat == 0 ? last : seat - 1);
+        wake(seat == last ? 0 : seat + 1);
+    }
+
+    /**
+     * Takes the permit of a seat if it has one and none of its neighbours eat.
+     * @param seat the index of the seat.
+     * @return <code>true</code> if the seat should ask again.
+     *         <code>false</code> if it should keep waiting.
+     */
+    private boolean takePermit(int seat){
+        int left = seat == 0 ? last : seat - 1;
+        int right = seat == last ? 0 : seat + 1;
+        return permits.get(seat) == 1 && eating.get(left) == 0 && eating.get(right) == 0
+                && permits.compareAndSet(seat, 1, 0);
+    }
+
+    /**
+     * Gives one seat a permit and unparks it.
+     * @param seat the index of the seat.
+     */
+    private void wake(int seat){
+        permits.set(seat, 1);
+        Thread thread = threads.get(seat);
+        if (thread != null){
+            LockSupport.unpark(thread);
+        }
+    }
+}
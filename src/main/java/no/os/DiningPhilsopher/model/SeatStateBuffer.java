@@ -0,0 +1,107 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents the latest state of every seat, written by the philosophers or a dispatcher and read by one reader like a GUI frame.
+ * A state change only overwrites the state of the seat and sets its bit in a dirty set,
+ * so many changes to the same seat between two reads are coalesced into one.
+ * The reader goes through the seats that changed since its last read without looking at the rest.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SeatStateBuffer implements StateChangeListener {
+
+    private static final State[] STATES = State.values();
+
+    private final AtomicIntegerArray states;
+
+    private final AtomicLongArray dirtyWords;
+
+    /**
+     * Makes an instance of the SeatStateBuffer class where every seat starts as thinking.
+     * @param amountOfSeats the amount of seats.
+     */
+    public SeatStateBuffer(int amountOfSeats) {
+        if (amountOfSeats < 0){
+            throw new IllegalArgumentException("The amount of seats cannot be negative.");
+        }
+        this.states = new AtomicIntegerArray(amountOfSeats);
+        this.dirtyWords = new AtomicLongArray((amountOfSeats + 63) / 64);
+        for (int seat = 0; seat < amountOfSeats; seat++){
+            states.set(seat, State.THINKING.ordinal());
+        }
+    }
+
+    /**
+     * Sets the latest state of a seat and marks the seat as changed.
+     * @param seat the index of the seat.
+     * @param state the new state.
+     */
+    public void setState(int seat, State state){
+        checkIfObjectIsNull(state, "state");
+        states.set(seat, state.ordinal());
+        long bit = 1L << seat;
+        int word = seat >>> 6;
+        if ((dirtyWords.get(word) & bit) == 0){
+            dirtyWords.accumulateAndGet(word, bit, (current, added) -> current | added);
+        }
+    }
+
+    /**
+     * Gets the latest state of a seat.
+     * @param seat the index of the seat.
+     * @return the state.
+     */
+    public State getState(int seat){
+        return STATES[states.get(seat)];
+    }
+
+    /**
+     * Gets the amount of seats.
+     * @return the amount of seats.
+     */
+    public int getAmountOfSeats(){
+        return states.length();
+    }
+
+    /**
+     * Gives every seat that changed since the last call to a consumer and marks them as unchanged.
+     * Only one thread may drain at the time.
+     * @param changedSeat the consumer that gets the index of each changed seat.
+     * @return the amount of seats that changed.
+     */
+    public int drainChangedSeats(IntConsumer changedSeat){
+        int amountChanged = 0;
+        for (int word = 0; word < dirtyWords.length(); word++){
+            if (dirtyWords.get(word) != 0){
+                long bits = dirtyWords.getAndSet(word, 0);
+                while (bits != 0){
+                    int seat = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    changedSeat.accept(seat);
+                    amountChanged += 1;
+                }
+            }
+        }
+        return amountChanged;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+
+    @Override
+    public void onStateChange(long id, State state) {
+        setState((int) id - 1, state);
+    }
+}
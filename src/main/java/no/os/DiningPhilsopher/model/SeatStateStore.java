@@ -0,0 +1,180 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents the state of every seat at a table kept in plain arrays indexed by seat.
+ * This is used instead of one philosopher object for each seat when the table has millions of seats.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SeatStateStore {
+
+    private static final State[] STATES = State.values();
+
+    private static final byte NO_BOWL = -1;
+
+    private final int[] hunger;
+
+    private final int[] finalHunger;
+
+    private final int[] timesEating;
+
+    private final byte[] states;
+
+    private final byte[] bowls;
+
+    /**
+     * Makes an instance of the SeatStateStore class where every seat is thinking.
+     * @param amountOfSeats the amount of seats.
+     */
+    public SeatStateStore(int amountOfSeats) {
+        if (amountOfSeats <= 0){
+            throw new IllegalArgumentException("The amount of seats must be larger than 0.");
+        }
+        this.hunger = new int[amountOfSeats];
+        this.finalHunger = new int[amountOfSeats];
+        this.timesEating = new int[amountOfSeats];
+        this.states = new byte[amountOfSeats];
+        this.bowls = new byte[amountOfSeats];
+        Arrays.fill(states, (byte) State.THINKING.ordinal());
+        Arrays.fill(bowls, NO_BOWL);
+    }
+
+    /**
+     * Sets the starting hunger of a seat.
+     * @param seat the index of the seat.
+     * @param hunger the hunger the seat starts with.
+     * @param finalHunger the hunger of the seat when it is full.
+     */
+    public void setHunger(int seat, int hunger, int finalHunger){
+        this.hunger[seat] = hunger;
+        this.finalHunger[seat] = finalHunger;
+    }
+
+    /**
+     * Gets the hunger of a seat.
+     * @param seat the index of the seat.
+     * @return the hunger.
+     */
+    public int getHunger(int seat){
+        return hunger[seat];
+    }
+
+    /**
+     * Gets the hunger of a seat when it is full.
+     * @param seat the index of the seat.
+     * @return the final hunger.
+     */
+    public int getFinalHunger(int seat){
+        return finalHunger[seat];
+    }
+
+    /**
+     * Gets the amount of times a seat has eaten.
+     * @param seat the index of the seat.
+     * @return the amount of times eating.
+     */
+    public int getAmountOfTimesEating(int seat){
+        return timesEating[seat];
+    }
+
+    /**
+     * Gets the state of a seat.
+     * @param seat the index of the seat.
+     * @return the state.
+     */
+    public State getState(int seat){
+        return STATES[states[seat]];
+    }
+
+    /**
+     * Sets the state of a seat. A dead seat stays dead.
+     * @param seat the index of the seat.
+     * @param state the new state.
+     * @return <code>true</code> if the state changed.
+     *         <code>false</code> if the seat already had the state or is dead.
+     */
+    public boolean setState(int seat, State state){
+        byte newState = (byte) state.ordinal();
+        boolean changed = states[seat] != newState && states[seat] != State.DEAD.ordinal();
+        if (changed){
+            states[seat] = newState;
+        }
+        return changed;
+    }
+
+    /**
+     * Adds to the hunger of a seat. Use a negative amount to remove hunger.
+     * @param seat the index of the seat.
+     * @param amount the amount to add.
+     * @return the new hunger.
+     */
+    public int addHunger(int seat, int amount){
+        hunger[seat] += amount;
+        return hunger[seat];
+    }
+
+    /**
+     * Counts one more meal for a seat.
+     * @param seat the index of the seat.
+     */
+    public void addMeal(int seat){
+        timesEating[seat] += 1;
+    }
+
+    /**
+     * Gets the bowl a seat is eating from.
+     * @param seat the index of the seat.
+     * @return the index of the bowl, or -1 if the seat has no bowl.
+     */
+    public int getBowl(int seat){
+        return bowls[seat];
+    }
+
+    /**
+     * Sets the bowl a seat is eating from.
+     * @param seat the index of the seat.
+     * @param bowl the index of the bowl, or -1 if the seat has no bowl.
+     */
+    public void setBowl(int seat, int bowl){
+        if (bowl < NO_BOWL || bowl > Byte.MAX_VALUE){
+            throw new IllegalArgumentException("The bowl must be between -1 and " + Byte.MAX_VALUE + ".");
+        }
+        bowls[seat] = (byte) bowl;
+    }
+
+    /**
+     * Checks if one of the seats beside a seat is eating.
+     * @param seat the index of the seat.
+     * @return <code>true</code> if a seat beside is eating.
+     *         <code>false</code> if none of the seats beside are eating.
+     */
+    public boolean isNeighbourEating(int seat){
+        int last = states.length - 1;
+        int left = seat == 0 ? last : seat - 1;
+        int right = seat == last ? 0 : seat + 1;
+        byte eating = (byte) State.EATING.ordinal();
+        return states[left] == eating || states[right] == eating;
+    }
+
+    /**
+     * Gets the amount of seats.
+     * @return the amount of seats.
+     */
+    public int getAmountOfSeats(){
+        return states.length;
+    }
+
+    /**
+     * Gets a view of one seat that looks like a philosopher.
+     * @param seat the index of the seat.
+     * @return the view of the seat.
+     */
+    public SeatView getView(int seat){
+        if (seat < 0 || seat >= states.length){
+            throw new IllegalArgumentException("The seat must be between 0 and " + (states.length - 1) + ".");
+        }
+        return new SeatView(this, seat);
+    }
+}
@@ -0,0 +1,72 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents a philosopher that only exists as one seat in a seat state store.
+ * The view holds no state of its own, so it can be made when needed and thrown away.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SeatView {
+
+    private final SeatStateStore store;
+
+    private final int seat;
+
+    /**
+     * Makes an instance of the SeatView class.
+     * @param store the store that holds the state.
+     * @param seat the index of the seat.
+     */
+    SeatView(SeatStateStore store, int seat) {
+        this.store = store;
+        this.seat = seat;
+    }
+
+    /**
+     * Gets the philosopher's id.
+     * @return the id.
+     */
+    public long getPhilID(){
+        return seat + 1L;
+    }
+
+    /**
+     * Gets the index of the seat.
+     * @return the seat index.
+     */
+    public int getSeat(){
+        return seat;
+    }
+
+    /**
+     * Gets the name.
+     * @return the name
+     */
+    public String getName(){
+        return "Tom " + (seat + 1);
+    }
+
+    /**
+     * Gets the hunger state of the philosopher.
+     * @return the hunger state of the philosopher.
+     */
+    public State getState(){
+        return store.getState(seat);
+    }
+
+    /**
+     * Gets the hunger of the philosopher. When this reaches zero the philosopher dies.
+     * @return the hunger.
+     */
+    public int getHunger(){
+        return store.getHunger(seat);
+    }
+
+    /**
+     * Gets the amount of times the philosopher has eaten.
+     * @return the amount of times eating.
+     */
+    public int getAmountOfTimesEating(){
+        return store.getAmountOfTimesEating(seat);
+    }
+}
@@ -0,0 +1,132 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the seats around a round table. Every philosopher knows its seat,
+ * and the philosophers beside are found with index math instead of searching.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class Seating {
+
+    private final Philosopher[] seats;
+
+    private final List<Philosopher> seatList;
+
+    /**
+     * Makes an instance of the Seating class and gives each philosopher the seat matching its place in the list.
+     * @param philosophers the philosophers in the order they sit.
+     */
+    public Seating(List<Philosopher> philosophers) {
+        checkIfObjectIsNull(philosophers, "philosophers");
+        if (philosophers.isEmpty()){
+            throw new IllegalArgumentException("The philosophers cannot be empty.");
+        }
+        this.seats = philosophers.toArray(new Philosopher[0]);
+        for (int i = 0; i < seats.length; i++){
+            checkIfObjectIsNull(seats[i], "philosopher");
+            seats[i].setSeat(i);
+        }
+        this.seatList = Collections.unmodifiableList(Arrays.asList(seats));
+    }
+
+    /**
+     * Gets the philosopher at a seat.
+     * @param seat the index of the seat.
+     * @return the philosopher at the seat.
+     */
+    public Philosopher getPhilosopher(int seat){
+        return seats[seat];
+    }
+
+    /**
+     * Gets the philosopher on the left side of a seat.
+     * @param seat the index of the seat.
+     * @return the philosopher to the left.
+     */
+    public Philosopher getLeftNeighbour(int seat){
+        return seats[getLeftSeat(seat)];
+    }
+
+    /**
+     * Gets the philosopher on the right side of a seat.
+     * @param seat the index of the seat.
+     * @return the philosopher to the right.
+     */
+    public Philosopher getRightNeighbour(int seat){
+        return seats[getRightSeat(seat)];
+    }
+
+    /**
+     * Gets the index of the seat on the left side.
+     * @param seat the index of the seat.
+     * @return the index of the seat to the left.
+     */
+    public int getLeftSeat(int seat){
+        return seat == 0 ? seats.length - 1 : seat - 1;
+    }
+
+    /**
+     * Gets the index of the seat on the right side.
+     * @param seat the index of the seat.
+     * @return the index of the seat to the right.
+     */
+    public int getRightSeat(int seat){
+        return seat == seats.length - 1 ? 0 : seat + 1;
+    }
+
+    /**
+     * Checks if one of the philosophers beside a seat is eating.
+     * @param seat the index of the seat.
+     * @return <code>true</code> if one of the philosophers beside is eating.
+     *         <code>false</code> if none of the philosophers beside are eating.
+     */
+    public boolean isNeighbourEating(int seat){
+        return getLeftNeighbour(seat).getState() == State.EATING || getRightNeighbour(seat).getState() == State.EATING;
+    }
+
+    /**
+     * Gets the seat of a philosopher that sits at this table.
+     * @param philosopher the philosopher.
+     * @return the index of the seat.
+     * @throws IllegalArgumentException gets thrown if the philosopher does not sit at this table.
+     */
+    public int getSeatOf(Philosopher philosopher){
+        checkIfObjectIsNull(philosopher, "philosopher");
+        int seat = philosopher.getSeat();
+        if (seat < 0 || seat >= seats.length || seats[seat] != philosopher){
+            throw new IllegalArgumentException("The philosopher " + philosopher.getName() + " does not sit at this table.");
+        }
+        return seat;
+    }
+
+    /**
+     * Gets the amount of seats.
+     * @return the amount of seats.
+     */
+    public int getAmountOfSeats(){
+        return seats.length;
+    }
+
+    /**
+     * Gets all the philosophers in seat order.
+     * @return a list that cannot be changed with the philosophers.
+     */
+    public List<Philosopher> getPhilosophers(){
+        return seatList;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
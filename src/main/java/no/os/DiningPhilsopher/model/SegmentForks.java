@@ -0,0 +1,40 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents the forks of one segment of a sharded ring.
+ * The seats of the segment are numbered from zero, and are moved to their place in the ring before the shared
+ * {@link ForkArbiter} is asked. Only the forks at the two ends of the segment are ever touched by another segment.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+class SegmentForks implements ForkAllocationStrategy {
+
+    private final ForkArbiter forks;
+
+    private final int firstSeat;
+
+    /**
+     * Makes an instance of the SegmentForks class.
+     * @param forks the forks of the whole ring.
+     * @param firstSeat the index in the ring of the first seat of the segment.
+     */
+    SegmentForks(ForkArbiter forks, int firstSeat) {
+        this.forks = forks;
+        this.firstSeat = firstSeat;
+    }
+
+    @Override
+    public boolean tryAcquire(int seat) {
+        return forks.tryAcquire(firstSeat + seat);
+    }
+
+    @Override
+    public void release(int seat) {
+        forks.release(firstSeat + seat);
+    }
+
+    @Override
+    public String getName() {
+        return "Sharded per seat CAS";
+    }
+}
@@ -0,0 +1,328 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Represents one large ring of philosophers split into segments of seats that are next to each other.
+ * Each segment is its own {@link Table} with its own waiter, food pool and philosophers, so the segments share nothing
+ * but the forks of the ring. The food of one single table is split between the segments by their size, so the whole
+ * ring has as much food as one table with the same seats. The forks are one {@link ForkArbiter} for the whole ring, and a segment only touches the
+ * forks of its own seats, so only the two seats at each end of a segment ever compete with another segment.
+ * On the virtual clock every segment runs its own simulation, and the segments move forward together one delay at the
+ * time on a fork join pool. Within one such step the segments do not wait for each other, so two seats at a segment
+ * border may be served in another order than a single table would have served them.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ShardedTable {
+
+    private final List<Table> shards;
+
+    private final int[] firstSeats;
+
+    private final ForkArbiter forks;
+
+    private final int amountOfSeats;
+
+    private final int delay;
+
+    private List<VirtualTimeSimulation> simulations;
+
+    /**
+     * Makes a sharded table where the philosophers start full and the seed is random.
+     * @param amount the amount of philosophers in the whole ring.
+     * @param delay the amount of delay in milli-seconds.
+     * @param amountOfShards the amount of segments to split the ring into.
+     */
+    public ShardedTable(int amount, int delay, int amountOfShards) {
+        this(amount, delay, amountOfShards, ExecutionMode.PLATFORM_THREADS, false, new Random().nextLong());
+    }
+
+    /**
+     * Makes a sharded table. Every segment gets its share of the default bowls of food of a table.
+     * @param amount the amount of philosophers in the whole ring.
+     * @param delay the amount of delay in milli-seconds.
+     * @param amountOfShards the amount of segments to split the ring into.
+     * @param executionMode the kind of threads the philosophers run on when the table is started.
+     * @param isRandom <code>true</code> if the philosophers should start with a random hunger.
+     *                 <code>false</code> if every philosopher should start with the same hunger.
+     * @param seed the seed of every random choice.
+     */
+    public ShardedTable(int amount, int delay, int amountOfShards, ExecutionMode executionMode, boolean isRandom, long seed) {
+        checkIfObjectIsNull(executionMode, "execution mode");
+        if (amountOfShards <= 0 || amountOfShards > amount){
+            throw new IllegalArgumentException("The amount of shards must be between 1 and the amount of seats.");
+        }
+        this.amountOfSeats = amount;
+        this.delay = delay;
+        this.forks = new ForkArbiter(amount);
+        this.shards = new ArrayList<>();
+        this.firstSeats = new int[amountOfShards];
+        int startingHunger = Table.getStartingHunger(amount, delay);
+        Random random = new Random(seed);
+        int firstSeat = 0;
+        for (int shard = 0; shard < amountOfShards; shard++){
+            int size = amount / amountOfShards + (shard < amount % amountOfShards ? 1 : 0);
+            Table table = new Table(size, delay, ArbitrationMode.PER_SEAT_CAS, executionMode, makeFoods(firstSeat, size, amount),
+                    isRandom, random.nextLong(), startingHunger);
+            table.setForkAllocationStrategy(new SegmentForks(forks, firstSeat));
+            shards.add(table);
+            firstSeats[shard] = firstSeat;
+            firstSeat += size;
+        }
+    }
+
+    /**
+     * Makes the share of the default food that a segment gets. Every bowl is split by the seats, and the shares of all
+     * the segments add up to the bowl. A segment whose share of a bowl is empty goes without that bowl.
+     * @param firstSeat the index in the ring of the first seat of the segment.
+     * @param size the amount of seats in the segment.
+     * @param amount the amount of seats in the whole ring.
+     * @return the bowls of food of the segment.
+     */
+    private static List<Food> makeFoods(int firstSeat, int size, int amount){
+        List<Food> foods = new ArrayList<>();
+        for (Food food : Table.makeFoods()){
+            long total = food.getAmountOfFood();
+            int share = (int) (total * (firstSeat + size) / amount - total * firstSeat / amount);
+            if (share > 0){
+                foods.add(new Food(share, food.getFoodName()));
+            }
+        }
+        return foods;
+    }
+
+    /**
+     * Gets the segments of the ring.
+     * @return the tables of the segments, in the order they sit in the ring.
+     */
+    public List<Table> getShards(){
+        return List.copyOf(shards);
+    }
+
+    /**
+     * Gets the amount of seats in the whole ring.
+     * @return the amount of seats.
+     */
+    public int getAmountOfSeats(){
+        return amountOfSeats;
+    }
+
+    /**
+     * Gets the philosopher at a seat of the ring.
+     * @param seat the index of the seat in the whole ring.
+     * @return the philosopher.
+     */
+    public Philosopher getPhilosopher(int seat){
+        if (seat < 0 || seat >= amountOfSeats){
+            throw new IllegalArgumentException("The seat must be between 0 and " + (amountOfSeats - 1) + ".");
+        }
+        int shard = findShard(seat);
+        return shards.get(shard).getPhilosophers().get(seat - firstSeats[shard]);
+    }
+
+    /**
+     * Checks if one of the philosophers beside a seat of the ring is eating, also across segment borders.
+     * @param seat the index of the seat in the whole ring.
+     * @return <code>true</code> if a neighbour is eating.
+     *         <code>false</code> if none of the neighbours are eating.
+     */
+    public boolean isNeighbourEating(int seat){
+        int left = seat == 0 ? amountOfSeats - 1 : seat - 1;
+        int right = seat == amountOfSeats - 1 ? 0 : seat + 1;
+        return getPhilosopher(left).getState() == State.EATING || getPhilosopher(right).getState() == State.EATING;
+    }
+
+    /**
+     * Runs every segment on the virtual clock on the common fork join pool.
+     * @param durationInMillis the amount of virtual milliseconds to run.
+     * @return the amount of events that was handled in all the segments.
+     */
+    public long run(long durationInMillis){
+        return run(durationInMillis, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs every segment on the virtual clock on a fork join pool. The segments move forward one delay at the time.
+     * The table cannot be started on threads after this.
+     * @param durationInMillis the amount of virtual milliseconds to run.
+     * @param pool the pool to run on.
+     * @return the amount of events that was handled in all the segments.
+     */
+    public long run(long durationInMillis, ForkJoinPool pool){
+        checkIfObjectIsNull(pool, "pool");
+        if (durationInMillis < 0){
+            throw new IllegalArgumentException("The duration in millis cannot be negative.");
+        }
+        if (simulations == null){
+            simulations = new ArrayList<>();
+            shards.forEach(shard -> simulations.add(new VirtualTimeSimulation(shard)));
+        }
+        long step = Math.max(1, delay);
+        long left = durationInMillis;
+        long handled = 0;
+        while (left > 0 && hasEventsLeft()){
+            long window = Math.min(step, left);
+            handled += pool.invoke(new WindowTask(window, 0, simulations.size()));
+            left -= window;
+        }
+        return handled;
+    }
+
+    /**
+     * Checks if a segment still has something to do on the virtual clock.
+     * @return <code>true</code> if there are events left.
+     *         <code>false</code> if every segment is done or the table has not run on the virtual clock.
+     */
+    public boolean hasEventsLeft(){
+        return simulations != null && simulations.stream().anyMatch(VirtualTimeSimulation::hasEventsLeft);
+    }
+
+    /**
+     * Starts every segment on its own threads.
+     */
+    public void startSimulation(){
+        if (simulations != null){
+            throw new IllegalStateException("The table has already run on the virtual clock.");
+        }
+        shards.forEach(Table::startSimulation);
+    }
+
+    /**
+     * Stops every segment.
+     */
+    public void stopSimulation(){
+        shards.forEach(Table::stopSimulation);
+    }
+
+    /**
+     * Waits until the threads of every segment have stopped.
+     * @param timeoutInMillis the longest time to wait for each segment in milliseconds.
+     * @return <code>true</code> if every thread stopped.
+     *         <code>false</code> if the time ran out first.
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    public boolean awaitStop(long timeoutInMillis) throws InterruptedException {
+        boolean stopped = true;
+        for (Table shard : shards){
+            stopped = shard.awaitStop(timeoutInMillis) && stopped;
+        }
+        return stopped;
+    }
+
+    /**
+     * Adds the metrics of every segment together.
+     * The fairness is worked out over every philosopher in the ring.
+     * @return the metrics of the whole ring.
+     */
+    public MetricsSnapshot getMetricsSnapshot(){
+        long elapsed = 0;
+        long meals = 0;
+        long refusals = 0;
+        long deaths = 0;
+        long transitions = 0;
+        long totalWait = 0;
+        long waitCount = 0;
+        long maxWait = 0;
+        long[] histogram = new long[TableMetrics.BUCKETS];
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (Table shard : shards){
+            MetricsSnapshot snapshot = shard.getMetricsSnapshot();
+            elapsed = Math.max(elapsed, snapshot.getElapsedNanos());
+            meals += snapshot.getMeals();
+            refusals += snapshot.getRefusals();
+            deaths += snapshot.getDeaths();
+            transitions += snapshot.getTransitions();
+            totalWait += snapshot.getTotalWaitNanos();
+            waitCount += snapshot.getWaitCount();
+            maxWait = Math.max(maxWait, snapshot.getMaxWaitNanos());
+            long[] shardHistogram = snapshot.getWaitHistogram();
+            for (int bucket = 0; bucket < histogram.length; bucket++){
+                histogram[bucket] += shardHistogram[bucket];
+            }
+            for (Philosopher philosopher : shard.getPhilosophers()){
+                double timesEating = philosopher.getAmountOfTimesEating();
+                sum += timesEating;
+                sumOfSquares += timesEating * timesEating;
+            }
+        }
+        double fairness = sumOfSquares == 0 ? 1 : (sum * sum) / (amountOfSeats * sumOfSquares);
+        return new MetricsSnapshot("Sharded per seat CAS x " + shards.size(), elapsed, meals, refusals, deaths, transitions,
+                totalWait, waitCount, maxWait, fairness, histogram);
+    }
+
+    /**
+     * Finds the segment a seat of the ring belongs to.
+     * @param seat the index of the seat in the whole ring.
+     * @return the index of the segment.
+     */
+    private int findShard(int seat){
+        int low = 0;
+        int high = firstSeats.length - 1;
+        while (low < high){
+            int middle = (low + high + 1) >>> 1;
+            if (firstSeats[middle] <= seat){
+                low = middle;
+            }else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+
+    /**
+     * Represents one step of the virtual clock for some of the segments, that either runs one segment or splits itself in two.
+     */
+    private class WindowTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long window;
+
+        private final int from;
+
+        private final int to;
+
+        /**
+         * Makes an instance of the WindowTask class.
+         * @param window the amount of virtual milliseconds to run.
+         * @param from the index of the first segment.
+         * @param to the index after the last segment.
+         */
+        WindowTask(long window, int from, int to) {
+            this.window = window;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            long handled = 0;
+            if (to - from == 1){
+                handled = simulations.get(from).run(window);
+            }else if (to - from > 1){
+                int middle = (from + to) >>> 1;
+                WindowTask right = new WindowTask(window, middle, to);
+                right.fork();
+                handled = new WindowTask(window, from, middle).compute() + right.join();
+            }
+            return handled;
+        }
+    }
+}
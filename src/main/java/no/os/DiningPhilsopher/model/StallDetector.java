@@ -0,0 +1,223 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents a monitor that samples a table on its own thread and tells if the table is stalled, and how.
+ * <p>
+ * Each sample reads when each seat got hungry and the meal and refusal counters from the {@link TableMetrics} of the
+ * table. These are atomics the table keeps anyway, so sampling never takes the table lock and adds nothing to the
+ * work of the philosophers. A seat is stuck when it has been hungry for a whole window. A stuck seat waits on the
+ * forks it shares with its neighbours, so stuck seats in a row form a wait chain, and when every seat in the ring is
+ * stuck the chain is a cycle. The kind of stall is then told by what the table did in the window, see {@link StallType}.
+ * <p>
+ * The newest report is kept for {@link #getLatestReport()}, and each time the kind of stall changes it is logged.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class StallDetector {
+
+    /**
+     * The time between each sample if nothing else is chosen.
+     */
+    public static final long DEFAULT_INTERVAL_MILLIS = 100;
+
+    private final Table table;
+
+    private final TableMetrics metrics;
+
+    private final long intervalMillis;
+
+    private final long windowNanos;
+
+    private final long[] refusalHistory;
+
+    private final int[] stuckSeats;
+
+    private final Logger logger;
+
+    private int historyPosition;
+
+    private volatile long amountOfSamples;
+
+    private long lastMeals;
+
+    private long lastMealTime;
+
+    private volatile StallReport latestReport;
+
+    private ScheduledExecutorService sampler;
+
+    /**
+     * Makes a detector that samples ten times each second.
+     * @param table the table to watch.
+     * @param windowMillis how long a seat can be hungry before it counts as stuck.
+     */
+    public StallDetector(Table table, long windowMillis) {
+        this(table, DEFAULT_INTERVAL_MILLIS, windowMillis);
+    }
+
+    /**
+     * Makes a detector. It does not sample before {@link #start()}.
+     * @param table the table to watch.
+     * @param intervalMillis the time between each sample.
+     * @param windowMillis how long a seat can be hungry before it counts as stuck. Must be at least one interval.
+     */
+    public StallDetector(Table table, long intervalMillis, long windowMillis) {
+        checkIfObjectIsNull(table, "table");
+        if (intervalMillis <= 0){
+            throw new IllegalArgumentException("The interval must be above zero.");
+        }
+        if (windowMillis < intervalMillis){
+            throw new IllegalArgumentException("The window cannot be shorter than the interval.");
+        }
+        this.table = table;
+        this.metrics = table.getMetrics();
+        this.intervalMillis = intervalMillis;
+        this.windowNanos = windowMillis * 1_000_000;
+        this.refusalHistory = new long[(int) Math.min(Integer.MAX_VALUE, windowMillis / intervalMillis)];
+        this.stuckSeats = new int[table.getPhilosophers().size()];
+        this.logger = Logger.getLogger(StallDetector.class.getName() + ".table-" + table.getTableNumber());
+        this.latestReport = new StallReport(StallType.NONE, table.getPhilosophers().size(), new int[0], 0, false, 0, 0);
+    }
+
+    /**
+     * Starts sampling on a thread of its own.
+     */
+    public synchronized void start(){
+        if (sampler == null){
+            sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stall-detector-" + table.getTableNumber());
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleAtFixedRate(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops sampling. The latest report is kept.
+     */
+    public synchronized void stop(){
+        if (sampler != null){
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    /**
+     * Gets the report of the latest sample.
+     * @return the latest report.
+     */
+    public StallReport getLatestReport(){
+        return latestReport;
+    }
+
+    /**
+     * Gets the amount of samples so far.
+     * @return the amount of samples.
+     */
+    public long getAmountOfSamples(){
+        return amountOfSamples;
+    }
+
+    /**
+     * Gets the time between each sample.
+     * @return the interval in milliseconds.
+     */
+    public long getIntervalMillis(){
+        return intervalMillis;
+    }
+
+    /**
+     * Gets how long a seat can be hungry before it counts as stuck.
+     * @return the window in milliseconds.
+     */
+    public long getWindowMillis(){
+        return windowNanos / 1_000_000;
+    }
+
+    /**
+     * Samples the table once, makes a new report and logs it if the kind of stall changed.
+     * @return the new report.
+     */
+    synchronized StallReport sample(){
+        long now = metrics.getTime();
+        long meals = metrics.getMeals();
+        long refusals = metrics.getRefusals();
+        if (amountOfSamples == 0){
+            Arrays.fill(refusalHistory, refusals);
+            lastMeals = meals;
+            lastMealTime = now;
+        }else if (meals != lastMeals){
+            lastMeals = meals;
+            lastMealTime = now;
+        }
+        long refusalsInWindow = refusals - refusalHistory[historyPosition];
+        refusalHistory[historyPosition] = refusals;
+        historyPosition = (historyPosition + 1) % refusalHistory.length;
+        amountOfSamples += 1;
+
+        int amountOfSeats = stuckSeats.length;
+        int amountStuck = 0;
+        int longestChain = 0;
+        int chain = 0;
+        int firstChain = -1;
+        for (int seat = 0; seat < amountOfSeats; seat++){
+            if (metrics.getHungryNanos(seat, now) >= windowNanos){
+                stuckSeats[amountStuck] = seat;
+                amountStuck += 1;
+                chain += 1;
+            }else {
+                if (firstChain < 0){
+                    firstChain = chain;
+                }
+                longestChain = Math.max(longestChain, chain);
+                chain = 0;
+            }
+        }
+        boolean waitCycle = amountStuck == amountOfSeats && amountOfSeats > 1;
+        longestChain = waitCycle ? amountOfSeats : Math.max(longestChain, chain + Math.max(0, firstChain));
+
+        long nanosSinceLastMeal = now - lastMealTime;
+        StallType type;
+        if (amountStuck == 0){
+            type = StallType.NONE;
+        }else if (!table.getFoodPool().hasFood()){
+            type = StallType.OUT_OF_FOOD;
+        }else if (nanosSinceLastMeal < windowNanos){
+            type = StallType.SLOW;
+        }else if (refusalsInWindow > 0){
+            type = StallType.LIVELOCK;
+        }else {
+            type = StallType.DEADLOCK;
+        }
+        StallReport report = new StallReport(type, amountOfSeats, Arrays.copyOf(stuckSeats, amountStuck), longestChain, waitCycle,
+                nanosSinceLastMeal, refusalsInWindow);
+        if (type != latestReport.getType()){
+            if (type == StallType.NONE){
+                logger.log(Level.INFO, "The table is making progress again.");
+            }else {
+                logger.log(Level.WARNING, report.toString());
+            }
+        }
+        latestReport = report;
+        return report;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents what a {@link StallDetector} found in one sample of a table.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class StallReport {
+
+    private final StallType type;
+
+    private final int amountOfSeats;
+
+    private final int[] stuckSeats;
+
+    private final int longestWaitChain;
+
+    private final boolean waitCycle;
+
+    private final long nanosSinceLastMeal;
+
+    private final long refusalsInWindow;
+
+    /**
+     * Makes an instance of the StallReport class.
+     * @param type the kind of stall.
+     * @param amountOfSeats the amount of seats around the table.
+     * @param stuckSeats the seats that have been hungry for a whole window, in seat order.
+     * @param longestWaitChain the most stuck seats in a row around the ring.
+     * @param waitCycle <code>true</code> if the stuck seats wait on each other all the way around the ring.
+     * @param nanosSinceLastMeal the time since the table last served a meal.
+     * @param refusalsInWindow the amount of refusals in the window.
+     */
+    public StallReport(StallType type, int amountOfSeats, int[] stuckSeats, int longestWaitChain, boolean waitCycle,
+                       long nanosSinceLastMeal, long refusalsInWindow) {
+        checkIfObjectIsNull(type, "type");
+        checkIfObjectIsNull(stuckSeats, "stuck seats");
+        this.type = type;
+        this.amountOfSeats = amountOfSeats;
+        this.stuckSeats = stuckSeats.clone();
+        this.longestWaitChain = longestWaitChain;
+        this.waitCycle = waitCycle;
+        this.nanosSinceLastMeal = nanosSinceLastMeal;
+        this.refusalsInWindow = refusalsInWindow;
+    }
+
+    /**
+     * Gets the kind of stall.
+     * @return the type.
+     */
+    public StallType getType(){
+        return type;
+    }
+
+    /**
+     * Gets the amount of seats around the table.
+     * @return the amount of seats.
+     */
+    public int getAmountOfSeats(){
+        return amountOfSeats;
+    }
+
+    /**
+     * Gets the seats that have been hungry for a whole window.
+     * @return the indexes of the seats, in seat order.
+     */
+    public int[] getStuckSeats(){
+        return stuckSeats.clone();
+    }
+
+    /**
+     * Gets the most stuck seats in a row around the ring. Each of them waits on a fork its stuck neighbour wants.
+     * @return the length of the longest chain.
+     */
+    public int getLongestWaitChain(){
+        return longestWaitChain;
+    }
+
+    /**
+     * Checks if the stuck seats wait on each other all the way around the ring.
+     * @return <code>true</code> if the wait-for view has a cycle.
+     *         <code>false</code> if some seat in the ring is not stuck.
+     */
+    public boolean hasWaitCycle(){
+        return waitCycle;
+    }
+
+    /**
+     * Gets the time since the table last served a meal.
+     * @return the time in nanoseconds.
+     */
+    public long getNanosSinceLastMeal(){
+        return nanosSinceLastMeal;
+    }
+
+    /**
+     * Gets the amount of refusals in the window.
+     * @return the amount of refusals.
+     */
+    public long getRefusalsInWindow(){
+        return refusalsInWindow;
+    }
+
+    @Override
+    public String toString() {
+        int shown = Math.min(stuckSeats.length, 10);
+        String seats = Arrays.toString(Arrays.copyOf(stuckSeats, shown));
+        if (shown < stuckSeats.length){
+            seats = seats.substring(0, seats.length() - 1) + ", ...]";
+        }
+        return type + ": " + stuckSeats.length + " of " + amountOfSeats + " seats stuck " + seats
+                + ", longest wait chain " + longestWaitChain + (waitCycle ? " (cycle)" : "")
+                + ", " + (nanosSinceLastMeal / 1_000_000) + " ms since the last meal, "
+                + refusalsInWindow + " refusals in the window";
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents the kinds of stalls a {@link StallDetector} can tell apart.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public enum StallType {
+
+    /**
+     * No seat has been hungry for a whole window.
+     */
+    NONE,
+
+    /**
+     * Some seats have been hungry for a whole window, but the table still served meals in it. The eating is just slow.
+     */
+    SLOW,
+
+    /**
+     * Seats have been hungry for a whole window and the table has no food left to serve them.
+     */
+    OUT_OF_FOOD,
+
+    /**
+     * No meals were served in the window, but the seats kept asking and being refused.
+     */
+    LIVELOCK,
+
+    /**
+     * No meals were served and nobody was refused in the window. The hungry seats are not getting anywhere at all.
+     */
+    DEADLOCK
+}
@@ -0,0 +1,132 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Represents the queue the waiter keeps of hungry philosophers, so the most urgent ones are served first.
+ * Every hungry seat has a key that is its remaining hunger minus an aging bonus for each time it has been turned away.
+ * A lower key is more urgent, and ties go to the lowest seat. When a seat asks for food and a neighbour is waiting with
+ * a more urgent key, the seat is held back so the forks stay free for the neighbour. A seat is only held back for a
+ * neighbour that could eat right now, so the table does not lose meals to neighbours that wait for someone else anyway.
+ * The scheduler only decides who may try. Which seats hold forks is still decided by the fork allocation strategy.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class StarvationScheduler {
+
+    /**
+     * The aging bonus for each refusal if nothing else is said.
+     */
+    public static final int DEFAULT_AGING = 1;
+
+    private static final int NOT_WAITING = Integer.MAX_VALUE;
+
+    private static final int EATING = Integer.MIN_VALUE;
+
+    private final AtomicIntegerArray keys;
+
+    private final int[] refusals;
+
+    private final int aging;
+
+    private final int last;
+
+    /**
+     * Makes an instance of the StarvationScheduler class.
+     * @param amountOfSeats the amount of seats around the table.
+     * @param aging how much more urgent a seat gets each time it is turned away. 0 means no aging.
+     */
+    public StarvationScheduler(int amountOfSeats, int aging) {
+        if (amountOfSeats <= 0){
+            throw new IllegalArgumentException("The amount of seats must be larger than 0.");
+        }
+        if (aging < 0){
+            throw new IllegalArgumentException("The aging cannot be negative.");
+        }
+        this.keys = new AtomicIntegerArray(amountOfSeats);
+        this.refusals = new int[amountOfSeats];
+        this.aging = aging;
+        this.last = amountOfSeats - 1;
+        for (int seat = 0; seat < amountOfSeats; seat++){
+            keys.set(seat, NOT_WAITING);
+        }
+    }
+
+    /**
+     * Gets the amount of seats the scheduler keeps a queue for.
+     * @return the amount of seats.
+     */
+    public int getAmountOfSeats(){
+        return last + 1;
+    }
+
+    /**
+     * Gets how much more urgent a seat gets each time it is turned away.
+     * @return the aging.
+     */
+    public int getAging(){
+        return aging;
+    }
+
+    /**
+     * Puts a hungry seat in the queue, or updates its key, and checks if it may try to take the forks now.
+     * Only the thread of the seat may call this.
+     * @param seat the index of the seat.
+     * @param hunger the remaining hunger of the philosopher.
+     * @return <code>true</code> if no neighbour that could eat now is more urgent.
+     *         <code>false</code> if the seat should leave the forks to a neighbour.
+     */
+    boolean mayTry(int seat, int hunger){
+        int key = (int) Math.max(Integer.MIN_VALUE + 1L, (long) hunger - (long) aging * refusals[seat]);
+        keys.set(seat, key);
+        int left = seat == 0 ? last : seat - 1;
+        int right = seat == last ? 0 : seat + 1;
+        return !isWaitingBefore(left, key, seat, seat == left ? seat : (left == 0 ? last : left - 1))
+                && !isWaitingBefore(right, key, seat, seat == right ? seat : (right == last ? 0 : right + 1));
+    }
+
+    /**
+     * Tells the scheduler that a seat got food and leaves the queue.
+     * @param seat the index of the seat.
+     */
+    void granted(int seat){
+        refusals[seat] = 0;
+        keys.set(seat, EATING);
+    }
+
+    /**
+     * Tells the scheduler that a seat was turned away and stays in the queue.
+     * @param seat the index of the seat.
+     */
+    void refused(int seat){
+        refusals[seat] += 1;
+    }
+
+    /**
+     * Tells the scheduler that a seat is done eating, or stopped waiting.
+     * @param seat the index of the seat.
+     */
+    void left(int seat){
+        refusals[seat] = 0;
+        keys.set(seat, NOT_WAITING);
+    }
+
+    /**
+     * Checks if a neighbour waits with a more urgent key and could eat if the seat leaves the fork between them.
+     * @param neighbour the index of the neighbour.
+     * @param key the key of the seat that asks.
+     * @param seat the index of the seat that asks.
+     * @param farSide the index of the seat on the other side of the neighbour.
+     * @return <code>true</code> if the seat should wait for the neighbour.
+     *         <code>false</code> otherwise.
+     */
+    private boolean isWaitingBefore(int neighbour, int key, int seat, int farSide){
+        if (neighbour == seat){
+            return false;
+        }
+        int neighbourKey = keys.get(neighbour);
+        boolean moreUrgent = neighbourKey != NOT_WAITING && neighbourKey != EATING
+                && (neighbourKey < key || (neighbourKey == key && neighbour < seat));
+        return moreUrgent && keys.get(farSide) != EATING;
+    }
+}
@@ -0,0 +1,193 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents a background thread that reads the state changes of many philosophers and gives them to one listener.
+ * Each philosopher has its own {@link StateChangeRing}, and the dispatcher follows each ring with its own position.
+ * Since the listener runs on the thread of the dispatcher, a slow listener never makes a philosopher wait. If the
+ * listener falls too far behind the oldest changes are skipped and counted as lost.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class StateChangeDispatcher {
+
+    private static final long IDLE_NANOS = 1_000_000;
+
+    private final StateChangeListener listener;
+
+    private final List<Subscription> subscriptions;
+
+    private final String name;
+
+    private volatile long lost;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    /**
+     * Makes an instance of the StateChangeDispatcher class.
+     * @param listener the listener that gets the state changes.
+     * @param name the name of the thread.
+     */
+    public StateChangeDispatcher(StateChangeListener listener, String name) {
+        checkIfObjectIsNull(listener, "listener");
+        checkString(name, "name");
+        this.listener = listener;
+        this.name = name;
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.lost = 0;
+        this.running = false;
+    }
+
+    /**
+     * Starts to follow the state changes of a philosopher from now on.
+     * @param philosopher the philosopher to follow.
+     */
+    public void subscribe(Philosopher philosopher){
+        checkIfObjectIsNull(philosopher, "philosopher");
+        subscribe(philosopher.getListeners().getStateChanges());
+    }
+
+    /**
+     * Starts to follow a ring of state changes from now on.
+     * @param ring the ring to follow.
+     */
+    public void subscribe(StateChangeRing ring){
+        checkIfObjectIsNull(ring, "ring");
+        subscriptions.add(new Subscription(ring, ring.getAmountPublished()));
+    }
+
+    /**
+     * Starts to follow the state changes of all the philosophers at a table.
+     * @param table the table to follow.
+     */
+    public void subscribe(Table table){
+        checkIfObjectIsNull(table, "table");
+        table.getPhilosophers().forEach(this::subscribe);
+    }
+
+    /**
+     * Starts the background thread.
+     */
+    public synchronized void start(){
+        if (running){
+            throw new IllegalStateException("The dispatcher is already started.");
+        }
+        running = true;
+        thread = new Thread(this::dispatchUntilStopped, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the background thread after it has given the listener the changes that are in the rings.
+     */
+    public synchronized void stop(){
+        if (running){
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    /**
+     * Gets the amount of state changes that was skipped since the listener was too slow.
+     * @return the amount of lost state changes.
+     */
+    public long getAmountOfLostChanges(){
+        return lost;
+    }
+
+    /**
+     * Gives the listener all the state changes that are ready. Only one thread may dispatch at the time.
+     * @return the amount of state changes given to the listener.
+     */
+    int dispatch(){
+        int amountDispatched = 0;
+        for (Subscription subscription : subscriptions){
+            StateChangeRing ring = subscription.ring;
+            long next = subscription.next;
+            long end = ring.getAmountPublished();
+            while (next < end){
+                State state = ring.read(next);
+                if (ring.isStillThere(next)){
+                    listener.onStateChange(ring.getId(), state);
+                    next += 1;
+                    amountDispatched += 1;
+                }else {
+                    end = ring.getAmountPublished();
+                    long oldest = end - ring.getCapacity() + 1;
+                    lost += oldest - next;
+                    next = oldest;
+                }
+            }
+            subscription.next = next;
+        }
+        return amountDispatched;
+    }
+
+    /**
+     * Dispatches state changes until the dispatcher is stopped.
+     */
+    private void dispatchUntilStopped(){
+        boolean stopping = false;
+        while (!stopping){
+            stopping = !running;
+            if (dispatch() == 0 && !stopping){
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Checks if a string is of a valid format or not.
+     * @param stringToCheck the string you want to check.
+     * @param errorPrefix   the error the exception should have if the string is invalid.
+     */
+    private void checkString(String stringToCheck, String errorPrefix) {
+        checkIfObjectIsNull(stringToCheck, errorPrefix);
+        if (stringToCheck.isEmpty()) {
+            throw new IllegalArgumentException("The " + errorPrefix + " cannot be empty.");
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+
+    /**
+     * Represents a ring and the position of the dispatcher in it.
+     */
+    private static class Subscription {
+
+        private final StateChangeRing ring;
+
+        private long next;
+
+        /**
+         * Makes an instance of the Subscription class.
+         * @param ring the ring to follow.
+         * @param next the number of the next state change to read.
+         */
+        private Subscription(StateChangeRing ring, long next) {
+            this.ring = ring;
+            this.next = next;
+        }
+    }
+}
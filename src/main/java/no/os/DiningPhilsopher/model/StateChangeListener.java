@@ -0,0 +1,16 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents something that wants to know when a philosopher changes state.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public interface StateChangeListener {
+
+    /**
+     * Handles that a philosopher has a new state.
+     * @param id the id of the philosopher.
+     * @param state the new state.
+     */
+    void onStateChange(long id, State state);
+}
@@ -0,0 +1,106 @@
+package no.os.DiningPhilsopher.model;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a ring of the last state changes of one philosopher.
+ * Only the thread of the philosopher writes to the ring, so putting a state on it is one store and one release of
+ * the counter. Any amount of readers can follow the ring with their own position. The writer never waits for the
+ * readers: a reader that falls more than the capacity behind loses the oldest changes and has to skip ahead.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class StateChangeRing {
+
+    /**
+     * The amount of state changes the ring holds if nothing else is said.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final State[] STATES = State.values();
+
+    private final long id;
+
+    private final byte[] states;
+
+    private final int mask;
+
+    private final AtomicLong published;
+
+    /**
+     * Makes an instance of the StateChangeRing class.
+     * @param id the id of the philosopher that writes to the ring.
+     * @param capacity the amount of state changes the ring holds. Is rounded up to a power of two.
+     */
+    public StateChangeRing(long id, int capacity) {
+        if (capacity <= 0){
+            throw new IllegalArgumentException("The capacity must be above zero.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity){
+            size = size << 1;
+        }
+        this.id = id;
+        this.states = new byte[size];
+        this.mask = size - 1;
+        this.published = new AtomicLong(0);
+    }
+
+    /**
+     * Gets the id of the philosopher that writes to the ring.
+     * @return the id of the philosopher.
+     */
+    public long getId(){
+        return id;
+    }
+
+    /**
+     * Gets the amount of state changes the ring holds.
+     * @return the capacity.
+     */
+    public int getCapacity(){
+        return mask + 1;
+    }
+
+    /**
+     * Gets the amount of state changes that has been put on the ring since it was made.
+     * @return the amount of published state changes.
+     */
+    public long getAmountPublished(){
+        return published.get();
+    }
+
+    /**
+     * Puts a state change on the ring. Must only be called by the thread of the philosopher.
+     * @param state the new state.
+     */
+    void publish(State state){
+        long sequence = published.getPlain();
+        VarHandle.storeStoreFence();
+        states[(int) sequence & mask] = (byte) state.ordinal();
+        published.setRelease(sequence + 1);
+    }
+
+    /**
+     * Reads a state change that has been published. The caller must check with {@link #isStillThere(long)} after
+     * reading that the writer has not written over it.
+     * @param sequence the number of the state change.
+     * @return the state.
+     */
+    State read(long sequence){
+        State state = STATES[states[(int) sequence & mask]];
+        VarHandle.acquireFence();
+        return state;
+    }
+
+    /**
+     * Checks if a state change can still be read, or if the writer has come around and may have written over it.
+     * @param sequence the number of the state change.
+     * @return <code>true</code> if the state change is still in the ring.
+     *         <code>false</code> if it may be written over.
+     */
+    boolean isStillThere(long sequence){
+        return published.get() - sequence < states.length;
+    }
+}
@@ -0,0 +1,124 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents one combination of table parameters in a parameter sweep.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SweepPoint {
+
+    private final int seats;
+
+    private final int delay;
+
+    private final int[] foodAmounts;
+
+    private final boolean isRandom;
+
+    private final ArbitrationMode arbitrationMode;
+
+    private final long seed;
+
+    /**
+     * Makes an instance of the SweepPoint class.
+     * @param seats the amount of philosophers.
+     * @param delay the delay of each step in milliseconds.
+     * @param foodAmounts the amount of food in each bowl.
+     * @param isRandom <code>true</code> if the philosophers should start with a random hunger.
+     * @param arbitrationMode the way requests for food should be handled.
+     * @param seed the seed of the table.
+     */
+    public SweepPoint(int seats, int delay, int[] foodAmounts, boolean isRandom, ArbitrationMode arbitrationMode, long seed) {
+        checkIfObjectIsNull(foodAmounts, "food amounts");
+        checkIfObjectIsNull(arbitrationMode, "arbitration mode");
+        if (seats <= 0 || delay <= 0){
+            throw new IllegalArgumentException("The seats and delay must be above zero.");
+        }
+        this.seats = seats;
+        this.delay = delay;
+        this.foodAmounts = foodAmounts.clone();
+        this.isRandom = isRandom;
+        this.arbitrationMode = arbitrationMode;
+        this.seed = seed;
+    }
+
+    /**
+     * Makes a new table with the parameters of this point. Every table gets its own bowls of food.
+     * @return the table.
+     */
+    public Table makeTable(){
+        List<Food> foods = new ArrayList<>();
+        for (int bowl = 0; bowl < foodAmounts.length; bowl++){
+            foods.add(new Food(foodAmounts[bowl], "Food " + (bowl + 1)));
+        }
+        return new Table(seats, delay, arbitrationMode, ExecutionMode.PLATFORM_THREADS, foods, isRandom, seed);
+    }
+
+    /**
+     * Gets the amount of philosophers.
+     * @return the amount of seats.
+     */
+    public int getSeats(){
+        return seats;
+    }
+
+    /**
+     * Gets the delay of each step.
+     * @return the delay in milliseconds.
+     */
+    public int getDelay(){
+        return delay;
+    }
+
+    /**
+     * Gets the amount of food in each bowl.
+     * @return a copy of the food amounts.
+     */
+    public int[] getFoodAmounts(){
+        return foodAmounts.clone();
+    }
+
+    /**
+     * Checks if the philosophers start with a random hunger.
+     * @return <code>true</code> if the starting hunger is random.
+     */
+    public boolean isRandom(){
+        return isRandom;
+    }
+
+    /**
+     * Gets the arbitration mode.
+     * @return the arbitration mode.
+     */
+    public ArbitrationMode getArbitrationMode(){
+        return arbitrationMode;
+    }
+
+    /**
+     * Gets the seed of the table.
+     * @return the seed.
+     */
+    public long getSeed(){
+        return seed;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return seats + " seats, " + delay + " ms, foods " + Arrays.toString(foodAmounts) + ", random " + isRandom + ", " + arbitrationMode + ", seed " + seed;
+    }
+}
@@ -0,0 +1,136 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.List;
+
+/**
+ * Represents the results of a parameter sweep, with one summary for each combination.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SweepReport {
+
+    private final List<SweepPoint> points;
+
+    private final List<RunSummary> summaries;
+
+    private final long wallTimeNanos;
+
+    /**
+     * Makes an instance of the SweepReport class.
+     * @param points the combinations that was run.
+     * @param summaries the summary of each combination, in the same order.
+     * @param wallTimeNanos the real time the whole sweep took in nanoseconds.
+     */
+    public SweepReport(List<SweepPoint> points, List<RunSummary> summaries, long wallTimeNanos) {
+        checkIfObjectIsNull(points, "points");
+        checkIfObjectIsNull(summaries, "summaries");
+        if (points.size() != summaries.size()){
+            throw new IllegalArgumentException("There must be one summary for each point.");
+        }
+        this.points = List.copyOf(points);
+        this.summaries = List.copyOf(summaries);
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    /**
+     * Gets the summaries in the order of the points.
+     * @return the summaries.
+     */
+    public List<RunSummary> getSummaries(){
+        return summaries;
+    }
+
+    /**
+     * Gets the combinations that was run.
+     * @return the points.
+     */
+    public List<SweepPoint> getPoints(){
+        return points;
+    }
+
+    /**
+     * Gets the real time the whole sweep took.
+     * @return the wall time in nanoseconds.
+     */
+    public long getWallTimeNanos(){
+        return wallTimeNanos;
+    }
+
+    /**
+     * Gets the combination where the most meals was served.
+     * @return the best point.
+     */
+    public SweepPoint getPointWithMostMeals(){
+        int best = 0;
+        for (int index = 1; index < summaries.size(); index++){
+            if (summaries.get(index).getSnapshot().getMeals() > summaries.get(best).getSnapshot().getMeals()){
+                best = index;
+            }
+        }
+        return points.get(best);
+    }
+
+    /**
+     * Gets the report as CSV with a header and one line for each combination.
+     * @return the CSV text.
+     */
+    public String toCsv(){
+        StringBuilder builder = new StringBuilder();
+        builder.append("foods,randomHunger,").append(RunSummary.getCsvHeader()).append('\n');
+        for (int index = 0; index < points.size(); index++){
+            SweepPoint point = points.get(index);
+            appendFoods(builder, point, ';');
+            builder.append(',').append(point.isRandom()).append(',');
+            builder.append(summaries.get(index).toCsvRow()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets the report as a JSON array with one object for each combination.
+     * @return the JSON text.
+     */
+    public String toJson(){
+        StringBuilder builder = new StringBuilder();
+        builder.append('[');
+        for (int index = 0; index < points.size(); index++){
+            SweepPoint point = points.get(index);
+            if (index > 0){
+                builder.append(",\n");
+            }
+            builder.append("{\"foods\":[");
+            appendFoods(builder, point, ',');
+            builder.append("],\"randomHunger\":").append(point.isRandom());
+            builder.append(",\"run\":").append(summaries.get(index).toJson()).append('}');
+        }
+        builder.append("]\n");
+        return builder.toString();
+    }
+
+    /**
+     * Adds the food amounts of a point to a builder.
+     * @param builder the builder to add to.
+     * @param point the point.
+     * @param separator the character between the amounts.
+     */
+    private void appendFoods(StringBuilder builder, SweepPoint point, char separator){
+        int[] foodAmounts = point.getFoodAmounts();
+        for (int bowl = 0; bowl < foodAmounts.length; bowl++){
+            if (bowl > 0){
+                builder.append(separator);
+            }
+            builder.append(foodAmounts[bowl]);
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
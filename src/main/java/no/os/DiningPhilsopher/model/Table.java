@@ -1,11 +1,16 @@
 package no.os.DiningPhilsopher.model;
 
-import javafx.scene.control.Tab;
-
-import java.time.LocalTime;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -15,18 +20,54 @@ import java.util.stream.Stream;
  * @author Steinar Hjelle Midthus
  * @version 0.1
  */
-public class Table implements PhilosopherObserver {
+public class Table implements FoodRequestListener, StateChangeListener {
 
     private List<Philosopher> philosophers;
 
-    private List<Food> foods;
+    private Seating seating;
+
+    private FoodPool foodPool;
 
-    private Map<LocalTime, Philosopher> deadPhilosopher;
+    private final Queue<Philosopher> deadPhilosophers;
 
     private ExecutorService executorService;
 
     private final Logger logger;
 
+    private final ArbitrationMode arbitrationMode;
+
+    private ForkAllocationStrategy strategy;
+
+    private volatile StarvationScheduler starvationScheduler;
+
+    private AcquisitionMode acquisitionMode;
+
+    private volatile SeatParking seatParking;
+
+    private final TableMetrics metrics;
+
+    private final EventLog eventLog;
+
+    private final ExecutionMode executionMode;
+
+    private final AtomicInteger runningPhilosophers;
+
+    private boolean attached;
+
+    private ObjectName metricsBeanName;
+
+    private final int tableNumber;
+
+    private final TimeScale timeScale;
+
+    private final int delay;
+
+    private final boolean isRandom;
+
+    private final long seed;
+
+    private static final AtomicInteger tableCounter = new AtomicInteger();
+
     //Todo: Launch me for faster simulation.
     public static void main(String[] args) {
         Table table = new Table(3, 50);
@@ -54,11 +95,138 @@ public class Table implements PhilosopherObserver {
      * @param delay the amount of delay in milli-seconds.
      */
     public Table(int amount, int delay) {
-        addNDummyPhilosophers(amount, delay);
-        deadPhilosopher = new HashMap<>();
-        this.logger = Logger.getLogger(getClass().getName());
+        this(amount, delay, ArbitrationMode.GLOBAL_LOCK);
+    }
+
+    /**
+     * Makes an empty table that decides who gets to eat with the wanted arbitration mode.
+     * @param amount the amount of extra philosophers than 3.
+     * @param delay the amount of delay in milli-seconds.
+     * @param arbitrationMode the way requests for food should be handled.
+     */
+    public Table(int amount, int delay, ArbitrationMode arbitrationMode) {
+        this(amount, delay, arbitrationMode, ExecutionMode.PLATFORM_THREADS);
     }
 
+    /**
+     * Makes an empty table that runs its philosophers on the wanted kind of threads.
+     * @param amount the amount of extra philosophers than 3.
+     * @param delay the amount of delay in milli-seconds.
+     * @param arbitrationMode the way requests for food should be handled.
+     * @param executionMode the kind of threads the philosophers should run on.
+     * @throws UnsupportedOperationException gets thrown if the execution mode is not available on this Java version.
+     */
+    public Table(int amount, int delay, ArbitrationMode arbitrationMode, ExecutionMode executionMode) {
+        this(amount, delay, arbitrationMode, executionMode, makeFoods(), false, new Random().nextLong());
+    }
+
+    /**
+     * Makes an empty table with the wanted food where every random choice comes from one seed.
+     * @param amount the amount of extra philosophers than 3.
+     * @param delay the amount of delay in milli-seconds.
+     * @param arbitrationMode the way requests for food should be handled.
+     * @param executionMode the kind of threads the philosophers should run on.
+     * @param foods the bowls of food on the table. The foods cannot be on another table.
+     * @param isRandom <code>true</code> if the philosophers should start with a random hunger.
+     *                 <code>false</code> if every philosopher should start with the same hunger.
+     * @param seed the seed of the random starting hunger.
+     * @throws UnsupportedOperationException gets thrown if the execution mode is not available on this Java version.
+     */
+    public Table(int amount, int delay, ArbitrationMode arbitrationMode, ExecutionMode executionMode, List<Food> foods, boolean isRandom, long seed) {
+        this(amount, delay, arbitrationMode, executionMode, foods, isRandom, seed, getStartingHunger(amount, delay));
+    }
+
+    /**
+     * Makes an empty table where the philosophers start with a given hunger. Used when the table is one part of a
+     * larger ring, so the philosophers get the hunger of the whole ring.
+     * @param amount the amount of philosophers.
+     * @param delay the amount of delay in milli-seconds.
+     * @param arbitrationMode the way requests for food should be handled.
+     * @param executionMode the kind of threads the philosophers should run on.
+     * @param foods the bowls of food on the table. The foods cannot be on another table.
+     * @param isRandom <code>true</code> if the philosophers should start with a random hunger.
+     *                 <code>false</code> if every philosopher should start with the same hunger.
+     * @param seed the seed of the random starting hunger.
+     * @param startingHunger the hunger a philosopher has when it is full.
+     * @throws UnsupportedOperationException gets thrown if the execution mode is not available on this Java version.
+     */
+    Table(int amount, int delay, ArbitrationMode arbitrationMode, ExecutionMode executionMode, List<Food> foods, boolean isRandom, long seed, int startingHunger) {
+        checkIfObjectIsNull(arbitrationMode, "arbitration mode");
+        checkIfObjectIsNull(executionMode, "execution mode");
+        checkIfObjectIsNull(foods, "foods");
+        if (!executionMode.isAvailable()){
+            throw new UnsupportedOperationException("The execution mode " + executionMode + " is not supported on Java " + Runtime.version().feature() + ".");
+        }
+        this.arbitrationMode = arbitrationMode;
+        this.executionMode = executionMode;
+        this.runningPhilosophers = new AtomicInteger(0);
+        this.tableNumber = tableCounter.incrementAndGet();
+        this.delay = delay;
+        this.isRandom = isRandom;
+        this.seed = seed;
+        this.logger = Logger.getLogger(Table.class.getName() + ".table-" + tableNumber);
+        this.eventLog = new EventLog(Math.min(EventLog.DEFAULT_CAPACITY, Math.max(1024, amount * 64)));
+        this.timeScale = new TimeScale();
+        addNDummyPhilosophers(amount, delay, foods, isRandom, new Random(seed), startingHunger);
+        this.strategy = arbitrationMode.makeStrategy(philosophers.size());
+        this.metrics = new TableMetrics(philosophers.size());
+        deadPhilosophers = new ConcurrentLinkedQueue<>();
+        this.acquisitionMode = AcquisitionMode.POLLING;
+    }
+
+
+    /**
+     * Gets the number that tells this table apart from the other tables in the JVM.
+     * The loggers of the table are named after it, like <code>no.os.DiningPhilsopher.model.Table.table-3</code>,
+     * so the log of one table can be turned on or off without touching the others.
+     * The loggers are children of the class loggers, so {@link #setConsole()} still shows every table.
+     * @return the table number.
+     */
+    public int getTableNumber(){
+        return tableNumber;
+    }
+
+    /**
+     * Gets the delay the philosophers at this table were made with.
+     * @return the delay in milliseconds.
+     */
+    public int getDelay(){
+        return delay;
+    }
+
+    /**
+     * Checks if the philosophers at this table started with a random hunger.
+     * @return <code>true</code> if the starting hunger was random.
+     *         <code>false</code> if every philosopher started with the same hunger.
+     */
+    public boolean isRandomHunger(){
+        return isRandom;
+    }
+
+    /**
+     * Gets the seed every random choice of the table came from.
+     * @return the seed.
+     */
+    public long getSeed(){
+        return seed;
+    }
+
+    /**
+     * Checks if the table listens to its philosophers, which it does once it has started in any way.
+     * @return <code>true</code> if the table has started.
+     *         <code>false</code> if the table is untouched.
+     */
+    boolean isAttached(){
+        return attached;
+    }
+
+    /**
+     * Gets the logger the philosophers at this table write to.
+     * @return the philosopher logger of this table.
+     */
+    private Logger getPhilosopherLogger(){
+        return Logger.getLogger(Philosopher.class.getName() + ".table-" + tableNumber);
+    }
 
     /**
      * Gets a list of all the philosophers.
@@ -68,88 +236,413 @@ public class Table implements PhilosopherObserver {
         return philosophers;
     }
 
+    /**
+     * Gets the philosophers that have died, in the order they died.
+     * @return a list with the dead philosophers.
+     */
+    public List<Philosopher> getDeadPhilosophers(){
+        return new ArrayList<>(deadPhilosophers);
+    }
+
+    /**
+     * Puts a philosopher that was dead when a checkpoint was made back among the dead.
+     * @param philosopher the dead philosopher.
+     */
+    void restoreDeadPhilosopher(Philosopher philosopher){
+        checkIfObjectIsNull(philosopher, "philosopher");
+        deadPhilosophers.add(philosopher);
+    }
+
+    /**
+     * Makes the philosophers write every state change to a trace.
+     * @param traceWriter the trace to write to, or null to stop tracing.
+     */
+    public void setTraceWriter(TraceWriter traceWriter){
+        philosophers.forEach(philosopher -> philosopher.setTraceWriter(traceWriter));
+    }
+
+    /**
+     * Gets the bowls of food on the table.
+     * @return the food pool.
+     */
+    public FoodPool getFoodPool(){
+        return foodPool;
+    }
+
+    /**
+     * Gets the seats of the table.
+     * @return the seating.
+     */
+    public Seating getSeating(){
+        return seating;
+    }
+
+    /**
+     * Gets the way this table decides who gets to eat.
+     * @return the arbitration mode.
+     */
+    public ArbitrationMode getArbitrationMode(){
+        return arbitrationMode;
+    }
+
+    /**
+     * Sets the scheduler that lets the most urgent hungry philosophers try first. Must be set before the table starts.
+     * @param starvationScheduler the scheduler, or null to let every hungry philosopher try at once.
+     */
+    public void setStarvationScheduler(StarvationScheduler starvationScheduler){
+        if (attached){
+            throw new IllegalStateException("The scheduler cannot be changed after the table has started.");
+        }
+        if (starvationScheduler != null && starvationScheduler.getAmountOfSeats() != philosophers.size()){
+            throw new IllegalArgumentException("The scheduler must have as many seats as the table.");
+        }
+        this.starvationScheduler = starvationScheduler;
+    }
+
+    /**
+     * Sets what a hungry philosopher does after it was turned away. Must be set before the table starts.
+     * Only philosophers that run on threads park. Runs on the virtual clock and recorded runs always poll,
+     * since every step there has to happen in a fixed order.
+     * @param acquisitionMode the acquisition mode.
+     */
+    public void setAcquisitionMode(AcquisitionMode acquisitionMode){
+        checkIfObjectIsNull(acquisitionMode, "acquisition mode");
+        if (attached){
+            throw new IllegalStateException("The acquisition mode cannot be changed after the table has started.");
+        }
+        this.acquisitionMode = acquisitionMode;
+    }
+
+    /**
+     * Gets what a hungry philosopher does after it was turned away.
+     * @return the acquisition mode.
+     */
+    public AcquisitionMode getAcquisitionMode(){
+        return acquisitionMode;
+    }
+
+    /**
+     * Gets the parking where turned away philosophers wait for a fork.
+     * @return the parking, or null if the table has not started with {@link AcquisitionMode#BLOCKING}.
+     */
+    public SeatParking getSeatParking(){
+        return seatParking;
+    }
+
+    /**
+     * Gets the scheduler that lets the most urgent hungry philosophers try first.
+     * @return the scheduler, or null if the table has none.
+     */
+    public StarvationScheduler getStarvationScheduler(){
+        return starvationScheduler;
+    }
+
+    /**
+     * Gets the strategy that decides who gets to eat.
+     * @return the fork allocation strategy.
+     */
+    public ForkAllocationStrategy getForkAllocationStrategy(){
+        return strategy;
+    }
+
+    /**
+     * Sets the strategy that decides who gets to eat. Must be done before the simulation starts.
+     * @param strategy the new fork allocation strategy.
+     */
+    public void setForkAllocationStrategy(ForkAllocationStrategy strategy){
+        checkIfObjectIsNull(strategy, "strategy");
+        this.strategy = strategy;
+    }
+
+    /**
+     * Gets the time scale every philosopher at the table sleeps through. Change its speed to speed the table up or
+     * slow it down while it runs, without making a new table.
+     * @return the time scale.
+     */
+    public TimeScale getTimeScale(){
+        return timeScale;
+    }
+
+    /**
+     * Gets the meals, refusals, waits and fairness of the table so far.
+     * @return a snapshot of the metrics.
+     */
+    public MetricsSnapshot getMetricsSnapshot(){
+        return getMetricsSnapshot(false);
+    }
+
+    /**
+     * Gets the meals, refusals, waits and fairness of the table so far, and if wanted the wait histogram of each seat.
+     * @param withSeatHistograms <code>true</code> if the wait histogram of each seat should be in the snapshot.
+     * @return a snapshot of the metrics.
+     */
+    public MetricsSnapshot getMetricsSnapshot(boolean withSeatHistograms){
+        return metrics.makeSnapshot(strategy.getName(), philosophers, withSeatHistograms);
+    }
+
+    /**
+     * Gets the metrics of the table.
+     * @return the metrics.
+     */
+    TableMetrics getMetrics(){
+        return metrics;
+    }
+
+    /**
+     * Gets the event log the table and its philosophers write to.
+     * The log is started with a {@link LoggerEventLogWriter} when the simulation starts,
+     * unless it is already started with another writer.
+     * @return the event log.
+     */
+    public EventLog getEventLog(){
+        return eventLog;
+    }
+
+    /**
+     * Registers the metrics of the table as an MXBean on the platform MBean server,
+     * so they can be watched with tools like JConsole while the simulation runs.
+     * Registering a table that is already registered does nothing.
+     * @return the name the bean was registered with.
+     */
+    public synchronized ObjectName registerMetricsBean(){
+        if (metricsBeanName == null){
+            try {
+                ObjectName name = new ObjectName("no.os.DiningPhilsopher:type=Table,name=table-" + tableNumber);
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new TableMetricsBean(this), name);
+                metricsBeanName = name;
+            }catch (JMException exception){
+                throw new IllegalStateException("The metrics bean could not be registered.", exception);
+            }
+        }
+        return metricsBeanName;
+    }
+
+    /**
+     * Removes the metrics bean of the table from the platform MBean server if it is registered.
+     */
+    public synchronized void unregisterMetricsBean(){
+        if (metricsBeanName != null){
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                server.unregisterMBean(metricsBeanName);
+            }catch (JMException exception){
+                logger.log(Level.WARNING, "The metrics bean could not be unregistered.", exception);
+            }
+            metricsBeanName = null;
+        }
+    }
+
+    /**
+     * Gets the kind of threads the philosophers run on.
+     * @return the execution mode.
+     */
+    public ExecutionMode getExecutionMode(){
+        return executionMode;
+    }
+
+    /**
+     * Gets the amount of philosophers that are running on a thread right now.
+     * @return the amount of running philosophers.
+     */
+    public int getAmountOfRunningPhilosophers(){
+        return runningPhilosophers.get();
+    }
+
     /**
      * Adds N amount of dummy philosophers.
      * @param amountOfN the amount of extra Toms we need.
      * @param delay the amount of delay in milliseconds.
+     * @param foods the bowls of food on the table.
+     * @param isRandom <code>true</code> if the philosophers should start with a random hunger.
+     * @param random the random each philosopher gets its own random from.
+     * @param foodAmount the hunger a philosopher has when it is full.
+     */
+    private void addNDummyPhilosophers(int amountOfN, int delay, List<Food> foods, boolean isRandom, Random random, int foodAmount){
+        philosophers = new ArrayList<>();
+        foodPool = new FoodPool(foods);
+        long size = this.philosophers.size();
+        for (int i = 1; i <= amountOfN; i++){
+            philosophers.add(new Philosopher( size + i,"Tom " + i, foodAmount, isRandom, delay, new Random(random.nextLong())));
+        }
+        seating = new Seating(philosophers);
+        Logger philosopherLogger = getPhilosopherLogger();
+        philosophers.forEach(philosopher -> {
+            philosopher.setEventLog(eventLog);
+            philosopher.setLogger(philosopherLogger);
+            philosopher.setTimeScale(timeScale);
+        });
+        executorService = makeExecutorService();
+    }
+
+    /**
+     * Gets the hunger each philosopher starts with.
+     * @param amountOfN the amount of philosophers.
+     * @param delay the amount of delay in milliseconds.
+     * @return the starting hunger.
      */
-    private void addNDummyPhilosophers(int amountOfN, int delay){
+    static int getStartingHunger(int amountOfN, int delay){
         int foodAmount = 0;
         if (delay < 500 || amountOfN > 3){
             foodAmount = amountOfN * 10;
         }else {
             foodAmount = 10;
         }
-        philosophers = new LinkedList<>();
-        foods = new LinkedList<>();
-        foods.add(new Food(2000, "Rice"));
-        foods.add(new Food(1000, "Apple"));
-        long size = this.philosophers.size();
-        for (int i = 1; i <= amountOfN; i++){
-            philosophers.add(new Philosopher( size + i,"Tom " + i, foodAmount, false, delay));
+        return foodAmount;
+    }
+
+    /**
+     * Makes the bowls of food that are put on a new table.
+     * @return the bowls of food.
+     */
+    static List<Food> makeFoods(){
+        List<Food> foodList = new LinkedList<>();
+        foodList.add(new Food(2000, "Rice"));
+        foodList.add(new Food(1000, "Apple"));
+        return foodList;
+    }
+
+    /**
+     * Makes the executor that the philosophers should run on.
+     * @return the executor service matching the execution mode.
+     */
+    private ExecutorService makeExecutorService(){
+        ExecutorService service;
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS){
+            try {
+                service = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            }catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException exception){
+                throw new UnsupportedOperationException("Could not make virtual threads on this Java version.", exception);
+            }
+        }else {
+            service = Executors.newFixedThreadPool(this.philosophers.size());
         }
-        executorService = Executors.newFixedThreadPool(this.philosophers.size());
+        return service;
     }
 
     /**
      * Starts the simulation.
      */
     public void startSimulation(){
+        attachToPhilosophers();
+        if (acquisitionMode == AcquisitionMode.BLOCKING && seatParking == null){
+            SeatParking parking = new SeatParking(philosophers.size());
+            philosophers.forEach(philosopher -> philosopher.setParking(parking));
+            seatParking = parking;
+        }
+        if (!eventLog.isRunning()){
+            eventLog.start(new LoggerEventLogWriter(seating, foodPool, getPhilosopherLogger(), logger));
+        }
         philosophers.forEach(philosopher -> {
-            philosopher.addObserver(this);
-            executorService.submit(philosopher);
+            executorService.submit(() -> {
+                runningPhilosophers.incrementAndGet();
+                try {
+                    philosopher.run();
+                }finally {
+                    runningPhilosophers.decrementAndGet();
+                }
+            });
         });
     }
 
+    /**
+     * Makes the table listen to all its philosophers. Does nothing if the table already listens.
+     */
+    void attachToPhilosophers(){
+        if (!attached){
+            attached = true;
+            metrics.start();
+            philosophers.forEach(philosopher -> {
+                philosopher.getListeners().addFoodRequestListener(this);
+                philosopher.getListeners().addStateChangeListener(this);
+            });
+        }
+    }
+
     /**
      * Stops the simulation.
      */
     public void stopSimulation(){
         executorService.shutdownNow();
+        eventLog.stop();
+    }
+
+    /**
+     * Waits until every philosopher thread has stopped after the simulation was stopped.
+     * @param timeoutInMillis the longest time to wait in milliseconds.
+     * @return <code>true</code> if every philosopher thread stopped.
+     *         <code>false</code> if the time ran out first.
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    public boolean awaitStop(long timeoutInMillis) throws InterruptedException {
+        return executorService.awaitTermination(timeoutInMillis, TimeUnit.MILLISECONDS);
     }
 
 
     /**
      * Handles the philosophers asking for food.
+     * The fork allocation strategy decides if the philosopher may eat, and then the table looks for a free bowl.
      * @param philosopher the philosopher to handle.
      */
     public void handlePhilosopherAskingForFood(Philosopher philosopher){
         if (checkIfTableHasFood()){
-            List<Philosopher> philosopherList = getPhilosophersOnTheSide(philosopher);
-            if (!checkIfPhilosophersBesideIsEating(philosopherList)){
-                serveFood(philosopher);
-            }else {
-                StringBuilder stringBuilder = new StringBuilder();
-                philosopherList.stream().filter(philosopher1 -> philosopher1.getState() == State.EATING).forEach(philosopher1 -> {
-                    if (!stringBuilder.isEmpty()){
-                        stringBuilder.append(", ");
+            int seat = getSeat(philosopher);
+            StarvationScheduler scheduler = starvationScheduler;
+            boolean mayTry = scheduler == null || scheduler.mayTry(seat, philosopher.getHunger());
+            if (mayTry && strategy.tryAcquire(seat)){
+                if (serveFood(philosopher)){
+                    metrics.recordMeal(seat);
+                    if (scheduler != null){
+                        scheduler.granted(seat);
+                    }
+                }else {
+                    strategy.release(seat);
+                    metrics.recordRefusal(seat);
+                    if (scheduler != null){
+                        scheduler.refused(seat);
                     }
-                    stringBuilder.append(philosopher1.getName());
-                });
-                stringBuilder.append(" beside ");
-                stringBuilder.append(philosopher.getName());
-                stringBuilder.append(" is eating.");
-                String warning = stringBuilder.toString();
-                logger.log(Level.WARNING, warning);
+                }
+            }else {
+                metrics.recordRefusal(seat);
+                eventLog.record(seat, EventType.REFUSED, 0);
+                if (scheduler != null){
+                    scheduler.refused(seat);
+                }
             }
         }else {
-            if (philosophers.stream().allMatch(philosopher1 -> philosopher1.getState() == State.DEAD)){
-                stopSimulation();
-            }
+            stopIfEveryoneIsDead();
+        }
+    }
+
+    /**
+     * Stops the simulation if all the philosophers are dead.
+     */
+    private void stopIfEveryoneIsDead(){
+        if (philosophers.stream().allMatch(philosopher1 -> philosopher1.getState() == State.DEAD)){
+            stopSimulation();
         }
     }
 
     /**
      * Gets food that is available and serves it to the person.
      * @param philosopher the philosopher to feed.
+     * @return <code>true</code> if the philosopher got food.
+     *         <code>false</code> if all the food is taken or empty.
      */
-    private void serveFood(Philosopher philosopher){
-        Optional<Food> opFood = foods.stream().filter(food -> !food.isTaken() && food.getAmountOfFood() > 0).findFirst();
-        if (opFood.isPresent()){
-            Food food = opFood.get();
-            food.setTaken(true);
+    boolean serveFood(Philosopher philosopher){
+        Food food = foodPool.takeFood();
+        if (food != null){
             philosopher.receiveFood(food);
         }
+        return food != null;
+    }
+
+    /**
+     * Gets the seat index of a philosopher.
+     * @param philosopher the philosopher to find the seat of.
+     * @return the index of the seat.
+     */
+    private int getSeat(Philosopher philosopher){
+        return seating.getSeatOf(philosopher);
     }
 
     /**
@@ -165,30 +658,13 @@ public class Table implements PhilosopherObserver {
         return (philosopher1.getState() == State.EATING) || (philosopher2.getState() == State.EATING);
     }
 
-    /**
-     * Gets the philosophers that are beside a philosopher.
-     * @param philosopher the philosopher that is in the middle.
-     * @return a list with two people beside the input philosopher.
-     */
-    private List<Philosopher> getPhilosophersOnTheSide(Philosopher philosopher){
-        int index = philosophers.indexOf(philosopher);
-        int amountOfPhilosophers = philosophers.size();
-        int nextPosition = (index + 1) % amountOfPhilosophers;
-        int beforePosition = (index + amountOfPhilosophers - 1) % philosophers.size();
-        List<Philosopher> philosophers2 = new LinkedList<>();
-        philosophers2.add(philosophers.get(beforePosition));
-        philosophers2.add(philosophers.get(nextPosition));
-
-        return philosophers2;
-    }
-
     /**
      * Checks if the table has food.
      * @return <code>true</code> if there is still food available.
      *         <code>false</code> if there is no food available.
      */
     private boolean checkIfTableHasFood(){
-        return !foods.stream().allMatch(food -> food.getAmountOfFood() == 0);
+        return foodPool.hasFood();
     }
 
     /**
@@ -203,17 +679,35 @@ public class Table implements PhilosopherObserver {
     }
 
     @Override
-    public void notifyObserver(Philosopher philosopher) {
+    public void onFoodRequest(Philosopher philosopher) {
         handlePhilosopherAskingForFood(philosopher);
     }
 
     @Override
-    public void notifyObserverAboutStateChange(long id, State state) {
+    public void onStateChange(long id, State state) {
+        int seat = (int) id - 1;
+        metrics.recordTransition(seat);
+        if (state == State.THINKING || state == State.DEAD){
+            strategy.release(seat);
+            StarvationScheduler scheduler = starvationScheduler;
+            if (scheduler != null){
+                scheduler.left(seat);
+            }
+            SeatParking parking = seatParking;
+            if (parking != null){
+                parking.releaseNeighbours(seat);
+            }
+        }else if (state == State.HUNGRY){
+            metrics.recordHungry(seat);
+        }else if (state == State.EATING){
+            SeatParking parking = seatParking;
+            if (parking != null){
+                parking.startedEating(seat);
+            }
+        }
         if (state == State.DEAD){
-            LocalTime localTime = LocalTime.now();
-            int place = (int) id - 1;
-            Philosopher philosopher = philosophers.get(place);
-            deadPhilosopher.put(localTime, philosopher);
+            metrics.recordDeath(seat);
+            deadPhilosophers.add(philosophers.get(seat));
         }
     }
 }
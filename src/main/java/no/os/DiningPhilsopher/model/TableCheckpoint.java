@@ -0,0 +1,401 @@
+package no.os.DiningPhilsopher.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the state of a table at one point in time, that a new table can continue from.
+ * The checkpoint holds how the table was made, the hunger, state, meals and bowl of every philosopher, the food
+ * left in every bowl, who died in which order and the table wide metrics. It can be written as a compact binary file,
+ * where the numbers of each seat are written with seven bits in each byte, so most seats take four or five bytes.
+ * One checkpoint can be restored many times, so many variants can be run from the same warmed up table.
+ * <p>
+ * The table must not run while the checkpoint is made, so it is taken after {@link Table#awaitStop(long)} or between
+ * two runs on the virtual clock. A philosopher that was eating when its thread was stopped is still eating after
+ * the restore, and gets its forks back. The waits of seats that were hungry are not measured after the restore.
+ * A table that uses a strategy other than the one of its arbitration mode gets the strategy of the mode back.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TableCheckpoint {
+
+    static final int MAGIC = 0x44504331;
+
+    static final short VERSION = 1;
+
+    private final int delay;
+
+    private final long seed;
+
+    private final boolean isRandom;
+
+    private final ArbitrationMode arbitrationMode;
+
+    private final ExecutionMode executionMode;
+
+    private final AcquisitionMode acquisitionMode;
+
+    private final int aging;
+
+    private final int fullHunger;
+
+    private final String[] foodNames;
+
+    private final int[] foodAmounts;
+
+    private final int[] hungers;
+
+    private final State[] states;
+
+    private final int[] timesEating;
+
+    private final int[] bowls;
+
+    private final int[] deadSeats;
+
+    private final MetricsSnapshot metrics;
+
+    /**
+     * Makes a checkpoint of a table that is not running.
+     * @param table the table.
+     * @throws IllegalStateException if a philosopher of the table is running on a thread.
+     */
+    public TableCheckpoint(Table table) {
+        checkIfObjectIsNull(table, "table");
+        if (table.getAmountOfRunningPhilosophers() > 0){
+            throw new IllegalStateException("The table must be stopped before a checkpoint is made.");
+        }
+        this.delay = table.getDelay();
+        this.seed = table.getSeed();
+        this.isRandom = table.isRandomHunger();
+        this.arbitrationMode = table.getArbitrationMode();
+        this.executionMode = table.getExecutionMode();
+        this.acquisitionMode = table.getAcquisitionMode();
+        StarvationScheduler scheduler = table.getStarvationScheduler();
+        this.aging = scheduler == null ? -1 : scheduler.getAging();
+        FoodPool foodPool = table.getFoodPool();
+        this.foodNames = new String[foodPool.getAmountOfBowls()];
+        this.foodAmounts = new int[foodNames.length];
+        for (int bowl = 0; bowl < foodNames.length; bowl++){
+            foodNames[bowl] = foodPool.getFood(bowl).getFoodName();
+            foodAmounts[bowl] = foodPool.getFood(bowl).getAmountOfFood();
+        }
+        List<Philosopher> philosophers = table.getPhilosophers();
+        int seats = philosophers.size();
+        this.fullHunger = seats == 0 ? 0 : philosophers.get(0).getFullHunger();
+        this.hungers = new int[seats];
+        this.states = new State[seats];
+        this.timesEating = new int[seats];
+        this.bowls = new int[seats];
+        for (int seat = 0; seat < seats; seat++){
+            Philosopher philosopher = philosophers.get(seat);
+            hungers[seat] = philosopher.getHunger();
+            states[seat] = philosopher.getState();
+            timesEating[seat] = philosopher.getAmountOfTimesEating();
+            bowls[seat] = states[seat] == State.EATING ? philosopher.getBowl() : -1;
+        }
+        this.deadSeats = table.getDeadPhilosophers().stream().mapToInt(Philosopher::getSeat).toArray();
+        this.metrics = table.getMetricsSnapshot();
+    }
+
+    /**
+     * Makes a checkpoint from values that was read from a file.
+     * @param delay the delay.
+     * @param seed the seed.
+     * @param isRandom if the starting hunger was random.
+     * @param arbitrationMode the arbitration mode.
+     * @param executionMode the execution mode.
+     * @param acquisitionMode the acquisition mode.
+     * @param aging the aging of the starvation scheduler, or -1 if there was none.
+     * @param fullHunger the hunger of a full philosopher.
+     * @param foodNames the names of the bowls.
+     * @param foodAmounts the food left in each bowl.
+     * @param hungers the hunger of each seat.
+     * @param states the state of each seat.
+     * @param timesEating the meals of each seat.
+     * @param bowls the bowl each seat was eating from, or -1.
+     * @param deadSeats the seats that died in the order they died.
+     * @param metrics the table wide metrics.
+     */
+    private TableCheckpoint(int delay, long seed, boolean isRandom, ArbitrationMode arbitrationMode, ExecutionMode executionMode,
+                            AcquisitionMode acquisitionMode, int aging, int fullHunger, String[] foodNames, int[] foodAmounts,
+                            int[] hungers, State[] states, int[] timesEating, int[] bowls, int[] deadSeats, MetricsSnapshot metrics) {
+        this.delay = delay;
+        this.seed = seed;
+        this.isRandom = isRandom;
+        this.arbitrationMode = arbitrationMode;
+        this.executionMode = executionMode;
+        this.acquisitionMode = acquisitionMode;
+        this.aging = aging;
+        this.fullHunger = fullHunger;
+        this.foodNames = foodNames;
+        this.foodAmounts = foodAmounts;
+        this.hungers = hungers;
+        this.states = states;
+        this.timesEating = timesEating;
+        this.bowls = bowls;
+        this.deadSeats = deadSeats;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reads a checkpoint that was written with {@link #writeTo(OutputStream)}.
+     * @param inputStream the stream to read from. It is not closed.
+     * @return the checkpoint.
+     * @throws IOException if the stream could not be read or is not a checkpoint.
+     */
+    public static TableCheckpoint readFrom(InputStream inputStream) throws IOException {
+        if (inputStream == null){
+            throw new IllegalArgumentException("The input stream cannot be null.");
+        }
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        if (input.readInt() != MAGIC){
+            throw new IOException("The stream is not a checkpoint.");
+        }
+        short version = input.readShort();
+        if (version != VERSION){
+            throw new IOException("The checkpoint version " + version + " is not supported.");
+        }
+        int seats = input.readInt();
+        int delay = input.readInt();
+        long seed = input.readLong();
+        boolean isRandom = input.readBoolean();
+        ArbitrationMode arbitrationMode = readEnum(input, ArbitrationMode.class);
+        ExecutionMode executionMode = readEnum(input, ExecutionMode.class);
+        AcquisitionMode acquisitionMode = readEnum(input, AcquisitionMode.class);
+        int aging = input.readInt();
+        int fullHunger = input.readInt();
+        int amountOfBowls = input.readInt();
+        String[] foodNames = new String[amountOfBowls];
+        int[] foodAmounts = new int[amountOfBowls];
+        for (int bowl = 0; bowl < amountOfBowls; bowl++){
+            foodAmounts[bowl] = input.readInt();
+            foodNames[bowl] = input.readUTF();
+        }
+        long[] counters = new long[7];
+        for (int counter = 0; counter < counters.length; counter++){
+            counters[counter] = input.readLong();
+        }
+        double fairness = input.readDouble();
+        String strategyName = input.readUTF();
+        long[] histogram = new long[TableMetrics.BUCKETS];
+        for (int bucket = 0; bucket < histogram.length; bucket++){
+            histogram[bucket] = input.readLong();
+        }
+        MetricsSnapshot metrics = new MetricsSnapshot(strategyName, counters[0],
+                counters[1], counters[2], counters[3], counters[4], counters[5], counters[6], fairness, histogram);
+        int[] hungers = new int[seats];
+        State[] states = new State[seats];
+        int[] timesEating = new int[seats];
+        int[] bowls = new int[seats];
+        State[] allStates = State.values();
+        for (int seat = 0; seat < seats; seat++){
+            int stateIndex = input.readUnsignedByte();
+            if (stateIndex >= allStates.length){
+                throw new IOException("The state " + stateIndex + " of seat " + seat + " is not known.");
+            }
+            states[seat] = allStates[stateIndex];
+            hungers[seat] = readNumber(input);
+            timesEating[seat] = readNumber(input);
+            bowls[seat] = readNumber(input) - 1;
+            if (bowls[seat] >= amountOfBowls || (states[seat] == State.EATING && bowls[seat] < 0)){
+                throw new IOException("Seat " + seat + " eats from bowl " + bowls[seat] + " which is not on the table.");
+            }
+        }
+        int[] deadSeats = new int[readNumber(input)];
+        for (int dead = 0; dead < deadSeats.length; dead++){
+            deadSeats[dead] = readNumber(input);
+            if (deadSeats[dead] >= seats){
+                throw new IOException("The dead seat " + deadSeats[dead] + " is not at the table.");
+            }
+        }
+        return new TableCheckpoint(delay, seed, isRandom, arbitrationMode, executionMode, acquisitionMode, aging, fullHunger,
+                foodNames, foodAmounts, hungers, states, timesEating, bowls, deadSeats, metrics);
+    }
+
+    /**
+     * Writes the checkpoint in its binary format.
+     * @param outputStream the stream to write to. It is flushed but not closed.
+     * @throws IOException if the checkpoint could not be written.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        checkIfObjectIsNull(outputStream, "output stream");
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeInt(states.length);
+        output.writeInt(delay);
+        output.writeLong(seed);
+        output.writeBoolean(isRandom);
+        output.writeUTF(arbitrationMode.name());
+        output.writeUTF(executionMode.name());
+        output.writeUTF(acquisitionMode.name());
+        output.writeInt(aging);
+        output.writeInt(fullHunger);
+        output.writeInt(foodNames.length);
+        for (int bowl = 0; bowl < foodNames.length; bowl++){
+            output.writeInt(foodAmounts[bowl]);
+            output.writeUTF(foodNames[bowl]);
+        }
+        output.writeLong(metrics.getElapsedNanos());
+        output.writeLong(metrics.getMeals());
+        output.writeLong(metrics.getRefusals());
+        output.writeLong(metrics.getDeaths());
+        output.writeLong(metrics.getTransitions());
+        output.writeLong(metrics.getTotalWaitNanos());
+        output.writeLong(metrics.getMaxWaitNanos());
+        output.writeDouble(metrics.getFairness());
+        output.writeUTF(metrics.getStrategyName());
+        for (long bucket : metrics.getWaitHistogram()){
+            output.writeLong(bucket);
+        }
+        for (int seat = 0; seat < states.length; seat++){
+            output.writeByte(states[seat].ordinal());
+            writeNumber(output, Math.max(0, hungers[seat]));
+            writeNumber(output, timesEating[seat]);
+            writeNumber(output, bowls[seat] + 1);
+        }
+        writeNumber(output, deadSeats.length);
+        for (int deadSeat : deadSeats){
+            writeNumber(output, deadSeat);
+        }
+        output.flush();
+    }
+
+    /**
+     * Makes a new table that continues from this checkpoint. The table is not started.
+     * Tables that ran on virtual threads run on platform threads if this Java version has no virtual threads.
+     * @return the restored table.
+     */
+    public Table restore(){
+        List<Food> foods = new ArrayList<>();
+        for (int bowl = 0; bowl < foodNames.length; bowl++){
+            Food food = new Food(Math.max(1, foodAmounts[bowl]), foodNames[bowl]);
+            if (foodAmounts[bowl] <= 0){
+                food.removeAmountOfFood(1);
+            }
+            foods.add(food);
+        }
+        for (int seat = 0; seat < states.length; seat++){
+            if (states[seat] == State.EATING){
+                foods.get(bowls[seat]).takeIfAvailable();
+            }
+        }
+        ExecutionMode mode = executionMode.isAvailable() ? executionMode : ExecutionMode.PLATFORM_THREADS;
+        Table table = new Table(states.length, delay, arbitrationMode, mode, foods, isRandom, seed, fullHunger);
+        table.setAcquisitionMode(acquisitionMode);
+        StarvationScheduler scheduler = aging >= 0 ? new StarvationScheduler(states.length, aging) : null;
+        table.setStarvationScheduler(scheduler);
+        List<Philosopher> philosophers = table.getPhilosophers();
+        for (int seat = 0; seat < states.length; seat++){
+            State state = states[seat];
+            Food food = null;
+            if (state == State.EATING){
+                food = foods.get(bowls[seat]);
+                if (table.getForkAllocationStrategy().tryAcquire(seat)){
+                    if (scheduler != null){
+                        scheduler.granted(seat);
+                    }
+                }else {
+                    food.setTaken(false);
+                    food = null;
+                    state = State.HUNGRY;
+                }
+            }
+            philosophers.get(seat).restore(hungers[seat], state, timesEating[seat], food);
+        }
+        for (int deadSeat : deadSeats){
+            table.restoreDeadPhilosopher(philosophers.get(deadSeat));
+        }
+        table.getMetrics().restore(metrics);
+        return table;
+    }
+
+    /**
+     * Gets the amount of seats in the checkpoint.
+     * @return the amount of seats.
+     */
+    public int getAmountOfSeats(){
+        return states.length;
+    }
+
+    /**
+     * Gets the table wide metrics when the checkpoint was made.
+     * @return the metrics.
+     */
+    public MetricsSnapshot getMetricsSnapshot(){
+        return metrics;
+    }
+
+    /**
+     * Reads the name of an enum constant.
+     * @param input the stream to read from.
+     * @param type the enum class.
+     * @param <E> the type of enum.
+     * @return the enum constant.
+     * @throws IOException if the name could not be read or is not known.
+     */
+    private static <E extends Enum<E>> E readEnum(DataInputStream input, Class<E> type) throws IOException {
+        String name = input.readUTF();
+        try {
+            return Enum.valueOf(type, name);
+        }catch (IllegalArgumentException exception){
+            throw new IOException("The " + type.getSimpleName() + " " + name + " of the checkpoint is not known.", exception);
+        }
+    }
+
+    /**
+     * Writes a number that is zero or above with seven bits in each byte.
+     * @param output the stream to write to.
+     * @param number the number.
+     * @throws IOException if the number could not be written.
+     */
+    private static void writeNumber(DataOutputStream output, int number) throws IOException {
+        int rest = number;
+        while ((rest & ~0x7F) != 0){
+            output.writeByte((rest & 0x7F) | 0x80);
+            rest >>>= 7;
+        }
+        output.writeByte(rest);
+    }
+
+    /**
+     * Reads a number that was written with seven bits in each byte.
+     * @param input the stream to read from.
+     * @return the number.
+     * @throws IOException if the number could not be read.
+     */
+    private static int readNumber(DataInputStream input) throws IOException {
+        int number = 0;
+        int shift = 0;
+        int part;
+        do {
+            part = input.read();
+            if (part == -1){
+                throw new EOFException("The checkpoint ends in the middle of a seat.");
+            }
+            number |= (part & 0x7F) << shift;
+            shift += 7;
+        }while ((part & 0x80) != 0);
+        return number;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
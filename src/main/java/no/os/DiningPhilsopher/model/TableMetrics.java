@@ -0,0 +1,347 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Represents the counters a table keeps about how well the food is handed out.
+ * The counters are striped so recording from many philosopher threads at once stays cheap.
+ * Waits from hungry to eating go into histograms with a fixed set of buckets that double in size,
+ * one for the whole table and one for each seat, so recording a wait is two increments and never allocates.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TableMetrics {
+
+    /**
+     * The amount of buckets in a wait histogram.
+     * Bucket 0 holds waits under one microsecond, bucket i holds waits under 2^i microseconds and the last bucket holds the rest.
+     */
+    public static final int BUCKETS = 32;
+
+    private static final long NOT_HUNGRY = Long.MIN_VALUE;
+
+    private final LongAdder meals;
+
+    private final LongAdder refusals;
+
+    private final LongAdder deaths;
+
+    private final LongAdder transitions;
+
+    private final LongAdder totalWaitNanos;
+
+    private final LongAdder waitCount;
+
+    private final LongAccumulator maxWaitNanos;
+
+    private final AtomicLongArray hungrySince;
+
+    private final LongAdder[] waitHistogram;
+
+    private final AtomicIntegerArray seatWaitHistograms;
+
+    private LongSupplier clock;
+
+    private long startTime;
+
+    private long elapsedBefore;
+
+    /**
+     * Makes an instance of the TableMetrics class.
+     * @param amountOfSeats the amount of seats around the table.
+     */
+    public TableMetrics(int amountOfSeats) {
+        if (amountOfSeats < 0 || amountOfSeats > Integer.MAX_VALUE / BUCKETS){
+            throw new IllegalArgumentException("The amount of seats must be between 0 and " + Integer.MAX_VALUE / BUCKETS + ".");
+        }
+        this.meals = new LongAdder();
+        this.refusals = new LongAdder();
+        this.deaths = new LongAdder();
+        this.transitions = new LongAdder();
+        this.totalWaitNanos = new LongAdder();
+        this.waitCount = new LongAdder();
+        this.maxWaitNanos = new LongAccumulator(Math::max, 0);
+        this.hungrySince = new AtomicLongArray(amountOfSeats);
+        for (int seat = 0; seat < amountOfSeats; seat++){
+            hungrySince.set(seat, NOT_HUNGRY);
+        }
+        this.waitHistogram = new LongAdder[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++){
+            waitHistogram[bucket] = new LongAdder();
+        }
+        this.seatWaitHistograms = new AtomicIntegerArray(amountOfSeats * BUCKETS);
+        this.clock = System::nanoTime;
+        this.startTime = clock.getAsLong();
+    }
+
+    /**
+     * Gets the bucket a wait goes into.
+     * @param waitNanos the wait in nanoseconds.
+     * @return the index of the bucket.
+     */
+    public static int getBucket(long waitNanos){
+        long micros = waitNanos / 1000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    /**
+     * Gets the largest wait a bucket holds.
+     * @param bucket the index of the bucket.
+     * @return the upper bound in nanoseconds, or {@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long getBucketUpperBoundNanos(int bucket){
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) * 1000;
+    }
+
+    /**
+     * Finds the bucket a percentile of a histogram falls in.
+     * @param histograms the array the histogram is in.
+     * @param start the index of the first bucket of the histogram.
+     * @param percentile the percentile between 0 and 100.
+     * @param maxWaitNanos the longest wait that was measured.
+     * @return the upper bound of the bucket in nanoseconds, at most the longest wait, or 0 if the histogram is empty.
+     */
+    static long findPercentileNanos(long[] histograms, int start, double percentile, long maxWaitNanos){
+        if (percentile < 0 || percentile > 100){
+            throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+        }
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++){
+            count += histograms[start + bucket];
+        }
+        long wait = 0;
+        if (count > 0){
+            long wanted = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            int bucket = 0;
+            while (seen + histograms[start + bucket] < wanted){
+                seen += histograms[start + bucket];
+                bucket += 1;
+            }
+            wait = Math.min(getBucketUpperBoundNanos(bucket), maxWaitNanos);
+        }
+        return wait;
+    }
+
+    /**
+     * Sets the clock the metrics are measured with and starts measuring from now.
+     * @param clock the clock that gives the time in nanoseconds.
+     */
+    void setClock(LongSupplier clock){
+        this.clock = clock;
+        this.startTime = clock.getAsLong() - elapsedBefore;
+    }
+
+    /**
+     * Starts measuring from now. Time that was restored from a checkpoint is counted as already elapsed.
+     */
+    void start(){
+        this.startTime = clock.getAsLong() - elapsedBefore;
+    }
+
+    /**
+     * Puts back the table wide metrics of a checkpoint. Must be done before the table starts.
+     * The waits of seats that were hungry when the checkpoint was made are not measured, and the wait histograms
+     * of the seats start empty.
+     * @param snapshot the metrics when the checkpoint was made.
+     */
+    void restore(MetricsSnapshot snapshot){
+        elapsedBefore = snapshot.getElapsedNanos();
+        startTime = clock.getAsLong() - elapsedBefore;
+        meals.add(snapshot.getMeals());
+        refusals.add(snapshot.getRefusals());
+        deaths.add(snapshot.getDeaths());
+        transitions.add(snapshot.getTransitions());
+        totalWaitNanos.add(snapshot.getTotalWaitNanos());
+        waitCount.add(snapshot.getWaitCount());
+        maxWaitNanos.accumulate(snapshot.getMaxWaitNanos());
+        long[] histogram = snapshot.getWaitHistogram();
+        for (int bucket = 0; bucket < BUCKETS; bucket++){
+            waitHistogram[bucket].add(histogram[bucket]);
+        }
+    }
+
+    /**
+     * Records that a seat got hungry.
+     * @param seat the index of the seat.
+     */
+    void recordHungry(int seat){
+        hungrySince.compareAndSet(seat, NOT_HUNGRY, clock.getAsLong());
+    }
+
+    /**
+     * Records that a seat was served.
+     * @param seat the index of the seat.
+     */
+    void recordMeal(int seat){
+        meals.increment();
+        long since = hungrySince.getAndSet(seat, NOT_HUNGRY);
+        if (since != NOT_HUNGRY){
+            long wait = clock.getAsLong() - since;
+            int bucket = getBucket(wait);
+            totalWaitNanos.add(wait);
+            waitCount.increment();
+            maxWaitNanos.accumulate(wait);
+            waitHistogram[bucket].increment();
+            seatWaitHistograms.incrementAndGet(seat * BUCKETS + bucket);
+        }
+    }
+
+    /**
+     * Records that a seat was refused.
+     * @param seat the index of the seat.
+     */
+    void recordRefusal(int seat){
+        refusals.increment();
+    }
+
+    /**
+     * Records that a seat went to a new state.
+     * @param seat the index of the seat.
+     */
+    void recordTransition(int seat){
+        transitions.increment();
+    }
+
+    /**
+     * Records that a seat died of starvation.
+     * @param seat the index of the seat.
+     */
+    void recordDeath(int seat){
+        deaths.increment();
+        hungrySince.set(seat, NOT_HUNGRY);
+    }
+
+    /**
+     * Gets the time on the clock the metrics are measured with.
+     * @return the time in nanoseconds.
+     */
+    long getTime(){
+        return clock.getAsLong();
+    }
+
+    /**
+     * Gets how long a seat has been hungry without being served.
+     * @param seat the index of the seat.
+     * @param now the time on the clock of the metrics.
+     * @return the time in nanoseconds, or -1 if the seat is not hungry.
+     */
+    long getHungryNanos(int seat, long now){
+        long since = hungrySince.get(seat);
+        return since == NOT_HUNGRY ? -1 : Math.max(0, now - since);
+    }
+
+    /**
+     * Gets the amount of meals so far.
+     * @return the amount of meals.
+     */
+    long getMeals(){
+        return meals.sum();
+    }
+
+    /**
+     * Gets the amount of refusals so far.
+     * @return the amount of refusals.
+     */
+    long getRefusals(){
+        return refusals.sum();
+    }
+
+    /**
+     * Gets the amount of philosophers that died of starvation so far.
+     * @return the amount of deaths.
+     */
+    long getDeaths(){
+        return deaths.sum();
+    }
+
+    /**
+     * Gets the sum of all the measured waits from hungry to eating.
+     * @return the total wait in nanoseconds.
+     */
+    long getTotalWaitNanos(){
+        return totalWaitNanos.sum();
+    }
+
+    /**
+     * Gets the amount of waits that have been measured.
+     * @return the amount of measured waits.
+     */
+    long getWaitCount(){
+        return waitCount.sum();
+    }
+
+    /**
+     * Gets the longest wait from hungry to eating so far.
+     * @return the longest wait in nanoseconds.
+     */
+    long getMaxWaitNanos(){
+        return maxWaitNanos.get();
+    }
+
+    /**
+     * Gets the time the metrics cover.
+     * @return the time in nanoseconds.
+     */
+    long getElapsedNanos(){
+        return clock.getAsLong() - startTime;
+    }
+
+    /**
+     * Gets the wait histogram of the whole table.
+     * @return the amount of waits in each bucket.
+     */
+    long[] getWaitHistogram(){
+        long[] histogram = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++){
+            histogram[bucket] = waitHistogram[bucket].sum();
+        }
+        return histogram;
+    }
+
+    /**
+     * Gets the wait histogram of one seat.
+     * @param seat the index of the seat.
+     * @return the amount of waits in each bucket.
+     */
+    long[] getSeatWaitHistogram(int seat){
+        if (seat < 0 || seat >= hungrySince.length()){
+            throw new IllegalArgumentException("The seat " + seat + " is not at the table.");
+        }
+        long[] histogram = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++){
+            histogram[bucket] = seatWaitHistograms.get(seat * BUCKETS + bucket);
+        }
+        return histogram;
+    }
+
+    /**
+     * Makes a snapshot of the metrics.
+     * @param strategyName the name of the strategy the table uses.
+     * @param philosophers the philosophers at the table, used for the fairness.
+     * @param withSeatHistograms <code>true</code> if the wait histogram of each seat should be in the snapshot.
+     * @return the snapshot.
+     */
+    MetricsSnapshot makeSnapshot(String strategyName, List<Philosopher> philosophers, boolean withSeatHistograms){
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (Philosopher philosopher : philosophers){
+            double timesEating = philosopher.getAmountOfTimesEating();
+            sum += timesEating;
+            sumOfSquares += timesEating * timesEating;
+        }
+        double fairness = sumOfSquares == 0 ? 1 : (sum * sum) / (philosophers.size() * sumOfSquares);
+        long[] histogram = getWaitHistogram();
+        long[][] seatHistograms = new long[withSeatHistograms ? hungrySince.length() : 0][];
+        for (int seat = 0; seat < seatHistograms.length; seat++){
+            seatHistograms[seat] = getSeatWaitHistogram(seat);
+        }
+        return new MetricsSnapshot(strategyName, getElapsedNanos(), meals.sum(), refusals.sum(), deaths.sum(), transitions.sum(),
+                totalWaitNanos.sum(), waitCount.sum(), maxWaitNanos.get(), fairness, histogram, seatHistograms);
+    }
+}
@@ -0,0 +1,108 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents the JMX bean of a table. The counters and percentiles are read straight from the metrics of the table.
+ * Only the fairness takes a snapshot, since it has to visit every philosopher.
+ * The operations on one seat read only the histogram of that seat, so they stay cheap on large tables.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+class TableMetricsBean implements TableMetricsMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Table table;
+
+    /**
+     * Makes an instance of the TableMetricsBean class.
+     * @param table the table to show the metrics of.
+     */
+    TableMetricsBean(Table table) {
+        this.table = table;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return table.getForkAllocationStrategy().getName();
+    }
+
+    @Override
+    public long getMeals() {
+        return table.getMetrics().getMeals();
+    }
+
+    @Override
+    public double getMealsPerSecond() {
+        TableMetrics metrics = table.getMetrics();
+        long elapsedNanos = metrics.getElapsedNanos();
+        return elapsedNanos == 0 ? 0 : metrics.getMeals() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public long getRefusals() {
+        return table.getMetrics().getRefusals();
+    }
+
+    @Override
+    public long getDeaths() {
+        return table.getMetrics().getDeaths();
+    }
+
+    @Override
+    public long getWaitCount() {
+        return table.getMetrics().getWaitCount();
+    }
+
+    @Override
+    public double getMeanWaitMillis() {
+        TableMetrics metrics = table.getMetrics();
+        long waitCount = metrics.getWaitCount();
+        return waitCount == 0 ? 0 : metrics.getTotalWaitNanos() / (double) waitCount / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50WaitMillis() {
+        return getWaitPercentileMillis(table.getMetrics().getWaitHistogram(), 50);
+    }
+
+    @Override
+    public double getP99WaitMillis() {
+        return getWaitPercentileMillis(table.getMetrics().getWaitHistogram(), 99);
+    }
+
+    @Override
+    public double getMaxWaitMillis() {
+        return table.getMetrics().getMaxWaitNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getFairness() {
+        return table.getMetricsSnapshot().getFairness();
+    }
+
+    @Override
+    public long[] getWaitHistogram() {
+        return table.getMetrics().getWaitHistogram();
+    }
+
+    @Override
+    public long[] getSeatWaitHistogram(int seat) {
+        return table.getMetrics().getSeatWaitHistogram(seat);
+    }
+
+    @Override
+    public double getSeatP99WaitMillis(int seat) {
+        return getWaitPercentileMillis(getSeatWaitHistogram(seat), 99);
+    }
+
+    /**
+     * Gets an estimate of a percentile of the waits in a histogram.
+     * @param histogram the amount of waits in each bucket.
+     * @param percentile the percentile between 0 and 100.
+     * @return the wait in milliseconds.
+     */
+    private double getWaitPercentileMillis(long[] histogram, double percentile){
+        long maxWait = table.getMetrics().getMaxWaitNanos();
+        return TableMetrics.findPercentileNanos(histogram, 0, percentile, maxWait) / NANOS_PER_MILLI;
+    }
+}
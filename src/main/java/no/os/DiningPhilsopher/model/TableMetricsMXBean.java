@@ -0,0 +1,95 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents the metrics of a table as seen through JMX.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public interface TableMetricsMXBean {
+
+    /**
+     * Gets the name of the fork allocation strategy.
+     * @return the strategy name.
+     */
+    String getStrategyName();
+
+    /**
+     * Gets the amount of meals served.
+     * @return the amount of meals.
+     */
+    long getMeals();
+
+    /**
+     * Gets the amount of meals served each second.
+     * @return the meals per second.
+     */
+    double getMealsPerSecond();
+
+    /**
+     * Gets the amount of requests that was refused.
+     * @return the amount of refusals.
+     */
+    long getRefusals();
+
+    /**
+     * Gets the amount of philosophers that died of starvation.
+     * @return the amount of deaths.
+     */
+    long getDeaths();
+
+    /**
+     * Gets the amount of waits from hungry to eating that were measured.
+     * @return the amount of waits.
+     */
+    long getWaitCount();
+
+    /**
+     * Gets the mean wait from hungry to eating.
+     * @return the mean wait in milliseconds.
+     */
+    double getMeanWaitMillis();
+
+    /**
+     * Gets the median wait from hungry to eating.
+     * @return the median wait in milliseconds.
+     */
+    double getP50WaitMillis();
+
+    /**
+     * Gets the 99th percentile of the waits from hungry to eating.
+     * @return the 99th percentile in milliseconds.
+     */
+    double getP99WaitMillis();
+
+    /**
+     * Gets the longest wait from hungry to eating.
+     * @return the longest wait in milliseconds.
+     */
+    double getMaxWaitMillis();
+
+    /**
+     * Gets Jain's fairness index of the meals per seat.
+     * @return the fairness between 0 and 1.
+     */
+    double getFairness();
+
+    /**
+     * Gets the amount of waits in each bucket of the table wide histogram.
+     * @return the wait histogram.
+     */
+    long[] getWaitHistogram();
+
+    /**
+     * Gets the amount of waits in each bucket of the histogram of one seat.
+     * @param seat the index of the seat.
+     * @return the wait histogram of the seat.
+     */
+    long[] getSeatWaitHistogram(int seat);
+
+    /**
+     * Gets the 99th percentile of the waits of one seat.
+     * @param seat the index of the seat.
+     * @return the 99th percentile in milliseconds.
+     */
+    double getSeatP99WaitMillis(int seat);
+}
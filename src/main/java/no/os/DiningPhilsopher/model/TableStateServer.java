@@ -0,0 +1,323 @@
+package no.os.DiningPhilsopher.model;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a small HTTP server that streams the state of every seat at a table to dashboards outside the JVM.
+ * <p>
+ * <code>GET /stream</code> answers with server-sent events. The first event is a full snapshot, and after that
+ * one delta comes each tick with only the seats that changed state since the tick before. A seat that changed many
+ * times between two ticks is sent once with its latest state, so the size of a delta depends on how many seats
+ * changed and not on the size of the table. Each event is made once and the same bytes go to every client.
+ * A client that is too slow to keep up is sent a new snapshot instead of the deltas it missed.
+ * <code>GET /snapshot</code> answers with one snapshot as JSON.
+ * <p>
+ * The events look like this, where every seat has one letter for its state: T thinking, H hungry, E eating, D dead.
+ * <pre>
+ * event: snapshot
+ * data: {"tick":4,"seats":5,"states":"THETD"}
+ *
+ * event: delta
+ * data: {"tick":5,"seats":[1,2],"states":"ET"}
+ * </pre>
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TableStateServer implements Closeable {
+
+    /**
+     * The amount of ticks each second if nothing else is chosen.
+     */
+    public static final int DEFAULT_TICKS_PER_SECOND = 10;
+
+    private static final int CLIENT_QUEUE_SIZE = 64;
+
+    private static final long POLL_MILLIS = 250;
+
+    private static final char[] STATE_LETTERS = makeStateLetters();
+
+    private final Table table;
+
+    private final SeatStateBuffer seatStates;
+
+    private final HttpServer server;
+
+    private final int ticksPerSecond;
+
+    private final List<StreamClient> clients;
+
+    private final ExecutorService clientExecutor;
+
+    private ScheduledExecutorService ticker;
+
+    private volatile long amountOfTicks;
+
+    private volatile boolean closed;
+
+    /**
+     * Makes a server on a port of this machine that sends ten ticks each second.
+     * @param table the table to stream.
+     * @param port the port, or 0 to pick a free port.
+     * @throws IOException if the port could not be opened.
+     */
+    public TableStateServer(Table table, int port) throws IOException {
+        this(table, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), DEFAULT_TICKS_PER_SECOND);
+    }
+
+    /**
+     * Makes a server. The server does not answer before {@link #start()}.
+     * @param table the table to stream.
+     * @param address the address to listen on.
+     * @param ticksPerSecond the amount of deltas each second, from 1 to 1000.
+     * @throws IOException if the address could not be opened.
+     */
+    public TableStateServer(Table table, InetSocketAddress address, int ticksPerSecond) throws IOException {
+        checkIfObjectIsNull(table, "table");
+        checkIfObjectIsNull(address, "address");
+        if (ticksPerSecond < 1 || ticksPerSecond > 1000){
+            throw new IllegalArgumentException("The ticks per second must be between 1 and 1000.");
+        }
+        this.table = table;
+        this.ticksPerSecond = ticksPerSecond;
+        this.clients = new CopyOnWriteArrayList<>();
+        List<Philosopher> philosophers = table.getPhilosophers();
+        this.seatStates = new SeatStateBuffer(philosophers.size());
+        for (int seat = 0; seat < philosophers.size(); seat++){
+            seatStates.setState(seat, philosophers.get(seat).getState());
+            philosophers.get(seat).getListeners().addStateChangeListener(seatStates);
+        }
+        seatStates.drainChangedSeats(seat -> {});
+        this.server = HttpServer.create(address, 0);
+        this.clientExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "table-state-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(clientExecutor);
+        server.createContext("/stream", this::handleStream);
+        server.createContext("/snapshot", this::handleSnapshot);
+    }
+
+    /**
+     * Starts answering requests and sending ticks.
+     */
+    public synchronized void start(){
+        if (closed){
+            throw new IllegalStateException("The server is closed.");
+        }
+        if (ticker == null){
+            server.start();
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "table-state-ticker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = 1_000_000 / ticksPerSecond;
+            ticker.scheduleAtFixedRate(this::tick, period, period, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    /**
+     * Gets the address the server listens on.
+     * @return the address.
+     */
+    public InetSocketAddress getAddress(){
+        return server.getAddress();
+    }
+
+    /**
+     * Gets the amount of deltas each second.
+     * @return the ticks per second.
+     */
+    public int getTicksPerSecond(){
+        return ticksPerSecond;
+    }
+
+    /**
+     * Gets the amount of ticks that has been sent.
+     * @return the amount of ticks.
+     */
+    public long getAmountOfTicks(){
+        return amountOfTicks;
+    }
+
+    /**
+     * Gets the amount of clients that are streaming right now.
+     * @return the amount of clients.
+     */
+    public int getAmountOfClients(){
+        return clients.size();
+    }
+
+    /**
+     * Stops the server, ends every stream and stops listening to the philosophers.
+     */
+    @Override
+    public synchronized void close(){
+        if (!closed){
+            closed = true;
+            if (ticker != null){
+                ticker.shutdownNow();
+            }
+            server.stop(0);
+            clientExecutor.shutdownNow();
+            table.getPhilosophers().forEach(philosopher -> philosopher.getListeners().removeStateChangeListener(seatStates));
+        }
+    }
+
+    /**
+     * Sends the seats that changed since the last tick to every client, and a snapshot to new or slow clients.
+     */
+    void tick(){
+        long tickNumber = amountOfTicks + 1;
+        StringBuilder seats = new StringBuilder();
+        StringBuilder states = new StringBuilder();
+        int amountChanged = seatStates.drainChangedSeats(seat -> {
+            if (seats.length() > 0){
+                seats.append(',');
+            }
+            seats.append(seat);
+            states.append(STATE_LETTERS[seatStates.getState(seat).ordinal()]);
+        });
+        byte[] delta = null;
+        if (amountChanged > 0){
+            delta = makeEvent("delta", "{\"tick\":" + tickNumber + ",\"seats\":[" + seats + "],\"states\":\"" + states + "\"}");
+        }
+        byte[] snapshot = null;
+        for (StreamClient client : clients){
+            if (client.needsSnapshot){
+                if (snapshot == null){
+                    snapshot = makeEvent("snapshot", makeSnapshot(tickNumber));
+                }
+                client.frames.clear();
+                client.needsSnapshot = !client.frames.offer(snapshot);
+            }else if (delta != null && !client.frames.offer(delta)){
+                client.needsSnapshot = true;
+            }
+        }
+        amountOfTicks = tickNumber;
+    }
+
+    /**
+     * Streams the events to one client until it goes away or the server closes.
+     * @param exchange the request of the client.
+     * @throws IOException if the answer could not be started.
+     */
+    private void handleStream(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())){
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        StreamClient client = new StreamClient();
+        clients.add(client);
+        try (OutputStream outputStream = exchange.getResponseBody()){
+            while (!closed){
+                byte[] frame = client.frames.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (frame != null){
+                    outputStream.write(frame);
+                    outputStream.flush();
+                }
+            }
+        }catch (IOException exception){
+            //The client went away.
+        }catch (InterruptedException exception){
+            Thread.currentThread().interrupt();
+        }finally {
+            clients.remove(client);
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answers with one snapshot of every seat.
+     * @param exchange the request of the client.
+     * @throws IOException if the answer could not be written.
+     */
+    private void handleSnapshot(HttpExchange exchange) throws IOException {
+        byte[] body = makeSnapshot(amountOfTicks).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()){
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * Makes the JSON of a snapshot of every seat.
+     * @param tickNumber the number of the tick.
+     * @return the JSON.
+     */
+    private String makeSnapshot(long tickNumber){
+        int amountOfSeats = seatStates.getAmountOfSeats();
+        StringBuilder builder = new StringBuilder(amountOfSeats + 48);
+        builder.append("{\"tick\":").append(tickNumber).append(",\"seats\":").append(amountOfSeats).append(",\"states\":\"");
+        for (int seat = 0; seat < amountOfSeats; seat++){
+            builder.append(STATE_LETTERS[seatStates.getState(seat).ordinal()]);
+        }
+        return builder.append("\"}").toString();
+    }
+
+    /**
+     * Makes one server-sent event.
+     * @param name the name of the event.
+     * @param data the data of the event, on one line.
+     * @return the bytes of the event.
+     */
+    private static byte[] makeEvent(String name, String data){
+        return ("event: " + name + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes the letter each state is sent as.
+     * @return the letters, indexed by the ordinal of the state.
+     */
+    private static char[] makeStateLetters(){
+        State[] states = State.values();
+        char[] letters = new char[states.length];
+        for (State state : states){
+            letters[state.ordinal()] = state.name().charAt(0);
+        }
+        return letters;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+
+    /**
+     * Represents one client that is streaming.
+     */
+    private static class StreamClient {
+
+        private final BlockingQueue<byte[]> frames = new ArrayBlockingQueue<>(CLIENT_QUEUE_SIZE);
+
+        private volatile boolean needsSnapshot = true;
+    }
+}
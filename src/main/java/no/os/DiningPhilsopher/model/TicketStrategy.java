@@ -0,0 +1,74 @@
+package no.os.DiningPhilsopher.model;
+
+/**
+ * Represents a waiter that serves hungry seats in the order they first asked.
+ * The first time a seat asks it draws a ticket, and it keeps that ticket while it is refused, until it eats or leaves
+ * the table. A seat may eat if none of the seats beside it are eating and no seat beside it is waiting with an
+ * earlier ticket. The seat with the oldest ticket at the table can only be held up by neighbours that are eating,
+ * so every hungry seat is served in the end.
+ * The check is one short step under the lock of the waiter, and a refused seat is told so at once instead of waiting.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TicketStrategy implements ForkAllocationStrategy {
+
+    private static final long NO_TICKET = 0;
+
+    private final long[] tickets;
+
+    private final boolean[] eating;
+
+    private long nextTicket;
+
+    /**
+     * Makes an instance of the TicketStrategy class.
+     * @param amountOfSeats the amount of seats around the table.
+     */
+    public TicketStrategy(int amountOfSeats) {
+        if (amountOfSeats <= 0){
+            throw new IllegalArgumentException("The amount of seats must be larger than 0.");
+        }
+        this.tickets = new long[amountOfSeats];
+        this.eating = new boolean[amountOfSeats];
+        this.nextTicket = 1;
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(int seat) {
+        if (tickets[seat] == NO_TICKET){
+            tickets[seat] = nextTicket;
+            nextTicket += 1;
+        }
+        int last = eating.length - 1;
+        int left = seat == 0 ? last : seat - 1;
+        int right = seat == last ? 0 : seat + 1;
+        boolean granted = !eating[left] && !eating[right] && !isAhead(left, seat) && !isAhead(right, seat);
+        if (granted){
+            eating[seat] = true;
+            tickets[seat] = NO_TICKET;
+        }
+        return granted;
+    }
+
+    @Override
+    public synchronized void release(int seat) {
+        eating[seat] = false;
+        tickets[seat] = NO_TICKET;
+    }
+
+    @Override
+    public String getName() {
+        return "Ticket";
+    }
+
+    /**
+     * Checks if a neighbour is waiting with an earlier ticket than a seat. The lock of the waiter must be held.
+     * @param neighbour the seat beside.
+     * @param seat the seat that asks.
+     * @return <code>true</code> if the neighbour should be served first.
+     *         <code>false</code> if the neighbour is not waiting or came later.
+     */
+    private boolean isAhead(int neighbour, int seat){
+        return neighbour != seat && tickets[neighbour] != NO_TICKET && tickets[neighbour] < tickets[seat];
+    }
+}
@@ -0,0 +1,130 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents how fast the philosophers at a table live compared to their delay.
+ * Every philosopher at a table sleeps through the same time scale, so the speed can be changed while the table runs.
+ * At speed 2 a delay of 750 ms takes 375 ms, and at max speed the philosophers do not sleep at all.
+ * <p>
+ * A long sleep is split into slices, and the speed is read again for each slice. A change of speed is therefore
+ * felt within {@value #MAX_SLICE_MILLIS} ms, also by philosophers that are in the middle of a long delay.
+ * Slices shorter than a millisecond are parked with {@link LockSupport#parkNanos(long)}, since
+ * {@link Thread#sleep(long, int)} rounds them up to a whole millisecond on Java 17.
+ * Runs on the virtual clock do not sleep and are not changed by the time scale.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TimeScale {
+
+    /**
+     * The speed where a delay takes as long as it says.
+     */
+    public static final double NORMAL_SPEED = 1;
+
+    /**
+     * The slowest speed that can be set.
+     */
+    public static final double MIN_SPEED = 0.01;
+
+    /**
+     * The fastest speed that can be set, without going to max speed.
+     */
+    public static final double MAX_SPEED = 1000;
+
+    /**
+     * The longest a philosopher sleeps before it reads the speed again.
+     */
+    public static final long MAX_SLICE_MILLIS = 50;
+
+    private static final long MAX_SLICE_NANOS = MAX_SLICE_MILLIS * 1_000_000;
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private volatile double speed;
+
+    private volatile boolean maxSpeed;
+
+    /**
+     * Makes a time scale that runs at normal speed.
+     */
+    public TimeScale() {
+        this.speed = NORMAL_SPEED;
+        this.maxSpeed = false;
+    }
+
+    /**
+     * Sets how many times faster than normal the philosophers should live.
+     * @param speed the speed, from {@value #MIN_SPEED} to {@value #MAX_SPEED}. 1 is normal speed.
+     */
+    public void setSpeed(double speed){
+        if (Double.isNaN(speed) || speed < MIN_SPEED || speed > MAX_SPEED){
+            throw new IllegalArgumentException("The speed must be between " + MIN_SPEED + " and " + MAX_SPEED + ".");
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Gets how many times faster than normal the philosophers live when max speed is off.
+     * @return the speed.
+     */
+    public double getSpeed(){
+        return speed;
+    }
+
+    /**
+     * Turns max speed on or off. At max speed the philosophers skip every sleep and only yield the thread.
+     * @param maxSpeed <code>true</code> to skip sleeping.
+     *                 <code>false</code> to sleep at the speed that is set.
+     */
+    public void setMaxSpeed(boolean maxSpeed){
+        this.maxSpeed = maxSpeed;
+    }
+
+    /**
+     * Checks if the philosophers skip every sleep.
+     * @return <code>true</code> if max speed is on.
+     *         <code>false</code> if the philosophers sleep at the speed that is set.
+     */
+    public boolean isMaxSpeed(){
+        return maxSpeed;
+    }
+
+    /**
+     * Gets how long a delay takes at the current speed.
+     * @param delayInMillis the delay in milliseconds.
+     * @return the time it takes in nanoseconds, or 0 at max speed.
+     */
+    public long toNanos(long delayInMillis){
+        return maxSpeed ? 0 : (long) (delayInMillis * 1_000_000 / speed);
+    }
+
+    /**
+     * Sleeps for a delay at the current speed. The speed is read again at least every {@value #MAX_SLICE_MILLIS} ms.
+     * @param delayInMillis the delay in milliseconds.
+     * @throws InterruptedException if the thread was interrupted.
+     */
+    public void sleep(long delayInMillis) throws InterruptedException {
+        if (Thread.interrupted()){
+            throw new InterruptedException();
+        }
+        double remainingNanos = delayInMillis * 1_000_000.0;
+        while (remainingNanos > 0 && !maxSpeed){
+            double currentSpeed = speed;
+            long sliceNanos = Math.min(MAX_SLICE_NANOS, Math.max(1, (long) Math.ceil(remainingNanos / currentSpeed)));
+            long start = System.nanoTime();
+            if (sliceNanos < NANOS_PER_MILLI){
+                LockSupport.parkNanos(this, sliceNanos);
+                if (Thread.interrupted()){
+                    throw new InterruptedException();
+                }
+            }else {
+                Thread.sleep(sliceNanos / NANOS_PER_MILLI, (int) (sliceNanos % NANOS_PER_MILLI));
+            }
+            remainingNanos -= (System.nanoTime() - start) * currentSpeed;
+        }
+        if (maxSpeed){
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package no.os.DiningPhilsopher.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents a reader that streams the records of a trace file made by {@link TraceWriter}.
+ * The reader works like a cursor: {@link #next()} moves to the next record and the getters read it,
+ * so reading a large trace makes no objects for each record. Empty places in chunks that were not filled are skipped.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TraceReader implements Closeable {
+
+    private static final State[] STATES = State.values();
+
+    private final FileChannel channel;
+
+    private final long end;
+
+    private final int chunkSize;
+
+    private MappedByteBuffer segment;
+
+    private long segmentStart;
+
+    private long position;
+
+    private long nanos;
+
+    private int seat;
+
+    private State from;
+
+    private State to;
+
+    /**
+     * Makes an instance of the TraceReader class.
+     * @param path the path of the trace file.
+     * @throws IOException if the file could not be read or is not a trace.
+     */
+    public TraceReader(Path path) throws IOException {
+        checkIfObjectIsNull(path, "path");
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < TraceWriter.HEADER_SIZE){
+                throw new IOException("The file is too small to be a trace.");
+            }
+            this.segmentStart = 0;
+            this.segment = mapSegment(0, size);
+            if (segment.getInt(0) != TraceWriter.MAGIC || segment.getShort(4) != TraceWriter.VERSION
+                    || segment.getShort(6) != TraceWriter.RECORD_SIZE){
+                throw new IOException("The file is not a trace of a supported version.");
+            }
+            long storedEnd = segment.getLong(TraceWriter.END_OFFSET_POSITION);
+            this.end = storedEnd == 0 ? size : Math.min(storedEnd, size);
+            this.chunkSize = segment.getInt(TraceWriter.CHUNK_SIZE_POSITION);
+            this.position = chunkSize - TraceWriter.RECORD_SIZE;
+        }catch (IOException exception){
+            channel.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Moves to the next record.
+     * @return <code>true</code> if there was a record.
+     *         <code>false</code> if the trace is done.
+     * @throws IOException if the file could not be read.
+     */
+    public boolean next() throws IOException {
+        boolean found = false;
+        while (!found && position + TraceWriter.RECORD_SIZE < end){
+            position += TraceWriter.RECORD_SIZE;
+            if (position - segmentStart >= TraceWriter.SEGMENT_SIZE){
+                segmentStart += TraceWriter.SEGMENT_SIZE;
+                segment = mapSegment(segmentStart, channel.size());
+            }
+            int offset = (int) (position - segmentStart);
+            int toState = segment.get(offset + 13);
+            if (toState != 0){
+                nanos = segment.getLong(offset);
+                seat = segment.getInt(offset + 8);
+                int fromState = segment.get(offset + 12);
+                from = fromState == 0 ? null : STATES[fromState - 1];
+                to = STATES[toState - 1];
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets the monotonic time of the current record.
+     * @return the time in nanoseconds from {@link System#nanoTime()}.
+     */
+    public long getNanos(){
+        return nanos;
+    }
+
+    /**
+     * Gets the seat of the current record.
+     * @return the index of the seat.
+     */
+    public int getSeat(){
+        return seat;
+    }
+
+    /**
+     * Gets the state before the change of the current record.
+     * @return the state before, or null if the philosopher had no state.
+     */
+    public State getFrom(){
+        return from;
+    }
+
+    /**
+     * Gets the state after the change of the current record.
+     * @return the state after.
+     */
+    public State getTo(){
+        return to;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Maps one segment of the file for reading.
+     * @param start the position of the segment in the file.
+     * @param size the size of the file.
+     * @return the mapped segment.
+     * @throws IOException if the segment could not be mapped.
+     */
+    private MappedByteBuffer mapSegment(long start, long size) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(TraceWriter.SEGMENT_SIZE, size - start));
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        return mapped;
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
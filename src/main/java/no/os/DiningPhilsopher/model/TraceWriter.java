@@ -0,0 +1,177 @@
+package no.os.DiningPhilsopher.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a trace file that every state change of the philosophers is appended to.
+ * Each change is a record of {@value #RECORD_SIZE} bytes: the monotonic time in nanoseconds, the seat,
+ * the state before and the state after. The file is mapped into memory, and every thread that writes gets its own
+ * buffer, a chunk of the file it fills without asking anyone. Only when a chunk is full does the thread take the next
+ * free chunk, so writing a record is a few stores into memory and never allocates.
+ * The records of one thread are in order, while the records of different threads are mixed chunk by chunk.
+ * The file grows in segments of {@value #SEGMENT_SIZE} bytes and is not made shorter, since a thread may still be
+ * writing when the trace is closed. The end of the written chunks is stored at the start of the file instead.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TraceWriter implements Closeable {
+
+    /**
+     * The size of one record in bytes.
+     */
+    public static final int RECORD_SIZE = 16;
+
+    /**
+     * The amount of records in the buffer of each thread if nothing else is said.
+     */
+    public static final int DEFAULT_RECORDS_PER_BUFFER = 256;
+
+    static final int MAGIC = 0x44505431;
+
+    static final short VERSION = 1;
+
+    static final int SEGMENT_SIZE = 1 << 26;
+
+    static final int END_OFFSET_POSITION = 8;
+
+    static final int CHUNK_SIZE_POSITION = 16;
+
+    static final int HEADER_SIZE = 24;
+
+    private final FileChannel channel;
+
+    private final int chunkSize;
+
+    private final List<MappedByteBuffer> segments;
+
+    private final ThreadLocal<ThreadBuffer> threadBuffers;
+
+    private long nextChunk;
+
+    private volatile boolean closed;
+
+    /**
+     * Makes an instance of the TraceWriter class with the default buffer size. The file is made or emptied.
+     * @param path the path of the trace file.
+     * @throws IOException if the file could not be opened.
+     */
+    public TraceWriter(Path path) throws IOException {
+        this(path, DEFAULT_RECORDS_PER_BUFFER);
+    }
+
+    /**
+     * Makes an instance of the TraceWriter class. The file is made or emptied.
+     * @param path the path of the trace file.
+     * @param recordsPerBuffer the amount of records in the buffer of each thread.
+     * @throws IOException if the file could not be opened.
+     */
+    public TraceWriter(Path path, int recordsPerBuffer) throws IOException {
+        checkIfObjectIsNull(path, "path");
+        if (recordsPerBuffer < 2 || SEGMENT_SIZE % (recordsPerBuffer * RECORD_SIZE) != 0){
+            throw new IllegalArgumentException("The records per buffer must be a power of two above one.");
+        }
+        this.chunkSize = recordsPerBuffer * RECORD_SIZE;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.segments = new ArrayList<>();
+        this.threadBuffers = ThreadLocal.withInitial(ThreadBuffer::new);
+        this.closed = false;
+        this.nextChunk = 0;
+        ByteBuffer header = claimChunk();
+        header.putInt(0, MAGIC);
+        header.putShort(4, VERSION);
+        header.putShort(6, (short) RECORD_SIZE);
+        header.putLong(END_OFFSET_POSITION, 0);
+        header.putInt(CHUNK_SIZE_POSITION, chunkSize);
+    }
+
+    /**
+     * Appends a state change to the buffer of the current thread.
+     * @param seat the index of the seat.
+     * @param from the state before, or null if the philosopher had no state.
+     * @param to the state after.
+     */
+    public void record(int seat, State from, State to){
+        if (!closed){
+            ThreadBuffer threadBuffer = threadBuffers.get();
+            if (threadBuffer.position == chunkSize){
+                threadBuffer.buffer = claimChunk();
+                threadBuffer.position = 0;
+            }
+            ByteBuffer buffer = threadBuffer.buffer;
+            int position = threadBuffer.position;
+            buffer.putLong(position, System.nanoTime());
+            buffer.putInt(position + 8, seat);
+            buffer.put(position + 12, from == null ? 0 : (byte) (from.ordinal() + 1));
+            buffer.put(position + 13, (byte) (to.ordinal() + 1));
+            threadBuffer.position = position + RECORD_SIZE;
+        }
+    }
+
+    /**
+     * Stops the trace, writes where the records end and makes sure everything is on disk.
+     * Records made after this are ignored.
+     * @throws IOException if the file could not be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed){
+            closed = true;
+            segments.get(0).putLong(END_OFFSET_POSITION, nextChunk);
+            for (MappedByteBuffer segment : segments){
+                segment.force();
+            }
+            channel.close();
+        }
+    }
+
+    /**
+     * Takes the next free chunk of the file, and maps a new segment when the mapped ones are full.
+     * @return a buffer over the chunk.
+     */
+    private synchronized ByteBuffer claimChunk(){
+        long offset = nextChunk;
+        int segmentIndex = (int) (offset / SEGMENT_SIZE);
+        try {
+            while (segments.size() <= segmentIndex){
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() * SEGMENT_SIZE, SEGMENT_SIZE);
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+                segments.add(segment);
+            }
+        }catch (IOException exception){
+            throw new IllegalStateException("The trace file could not grow.", exception);
+        }
+        nextChunk = offset + chunkSize;
+        return segments.get(segmentIndex).slice((int) (offset % SEGMENT_SIZE), chunkSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+
+    /**
+     * Represents the chunk one thread writes to.
+     */
+    private class ThreadBuffer {
+
+        private ByteBuffer buffer;
+
+        private int position = chunkSize;
+    }
+}
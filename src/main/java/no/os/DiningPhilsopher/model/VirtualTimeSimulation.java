@@ -0,0 +1,160 @@
+package no.os.DiningPhilsopher.model;
+
+import java.util.List;
+
+/**
+ * Represents a simulation of a table that runs on a virtual clock instead of sleeping threads.
+ * Every philosopher has one scheduled event at the time, and the events are handled in time order on one thread.
+ * The philosophers go through the same states as when they run on their own threads, but a delay costs no real time.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class VirtualTimeSimulation {
+
+    private final Table table;
+
+    private final Philosopher[] philosophers;
+
+    private final EventQueue events;
+
+    private long virtualTime;
+
+    private long amountOfHandledEvents;
+
+    /**
+     * Makes an instance of the VirtualTimeSimulation class.
+     * @param table the table to simulate. The table must not be started with {@link Table#startSimulation()}.
+     */
+    public VirtualTimeSimulation(Table table) {
+        checkIfObjectIsNull(table, "table");
+        this.table = table;
+        List<Philosopher> philosopherList = table.getPhilosophers();
+        this.philosophers = philosopherList.toArray(new Philosopher[0]);
+        this.events = new EventQueue(Math.max(1, philosophers.length));
+        this.virtualTime = 0;
+        this.amountOfHandledEvents = 0;
+        table.getMetrics().setClock(() -> virtualTime * 1_000_000);
+        table.attachToPhilosophers();
+        for (int i = 0; i < philosophers.length; i++){
+            events.add(0, i, EventQueue.STEP);
+        }
+    }
+
+    /**
+     * Runs the simulation until the virtual clock passes the wanted time or no philosopher has anything left to do.
+     * @param durationInMillis the amount of virtual milliseconds to run from the current virtual time.
+     * @return the amount of events that was handled during this run.
+     */
+    public long run(long durationInMillis){
+        if (durationInMillis < 0){
+            throw new IllegalArgumentException("The duration in millis cannot be negative.");
+        }
+        long endTime = virtualTime + durationInMillis;
+        long handledBefore = amountOfHandledEvents;
+        while (!events.isEmpty() && events.getFirstTime() <= endTime){
+            virtualTime = events.getFirstTime();
+            int seat = events.getFirstSeat();
+            byte type = events.getFirstType();
+            events.removeFirst();
+            handleEvent(seat, type);
+            amountOfHandledEvents += 1;
+        }
+        if (!events.isEmpty()){
+            virtualTime = endTime;
+        }
+        return amountOfHandledEvents - handledBefore;
+    }
+
+    /**
+     * Runs the simulation until no philosopher has anything left to do.
+     * @return the amount of events that was handled during this run.
+     */
+    public long runToEnd(){
+        return run(Long.MAX_VALUE - virtualTime);
+    }
+
+    /**
+     * Gets the virtual time in milliseconds since the simulation started.
+     * @return the virtual time.
+     */
+    public long getVirtualTime(){
+        return virtualTime;
+    }
+
+    /**
+     * Gets the amount of events that has been handled.
+     * @return the amount of handled events.
+     */
+    public long getAmountOfHandledEvents(){
+        return amountOfHandledEvents;
+    }
+
+    /**
+     * Checks if there are philosophers that still have something to do.
+     * @return <code>true</code> if there are events left.
+     *         <code>false</code> if all the philosophers are done.
+     */
+    public boolean hasEventsLeft(){
+        return !events.isEmpty();
+    }
+
+    /**
+     * Gets the table that is simulated.
+     * @return the table.
+     */
+    public Table getTable(){
+        return table;
+    }
+
+    /**
+     * Handles one event the same way the philosopher thread would have done it.
+     * @param seat the seat of the philosopher.
+     * @param type the type of event.
+     */
+    private void handleEvent(int seat, byte type){
+        Philosopher philosopher = philosophers[seat];
+        switch (type){
+            case EventQueue.HUNGER_TICK -> {
+                philosopher.live();
+                takeTurn(seat, philosopher);
+            }
+            case EventQueue.EAT_END -> {
+                philosopher.finishEating();
+                events.add(virtualTime + philosopher.getDelay(), seat, EventQueue.HUNGER_TICK);
+            }
+            default -> takeTurn(seat, philosopher);
+        }
+    }
+
+    /**
+     * Starts a new turn for a philosopher and schedules the event that ends it.
+     * @param seat the seat of the philosopher.
+     * @param philosopher the philosopher.
+     */
+    private void takeTurn(int seat, Philosopher philosopher){
+        if (philosopher.getHunger() <= 0){
+            philosopher.dieOfHunger();
+        }else if (philosopher.getState() == State.EATING){
+            philosopher.startEating();
+            events.add(virtualTime + philosopher.getDelay(), seat, EventQueue.EAT_END);
+        }else if (philosopher.getState() != State.DEAD){
+            philosopher.takeTurn();
+            if (philosopher.getState() == State.EATING){
+                events.add(virtualTime, seat, EventQueue.STEP);
+            }else {
+                events.add(virtualTime + philosopher.getDelay(), seat, EventQueue.HUNGER_TICK);
+            }
+        }
+    }
+
+    /**
+     * Checks if an object is null.
+     * @param object the object you want to check.
+     * @param error  the error message the exception should have.
+     */
+    private void checkIfObjectIsNull(Object object, String error) {
+        if (object == null) {
+            throw new IllegalArgumentException("The " + error + " cannot be null.");
+        }
+    }
+}
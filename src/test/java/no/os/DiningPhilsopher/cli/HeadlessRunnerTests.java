@@ -0,0 +1,77 @@
+package no.os.DiningPhilsopher.cli;
+
+import no.os.DiningPhilsopher.model.RunSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the headless runner class.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class HeadlessRunnerTests {
+
+    /**
+     * Tests if a run on the virtual clock gives the same summary every time with the same seed.
+     */
+    @Test
+    @DisplayName("Tests if a run on the virtual clock gives the same summary every time with the same seed.")
+    public void testIfVirtualRunIsRepeatable() throws InterruptedException, IOException {
+        String[] args = {"--seats", "7", "--delay", "10", "--foods", "500,500", "--strategy", "per-seat-cas",
+                "--clock", "virtual", "--duration", "60000", "--seed", "42", "--random-hunger"};
+        RunSummary first = new HeadlessRunner(args).run();
+        RunSummary second = new HeadlessRunner(args).run();
+        assertEquals(7, first.getSeats());
+        assertTrue(first.getSnapshot().getMeals() > 0);
+        assertArrayEquals(first.getMealsPerPhilosopher(), second.getMealsPerPhilosopher());
+        assertEquals(first.getSnapshot().getTransitions(), second.getSnapshot().getTransitions());
+        assertTrue(first.toJson().startsWith("{\"seats\":7,"));
+        assertEquals(RunSummary.getCsvHeader().split(",").length, first.toCsvRow().split(",").length);
+    }
+
+    /**
+     * Tests if bad arguments are refused.
+     */
+    @Test
+    @DisplayName("Tests if bad arguments are refused.")
+    public void testIfBadArgumentsAreRefused(){
+        String[][] badArguments = {{"--seats"}, {"--seats", "0"}, {"--delay", "fast"}, {"--strategy", "nobody"},
+                {"--format", "xml"}, {"--unknown", "1"}};
+        for (String[] args : badArguments){
+            try {
+                new HeadlessRunner(args);
+                fail("Expected to get an exception since " + String.join(" ", args) + " is invalid.");
+            }catch (IllegalArgumentException exception){
+                assertTrue(true);
+            }
+        }
+    }
+
+    /**
+     * Tests if the runner works in its own JVM without JavaFX and never loads a class from the gui package.
+     */
+    @Test
+    @DisplayName("Tests if the runner works without JavaFX and never loads a class from the gui package.")
+    public void testIfRunnerDoesNotLoadGui() throws Exception {
+        String classes = Path.of(HeadlessRunner.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-verbose:class", "-cp", classes, HeadlessRunner.class.getName(),
+                "--clock", "virtual", "--duration", "10000", "--format", "csv")
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(0, process.exitValue(), output);
+        assertTrue(output.contains(RunSummary.getCsvHeader()));
+        assertTrue(output.contains("no.os.DiningPhilsopher.model.Table "));
+        assertFalse(output.contains("no.os.DiningPhilsopher.gui."));
+        assertFalse(output.contains("javafx."));
+    }
+}
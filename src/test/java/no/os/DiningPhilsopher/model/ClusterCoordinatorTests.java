@@ -0,0 +1,148 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the coordinator and the workers of a table that is split across processes.
+ * The workers run on threads in the test, but talk to each other over real local sockets.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ClusterCoordinatorTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(ClusterWorker.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if the workers split the ring, serve meals and never let two seats that share a fork eat together.
+     */
+    @Test
+    @DisplayName("Tests if the workers split the ring, serve meals and never let two seats that share a fork eat together.")
+    public void testIfWorkersServeMealsWithoutConflicts() throws IOException, InterruptedException {
+        try (ClusterCoordinator coordinator = new ClusterCoordinator(3, 12, 10, 5, true)){
+            List<ClusterWorker> workers = new ArrayList<>();
+            List<Throwable> failures = new CopyOnWriteArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int index = 0; index < 3; index++){
+                ClusterWorker worker = new ClusterWorker(coordinator.getAddress(), index);
+                workers.add(worker);
+                Thread thread = new Thread(() -> {
+                    try {
+                        worker.run();
+                    }catch (IOException | RuntimeException exception){
+                        failures.add(exception);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            MetricsSnapshot snapshot = coordinator.run(2000);
+            for (Thread thread : threads){
+                thread.join(10_000);
+            }
+            assertTrue(failures.isEmpty(), failures.toString());
+            assertEquals(0, workers.get(0).getFirstSeat());
+            assertEquals(4, workers.get(1).getFirstSeat());
+            assertEquals(8, workers.get(2).getFirstSeat());
+            long meals = workers.stream().mapToLong(worker -> worker.getTable().getMetricsSnapshot().getMeals()).sum();
+            assertEquals(meals, snapshot.getMeals());
+            assertTrue(snapshot.getMeals() > 0);
+            assertTrue(workers.get(0).getTable().getPhilosophers().get(3).getAmountOfTimesEating() > 0);
+            assertEquals(0, coordinator.getAmountOfBoundaryConflicts());
+            assertEquals("Cluster per seat CAS x 3", snapshot.getStrategyName());
+        }
+    }
+
+    /**
+     * Tests if the last seat of a segment that dies while its request for the next fork is on its way gives the fork
+     * back when it is granted, so the next segment can use it again.
+     */
+    @Test
+    @DisplayName("Tests if a fork that is granted after the last seat died is given back.")
+    public void testIfForkGrantedAfterDeathIsGivenBack() throws IOException {
+        try (ServerSocketChannel server = ServerSocketChannel.open()){
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (SocketChannel peer = SocketChannel.open(server.getLocalAddress());
+                 SocketChannel channel = server.accept()){
+                ClusterConnection connection = new ClusterConnection(channel);
+                ClusterForks forks = new ClusterForks(2);
+                forks.setConnections(connection, connection);
+                assertFalse(forks.tryAcquire(1));
+                forks.release(1);
+                forks.onForkAnswer(true);
+                assertFalse(forks.isHoldingRemoteFork());
+                assertTrue(forks.tryAcquire(0));
+                connection.flushFully();
+                ByteBuffer frames = ByteBuffer.allocate(2);
+                while (frames.hasRemaining()){
+                    peer.read(frames);
+                }
+                assertEquals(ClusterConnection.FORK_REQUEST, frames.get(0));
+                assertEquals(ClusterConnection.FORK_RELEASE, frames.get(1));
+            }
+        }
+    }
+
+    /**
+     * Tests if the coordinator gives up when the workers do not join in time.
+     */
+    @Test
+    @DisplayName("Tests if the coordinator gives up when the workers do not join in time.")
+    public void testIfMissingWorkersTimeOut() throws IOException {
+        try (ClusterCoordinator coordinator = new ClusterCoordinator(2, 10, 10, 1, false)){
+            coordinator.setTimeout(200);
+            try {
+                coordinator.run(100);
+                fail("Expected the coordinator to time out.");
+            }catch (IOException exception){
+                assertTrue(true);
+            }
+        }
+    }
+
+    /**
+     * Tests if invalid arguments are rejected.
+     */
+    @Test
+    @DisplayName("Tests if invalid arguments are rejected.")
+    public void testIfInvalidArgumentsAreRejected() throws IOException {
+        try {
+            new ClusterCoordinator(0, 10, 10, 1, false);
+            fail("Expected the coordinator to reject zero workers.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        try {
+            new ClusterCoordinator(11, 10, 10, 1, false);
+            fail("Expected the coordinator to reject more workers than seats.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        try {
+            new ClusterWorker(null, 0);
+            fail("Expected the worker to reject a null address.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+}
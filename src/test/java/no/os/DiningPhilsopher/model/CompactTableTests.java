@@ -0,0 +1,63 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the compact table class.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class CompactTableTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if a compact table ends up in the same state as a normal table.
+     */
+    @Test
+    @DisplayName("Tests if a compact table ends up in the same state as a normal table.")
+    public void testIfCompactTableMatchesTable(){
+        int amount = 7;
+        int delay = 50;
+        VirtualTimeSimulation simulation = new VirtualTimeSimulation(new Table(amount, delay));
+        CompactTable compactTable = new CompactTable(amount, delay);
+        for (int i = 0; i < 200; i++){
+            simulation.run(delay * 3L);
+            compactTable.run(delay * 3L);
+            List<Philosopher> philosophers = simulation.getTable().getPhilosophers();
+            for (int seat = 0; seat < amount; seat++){
+                Philosopher philosopher = philosophers.get(seat);
+                SeatView view = compactTable.getView(seat);
+                assertEquals(philosopher.getState(), view.getState());
+                assertEquals(philosopher.getHunger(), view.getHunger());
+                assertEquals(philosopher.getAmountOfTimesEating(), view.getAmountOfTimesEating());
+            }
+        }
+        assertEquals(simulation.getAmountOfHandledEvents(), compactTable.getAmountOfHandledEvents());
+    }
+
+    /**
+     * Tests if a dead seat stays dead.
+     */
+    @Test
+    @DisplayName("Tests if a dead seat stays dead.")
+    public void testIfDeadSeatStaysDead(){
+        SeatStateStore store = new SeatStateStore(3);
+        assertTrue(store.setState(1, State.DEAD));
+        assertFalse(store.setState(1, State.EATING));
+        assertEquals(State.DEAD, store.getView(1).getState());
+        assertEquals(State.THINKING, store.getState(0));
+    }
+}
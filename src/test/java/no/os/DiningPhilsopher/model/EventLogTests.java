@@ -0,0 +1,102 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the event log class.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class EventLogTests {
+
+    /**
+     * Tests if nothing is written before the log is started.
+     */
+    @Test
+    @DisplayName("Tests if nothing is written before the log is started.")
+    public void testIfNothingIsWrittenBeforeStart(){
+        EventLog eventLog = new EventLog(4);
+        assertFalse(eventLog.record(0, EventType.THINKING, 0));
+        assertEquals(0, eventLog.getAmountOfDroppedEvents());
+        try {
+            new EventLog(0);
+            fail("Expected to get an exception since the capacity is zero.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Tests if the events of many threads all reach the writer in the order each thread wrote them.
+     */
+    @Test
+    @DisplayName("Tests if the events of many threads all reach the writer in the order each thread wrote them.")
+    public void testIfEventsOfManyThreadsReachTheWriter() throws InterruptedException {
+        int amountOfThreads = 4;
+        int amountOfEvents = 20_000;
+        EventLog eventLog = new EventLog(1024);
+        List<int[]> written = new ArrayList<>();
+        eventLog.start((seat, type, epochNanos, amount) -> written.add(new int[]{seat, amount}));
+        CountDownLatch done = new CountDownLatch(amountOfThreads);
+        for (int thread = 0; thread < amountOfThreads; thread++){
+            int seat = thread;
+            new Thread(() -> {
+                int amount = 0;
+                while (amount < amountOfEvents){
+                    if (eventLog.record(seat, EventType.EATING, amount)){
+                        amount += 1;
+                    }else {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        eventLog.stop();
+        assertEquals(amountOfThreads * amountOfEvents, written.size());
+        int[] next = new int[amountOfThreads];
+        for (int[] event : written){
+            assertEquals(next[event[0]], event[1]);
+            next[event[0]] += 1;
+        }
+    }
+
+    /**
+     * Tests if events are dropped and counted when the ring is full.
+     */
+    @Test
+    @DisplayName("Tests if events are dropped and counted when the ring is full.")
+    public void testIfEventsAreDroppedWhenFull() throws InterruptedException {
+        EventLog eventLog = new EventLog(4);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> written = new ArrayList<>();
+        eventLog.start((seat, type, epochNanos, amount) -> {
+            writing.countDown();
+            try {
+                release.await();
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+            written.add(amount);
+        });
+        assertTrue(eventLog.record(0, EventType.EATING, 0));
+        writing.await();
+        for (int amount = 1; amount < 4; amount++){
+            assertTrue(eventLog.record(0, EventType.EATING, amount));
+        }
+        assertFalse(eventLog.record(0, EventType.EATING, 4));
+        assertEquals(1, eventLog.getAmountOfDroppedEvents());
+        release.countDown();
+        eventLog.stop();
+        assertEquals(List.of(0, 1, 2, 3), written);
+    }
+}
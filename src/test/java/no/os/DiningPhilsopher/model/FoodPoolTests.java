@@ -0,0 +1,109 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the food pool class.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class FoodPoolTests {
+
+    private FoodPool foodPool;
+
+    private List<Food> foods;
+
+    @BeforeEach
+    public void makeFoodPool(){
+        foods = new ArrayList<>();
+        foods.add(new Food(10, "Rice"));
+        foods.add(new Food(5, "Apple"));
+        foodPool = new FoodPool(foods);
+    }
+
+    /**
+     * Tests if a taken bowl is not given out again until it is given back.
+     */
+    @Test
+    @DisplayName("Tests if a taken bowl is not given out again until it is given back.")
+    public void testIfTakenBowlIsNotGivenOutTwice(){
+        Food rice = foodPool.takeFood();
+        Food apple = foodPool.takeFood();
+        assertSame(foods.get(0), rice);
+        assertSame(foods.get(1), apple);
+        assertNull(foodPool.takeFood());
+        apple.setTaken(false);
+        assertSame(apple, foodPool.takeFood());
+    }
+
+    /**
+     * Tests if a bowl that is given back many times is only given out once.
+     */
+    @Test
+    @DisplayName("Tests if a bowl that is given back many times is only given out once.")
+    public void testIfBowlGivenBackTwiceIsGivenOutOnce(){
+        Food rice = foods.get(0);
+        rice.setTaken(true);
+        rice.setTaken(false);
+        Food taken = foodPool.takeFood();
+        taken.setTaken(false);
+        taken.setTaken(true);
+        taken.setTaken(false);
+        assertSame(rice, foodPool.takeFood());
+        assertSame(foods.get(1), foodPool.takeFood());
+        assertNull(foodPool.takeFood());
+    }
+
+    /**
+     * Tests if an empty bowl is not given back to the pool and the food counter goes down.
+     */
+    @Test
+    @DisplayName("Tests if an empty bowl is not given back to the pool and the food counter goes down.")
+    public void testIfEmptyBowlIsNotGivenBack(){
+        Food apple = foods.get(1);
+        assertEquals(5, apple.takePortion(8));
+        assertEquals(1, foodPool.getAmountOfBowlsWithFood());
+        Food rice = foodPool.takeFood();
+        assertSame(foods.get(0), rice);
+        assertNull(foodPool.takeFood());
+        assertEquals(10, rice.takePortion(10));
+        assertFalse(foodPool.hasFood());
+        rice.setTaken(false);
+        assertNull(foodPool.takeFood());
+    }
+
+    /**
+     * Tests if no portions are lost when many threads eat from the same bowl.
+     */
+    @Test
+    @DisplayName("Tests if no portions are lost when many threads eat from the same bowl.")
+    public void testIfNoPortionsAreLost() throws InterruptedException {
+        Food food = new Food(100_000, "Soup");
+        AtomicInteger eaten = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++){
+            Thread thread = new Thread(() -> {
+                int portion = food.takePortion(3);
+                while (portion > 0){
+                    eaten.addAndGet(portion);
+                    portion = food.takePortion(3);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads){
+            thread.join();
+        }
+        assertEquals(100_000, eaten.get());
+        assertEquals(0, food.getAmountOfFood());
+    }
+}
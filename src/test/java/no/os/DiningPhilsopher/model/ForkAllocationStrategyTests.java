@@ -0,0 +1,166 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that every fork allocation strategy keeps philosophers beside each other from eating at the same time.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ForkAllocationStrategyTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if no strategy lets two philosophers beside each other eat at the same time.
+     */
+    @Test
+    @DisplayName("Tests if no strategy lets two philosophers beside each other eat at the same time.")
+    public void testIfNoStrategyLetsNeighboursEatTogether(){
+        for (ArbitrationMode mode : ArbitrationMode.values()){
+            Table table = new Table(9, 50, mode);
+            List<Philosopher> philosophers = table.getPhilosophers();
+            NeighbourChecker checker = new NeighbourChecker(table.getSeating());
+            philosophers.forEach(philosopher -> philosopher.getListeners().addStateChangeListener(checker));
+            VirtualTimeSimulation simulation = new VirtualTimeSimulation(table);
+            simulation.run(100_000);
+            MetricsSnapshot snapshot = table.getMetricsSnapshot();
+            assertFalse(checker.isBroken(), mode + " let two philosophers beside each other eat.");
+            assertTrue(snapshot.getMeals() > 0, mode + " never served anyone.");
+            assertTrue(snapshot.getFairness() > 0 && snapshot.getFairness() <= 1);
+        }
+    }
+
+    /**
+     * Tests if the resource hierarchy strategy keeps the lower fork while it waits.
+     */
+    @Test
+    @DisplayName("Tests if the resource hierarchy strategy keeps the lower fork while it waits.")
+    public void testIfResourceHierarchyKeepsLowerFork(){
+        ForkAllocationStrategy strategy = new ResourceHierarchyStrategy(5);
+        assertTrue(strategy.tryAcquire(1));
+        assertFalse(strategy.tryAcquire(0));
+        strategy.release(1);
+        assertFalse(strategy.tryAcquire(4), "Seat 0 should still hold fork 0.");
+        assertTrue(strategy.tryAcquire(0));
+    }
+
+    /**
+     * Tests if a refused seat keeps its place in the ticket strategy, so a neighbour that asked later waits for it.
+     */
+    @Test
+    @DisplayName("Tests if a refused seat keeps its place in the ticket strategy, so a neighbour that asked later waits for it.")
+    public void testIfTicketKeepsRefusedSeatsInLine(){
+        ForkAllocationStrategy strategy = new TicketStrategy(5);
+        assertTrue(strategy.tryAcquire(0));
+        assertFalse(strategy.tryAcquire(1));
+        strategy.release(0);
+        assertFalse(strategy.tryAcquire(2), "Seat 1 asked first and should be served before seat 2.");
+        assertFalse(strategy.tryAcquire(0), "Seat 1 asked first and should be served before seat 0.");
+        assertTrue(strategy.tryAcquire(1));
+        strategy.release(1);
+        assertTrue(strategy.tryAcquire(0));
+        assertTrue(strategy.tryAcquire(2));
+    }
+
+    /**
+     * Tests if a seat that just ate gives way in the Chandy-Misra strategy.
+     */
+    @Test
+    @DisplayName("Tests if a seat that just ate gives way in the Chandy-Misra strategy.")
+    public void testIfChandyMisraGivesWayAfterEating(){
+        ForkAllocationStrategy strategy = new ChandyMisraStrategy(3);
+        assertTrue(strategy.tryAcquire(0));
+        assertFalse(strategy.tryAcquire(1));
+        strategy.release(0);
+        assertTrue(strategy.tryAcquire(1));
+        assertFalse(strategy.tryAcquire(0));
+    }
+
+    /**
+     * Tests if every fork starts at one of the two seats that use it in the Chandy-Misra strategy.
+     */
+    @Test
+    @DisplayName("Tests if every fork starts at one of the two seats that use it in the Chandy-Misra strategy.")
+    public void testIfChandyMisraForksStartAtTheirUsers(){
+        ForkAllocationStrategy strategy = new ChandyMisraStrategy(5);
+        assertTrue(strategy.tryAcquire(0));
+        assertTrue(strategy.tryAcquire(3), "Seat 3 shares no fork with seat 0 and should not wait for it.");
+        strategy.release(3);
+        assertTrue(strategy.tryAcquire(2));
+        assertFalse(strategy.tryAcquire(4));
+    }
+
+    /**
+     * Tests if no strategy keeps forks for seats that died while they were refused.
+     */
+    @Test
+    @DisplayName("Tests if no strategy keeps forks for seats that died while they were refused.")
+    public void testIfDeadSeatsGiveBackTheirForks(){
+        for (ArbitrationMode mode : ArbitrationMode.values()){
+            ForkAllocationStrategy strategy = mode.makeStrategy(4);
+            assertTrue(strategy.tryAcquire(2), mode.toString());
+            strategy.release(2);
+            assertTrue(strategy.tryAcquire(0), mode.toString());
+            assertFalse(strategy.tryAcquire(3), mode.toString());
+            strategy.release(3);
+            strategy.release(0);
+            assertTrue(strategy.tryAcquire(2), mode + " kept a fork for a dead seat.");
+        }
+        Table table = new Table(4, 50, ArbitrationMode.CHANDY_MISRA);
+        ForkAllocationStrategy strategy = table.getForkAllocationStrategy();
+        assertTrue(strategy.tryAcquire(2));
+        table.onStateChange(3, State.THINKING);
+        assertTrue(strategy.tryAcquire(0));
+        assertFalse(strategy.tryAcquire(3));
+        table.onStateChange(4, State.DEAD);
+        table.onStateChange(1, State.DEAD);
+        assertTrue(strategy.tryAcquire(2), "The table did not get the forks back from the dead seats.");
+    }
+
+    /**
+     * Checks every time someone starts eating that no one beside is eating.
+     */
+    private static class NeighbourChecker implements StateChangeListener {
+
+        private final Seating seating;
+
+        private boolean broken;
+
+        /**
+         * Makes an instance of the NeighbourChecker class.
+         * @param seating the seating of the table.
+         */
+        public NeighbourChecker(Seating seating) {
+            this.seating = seating;
+            this.broken = false;
+        }
+
+        /**
+         * Checks if two philosophers beside each other have eaten at the same time.
+         * @return <code>true</code> if it happened.
+         */
+        public boolean isBroken(){
+            return broken;
+        }
+
+        @Override
+        public void onStateChange(long id, State state) {
+            if (state == State.EATING && seating.isNeighbourEating((int) id - 1)){
+                broken = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the fork arbiter class.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ForkArbiterTests {
+
+    private ForkArbiter forkArbiter;
+
+    @BeforeEach
+    public void makeForkArbiter(){
+        forkArbiter = new ForkArbiter(5);
+    }
+
+    /**
+     * Tests if philosophers beside each other cannot hold the forks at the same time.
+     */
+    @Test
+    @DisplayName("Tests if philosophers beside each other cannot hold the forks at the same time.")
+    public void testIfPhilosophersBesideEachOtherCannotHoldForks(){
+        assertTrue(forkArbiter.tryAcquire(0));
+        assertFalse(forkArbiter.tryAcquire(1));
+        assertFalse(forkArbiter.tryAcquire(4));
+        assertTrue(forkArbiter.tryAcquire(2));
+        assertFalse(forkArbiter.isHoldingForks(1));
+    }
+
+    /**
+     * Tests if a released fork can be taken by the philosopher beside.
+     */
+    @Test
+    @DisplayName("Tests if a released fork can be taken by the philosopher beside.")
+    public void testIfReleasedForksCanBeTaken(){
+        assertTrue(forkArbiter.tryAcquire(0));
+        forkArbiter.release(1);
+        assertTrue(forkArbiter.isHoldingForks(0));
+        forkArbiter.release(0);
+        assertTrue(forkArbiter.tryAcquire(1));
+        assertTrue(forkArbiter.tryAcquire(3));
+    }
+
+    /**
+     * Tests if tryAcquire works with invalid input.
+     */
+    @Test
+    @DisplayName("Tests if tryAcquire works with invalid input.")
+    public void testIfTryAcquireWorksWithInvalidInput(){
+        try {
+            forkArbiter.tryAcquire(5);
+            fail("Expected to get a IllegalArgumentException since the input is invalid.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+}
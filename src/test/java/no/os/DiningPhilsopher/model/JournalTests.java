@@ -0,0 +1,83 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the journal writer and journal replay classes.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class JournalTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if replaying the journal of a threaded run ends in exactly the same state as the run.
+     */
+    @Test
+    @DisplayName("Tests if replaying the journal of a threaded run ends in exactly the same state as the run.")
+    public void testIfReplayReproducesThreadedRun() throws IOException, InterruptedException {
+        Table recorded = new Table(6, 2, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.PLATFORM_THREADS,
+                List.of(new Food(150, "Rice"), new Food(90, "Apple")), true, 99);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JournalWriter journal = new JournalWriter(recorded, bytes);
+        recorded.startSimulation();
+        Thread.sleep(400);
+        recorded.stopSimulation();
+        assertTrue(recorded.awaitStop(5000));
+        journal.close();
+        assertTrue(journal.getAmountOfSteps() > 0);
+
+        JournalReplay replay = new JournalReplay(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(journal.getAmountOfSteps(), replay.replay());
+        Table replayed = replay.getTable();
+        for (int seat = 0; seat < recorded.getPhilosophers().size(); seat++){
+            Philosopher original = recorded.getPhilosophers().get(seat);
+            Philosopher copy = replayed.getPhilosophers().get(seat);
+            assertEquals(original.getHunger(), copy.getHunger());
+            assertEquals(original.getAmountOfTimesEating(), copy.getAmountOfTimesEating());
+            assertEquals(original.getState(), copy.getState());
+        }
+        for (int bowl = 0; bowl < recorded.getFoodPool().getAmountOfBowls(); bowl++){
+            assertEquals(recorded.getFoodPool().getFood(bowl).getAmountOfFood(), replayed.getFoodPool().getFood(bowl).getAmountOfFood());
+        }
+        assertEquals(recorded.getMetricsSnapshot().getMeals(), replayed.getMetricsSnapshot().getMeals());
+    }
+
+    /**
+     * Tests if a started table cannot be recorded and a stream that is not a journal cannot be replayed.
+     */
+    @Test
+    @DisplayName("Tests if a started table cannot be recorded and a stream that is not a journal cannot be replayed.")
+    public void testIfInvalidJournalsAreRefused() throws IOException {
+        Table table = new Table(3, 10);
+        new VirtualTimeSimulation(table);
+        try {
+            new JournalWriter(table, new ByteArrayOutputStream());
+            fail("Expected to get an exception since the table has started.");
+        }catch (IllegalStateException exception){
+            assertTrue(true);
+        }
+        try {
+            new JournalReplay(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6}));
+            fail("Expected to get an exception since the stream is not a journal.");
+        }catch (IOException exception){
+            assertTrue(true);
+        }
+    }
+}
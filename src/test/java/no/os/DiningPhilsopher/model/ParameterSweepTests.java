@@ -0,0 +1,84 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the parameter sweep class.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ParameterSweepTests {
+
+    private ParameterSweep sweep;
+
+    @BeforeEach
+    public void makeSweep(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+        sweep = new ParameterSweep(List.of(3, 8), List.of(10, 40), List.of(new int[]{2000, 1000}, new int[]{300}),
+                List.of(false, true), List.of(ArbitrationMode.PER_SEAT_CAS, ArbitrationMode.GLOBAL_LOCK), 2, 7, 30_000);
+    }
+
+    /**
+     * Tests if runs in parallel give the same results as the same runs one at the time.
+     */
+    @Test
+    @DisplayName("Tests if runs in parallel give the same results as the same runs one at the time.")
+    public void testIfParallelRunsAreIsolated(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SweepReport report;
+        try {
+            report = sweep.run(pool);
+        }finally {
+            pool.shutdown();
+        }
+        List<SweepPoint> points = sweep.getPoints();
+        assertEquals(64, points.size());
+        assertEquals(points.size(), report.getSummaries().size());
+        for (int index = 0; index < points.size(); index++){
+            RunSummary parallel = report.getSummaries().get(index);
+            RunSummary alone = sweep.runPoint(points.get(index));
+            assertEquals(points.get(index).getSeats(), parallel.getSeats());
+            assertArrayEquals(alone.getMealsPerPhilosopher(), parallel.getMealsPerPhilosopher(), points.get(index).toString());
+            assertEquals(alone.getSnapshot().getTransitions(), parallel.getSnapshot().getTransitions());
+        }
+        assertEquals(points.size() + 1, report.toCsv().split("\n").length);
+        assertNotNull(report.getPointWithMostMeals());
+    }
+
+    /**
+     * Tests if every table gets its own loggers under the class loggers.
+     */
+    @Test
+    @DisplayName("Tests if every table gets its own loggers under the class loggers.")
+    public void testIfTablesHaveTheirOwnLoggers(){
+        Table first = sweep.getPoints().get(0).makeTable();
+        Table second = sweep.getPoints().get(0).makeTable();
+        assertNotEquals(first.getTableNumber(), second.getTableNumber());
+        Logger firstLogger = Logger.getLogger(Table.class.getName() + ".table-" + first.getTableNumber());
+        assertSame(Logger.getLogger(Table.class.getName()), firstLogger.getParent());
+    }
+
+    /**
+     * Tests if an empty grid is refused.
+     */
+    @Test
+    @DisplayName("Tests if an empty grid is refused.")
+    public void testIfEmptyGridIsRefused(){
+        try {
+            new ParameterSweep(List.of(), List.of(10), List.of(new int[]{10}), List.of(false), List.of(ArbitrationMode.TICKET), 1, 1, 10);
+            fail("Expected to get an exception since there are no seats to try.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the seat parking and the blocking acquisition mode.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SeatParkingTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if a release before the park is kept, and if a seat stays parked while its other neighbour eats.
+     */
+    @Test
+    @DisplayName("Tests if a release before the park is kept, and if a seat stays parked while its other neighbour eats.")
+    public void testIfPermitsAreKeptAndCheckNeighbours(){
+        SeatParking parking = new SeatParking(5);
+        assertFalse(parking.await(0, TimeUnit.MILLISECONDS.toNanos(10)));
+        parking.releaseNeighbours(1);
+        assertTrue(parking.await(0, TimeUnit.SECONDS.toNanos(5)));
+        assertTrue(parking.await(2, TimeUnit.SECONDS.toNanos(5)));
+        assertFalse(parking.await(0, TimeUnit.MILLISECONDS.toNanos(10)));
+
+        parking.startedEating(4);
+        parking.releaseNeighbours(1);
+        assertFalse(parking.await(0, TimeUnit.MILLISECONDS.toNanos(10)));
+        parking.releaseNeighbours(4);
+        assertTrue(parking.await(0, TimeUnit.SECONDS.toNanos(5)));
+        assertEquals(3, parking.getAmountOfWakeups());
+    }
+
+    /**
+     * Tests if a parked thread is woken by a neighbour long before its time runs out.
+     */
+    @Test
+    @DisplayName("Tests if a parked thread is woken by a neighbour long before its time runs out.")
+    public void testIfParkedThreadIsWoken() throws InterruptedException {
+        SeatParking parking = new SeatParking(5);
+        AtomicBoolean woken = new AtomicBoolean(false);
+        long[] waited = new long[1];
+        Thread waiter = new Thread(() -> {
+            long start = System.nanoTime();
+            woken.set(parking.await(3, TimeUnit.SECONDS.toNanos(30)));
+            waited[0] = System.nanoTime() - start;
+        });
+        waiter.start();
+        Thread.sleep(50);
+        parking.releaseNeighbours(4);
+        waiter.join(10_000);
+        assertTrue(woken.get());
+        assertTrue(waited[0] < TimeUnit.SECONDS.toNanos(10));
+    }
+
+    /**
+     * Tests if a blocking table serves food without letting neighbours eat together.
+     */
+    @Test
+    @DisplayName("Tests if a blocking table serves food without letting neighbours eat together.")
+    public void testIfBlockingTableServesFood() throws InterruptedException {
+        Table table = new Table(5, 2, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.PLATFORM_THREADS,
+                List.of(new Food(100_000, "Rice"), new Food(100_000, "Apple")), true, 4);
+        table.setAcquisitionMode(AcquisitionMode.BLOCKING);
+        Seating seating = table.getSeating();
+        AtomicBoolean broken = new AtomicBoolean(false);
+        table.getPhilosophers().forEach(philosopher -> philosopher.getListeners().addStateChangeListener((id, state) -> {
+            if (state == State.EATING && seating.isNeighbourEating((int) id - 1)){
+                broken.set(true);
+            }
+        }));
+        table.startSimulation();
+        Thread.sleep(500);
+        table.stopSimulation();
+        assertTrue(table.awaitStop(5000));
+        assertNotNull(table.getSeatParking());
+        assertFalse(broken.get());
+        assertTrue(table.getMetricsSnapshot().getMeals() > 0);
+        assertEquals(0, table.getMetricsSnapshot().getDeaths());
+        try {
+            table.setAcquisitionMode(AcquisitionMode.POLLING);
+            fail("Expected to get an exception since the table has started.");
+        }catch (IllegalStateException exception){
+            assertTrue(true);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the seat state buffer class.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SeatStateBufferTests {
+
+    /**
+     * Tests if many changes to a seat between two reads become one change with the latest state.
+     */
+    @Test
+    @DisplayName("Tests if many changes to a seat between two reads become one change with the latest state.")
+    public void testIfChangesAreCoalesced(){
+        SeatStateBuffer buffer = new SeatStateBuffer(130);
+        buffer.setState(3, State.HUNGRY);
+        buffer.setState(3, State.EATING);
+        buffer.setState(3, State.THINKING);
+        buffer.onStateChange(130, State.DEAD);
+        buffer.setState(64, State.EATING);
+        List<Integer> changed = new ArrayList<>();
+        assertEquals(3, buffer.drainChangedSeats(changed::add));
+        assertEquals(List.of(3, 64, 129), changed);
+        assertEquals(State.THINKING, buffer.getState(3));
+        assertEquals(State.DEAD, buffer.getState(129));
+        assertEquals(State.THINKING, buffer.getState(0));
+        assertEquals(0, buffer.drainChangedSeats(seat -> fail("Expected no changed seats.")));
+    }
+}
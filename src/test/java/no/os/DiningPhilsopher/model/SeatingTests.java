@@ -0,0 +1,70 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the seating class.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class SeatingTests {
+
+    private Seating seating;
+
+    private List<Philosopher> philosophers;
+
+    @BeforeEach
+    public void makeSeating(){
+        philosophers = new ArrayList<>();
+        for (int i = 1; i <= 4; i++){
+            philosophers.add(new Philosopher(i, "Tom " + i, 10, false, 750));
+        }
+        seating = new Seating(philosophers);
+    }
+
+    /**
+     * Tests if the philosophers beside the first and last seat wrap around the table.
+     */
+    @Test
+    @DisplayName("Tests if the philosophers beside the first and last seat wrap around the table.")
+    public void testIfNeighboursWrapAround(){
+        assertSame(philosophers.get(3), seating.getLeftNeighbour(0));
+        assertSame(philosophers.get(1), seating.getRightNeighbour(0));
+        assertSame(philosophers.get(0), seating.getRightNeighbour(3));
+        assertEquals(2, seating.getSeatOf(philosophers.get(2)));
+    }
+
+    /**
+     * Tests if isNeighbourEating only looks at the philosophers beside.
+     */
+    @Test
+    @DisplayName("Tests if isNeighbourEating only looks at the philosophers beside.")
+    public void testIfIsNeighbourEatingWorks(){
+        philosophers.get(1).receiveFood(new Food(100, "Rice"));
+        assertTrue(seating.isNeighbourEating(0));
+        assertTrue(seating.isNeighbourEating(2));
+        assertFalse(seating.isNeighbourEating(1));
+        assertFalse(seating.isNeighbourEating(3));
+    }
+
+    /**
+     * Tests if getSeatOf works with a philosopher from another table.
+     */
+    @Test
+    @DisplayName("Tests if getSeatOf works with a philosopher from another table.")
+    public void testIfGetSeatOfWorksWithInvalidInput(){
+        try {
+            seating.getSeatOf(new Philosopher(9, "Bjarne", 10, false, 750));
+            fail("Expected to get a IllegalArgumentException since the philosopher does not sit here.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+}
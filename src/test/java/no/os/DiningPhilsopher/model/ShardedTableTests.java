@@ -0,0 +1,136 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the sharded table.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class ShardedTableTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if the ring is split into segments next to each other that together hold every seat.
+     */
+    @Test
+    @DisplayName("Tests if the ring is split into segments next to each other that together hold every seat.")
+    public void testIfRingIsSplitIntoSegments(){
+        ShardedTable table = new ShardedTable(10, 100, 3);
+        assertEquals(3, table.getShards().size());
+        assertEquals(4, table.getShards().get(0).getPhilosophers().size());
+        assertEquals(3, table.getShards().get(2).getPhilosophers().size());
+        assertEquals(10, table.getAmountOfSeats());
+        assertSame(table.getShards().get(1).getPhilosophers().get(0), table.getPhilosopher(4));
+        assertSame(table.getShards().get(2).getPhilosophers().get(2), table.getPhilosopher(9));
+    }
+
+    /**
+     * Tests if the segments together have as much food as one single table.
+     */
+    @Test
+    @DisplayName("Tests if the segments together have as much food as one single table.")
+    public void testIfSegmentsShareTheFoodOfOneTable(){
+        ShardedTable table = new ShardedTable(10, 100, 3);
+        int shardedFood = 0;
+        for (Table shard : table.getShards()){
+            for (Food food : shard.getFoodPool().getFoods()){
+                shardedFood += food.getAmountOfFood();
+            }
+        }
+        int singleFood = 0;
+        for (Food food : Table.makeFoods()){
+            singleFood += food.getAmountOfFood();
+        }
+        assertEquals(singleFood, shardedFood);
+        assertEquals(2, table.getShards().get(0).getFoodPool().getAmountOfBowls());
+    }
+
+    /**
+     * Tests if no two neighbours in the whole ring eat at the same time, also across segment borders.
+     */
+    @Test
+    @DisplayName("Tests if no two neighbours in the whole ring eat at the same time, also across segment borders.")
+    public void testIfNeighboursNeverEatTogether(){
+        ShardedTable table = new ShardedTable(64, 10, 8, ExecutionMode.PLATFORM_THREADS, true, 42);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int window = 0; window < 200 && table.hasEventsLeft() || window == 0; window++){
+                table.run(10, pool);
+                for (int seat = 0; seat < table.getAmountOfSeats(); seat++){
+                    if (table.getPhilosopher(seat).getState() == State.EATING){
+                        assertFalse(table.isNeighbourEating(seat));
+                    }
+                }
+            }
+        }finally {
+            pool.shutdown();
+        }
+        MetricsSnapshot snapshot = table.getMetricsSnapshot();
+        assertTrue(snapshot.getMeals() > 0);
+        assertEquals("Sharded per seat CAS x 8", snapshot.getStrategyName());
+        assertTrue(snapshot.getFairness() > 0 && snapshot.getFairness() <= 1);
+    }
+
+    /**
+     * Tests if the sharded table serves about as many meals as one single table with the same seats.
+     */
+    @Test
+    @DisplayName("Tests if the sharded table serves about as many meals as one single table with the same seats.")
+    public void testIfShardedTableServesLikeSingleTable(){
+        ShardedTable sharded = new ShardedTable(200, 10, 4, ExecutionMode.PLATFORM_THREADS, true, 7);
+        sharded.run(20000);
+        VirtualTimeSimulation single = new VirtualTimeSimulation(new Table(200, 10, ArbitrationMode.PER_SEAT_CAS,
+                ExecutionMode.PLATFORM_THREADS, Table.makeFoods(), true, 7));
+        single.run(20000);
+        long shardedMeals = sharded.getMetricsSnapshot().getMeals();
+        long singleMeals = single.getTable().getMetricsSnapshot().getMeals();
+        assertTrue(shardedMeals > singleMeals / 2, shardedMeals + " against " + singleMeals);
+    }
+
+    /**
+     * Tests if invalid arguments are rejected.
+     */
+    @Test
+    @DisplayName("Tests if invalid arguments are rejected.")
+    public void testIfInvalidArgumentsAreRejected(){
+        try {
+            new ShardedTable(10, 100, 0);
+            fail("Expected the table to reject zero shards.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        try {
+            new ShardedTable(10, 100, 11);
+            fail("Expected the table to reject more shards than seats.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        ShardedTable table = new ShardedTable(10, 100, 2);
+        try {
+            table.getPhilosopher(10);
+            fail("Expected the table to reject a seat outside the ring.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        try {
+            table.run(10, null);
+            fail("Expected the table to reject a null pool.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+}
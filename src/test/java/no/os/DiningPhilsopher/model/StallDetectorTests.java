@@ -0,0 +1,142 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the detector that tells if a table is stalled.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class StallDetectorTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(StallDetector.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if seats that are hungry all around the ring are told apart as deadlock, livelock and slow eating.
+     */
+    @Test
+    @DisplayName("Tests if seats that are hungry all around the ring are told apart as deadlock, livelock and slow eating.")
+    public void testIfStallsAreToldApart(){
+        long[] time = {0};
+        Table table = new Table(5, 50);
+        table.getMetrics().setClock(() -> time[0]);
+        StallDetector detector = new StallDetector(table, 100, 300);
+        assertEquals(StallType.NONE, detector.sample().getType());
+        for (int seat = 0; seat < 5; seat++){
+            table.onStateChange(seat + 1, State.HUNGRY);
+        }
+        time[0] = 400_000_000L;
+        StallReport deadlock = detector.sample();
+        assertEquals(StallType.DEADLOCK, deadlock.getType());
+        assertTrue(deadlock.hasWaitCycle());
+        assertEquals(5, deadlock.getStuckSeats().length);
+        assertEquals(5, deadlock.getLongestWaitChain());
+
+        table.getMetrics().recordRefusal(0);
+        time[0] += 100_000_000L;
+        StallReport livelock = detector.sample();
+        assertEquals(StallType.LIVELOCK, livelock.getType());
+        assertEquals(1, livelock.getRefusalsInWindow());
+
+        table.getMetrics().recordMeal(2);
+        time[0] += 100_000_000L;
+        StallReport slow = detector.sample();
+        assertEquals(StallType.SLOW, slow.getType());
+        assertFalse(slow.hasWaitCycle());
+        assertArrayEquals(new int[]{0, 1, 3, 4}, slow.getStuckSeats());
+        assertEquals(4, slow.getLongestWaitChain());
+        assertSame(slow, detector.getLatestReport());
+    }
+
+    /**
+     * Tests if a table where every request is refused is found to be in livelock.
+     */
+    @Test
+    @DisplayName("Tests if a table where every request is refused is found to be in livelock.")
+    public void testIfEndlessRefusalsAreLivelock(){
+        Table table = new Table(20, 10);
+        table.setForkAllocationStrategy(new ForkAllocationStrategy() {
+            @Override
+            public boolean tryAcquire(int seat) {
+                return false;
+            }
+
+            @Override
+            public void release(int seat) {
+            }
+
+            @Override
+            public String getName() {
+                return "Never";
+            }
+        });
+        VirtualTimeSimulation simulation = new VirtualTimeSimulation(table);
+        StallDetector detector = new StallDetector(table, 100, 300);
+        simulation.run(100);
+        detector.sample();
+        simulation.run(1500);
+        StallReport report = detector.sample();
+        assertEquals(StallType.LIVELOCK, report.getType());
+        assertTrue(report.hasWaitCycle());
+        assertTrue(report.getRefusalsInWindow() > 0);
+    }
+
+    /**
+     * Tests if a table that serves meals is never found to be in deadlock or livelock.
+     */
+    @Test
+    @DisplayName("Tests if a table that serves meals is never found to be in deadlock or livelock.")
+    public void testIfWorkingTableIsNotStalled(){
+        Table table = new Table(20, 10, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.PLATFORM_THREADS, Table.makeFoods(), true, 2);
+        VirtualTimeSimulation simulation = new VirtualTimeSimulation(table);
+        StallDetector detector = new StallDetector(table, 100, 300);
+        for (int sample = 0; sample < 30; sample++){
+            simulation.run(100);
+            StallType type = detector.sample().getType();
+            assertNotEquals(StallType.DEADLOCK, type);
+            assertNotEquals(StallType.LIVELOCK, type);
+        }
+        assertEquals(30, detector.getAmountOfSamples());
+    }
+
+    /**
+     * Tests if the detector samples on its own thread while a table runs, and if invalid arguments are rejected.
+     */
+    @Test
+    @DisplayName("Tests if the detector samples on its own thread while a table runs, and if invalid arguments are rejected.")
+    public void testIfDetectorSamplesAndInvalidArgumentsAreRejected() throws InterruptedException {
+        Table table = new Table(5, 20);
+        StallDetector detector = new StallDetector(table, 20, 200);
+        table.startSimulation();
+        detector.start();
+        Thread.sleep(300);
+        detector.stop();
+        table.stopSimulation();
+        assertTrue(table.awaitStop(5000));
+        assertTrue(detector.getAmountOfSamples() > 0);
+        try {
+            new StallDetector(null, 100);
+            fail("Expected the detector to reject a null table.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        try {
+            new StallDetector(table, 100, 50);
+            fail("Expected the detector to reject a window shorter than the interval.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the starvation scheduler of the waiter.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class StarvationSchedulerTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if a seat leaves the forks to a more urgent neighbour, unless the neighbour cannot eat anyway.
+     */
+    @Test
+    @DisplayName("Tests if a seat leaves the forks to a more urgent neighbour, unless the neighbour cannot eat anyway.")
+    public void testIfMoreUrgentNeighbourGoesFirst(){
+        StarvationScheduler scheduler = new StarvationScheduler(5, 1);
+        assertTrue(scheduler.mayTry(0, 3));
+        scheduler.refused(0);
+        assertFalse(scheduler.mayTry(1, 10));
+        scheduler.refused(1);
+        assertFalse(scheduler.mayTry(2, 10));
+        assertTrue(scheduler.mayTry(3, 5));
+        scheduler.left(2);
+        scheduler.left(3);
+
+        scheduler.granted(4);
+        assertTrue(scheduler.mayTry(1, 10));
+        scheduler.refused(1);
+        scheduler.left(4);
+        assertFalse(scheduler.mayTry(1, 10));
+
+        for (int i = 0; i < 10; i++){
+            scheduler.refused(1);
+        }
+        assertTrue(scheduler.mayTry(1, 10));
+        assertFalse(scheduler.mayTry(0, 3));
+
+        scheduler.left(1);
+        assertTrue(scheduler.mayTry(0, 3));
+    }
+
+    /**
+     * Asks for food for a seat the same way the table does, with or without the scheduler.
+     * @param strategy the fork allocation strategy.
+     * @param scheduler the scheduler, or <code>null</code> to ask without it.
+     * @param seat the seat that asks.
+     * @param hunger the remaining hunger of the seat.
+     * @return <code>true</code> if the seat may eat.
+     */
+    private boolean ask(ForkAllocationStrategy strategy, StarvationScheduler scheduler, int seat, int hunger){
+        boolean granted = (scheduler == null || scheduler.mayTry(seat, hunger)) && strategy.tryAcquire(seat);
+        if (scheduler != null){
+            if (granted){
+                scheduler.granted(seat);
+            }else {
+                scheduler.refused(seat);
+            }
+        }
+        return granted;
+    }
+
+    /**
+     * Tells the strategy and the scheduler that a seat is done eating.
+     * @param strategy the fork allocation strategy.
+     * @param scheduler the scheduler, or <code>null</code> if there is none.
+     * @param seat the seat that is done.
+     */
+    private void finish(ForkAllocationStrategy strategy, StarvationScheduler scheduler, int seat){
+        strategy.release(seat);
+        if (scheduler != null){
+            scheduler.left(seat);
+        }
+    }
+
+    /**
+     * Lets seat 0 and seat 2 take turns eating, where the next one always asks just before seat 1 does.
+     * Seat 1 loses one hunger each round it is refused and dies when it has none left.
+     * @param strategy the fork allocation strategy.
+     * @param scheduler the scheduler, or <code>null</code> to run without it.
+     * @param hunger the hunger seat 1 starts with.
+     * @return the amount of rounds seat 1 waited, or -1 if it died first.
+     */
+    private int runPassingNeighbours(ForkAllocationStrategy strategy, StarvationScheduler scheduler, int hunger){
+        assertTrue(ask(strategy, scheduler, 2, hunger));
+        int eating = 2;
+        int next = 0;
+        for (int round = 1; round <= hunger; round++){
+            if (eating != -1){
+                finish(strategy, scheduler, eating);
+            }
+            eating = ask(strategy, scheduler, next, hunger) ? next : -1;
+            if (ask(strategy, scheduler, 1, hunger - round)){
+                return round;
+            }
+            if (eating != -1){
+                next = eating == 2 ? 0 : 2;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tests if a seat whose neighbours keep passing the forks between them starves without the scheduler and eats with it.
+     * The strategies that take both forks at once starve the seat. Resource hierarchy and Chandy-Misra keep a fork for
+     * the refused seat and the ticket waiter keeps its place in line, so they feed it anyway, and the scheduler must
+     * not make them worse.
+     */
+    @Test
+    @DisplayName("Tests if a seat whose neighbours keep passing the forks between them starves without the scheduler and eats with it.")
+    public void testIfSchedulerStopsStarvation(){
+        int hunger = 20;
+        for (ArbitrationMode mode : ArbitrationMode.values()){
+            int withoutScheduler = runPassingNeighbours(mode.makeStrategy(5), null, hunger);
+            int withScheduler = runPassingNeighbours(mode.makeStrategy(5), new StarvationScheduler(5, StarvationScheduler.DEFAULT_AGING), hunger);
+            if (mode == ArbitrationMode.GLOBAL_LOCK || mode == ArbitrationMode.PER_SEAT_CAS){
+                assertEquals(-1, withoutScheduler, mode + " fed seat 1 without the scheduler, so nothing was starved.");
+            }
+            assertTrue(withScheduler > 0, mode + " starved seat 1 with the scheduler.");
+            assertTrue(withoutScheduler == -1 || withScheduler <= withoutScheduler, mode + " made seat 1 wait " + withScheduler
+                    + " rounds with the scheduler and " + withoutScheduler + " without it.");
+        }
+    }
+
+    /**
+     * Tests if a table with the scheduler serves about the same meals as without it and never lets neighbours eat together.
+     */
+    @Test
+    @DisplayName("Tests if a table with the scheduler serves about the same meals as without it and never lets neighbours eat together.")
+    public void testIfSchedulerKeepsThroughput(){
+        for (ArbitrationMode mode : ArbitrationMode.values()){
+            Table plain = new Table(21, 10, mode);
+            new VirtualTimeSimulation(plain).run(60_000);
+
+            Table scheduled = new Table(21, 10, mode);
+            scheduled.setStarvationScheduler(new StarvationScheduler(21, StarvationScheduler.DEFAULT_AGING));
+            Seating seating = scheduled.getSeating();
+            boolean[] broken = new boolean[1];
+            scheduled.getPhilosophers().forEach(philosopher -> philosopher.getListeners().addStateChangeListener((id, state) -> {
+                if (state == State.EATING && seating.isNeighbourEating((int) id - 1)){
+                    broken[0] = true;
+                }
+            }));
+            new VirtualTimeSimulation(scheduled).run(60_000);
+            MetricsSnapshot plainSnapshot = plain.getMetricsSnapshot();
+            MetricsSnapshot scheduledSnapshot = scheduled.getMetricsSnapshot();
+            assertFalse(broken[0], mode + " let two philosophers beside each other eat.");
+            assertTrue(scheduledSnapshot.getMeals() >= plainSnapshot.getMeals() * 0.9, mode + " served " + scheduledSnapshot.getMeals()
+                    + " meals with the scheduler and " + plainSnapshot.getMeals() + " without it.");
+            assertTrue(scheduledSnapshot.getDeaths() <= plainSnapshot.getDeaths() + 2, mode + " had " + scheduledSnapshot.getDeaths()
+                    + " deaths with the scheduler and " + plainSnapshot.getDeaths() + " without it.");
+        }
+    }
+
+    /**
+     * Tests if the scheduler is refused when the table has started or the amount of seats is wrong.
+     */
+    @Test
+    @DisplayName("Tests if the scheduler is refused when the table has started or the amount of seats is wrong.")
+    public void testIfInvalidSchedulerIsRefused(){
+        Table table = new Table(5, 10);
+        try {
+            table.setStarvationScheduler(new StarvationScheduler(4, 1));
+            fail("Expected to get an exception since the amount of seats is wrong.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        try {
+            new StarvationScheduler(5, -1);
+            fail("Expected to get an exception since the aging is negative.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        new VirtualTimeSimulation(table);
+        try {
+            table.setStarvationScheduler(new StarvationScheduler(5, 1));
+            fail("Expected to get an exception since the table has started.");
+        }catch (IllegalStateException exception){
+            assertTrue(true);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the listener registry, the state change ring and the state change dispatcher.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class StateChangeDispatcherTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if the dispatcher gives the changes in order, and skips the oldest when it falls behind the ring.
+     */
+    @Test
+    @DisplayName("Tests if the dispatcher gives the changes in order, and skips the oldest when it falls behind.")
+    public void testIfChangesAreDispatchedInOrder(){
+        ListenerRegistry listeners = new ListenerRegistry(7);
+        List<State> states = new ArrayList<>();
+        StateChangeDispatcher dispatcher = new StateChangeDispatcher((id, state) -> {
+            assertEquals(7, id);
+            states.add(state);
+        }, "test");
+        StateChangeRing ring = listeners.getStateChanges();
+        List<State> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++){
+            State state = State.values()[i % State.values().length];
+            listeners.fireStateChange(7, state);
+            expected.add(state);
+        }
+        dispatcher.subscribe(ring);
+        assertEquals(0, dispatcher.dispatch());
+
+        for (int i = 0; i < 10; i++){
+            listeners.fireStateChange(7, expected.get(i));
+        }
+        assertEquals(10, dispatcher.dispatch());
+        assertEquals(expected, states);
+
+        states.clear();
+        int amount = ring.getCapacity() * 3;
+        for (int i = 0; i < amount; i++){
+            listeners.fireStateChange(7, i == amount - 1 ? State.DEAD : State.HUNGRY);
+        }
+        int dispatched = dispatcher.dispatch();
+        assertTrue(dispatched < ring.getCapacity());
+        assertEquals(amount, dispatched + dispatcher.getAmountOfLostChanges());
+        assertEquals(State.DEAD, states.get(states.size() - 1));
+    }
+
+    /**
+     * Tests if a listener that does not answer never makes the philosophers wait, and still gets the last states.
+     */
+    @Test
+    @DisplayName("Tests if a listener that does not answer never makes the philosophers wait.")
+    public void testIfBlockedListenerDoesNotStallPhilosophers() throws InterruptedException {
+        Table table = new Table(20, 10, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.PLATFORM_THREADS,
+                List.of(new Food(200, "Rice")), false, 3);
+        ListenerRegistry busyListeners = new ListenerRegistry(21);
+        SeatStateBuffer seatStates = new SeatStateBuffer(21);
+        CountDownLatch release = new CountDownLatch(1);
+        StateChangeDispatcher dispatcher = new StateChangeDispatcher((id, state) -> {
+            try {
+                release.await();
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+            seatStates.onStateChange(id, state);
+        }, "blocked");
+        dispatcher.subscribe(table);
+        dispatcher.subscribe(busyListeners.getStateChanges());
+        dispatcher.start();
+        VirtualTimeSimulation simulation = new VirtualTimeSimulation(table);
+        simulation.runToEnd();
+        assertFalse(simulation.hasEventsLeft());
+        for (int i = 0; i < 100_000; i++){
+            busyListeners.fireStateChange(21, i % 2 == 0 ? State.HUNGRY : State.EATING);
+        }
+        busyListeners.fireStateChange(21, State.DEAD);
+        release.countDown();
+        dispatcher.stop();
+        assertTrue(dispatcher.getAmountOfLostChanges() > 0);
+        for (int seat = 0; seat < 21; seat++){
+            assertEquals(State.DEAD, seatStates.getState(seat));
+        }
+    }
+
+    /**
+     * Tests if invalid listeners and names are refused.
+     */
+    @Test
+    @DisplayName("Tests if invalid listeners and names are refused.")
+    public void testIfInvalidInputIsRefused(){
+        try {
+            new StateChangeDispatcher(null, "test");
+            fail("Expected to get an exception since the listener is null.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        try {
+            new StateChangeDispatcher((id, state) -> {}, "");
+            fail("Expected to get an exception since the name is empty.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        try {
+            new ListenerRegistry(1).addFoodRequestListener(null);
+            fail("Expected to get an exception since the listener is null.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+}
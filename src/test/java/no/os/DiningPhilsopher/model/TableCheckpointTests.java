@@ -0,0 +1,147 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the checkpoints of a table.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TableCheckpointTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Writes a checkpoint of a table and reads it back.
+     * @param table the table.
+     * @return the checkpoint that was read.
+     * @throws IOException if the checkpoint could not be written or read.
+     */
+    private TableCheckpoint writeAndRead(Table table) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new TableCheckpoint(table).writeTo(outputStream);
+        return TableCheckpoint.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+
+    /**
+     * Tests if a restored table has the same philosophers, food and metrics as the table the checkpoint was made of.
+     */
+    @Test
+    @DisplayName("Tests if a restored table has the same philosophers, food and metrics as the table the checkpoint was made of.")
+    public void testIfRestoredTableMatchesCheckpoint() throws IOException {
+        Table table = new Table(20, 10, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.PLATFORM_THREADS, Table.makeFoods(), true, 3);
+        new VirtualTimeSimulation(table).run(4000);
+        Table restored = writeAndRead(table).restore();
+        List<Philosopher> philosophers = table.getPhilosophers();
+        List<Philosopher> restoredPhilosophers = restored.getPhilosophers();
+        assertEquals(philosophers.size(), restoredPhilosophers.size());
+        for (int seat = 0; seat < philosophers.size(); seat++){
+            assertEquals(philosophers.get(seat).getHunger(), restoredPhilosophers.get(seat).getHunger());
+            assertEquals(philosophers.get(seat).getState(), restoredPhilosophers.get(seat).getState());
+            assertEquals(philosophers.get(seat).getAmountOfTimesEating(), restoredPhilosophers.get(seat).getAmountOfTimesEating());
+        }
+        for (int bowl = 0; bowl < table.getFoodPool().getAmountOfBowls(); bowl++){
+            assertEquals(table.getFoodPool().getFood(bowl).getAmountOfFood(), restored.getFoodPool().getFood(bowl).getAmountOfFood());
+        }
+        MetricsSnapshot before = table.getMetricsSnapshot();
+        MetricsSnapshot after = restored.getMetricsSnapshot();
+        assertTrue(before.getMeals() > 0);
+        assertEquals(before.getMeals(), after.getMeals());
+        assertEquals(before.getRefusals(), after.getRefusals());
+        assertEquals(before.getTransitions(), after.getTransitions());
+        assertEquals(table.getDelay(), restored.getDelay());
+        assertEquals(table.getSeed(), restored.getSeed());
+    }
+
+    /**
+     * Tests if a table stopped in the middle of meals continues after the restore, with the eating seats holding their forks.
+     */
+    @Test
+    @DisplayName("Tests if a table stopped in the middle of meals continues after the restore, with the eating seats holding their forks.")
+    public void testIfStoppedTableContinuesAfterRestore() throws IOException, InterruptedException {
+        Table table = new Table(6, 20, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.PLATFORM_THREADS, Table.makeFoods(), true, 9);
+        table.startSimulation();
+        Thread.sleep(1500);
+        table.stopSimulation();
+        assertTrue(table.awaitStop(5000));
+        TableCheckpoint checkpoint = writeAndRead(table);
+        Table restored = checkpoint.restore();
+        ForkArbiter forks = (ForkArbiter) restored.getForkAllocationStrategy();
+        for (Philosopher philosopher : restored.getPhilosophers()){
+            if (philosopher.getState() == State.EATING){
+                assertTrue(forks.isHoldingForks(philosopher.getSeat()));
+            }
+        }
+        long mealsBefore = restored.getMetricsSnapshot().getMeals();
+        restored.startSimulation();
+        Thread.sleep(1500);
+        restored.stopSimulation();
+        assertTrue(restored.awaitStop(5000));
+        assertTrue(restored.getMetricsSnapshot().getMeals() > mealsBefore);
+    }
+
+    /**
+     * Tests if one checkpoint can be restored many times into tables that do not share anything.
+     */
+    @Test
+    @DisplayName("Tests if one checkpoint can be restored many times into tables that do not share anything.")
+    public void testIfCheckpointCanBeRestoredManyTimes() throws IOException {
+        Table table = new Table(10, 10, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.PLATFORM_THREADS, Table.makeFoods(), true, 4);
+        new VirtualTimeSimulation(table).run(2000);
+        TableCheckpoint checkpoint = writeAndRead(table);
+        Table first = checkpoint.restore();
+        Table second = checkpoint.restore();
+        int foodBefore = second.getFoodPool().getFood(0).getAmountOfFood();
+        new VirtualTimeSimulation(first).run(20_000);
+        assertTrue(first.getMetricsSnapshot().getMeals() > checkpoint.getMetricsSnapshot().getMeals());
+        assertEquals(foodBefore, second.getFoodPool().getFood(0).getAmountOfFood());
+        assertEquals(checkpoint.getMetricsSnapshot().getMeals(), second.getMetricsSnapshot().getMeals());
+    }
+
+    /**
+     * Tests if a running table and a stream that is not a checkpoint are rejected.
+     */
+    @Test
+    @DisplayName("Tests if a running table and a stream that is not a checkpoint are rejected.")
+    public void testIfInvalidCheckpointsAreRejected() throws InterruptedException {
+        Table table = new Table(5, 50);
+        table.startSimulation();
+        Thread.sleep(100);
+        try {
+            new TableCheckpoint(table);
+            fail("Expected the checkpoint to reject a running table.");
+        }catch (IllegalStateException exception){
+            assertTrue(true);
+        }finally {
+            table.stopSimulation();
+            table.awaitStop(5000);
+        }
+        try {
+            TableCheckpoint.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6}));
+            fail("Expected the stream to be rejected.");
+        }catch (IOException exception){
+            assertTrue(true);
+        }
+        try {
+            new TableCheckpoint(null);
+            fail("Expected the checkpoint to reject a null table.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+}
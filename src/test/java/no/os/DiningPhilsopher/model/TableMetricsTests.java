@@ -0,0 +1,154 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the table metrics class and the JMX bean of the table.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TableMetricsTests {
+
+    private TableMetrics metrics;
+
+    private long time;
+
+    @BeforeEach
+    public void makeMetrics(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+        metrics = new TableMetrics(2);
+        time = 0;
+        metrics.setClock(() -> time);
+    }
+
+    /**
+     * Tests if waits are put in the right buckets.
+     */
+    @Test
+    @DisplayName("Tests if waits are put in the right buckets.")
+    public void testIfWaitsArePutInTheRightBuckets(){
+        assertEquals(0, TableMetrics.getBucket(999));
+        assertEquals(1, TableMetrics.getBucket(1_000));
+        assertEquals(2, TableMetrics.getBucket(3_999));
+        assertEquals(11, TableMetrics.getBucket(1_500_000));
+        assertEquals(TableMetrics.BUCKETS - 1, TableMetrics.getBucket(Long.MAX_VALUE));
+        for (int bucket = 0; bucket < TableMetrics.BUCKETS - 1; bucket++){
+            assertTrue(TableMetrics.getBucket(TableMetrics.getBucketUpperBoundNanos(bucket) - 1) <= bucket);
+        }
+    }
+
+    /**
+     * Tests if the histograms of the table and the seat count the same waits and give sensible percentiles.
+     */
+    @Test
+    @DisplayName("Tests if the histograms of the table and the seat count the same waits and give sensible percentiles.")
+    public void testIfHistogramsGiveSensiblePercentiles(){
+        for (int meal = 0; meal < 99; meal++){
+            metrics.recordHungry(0);
+            time += 10_000;
+            metrics.recordMeal(0);
+        }
+        metrics.recordHungry(1);
+        time += 50_000_000;
+        metrics.recordMeal(1);
+        metrics.recordDeath(1);
+        MetricsSnapshot snapshot = metrics.makeSnapshot("test", new ArrayList<>(), true);
+        assertEquals(100, snapshot.getMeals());
+        assertEquals(1, snapshot.getDeaths());
+        assertTrue(snapshot.hasSeatWaitHistograms());
+        assertEquals(99, snapshot.getSeatWaitHistogram(0)[TableMetrics.getBucket(10_000)]);
+        assertEquals(1, snapshot.getSeatWaitHistogram(1)[TableMetrics.getBucket(50_000_000)]);
+        assertEquals(50_000_000, snapshot.getSeatWaitPercentileNanos(1, 99));
+        long median = snapshot.getWaitPercentileNanos(50);
+        assertTrue(median >= 10_000 && median <= 20_000);
+        assertEquals(50_000_000, snapshot.getWaitPercentileNanos(100));
+        try {
+            snapshot.getWaitPercentileNanos(101);
+            fail("Expected to get an exception since the percentile is over 100.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Tests if the mean wait is taken over the waits that were measured and not over the meals.
+     */
+    @Test
+    @DisplayName("Tests if the mean wait is taken over the waits that were measured and not over the meals.")
+    public void testIfMeanWaitIsTakenOverMeasuredWaits(){
+        metrics.recordHungry(0);
+        time += 30_000;
+        metrics.recordMeal(0);
+        metrics.recordMeal(1);
+        metrics.recordMeal(1);
+        MetricsSnapshot snapshot = metrics.makeSnapshot("test", new ArrayList<>(), false);
+        assertEquals(3, snapshot.getMeals());
+        assertEquals(1, snapshot.getWaitCount());
+        assertEquals(30_000, snapshot.getTotalWaitNanos());
+        assertEquals(30_000, snapshot.getMeanWaitNanos());
+        assertFalse(snapshot.hasSeatWaitHistograms());
+        try {
+            snapshot.getSeatWaitHistogram(0);
+            fail("Expected to get an exception since the snapshot has no histograms of the seats.");
+        }catch (IllegalStateException exception){
+            assertTrue(true);
+        }
+
+        TableMetrics restored = new TableMetrics(2);
+        restored.restore(snapshot);
+        MetricsSnapshot restoredSnapshot = restored.makeSnapshot("test", new ArrayList<>(), false);
+        assertEquals(1, restoredSnapshot.getWaitCount());
+        assertEquals(30_000, restoredSnapshot.getMeanWaitNanos());
+    }
+
+    /**
+     * Tests if TableMetrics refuses more seats than the seat histograms can index.
+     */
+    @Test
+    @DisplayName("Tests if TableMetrics refuses more seats than the seat histograms can index.")
+    public void testIfTooManySeatsAreRefused(){
+        try {
+            new TableMetrics(Integer.MAX_VALUE / TableMetrics.BUCKETS + 1);
+            fail("Expected to get an exception since the seat histograms cannot be indexed with an int.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Tests if the metrics of a table can be read through JMX.
+     */
+    @Test
+    @DisplayName("Tests if the metrics of a table can be read through JMX.")
+    public void testIfMetricsCanBeReadThroughJmx() throws Exception {
+        Table table = new Table(3, 750);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = table.registerMetricsBean();
+        try {
+            assertSame(name, table.registerMetricsBean());
+            assertTrue(server.isRegistered(name));
+            assertEquals(0L, server.getAttribute(name, "Meals"));
+            assertEquals(table.getForkAllocationStrategy().getName(), server.getAttribute(name, "StrategyName"));
+            assertEquals(TableMetrics.BUCKETS, ((long[]) server.getAttribute(name, "WaitHistogram")).length);
+            assertEquals(0L, server.getAttribute(name, "WaitCount"));
+            long[] seatHistogram = (long[]) server.invoke(name, "getSeatWaitHistogram", new Object[]{2}, new String[]{"int"});
+            assertEquals(TableMetrics.BUCKETS, seatHistogram.length);
+            assertEquals(0.0, server.invoke(name, "getSeatP99WaitMillis", new Object[]{2}, new String[]{"int"}));
+        }finally {
+            table.unregisterMetricsBean();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,72 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests that a table can run very many philosophers at the same time.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TableScalingTests {
+
+    private static final int AMOUNT_OF_PHILOSOPHERS = 100_000;
+
+    /**
+     * Tests if 100 000 philosophers can run at the same time on virtual threads.
+     */
+    @Test
+    @DisplayName("Tests if 100 000 philosophers can run at the same time on virtual threads.")
+    public void testIfVirtualThreadsCanRunAHundredThousandPhilosophers() throws InterruptedException {
+        assumeTrue(ExecutionMode.VIRTUAL_THREADS.isAvailable(), "Virtual threads needs Java 21 or newer.");
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.WARNING);
+        Table table = new Table(AMOUNT_OF_PHILOSOPHERS, 1000, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.VIRTUAL_THREADS);
+        long start = System.nanoTime();
+        table.startSimulation();
+        int maxRunning = waitForRunningPhilosophers(table, AMOUNT_OF_PHILOSOPHERS, 60_000);
+        long millisToStart = (System.nanoTime() - start) / 1_000_000;
+        table.stopSimulation();
+        assertEquals(AMOUNT_OF_PHILOSOPHERS, maxRunning, "Expected all the philosophers to run at the same time, but only "
+                + maxRunning + " were running after " + millisToStart + " ms.");
+        assertEquals(0, waitForRunningPhilosophers(table, 0, 60_000));
+    }
+
+    /**
+     * Tests if making a table with virtual threads fails on Java versions without them.
+     */
+    @Test
+    @DisplayName("Tests if making a table with virtual threads fails on Java versions without them.")
+    public void testIfVirtualThreadsFailsWhenNotAvailable(){
+        assumeTrue(!ExecutionMode.VIRTUAL_THREADS.isAvailable());
+        try {
+            new Table(5, 50, ArbitrationMode.GLOBAL_LOCK, ExecutionMode.VIRTUAL_THREADS);
+            fail("Expected to get a UnsupportedOperationException since virtual threads are missing.");
+        }catch (UnsupportedOperationException exception){
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Waits until the amount of running philosophers reaches a wanted amount.
+     * @param table the table to check.
+     * @param wantedAmount the amount of running philosophers to wait for.
+     * @param timeoutInMillis the longest time to wait.
+     * @return the amount of running philosophers when the waiting stopped.
+     * @throws InterruptedException gets thrown if the waiting is interrupted.
+     */
+    private int waitForRunningPhilosophers(Table table, int wantedAmount, long timeoutInMillis) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeoutInMillis;
+        int running = table.getAmountOfRunningPhilosophers();
+        while (running != wantedAmount && System.currentTimeMillis() < end){
+            Thread.sleep(50);
+            running = table.getAmountOfRunningPhilosophers();
+        }
+        return running;
+    }
+}
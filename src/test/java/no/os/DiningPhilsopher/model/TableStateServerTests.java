@@ -0,0 +1,188 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the server that streams the state of a table.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TableStateServerTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Opens a connection to a path of the server.
+     * @param server the server.
+     * @param path the path.
+     * @return the connection.
+     * @throws IOException if the connection could not be opened.
+     */
+    private HttpURLConnection open(TableStateServer server, String path) throws IOException {
+        URL url = new URL("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setReadTimeout(5000);
+        return connection;
+    }
+
+    /**
+     * Reads the next data line of an event stream.
+     * @param reader the stream.
+     * @return the data of the next event.
+     * @throws IOException if the stream could not be read.
+     */
+    private String readData(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        while (line != null && !line.startsWith("data: ")){
+            line = reader.readLine();
+        }
+        assertNotNull(line);
+        return line.substring("data: ".length());
+    }
+
+    /**
+     * Waits until the server has a client streaming.
+     * @param server the server.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private void awaitClient(TableStateServer server) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getAmountOfClients() == 0 && System.currentTimeMillis() < deadline){
+            Thread.sleep(5);
+        }
+        assertEquals(1, server.getAmountOfClients());
+    }
+
+    /**
+     * Tests if a new client gets a snapshot first and then only the seats that changed.
+     */
+    @Test
+    @DisplayName("Tests if a new client gets a snapshot first and then only the seats that changed.")
+    public void testIfClientGetsSnapshotThenDeltas() throws IOException, InterruptedException {
+        Table table = new Table(5, 50);
+        try (TableStateServer server = new TableStateServer(table, 0)){
+            server.start();
+            HttpURLConnection connection = open(server, "/stream");
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/event-stream"));
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))){
+                awaitClient(server);
+                String snapshot = readData(reader);
+                assertTrue(snapshot.contains("\"seats\":5"));
+                assertTrue(snapshot.contains("\"states\":\"TTTTT\""));
+                changeState(table.getPhilosophers().get(1), State.HUNGRY);
+                String delta = readData(reader);
+                assertTrue(delta.contains("\"seats\":[1]"), delta);
+                assertTrue(delta.contains("\"states\":\"H\""), delta);
+            }finally {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Tells the listeners of a philosopher that it changed state, without running it.
+     * @param philosopher the philosopher.
+     * @param state the new state.
+     */
+    private void changeState(Philosopher philosopher, State state){
+        philosopher.getListeners().fireStateChange(philosopher.getPhilID(), state);
+    }
+
+    /**
+     * Tests if a seat that changes many times between two ticks is sent once with its latest state.
+     */
+    @Test
+    @DisplayName("Tests if a seat that changes many times between two ticks is sent once with its latest state.")
+    public void testIfDeltasAreCoalesced() throws IOException, InterruptedException {
+        Table table = new Table(100, 50);
+        try (TableStateServer server = new TableStateServer(table, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1)){
+            server.start();
+            HttpURLConnection connection = open(server, "/stream");
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))){
+                awaitClient(server);
+                readData(reader);
+                Philosopher philosopher = table.getPhilosophers().get(42);
+                changeState(philosopher, State.HUNGRY);
+                changeState(philosopher, State.EATING);
+                String delta = readData(reader);
+                assertTrue(delta.contains("\"seats\":[42]"), delta);
+                assertTrue(delta.contains("\"states\":\"E\""), delta);
+            }finally {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Tests if one snapshot can be fetched as JSON.
+     */
+    @Test
+    @DisplayName("Tests if one snapshot can be fetched as JSON.")
+    public void testIfSnapshotCanBeFetched() throws IOException {
+        Table table = new Table(100, 50);
+        try (TableStateServer server = new TableStateServer(table, 0)){
+            changeState(table.getPhilosophers().get(7), State.DEAD);
+            server.start();
+            HttpURLConnection connection = open(server, "/snapshot");
+            assertEquals(200, connection.getResponseCode());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))){
+                String snapshot = reader.readLine();
+                assertTrue(snapshot.contains("\"seats\":100"));
+                int statesStart = snapshot.indexOf("\"states\":\"") + "\"states\":\"".length();
+                assertEquals('D', snapshot.charAt(statesStart + 7));
+                assertEquals('T', snapshot.charAt(statesStart + 8));
+            }finally {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Tests if a closed server cannot be started again, and if invalid arguments are rejected.
+     */
+    @Test
+    @DisplayName("Tests if a closed server cannot be started again, and if invalid arguments are rejected.")
+    public void testIfClosedServerAndInvalidArgumentsAreRejected() throws IOException {
+        Table table = new Table(5, 50);
+        TableStateServer server = new TableStateServer(table, 0);
+        server.close();
+        try {
+            server.start();
+            fail("Expected a closed server to not start.");
+        }catch (IllegalStateException exception){
+            assertTrue(true);
+        }
+        try {
+            new TableStateServer(null, 0);
+            fail("Expected the server to reject a null table.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+        try {
+            new TableStateServer(table, new InetSocketAddress(0), 0);
+            fail("Expected the server to reject zero ticks per second.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+}
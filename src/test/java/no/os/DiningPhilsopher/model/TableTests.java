@@ -27,9 +27,12 @@ public class TableTests {
 
     private Philosopher philosopher2;
 
+    private List<Philosopher> philosophers;
+
     @BeforeEach
-    private void makeTable(){
-        List<Philosopher> philosophers = new LinkedList<>();
+    public void makeTable(){
+        table = new Table(3, 750);
+        philosophers = new LinkedList<>();
         foods = new LinkedList<>();
         foods.add(new Food(100, "Rice"));
         foods.add(new Food(100, "Apple"));
@@ -62,7 +65,7 @@ public class TableTests {
     public void testIfCheckIfPhilosophersBesideIsEatingWorksWithValidInput(){
         try {
             philosopher2.receiveFood(foods.get(0));
-            boolean valid = table.checkIfPhilosophersBesideIsEating(null);
+            boolean valid = table.checkIfPhilosophersBesideIsEating(philosophers);
             if (valid){
                 assertTrue(true);
             }else {
@@ -0,0 +1,118 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the time scale the philosophers of a table sleep through.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TimeScaleTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if a delay takes a shorter time at a higher speed, and no time at max speed.
+     */
+    @Test
+    @DisplayName("Tests if a delay takes a shorter time at a higher speed, and no time at max speed.")
+    public void testIfSpeedShortensDelay() throws InterruptedException {
+        TimeScale timeScale = new TimeScale();
+        timeScale.setSpeed(10);
+        long start = System.nanoTime();
+        timeScale.sleep(1000);
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(tookMillis >= 90 && tookMillis < 500, "Took " + tookMillis + " ms.");
+        assertEquals(100_000_000, timeScale.toNanos(1000));
+
+        timeScale.setMaxSpeed(true);
+        start = System.nanoTime();
+        timeScale.sleep(10_000);
+        assertTrue(System.nanoTime() - start < 100_000_000);
+        assertEquals(0, timeScale.toNanos(1000));
+    }
+
+    /**
+     * Tests if delays shorter than a millisecond at the current speed are not rounded up to a whole millisecond.
+     */
+    @Test
+    @DisplayName("Tests if delays shorter than a millisecond at the current speed are not rounded up to a whole millisecond.")
+    public void testIfShortDelaysAreNotRoundedUp() throws InterruptedException {
+        TimeScale timeScale = new TimeScale();
+        timeScale.setSpeed(TimeScale.MAX_SPEED);
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++){
+            timeScale.sleep(1);
+        }
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(tookMillis < 150, "Took " + tookMillis + " ms.");
+    }
+
+    /**
+     * Tests if a change of speed is felt by a thread that is in the middle of a long delay.
+     */
+    @Test
+    @DisplayName("Tests if a change of speed is felt by a thread that is in the middle of a long delay.")
+    public void testIfSpeedCanBeChangedDuringSleep() throws InterruptedException {
+        TimeScale timeScale = new TimeScale();
+        Thread sleeper = new Thread(() -> {
+            try {
+                timeScale.sleep(10_000);
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+        });
+        long start = System.nanoTime();
+        sleeper.start();
+        Thread.sleep(100);
+        timeScale.setSpeed(TimeScale.MAX_SPEED);
+        sleeper.join(5000);
+        assertFalse(sleeper.isAlive());
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+    }
+
+    /**
+     * Tests if a table at max speed gets hungry and eats long before one delay of normal speed has passed.
+     */
+    @Test
+    @DisplayName("Tests if a table at max speed gets hungry and eats long before one delay of normal speed has passed.")
+    public void testIfTableRunsAtMaxSpeed() throws InterruptedException {
+        Table table = new Table(5, 750);
+        table.getTimeScale().setMaxSpeed(true);
+        table.startSimulation();
+        Thread.sleep(500);
+        table.stopSimulation();
+        assertTrue(table.awaitStop(5000));
+        assertTrue(table.getMetricsSnapshot().getMeals() > 0);
+    }
+
+    /**
+     * Tests if speeds that are too slow, too fast or not a number are rejected.
+     */
+    @Test
+    @DisplayName("Tests if speeds that are too slow, too fast or not a number are rejected.")
+    public void testIfInvalidSpeedsAreRejected(){
+        TimeScale timeScale = new TimeScale();
+        double[] speeds = {0, -1, TimeScale.MAX_SPEED + 1, Double.NaN};
+        for (double speed : speeds){
+            try {
+                timeScale.setSpeed(speed);
+                fail("Expected the speed " + speed + " to be rejected.");
+            }catch (IllegalArgumentException exception){
+                assertTrue(true);
+            }
+        }
+        assertEquals(TimeScale.NORMAL_SPEED, timeScale.getSpeed());
+    }
+}
@@ -0,0 +1,135 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the trace writer and trace reader classes.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class TraceWriterTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if the records of many threads can be read back, in order within each thread.
+     */
+    @Test
+    @DisplayName("Tests if the records of many threads can be read back, in order within each thread.")
+    public void testIfRecordsOfManyThreadsAreReadBack() throws IOException, InterruptedException {
+        Path path = Files.createTempFile("trace", ".dpt");
+        int threads = 4;
+        int recordsPerThread = 10_000;
+        try {
+            TraceWriter writer = new TraceWriter(path, 64);
+            Thread[] workers = new Thread[threads];
+            for (int i = 0; i < threads; i++){
+                int seat = i;
+                workers[i] = new Thread(() -> {
+                    for (int j = 0; j < recordsPerThread; j++){
+                        writer.record(seat, j % 2 == 0 ? State.THINKING : State.HUNGRY, j % 2 == 0 ? State.HUNGRY : State.THINKING);
+                    }
+                });
+                workers[i].start();
+            }
+            for (Thread worker : workers){
+                worker.join();
+            }
+            writer.close();
+            writer.record(0, State.THINKING, State.DEAD);
+
+            int[] counts = new int[threads];
+            long[] lastNanos = new long[threads];
+            try (TraceReader reader = new TraceReader(path)){
+                while (reader.next()){
+                    int seat = reader.getSeat();
+                    assertEquals(counts[seat] % 2 == 0 ? State.HUNGRY : State.THINKING, reader.getTo());
+                    assertTrue(reader.getNanos() >= lastNanos[seat]);
+                    lastNanos[seat] = reader.getNanos();
+                    counts[seat] += 1;
+                }
+            }
+            for (int count : counts){
+                assertEquals(recordsPerThread, count);
+            }
+        }finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Tests if a traced table writes one record for each state change, and if the dead are kept in the order they died.
+     */
+    @Test
+    @DisplayName("Tests if a traced table writes one record for each state change, and if the dead are kept in order.")
+    public void testIfTableIsTraced() throws IOException {
+        Path path = Files.createTempFile("trace", ".dpt");
+        try {
+            Table table = new Table(5, 10, ArbitrationMode.PER_SEAT_CAS, ExecutionMode.PLATFORM_THREADS,
+                    List.of(new Food(20, "Rice")), false, 5);
+            VirtualTimeSimulation simulation = new VirtualTimeSimulation(table);
+            try (TraceWriter writer = new TraceWriter(path)){
+                table.setTraceWriter(writer);
+                simulation.runToEnd();
+            }
+            long records = 0;
+            int deaths = 0;
+            try (TraceReader reader = new TraceReader(path)){
+                while (reader.next()){
+                    assertNotEquals(reader.getFrom(), reader.getTo());
+                    records += 1;
+                    if (reader.getTo() == State.DEAD){
+                        assertEquals(table.getDeadPhilosophers().get(deaths).getSeat(), reader.getSeat());
+                        deaths += 1;
+                    }
+                }
+            }
+            assertEquals(table.getMetricsSnapshot().getTransitions(), records);
+            assertEquals(table.getDeadPhilosophers().size(), deaths);
+            assertEquals(5, deaths);
+        }finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Tests if a file that is not a trace cannot be read.
+     */
+    @Test
+    @DisplayName("Tests if a file that is not a trace cannot be read.")
+    public void testIfInvalidTraceIsRefused() throws IOException {
+        Path path = Files.createTempFile("trace", ".dpt");
+        try {
+            Files.write(path, new byte[64]);
+            try {
+                new TraceReader(path);
+                fail("Expected to get an exception since the file is not a trace.");
+            }catch (IOException exception){
+                assertTrue(true);
+            }
+            try {
+                new TraceWriter(path, 3);
+                fail("Expected to get an exception since the buffer size is not a power of two.");
+            }catch (IllegalArgumentException exception){
+                assertTrue(true);
+            }
+        }finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package no.os.DiningPhilsopher.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the virtual time simulation class.
+ * @author Steinar Hjelle Midthus
+ * @version 0.1
+ */
+public class VirtualTimeSimulationTests {
+
+    @BeforeEach
+    public void turnOffLogging(){
+        Logger.getLogger(Philosopher.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(Table.class.getName()).setLevel(Level.OFF);
+    }
+
+    /**
+     * Tests if the virtual time simulation gives the same states as a philosopher running on a thread.
+     */
+    @Test
+    @DisplayName("Tests if the virtual time simulation gives the same states as a philosopher running on a thread.")
+    public void testIfVirtualTimeGivesSameStatesAsThreads() throws InterruptedException {
+        int amountOfStates = 40;
+        Table threadTable = new Table(1, 1);
+        StateRecorder threadStates = new StateRecorder();
+        threadTable.getPhilosophers().get(0).getListeners().addStateChangeListener(threadStates);
+        threadTable.startSimulation();
+        long end = System.currentTimeMillis() + 30_000;
+        while (threadStates.getStates().size() < amountOfStates && System.currentTimeMillis() < end){
+            Thread.sleep(10);
+        }
+        threadTable.stopSimulation();
+
+        Table virtualTable = new Table(1, 1);
+        StateRecorder virtualStates = new StateRecorder();
+        virtualTable.getPhilosophers().get(0).getListeners().addStateChangeListener(virtualStates);
+        VirtualTimeSimulation simulation = new VirtualTimeSimulation(virtualTable);
+        while (virtualStates.getStates().size() < amountOfStates && simulation.hasEventsLeft()){
+            simulation.run(1);
+        }
+        assertEquals(threadStates.getStates().subList(0, amountOfStates), virtualStates.getStates().subList(0, amountOfStates));
+    }
+
+    /**
+     * Tests if the virtual time moves forward and stops at the end time.
+     */
+    @Test
+    @DisplayName("Tests if the virtual time moves forward and stops at the end time.")
+    public void testIfVirtualTimeStopsAtEndTime(){
+        VirtualTimeSimulation simulation = new VirtualTimeSimulation(new Table(5, 750));
+        long handled = simulation.run(7500);
+        assertTrue(handled > 0);
+        assertEquals(7500, simulation.getVirtualTime());
+        assertTrue(simulation.hasEventsLeft());
+    }
+
+    /**
+     * Tests if a long run finishes in a short amount of real time.
+     */
+    @Test
+    @DisplayName("Tests if a long run finishes in a short amount of real time.")
+    public void testIfLongRunIsFast(){
+        VirtualTimeSimulation simulation = new VirtualTimeSimulation(new Table(1000, 750, ArbitrationMode.PER_SEAT_CAS));
+        long start = System.nanoTime();
+        long handled = simulation.run(750L * 5_000);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        assertTrue(handled >= 1000L * 5_000);
+        assertTrue(seconds < 60, "Took " + seconds + " s to handle " + handled + " events.");
+    }
+
+    /**
+     * Tests if invalid input is rejected.
+     */
+    @Test
+    @DisplayName("Tests if invalid input is rejected.")
+    public void testIfInvalidInputIsRejected(){
+        try {
+            new VirtualTimeSimulation(null);
+            fail("Expected to get a IllegalArgumentException since the input is invalid.");
+        }catch (IllegalArgumentException exception){
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Records all the states a philosopher goes through.
+     */
+    private static class StateRecorder implements StateChangeListener {
+
+        private final List<State> states = Collections.synchronizedList(new ArrayList<>());
+
+        /**
+         * Gets a copy of the states so far.
+         * @return the states.
+         */
+        public List<State> getStates(){
+            synchronized (states){
+                return new ArrayList<>(states);
+            }
+        }
+
+        @Override
+        public void onStateChange(long id, State state) {
+            states.add(state);
+        }
+    }
+}